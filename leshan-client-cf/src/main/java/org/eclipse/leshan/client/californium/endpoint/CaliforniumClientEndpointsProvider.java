@@ -60,8 +60,8 @@ public class CaliforniumClientEndpointsProvider implements LwM2mClientEndpointsP
 
     private final Logger LOG = LoggerFactory.getLogger(CaliforniumClientEndpointsProvider.class);
 
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1,
-            new NamedThreadFactory("Leshan Async Request timeout"));
+    private final ScheduledExecutorService executor;
+    private final boolean sharedExecutor;
 
     protected boolean started = false;
 
@@ -87,6 +87,15 @@ public class CaliforniumClientEndpointsProvider implements LwM2mClientEndpointsP
         this.serverConfig = builder.configuration;
         this.endpointsFactory = builder.endpointsFactory;
         this.clientAddress = builder.clientAddress;
+        if (builder.sharedExecutor != null) {
+            this.executor = builder.sharedExecutor;
+            this.sharedExecutor = true;
+        } else {
+            this.executor = Executors.newScheduledThreadPool(1, new NamedThreadFactory("Leshan Async Request timeout"));
+            this.sharedExecutor = false;
+        }
+        this.messagetranslator.setNotificationCoalescing(builder.notificationCoalescingWindow,
+                builder.notificationCoalescingMaxDelay);
 
         // create identity handler provider
         identityHandlerProvider = new IdentityHandlerProvider();
@@ -147,10 +156,14 @@ public class CaliforniumClientEndpointsProvider implements LwM2mClientEndpointsP
                         requestReceiver, toolbox, objectTree);
             }
         };
+        if (sharedExecutor) {
+            // Californium must not shutdown executor that it does not own
+            coapServer.setExecutors(executor, executor, true);
+        }
 
         // create resources
         List<Resource> resources = messagetranslator.createResources(coapServer, identityHandlerProvider,
-                identityExtrator, requestReceiver, toolbox, objectTree);
+                identityExtrator, requestReceiver, toolbox, objectTree, executor);
         coapServer.add(resources.toArray(new Resource[resources.size()]));
     }
 
@@ -290,11 +303,13 @@ public class CaliforniumClientEndpointsProvider implements LwM2mClientEndpointsP
         if (started)
             started = false;
 
-        executor.shutdownNow();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            LOG.warn("Destroying RequestSender was interrupted.", e);
+        if (!sharedExecutor) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                LOG.warn("Destroying RequestSender was interrupted.", e);
+            }
         }
 
         coapServer.destroy();
@@ -306,6 +321,9 @@ public class CaliforniumClientEndpointsProvider implements LwM2mClientEndpointsP
         private Configuration configuration;
         private final List<CaliforniumClientEndpointFactory> endpointsFactory;
         private InetAddress clientAddress;
+        private long notificationCoalescingWindow;
+        private long notificationCoalescingMaxDelay;
+        private ScheduledExecutorService sharedExecutor;
 
         public Builder(ClientProtocolProvider... protocolProviders) {
             // TODO TL : handle duplicate ?
@@ -354,6 +372,41 @@ public class CaliforniumClientEndpointsProvider implements LwM2mClientEndpointsP
             return this;
         }
 
+        /**
+         * Merge resource changes which happen in a short time in only one notification by observe relation.
+         * <p>
+         * By default there is no coalescing : each change is notified immediately.
+         *
+         * @param window the coalescing window, each change during this window restarts it. 0 means no coalescing.
+         * @param maxDelay the maximum delay between a change and its notification. 0 means no limit.
+         * @param unit the time unit of <code>window</code> and <code>maxDelay</code>.
+         */
+        public Builder setNotificationCoalescing(long window, long maxDelay, TimeUnit unit) {
+            this.notificationCoalescingWindow = unit.toMillis(window);
+            this.notificationCoalescingMaxDelay = unit.toMillis(maxDelay);
+            return this;
+        }
+
+        /**
+         * Set a shared executor. It will be used for request timeouts, notification scheduling and as Californium
+         * protocol stage executor, instead of creating dedicated thread pools for each client.
+         * <p>
+         * This is generally used with {@link org.eclipse.leshan.client.LeshanClientBuilder#setSharedExecutor} to
+         * simulate a lot of clients in the same JVM. Sharing a {@link Configuration} between clients is also
+         * recommended in this case, eventually with reduced receiver and sender thread counts (see
+         * {@link org.eclipse.californium.elements.config.UdpConfig#UDP_RECEIVER_THREAD_COUNT} and
+         * {@link org.eclipse.californium.elements.config.UdpConfig#UDP_SENDER_THREAD_COUNT}).
+         * <p>
+         * Executor will not be shutdown automatically on {@link CaliforniumClientEndpointsProvider#destroy()}, this
+         * should be done manually.
+         *
+         * @param executor the executor to share.
+         */
+        public Builder setSharedExecutor(ScheduledExecutorService executor) {
+            this.sharedExecutor = executor;
+            return this;
+        }
+
         protected Builder generateDefaultValue() {
             if (configuration == null) {
                 configuration = createDefaultConfiguration();
@@ -17,6 +17,7 @@ package org.eclipse.leshan.client.californium.endpoint;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
@@ -45,6 +46,19 @@ import org.eclipse.leshan.core.response.LwM2mResponse;
 
 public class ClientCoapMessageTranslator {
 
+    private long notificationCoalescingWindow;
+    private long notificationCoalescingMaxDelay;
+
+    /**
+     * Configure notification coalescing for object resources created by this translator.
+     *
+     * @see ObjectResource#setNotificationCoalescing(long, long)
+     */
+    public void setNotificationCoalescing(long window, long maxDelay) {
+        this.notificationCoalescingWindow = window;
+        this.notificationCoalescingMaxDelay = maxDelay;
+    }
+
     public Request createCoapRequest(ServerIdentity serverIdentity, UplinkRequest<? extends LwM2mResponse> lwm2mRequest,
             ClientEndpointToolbox toolbox, LwM2mModel model, IdentityHandler identityHandler) {
 
@@ -81,7 +95,7 @@ public class ClientCoapMessageTranslator {
 
     public List<Resource> createResources(CoapServer coapServer, IdentityHandlerProvider identityHandlerProvider,
             ServerIdentityExtractor identityExtrator, DownlinkRequestReceiver requestReceiver,
-            ClientEndpointToolbox toolbox, LwM2mObjectTree objectTree) {
+            ClientEndpointToolbox toolbox, LwM2mObjectTree objectTree, ScheduledExecutorService executor) {
         ArrayList<Resource> resources = new ArrayList<>();
 
         // create bootstrap resource
@@ -89,8 +103,8 @@ public class ClientCoapMessageTranslator {
 
         // create object resources
         for (LwM2mObjectEnabler enabler : objectTree.getObjectEnablers().values()) {
-            resources.add(
-                    createObjectResource(enabler, identityHandlerProvider, identityExtrator, requestReceiver, toolbox));
+            resources.add(createObjectResource(enabler, identityHandlerProvider, identityExtrator, requestReceiver,
+                    toolbox, executor));
         }
 
         // link resource to object tree
@@ -98,7 +112,7 @@ public class ClientCoapMessageTranslator {
             @Override
             public void objectAdded(LwM2mObjectEnabler object) {
                 CoapResource clientObject = createObjectResource(object, identityHandlerProvider, identityExtrator,
-                        requestReceiver, toolbox);
+                        requestReceiver, toolbox, executor);
                 coapServer.add(clientObject);
             }
 
@@ -116,9 +130,10 @@ public class ClientCoapMessageTranslator {
 
     public CoapResource createObjectResource(LwM2mObjectEnabler objectEnabler,
             IdentityHandlerProvider identityHandlerProvider, ServerIdentityExtractor identityExtractor,
-            DownlinkRequestReceiver requestReceiver, ClientEndpointToolbox toolbox) {
-        ObjectResource objectResource = new ObjectResource(objectEnabler.getId(), identityHandlerProvider,
-                identityExtractor, requestReceiver, toolbox);
+            DownlinkRequestReceiver requestReceiver, ClientEndpointToolbox toolbox, ScheduledExecutorService executor) {
+        ObjectResource objectResource = new ObjectResource(objectEnabler, identityHandlerProvider, identityExtractor,
+                requestReceiver, toolbox, executor);
+        objectResource.setNotificationCoalescing(notificationCoalescingWindow, notificationCoalescingMaxDelay);
         objectEnabler.addListener(objectResource);
         return objectResource;
     }
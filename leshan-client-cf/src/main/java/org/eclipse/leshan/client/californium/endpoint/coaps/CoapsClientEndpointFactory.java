@@ -15,6 +15,11 @@
  *******************************************************************************/
 package org.eclipse.leshan.client.californium.endpoint.coaps;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URI;
@@ -24,6 +29,7 @@ import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.x500.X500Principal;
 
@@ -32,6 +38,7 @@ import org.eclipse.californium.core.coap.Request;
 import org.eclipse.californium.core.network.CoapEndpoint;
 import org.eclipse.californium.core.network.CoapEndpoint.Builder;
 import org.eclipse.californium.core.network.Endpoint;
+import org.eclipse.californium.core.network.EndpointObserver;
 import org.eclipse.californium.elements.AddressEndpointContext;
 import org.eclipse.californium.elements.Connector;
 import org.eclipse.californium.elements.DtlsEndpointContext;
@@ -39,12 +46,15 @@ import org.eclipse.californium.elements.EndpointContext;
 import org.eclipse.californium.elements.EndpointContextMatcher;
 import org.eclipse.californium.elements.MapBasedEndpointContext;
 import org.eclipse.californium.elements.MapBasedEndpointContext.Attributes;
+import org.eclipse.californium.elements.PersistentComponent;
+import org.eclipse.californium.elements.PersistentConnector;
 import org.eclipse.californium.elements.PrincipalEndpointContextMatcher;
 import org.eclipse.californium.elements.auth.PreSharedKeyIdentity;
 import org.eclipse.californium.elements.auth.RawPublicKeyIdentity;
 import org.eclipse.californium.elements.auth.X509CertPath;
 import org.eclipse.californium.elements.config.Configuration;
 import org.eclipse.californium.elements.util.CertPathUtil;
+import org.eclipse.californium.elements.util.PersistentComponentUtil;
 import org.eclipse.californium.scandium.DTLSConnector;
 import org.eclipse.californium.scandium.config.DtlsConfig;
 import org.eclipse.californium.scandium.config.DtlsConfig.DtlsRole;
@@ -83,14 +93,30 @@ public class CoapsClientEndpointFactory extends CoapClientEndpointFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(CoapsClientEndpointFactory.class);
 
+    /**
+     * Connections without any traffic during this period are not persisted.
+     */
+    public static final long DEFAULT_DTLS_STATE_MAX_QUIET_PERIOD_IN_SEC = TimeUnit.DAYS.toSeconds(1);
+
     protected final String loggingTagPrefix;
+    protected final DtlsStateStore dtlsStateStore;
 
     public CoapsClientEndpointFactory() {
         this("LWM2M Client");
     }
 
     public CoapsClientEndpointFactory(String loggingTagPrefix) {
+        this(loggingTagPrefix, null);
+    }
+
+    /**
+     * @param loggingTagPrefix prefix used in Californium logs.
+     * @param dtlsStateStore a store used to save DTLS state (session and connection ID) when endpoint is stopped and
+     *        restore it when endpoint is created. Can be <code>null</code>, in that case state is only kept in memory.
+     */
+    public CoapsClientEndpointFactory(String loggingTagPrefix, DtlsStateStore dtlsStateStore) {
         this.loggingTagPrefix = loggingTagPrefix;
+        this.dtlsStateStore = dtlsStateStore;
     }
 
     @Override
@@ -109,7 +135,7 @@ public class CoapsClientEndpointFactory extends CoapClientEndpointFactory {
 
     @Override
     public Endpoint createCoapEndpoint(InetAddress clientAddress, Configuration defaultConfiguration,
-            ServerInfo serverInfo, boolean clientInitiatedOnly, List<Certificate> trustStore,
+            final ServerInfo serverInfo, boolean clientInitiatedOnly, List<Certificate> trustStore,
             ClientEndpointToolbox toolbox) {
 
         // we can not create CoAPs endpoint if server is not secure data.
@@ -133,9 +159,90 @@ public class CoapsClientEndpointFactory extends CoapClientEndpointFactory {
         // create CoAP endpoint
         CoapEndpoint endpoint = createEndpointBuilder(dtlsConfig, defaultConfiguration).build();
 
+        // restore previous DTLS state and persist it each time endpoint is stopped
+        if (dtlsStateStore != null && endpoint.getConnector() instanceof PersistentConnector) {
+            final PersistentComponentUtil persistence = createDtlsStatePersistence(
+                    (PersistentConnector) endpoint.getConnector());
+            int restored = restoreDtlsState(serverInfo, persistence);
+            if (restored > 0 && endpoint.getConnector() instanceof DTLSConnector
+                    && dtlsConfig.getConfiguration().get(DtlsConfig.DTLS_CONNECTION_ID_LENGTH) == null) {
+                // without connection ID, server can not recognize a restored connection used from a new address
+                // (generally a new ephemeral port), so we do an abbreviated handshake instead of a full one.
+                ((DTLSConnector) endpoint.getConnector()).forceResumeAllSessions();
+            }
+            endpoint.addObserver(new EndpointObserver() {
+                @Override
+                public void started(Endpoint endpoint) {
+                }
+
+                @Override
+                public void stopped(Endpoint endpoint) {
+                    saveDtlsState(serverInfo, persistence);
+                }
+
+                @Override
+                public void destroyed(Endpoint endpoint) {
+                }
+            });
+        }
+
         return endpoint;
     }
 
+    protected PersistentComponentUtil createDtlsStatePersistence(final PersistentConnector connector) {
+        PersistentComponentUtil persistence = new PersistentComponentUtil();
+        // we use our own label as default connector one depends on its address, which is generally an ephemeral port.
+        persistence.add(new PersistentComponent() {
+            @Override
+            public String getLabel() {
+                return "dtls";
+            }
+
+            @Override
+            public int save(OutputStream out, long maxQuietPeriodInSeconds) throws IOException {
+                return connector.saveConnections(out, maxQuietPeriodInSeconds);
+            }
+
+            @Override
+            public int load(InputStream in, long delta) throws IOException {
+                return connector.loadConnections(in, delta);
+            }
+        });
+        return persistence;
+    }
+
+    /**
+     * @return the number of restored connections.
+     */
+    protected int restoreDtlsState(ServerInfo serverInfo, PersistentComponentUtil persistence) {
+        try {
+            byte[] state = dtlsStateStore.load(serverInfo);
+            if (state != null) {
+                int count = persistence.loadComponents(new ByteArrayInputStream(state));
+                LOG.info("{} DTLS connection(s) restored for server {}", count, serverInfo.getFullUri());
+                return count;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to restore DTLS state for server {}", serverInfo.getFullUri(), e);
+        }
+        return 0;
+    }
+
+    protected void saveDtlsState(ServerInfo serverInfo, PersistentComponentUtil persistence) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int count = persistence.saveComponents(out, DEFAULT_DTLS_STATE_MAX_QUIET_PERIOD_IN_SEC);
+            if (count > 0) {
+                dtlsStateStore.save(serverInfo, out.toByteArray());
+                LOG.info("{} DTLS connection(s) saved for server {}", count, serverInfo.getFullUri());
+            } else {
+                dtlsStateStore.remove(serverInfo);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to save DTLS state for server {}", serverInfo.getFullUri(), e);
+        }
+    }
+
     protected DtlsConnectorConfig.Builder createRootDtlsConnectorConfigBuilder(Configuration configuration) {
         return new DtlsConnectorConfig.Builder(configuration);
     }
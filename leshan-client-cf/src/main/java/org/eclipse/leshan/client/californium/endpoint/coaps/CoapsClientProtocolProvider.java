@@ -31,6 +31,20 @@ import org.eclipse.leshan.core.endpoint.Protocol;
 
 public class CoapsClientProtocolProvider implements ClientProtocolProvider {
 
+    private final DtlsStateStore dtlsStateStore;
+
+    public CoapsClientProtocolProvider() {
+        this(null);
+    }
+
+    /**
+     * @param dtlsStateStore store used to persist DTLS state between client restarts, can be <code>null</code>.
+     * @see CoapsClientEndpointFactory#CoapsClientEndpointFactory(String, DtlsStateStore)
+     */
+    public CoapsClientProtocolProvider(DtlsStateStore dtlsStateStore) {
+        this.dtlsStateStore = dtlsStateStore;
+    }
+
     @Override
     public Protocol getProtocol() {
         return Protocol.COAPS;
@@ -59,6 +73,6 @@ public class CoapsClientProtocolProvider implements ClientProtocolProvider {
 
     @Override
     public CaliforniumClientEndpointFactory createDefaultEndpointFactory() {
-        return new CoapsClientEndpointFactory();
+        return new CoapsClientEndpointFactory("LWM2M Client", dtlsStateStore);
     }
 }
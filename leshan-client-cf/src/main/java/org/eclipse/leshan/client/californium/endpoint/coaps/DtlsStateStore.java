@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.californium.endpoint.coaps;
+
+import java.io.IOException;
+
+import org.eclipse.leshan.client.servers.ServerInfo;
+
+/**
+ * A store used to persist DTLS state (session used for resumption and connection ID) of the connection to a server.
+ * <p>
+ * This allows a client to restore its DTLS connection after a restart and so to avoid a full handshake (abbreviated
+ * handshake) or even any handshake if connection ID is used and still accepted by the server.
+ *
+ * @see CoapsClientEndpointFactory
+ * @see FileDtlsStateStore
+ */
+public interface DtlsStateStore {
+
+    /**
+     * @param server the server the DTLS connection is established with.
+     * @return the state previously saved for this server or <code>null</code> if there is none.
+     */
+    byte[] load(ServerInfo server) throws IOException;
+
+    /**
+     * @param server the server the DTLS connection is established with.
+     * @param state the state to persist, previous one should be replaced.
+     */
+    void save(ServerInfo server, byte[] state) throws IOException;
+
+    /**
+     * Remove state saved for the given server.
+     */
+    void remove(ServerInfo server) throws IOException;
+}
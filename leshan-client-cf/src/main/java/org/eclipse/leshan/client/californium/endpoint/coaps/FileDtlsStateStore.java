@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.californium.endpoint.coaps;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+
+import org.eclipse.leshan.client.servers.ServerInfo;
+import org.eclipse.leshan.core.util.Hex;
+
+/**
+ * A {@link DtlsStateStore} which saves DTLS state in a directory, using one file by server.
+ * <p>
+ * Files are written atomically (write in a temporary file, then move) so a power loss during save can not corrupt
+ * previous state.
+ */
+public class FileDtlsStateStore implements DtlsStateStore {
+
+    private final File directory;
+
+    /**
+     * @param directory the directory where state is stored, created if it does not exist.
+     */
+    public FileDtlsStateStore(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public byte[] load(ServerInfo server) throws IOException {
+        File file = getFile(server);
+        if (!file.exists())
+            return null;
+        return Files.readAllBytes(file.toPath());
+    }
+
+    @Override
+    public void save(ServerInfo server, byte[] state) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException(String.format("Unable to create directory %s", directory));
+        }
+        File file = getFile(server);
+        File tmpFile = new File(directory, file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+            out.write(state);
+            out.getFD().sync();
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void remove(ServerInfo server) throws IOException {
+        Files.deleteIfExists(getFile(server).toPath());
+    }
+
+    /**
+     * @return the file used to store state of the given server. By default name is a hash of server URI and client
+     *         credentials, so a state is never restored after credentials change (e.g. after a bootstrap).
+     */
+    protected File getFile(ServerInfo server) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((server.bootstrap ? "bs:" : "dm:").getBytes(StandardCharsets.UTF_8));
+            digest.update(server.getFullUri().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(String.valueOf(server.secureMode).getBytes(StandardCharsets.UTF_8));
+            if (server.pskId != null) {
+                digest.update(server.pskId.getBytes(StandardCharsets.UTF_8));
+            }
+            if (server.publicKey != null) {
+                digest.update(server.publicKey.getEncoded());
+            }
+            if (server.clientCertificate != null) {
+                digest.update(server.clientCertificate.getEncoded());
+            }
+            return new File(directory, Hex.encodeHexString(digest.digest()) + ".dtls");
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            throw new IllegalStateException("Unable to compute DTLS state file name", e);
+        }
+    }
+}
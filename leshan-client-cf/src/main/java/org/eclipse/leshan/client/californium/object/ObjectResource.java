@@ -23,16 +23,31 @@ package org.eclipse.leshan.client.californium.object;
 
 import static org.eclipse.leshan.core.californium.ResponseCodeUtil.toCoapResponseCode;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.californium.core.coap.BlockOption;
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
 import org.eclipse.californium.core.coap.MediaTypeRegistry;
 import org.eclipse.californium.core.coap.Request;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.config.CoapConfig;
+import org.eclipse.californium.core.network.Exchange;
+import org.eclipse.californium.core.observe.ObserveRelation;
+import org.eclipse.californium.core.observe.ObserveRelationFilter;
 import org.eclipse.californium.core.server.resources.CoapExchange;
 import org.eclipse.californium.core.server.resources.Resource;
 import org.eclipse.leshan.client.californium.LwM2mClientCoapResource;
 import org.eclipse.leshan.client.californium.endpoint.ServerIdentityExtractor;
 import org.eclipse.leshan.client.endpoint.ClientEndpointToolbox;
+import org.eclipse.leshan.client.notification.NotificationManager;
+import org.eclipse.leshan.client.notification.NotificationSender;
 import org.eclipse.leshan.client.request.DownlinkRequestReceiver;
 import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
 import org.eclipse.leshan.client.resource.listener.ObjectListener;
@@ -46,6 +61,7 @@ import org.eclipse.leshan.core.node.LwM2mObject;
 import org.eclipse.leshan.core.node.LwM2mObjectInstance;
 import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.node.LwM2mResource;
+import org.eclipse.leshan.core.node.OpaqueContent;
 import org.eclipse.leshan.core.node.codec.CodecException;
 import org.eclipse.leshan.core.request.BootstrapDeleteRequest;
 import org.eclipse.leshan.core.request.BootstrapDiscoverRequest;
@@ -75,14 +91,28 @@ import org.eclipse.leshan.core.response.ObserveResponse;
 import org.eclipse.leshan.core.response.ReadResponse;
 import org.eclipse.leshan.core.response.WriteAttributesResponse;
 import org.eclipse.leshan.core.response.WriteResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A CoAP {@link Resource} in charge of handling requests targeting a lwM2M Object.
  */
-public class ObjectResource extends LwM2mClientCoapResource implements ObjectListener {
+public class ObjectResource extends LwM2mClientCoapResource implements ObjectListener, NotificationSender {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ObjectResource.class);
 
     protected DownlinkRequestReceiver requestReceiver;
     protected ClientEndpointToolbox toolbox;
+    protected NotificationManager notificationManager;
+    protected ScheduledExecutorService executor;
+
+    // notification coalescing
+    protected long coalescingWindow; // in ms, 0 means no coalescing
+    protected long coalescingMaxDelay; // in ms, 0 means no limit
+    private final Object coalescingLock = new Object();
+    private Set<LwM2mPath> pendingChanges;
+    private long firstPendingChangeTime;
+    private ScheduledFuture<?> pendingFlush;
 
     public ObjectResource(int objectId, IdentityHandlerProvider identityHandlerProvider,
             ServerIdentityExtractor serverIdentityExtractor, DownlinkRequestReceiver requestReceiver,
@@ -93,6 +123,40 @@ public class ObjectResource extends LwM2mClientCoapResource implements ObjectLis
         setObservable(true);
     }
 
+    /**
+     * Create an {@link ObjectResource} which applies notification attributes (pmin, pmax, gt, lt, st) written by
+     * servers on the given object.
+     *
+     * @param executor the executor used to send delayed notifications.
+     */
+    public ObjectResource(LwM2mObjectEnabler objectEnabler, IdentityHandlerProvider identityHandlerProvider,
+            ServerIdentityExtractor serverIdentityExtractor, DownlinkRequestReceiver requestReceiver,
+            ClientEndpointToolbox toolbox, ScheduledExecutorService executor) {
+        this(objectEnabler.getId(), identityHandlerProvider, serverIdentityExtractor, requestReceiver, toolbox);
+        this.executor = executor;
+        this.notificationManager = new NotificationManager(objectEnabler, executor, this);
+    }
+
+    /**
+     * Merge changes which happen in a short time in only one notification by observe relation.
+     * <p>
+     * When a change happens, notification is delayed by <code>window</code>. Each new change during this window
+     * restarts it, but notification is never delayed more than <code>maxDelay</code> after the first change. The
+     * notification carries the latest values.
+     * <p>
+     * This is only available if this resource was created with an executor.
+     *
+     * @param window the coalescing window in milliseconds, 0 means no coalescing.
+     * @param maxDelay the maximum delay in milliseconds between a change and its notification, 0 means no limit.
+     */
+    public void setNotificationCoalescing(long window, long maxDelay) {
+        if (window > 0 && executor == null) {
+            throw new IllegalStateException("Notification coalescing needs an executor");
+        }
+        this.coalescingWindow = window;
+        this.coalescingMaxDelay = maxDelay;
+    }
+
     @Override
     public void handleGET(CoapExchange exchange) {
         Request coapRequest = exchange.advanced().getRequest();
@@ -150,6 +214,9 @@ public class ObjectResource extends LwM2mClientCoapResource implements ObjectLis
                     ContentFormat format = getContentFormat(observeRequest, requestedContentFormat);
                     exchange.respond(ResponseCode.CONTENT,
                             toolbox.getEncoder().encode(content, format, path, toolbox.getModel()), format.getCode());
+                    if (notificationManager != null) {
+                        notificationManager.notificationSent(identity, path, content);
+                    }
                     return;
                 } else {
                     exchange.respond(toCoapResponseCode(response.getCode()), response.getErrorMessage());
@@ -179,6 +246,11 @@ public class ObjectResource extends LwM2mClientCoapResource implements ObjectLis
                     ReadRequest readRequest = new ReadRequest(requestedContentFormat, URI, coapRequest);
                     ReadResponse response = requestReceiver.requestReceived(identity, readRequest).getResponse();
                     if (response.getCode() == org.eclipse.leshan.core.ResponseCode.CONTENT) {
+                        if (response.hasStreamedContent() && (requestedContentFormat == null
+                                || requestedContentFormat.equals(ContentFormat.OPAQUE))) {
+                            respondOpaqueContent(exchange, response.getOpaqueContent());
+                            return;
+                        }
                         LwM2mPath path = getPath(URI);
                         LwM2mNode content = response.getContent();
                         ContentFormat format = getContentFormat(readRequest, requestedContentFormat);
@@ -195,6 +267,58 @@ public class ObjectResource extends LwM2mClientCoapResource implements ObjectLis
         }
     }
 
+    /**
+     * Send an {@link OpaqueContent} without loading it in memory.
+     * <p>
+     * If content is larger than the block size, only the requested block is read and sent with a Block2 option, so a
+     * large resource (e.g. a log file) is transferred block by block with constant memory.
+     */
+    protected void respondOpaqueContent(CoapExchange exchange, OpaqueContent content) {
+        long length = content.getLength();
+        int preferredSzx = BlockOption
+                .size2Szx(exchange.advanced().getEndpoint().getConfig().get(CoapConfig.PREFERRED_BLOCK_SIZE));
+        BlockOption requestedBlock = exchange.getRequestOptions().getBlock2();
+
+        int szx;
+        int num;
+        if (requestedBlock == null || requestedBlock.getNum() == 0) {
+            szx = requestedBlock == null ? preferredSzx : Math.min(requestedBlock.getSzx(), preferredSzx);
+            num = 0;
+        } else {
+            // next blocks must be sent with the block size used by peer
+            szx = requestedBlock.getSzx();
+            num = requestedBlock.getNum();
+        }
+        int blockSize = BlockOption.szx2Size(szx);
+        long offset = (long) num * blockSize;
+        if (offset > 0 && offset >= length) {
+            exchange.respond(ResponseCode.BAD_OPTION, "Block2 out of range");
+            return;
+        }
+
+        try {
+            if (num == 0 && length <= blockSize) {
+                exchange.respond(ResponseCode.CONTENT, content.toByteArray(), ContentFormat.OPAQUE_CODE);
+                return;
+            }
+
+            byte[] block = new byte[(int) Math.min(blockSize, length - offset)];
+            content.read(offset, block, 0, block.length);
+
+            Response response = new Response(ResponseCode.CONTENT);
+            response.setPayload(block);
+            response.getOptions().setContentFormat(ContentFormat.OPAQUE_CODE);
+            response.getOptions().setBlock2(szx, offset + block.length < length, num);
+            if (num == 0 && length <= Integer.MAX_VALUE) {
+                response.getOptions().setSize2((int) length);
+            }
+            exchange.respond(response);
+        } catch (IOException e) {
+            LOG.warn("Unable to read opaque content {}", content, e);
+            exchange.respond(ResponseCode.INTERNAL_SERVER_ERROR, "Unable to read opaque content");
+        }
+    }
+
     protected ContentFormat getContentFormat(DownlinkRequest<?> request, ContentFormat requestedContentFormat) {
         if (requestedContentFormat != null) {
             // we already check before this content format is supported.
@@ -446,9 +570,92 @@ public class ObjectResource extends LwM2mClientCoapResource implements ObjectLis
 
     @Override
     public void resourceChanged(LwM2mPath... paths) {
+        if (coalescingWindow <= 0) {
+            notifyChanges(paths);
+            return;
+        }
+
+        synchronized (coalescingLock) {
+            long now = System.nanoTime();
+            if (pendingChanges == null) {
+                pendingChanges = new LinkedHashSet<>();
+                firstPendingChangeTime = now;
+            }
+            pendingChanges.addAll(Arrays.asList(paths));
+
+            // (re)start coalescing window without exceeding max delay
+            long delay = TimeUnit.MILLISECONDS.toNanos(coalescingWindow);
+            if (coalescingMaxDelay > 0) {
+                delay = Math.min(delay,
+                        firstPendingChangeTime + TimeUnit.MILLISECONDS.toNanos(coalescingMaxDelay) - now);
+            }
+            if (pendingFlush != null) {
+                pendingFlush.cancel(false);
+            }
+            pendingFlush = executor.schedule(this::flushChanges, Math.max(0, delay), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    protected void flushChanges() {
+        LwM2mPath[] paths;
+        synchronized (coalescingLock) {
+            if (pendingChanges == null) {
+                return;
+            }
+            paths = pendingChanges.toArray(new LwM2mPath[pendingChanges.size()]);
+            pendingChanges = null;
+            pendingFlush = null;
+        }
+        notifyChanges(paths);
+    }
+
+    protected void notifyChanges(LwM2mPath... paths) {
         // notify CoAP layer than resources changes, this will send observe notification if an observe relationship
         // exits.
-        changed(new ResourceObserveFilter(paths));
+        if (notificationManager == null) {
+            changed(new ResourceObserveFilter(paths));
+        } else {
+            changed(new ResourceObserveFilter(paths) {
+                @Override
+                public boolean accept(ObserveRelation relation) {
+                    if (!super.accept(relation))
+                        return false;
+                    // check notification attributes
+                    ServerIdentity server = getServer(relation);
+                    return server == null || notificationManager.shouldNotify(server, getPath(relation));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void sendNotification(ServerIdentity server, LwM2mPath observedPath) {
+        changed(new ObserveRelationFilter() {
+            @Override
+            public boolean accept(ObserveRelation relation) {
+                return server.equals(getServer(relation)) && observedPath.equals(getPath(relation));
+            }
+        });
+    }
+
+    @Override
+    public void removeObserveRelation(ObserveRelation relation) {
+        super.removeObserveRelation(relation);
+        if (notificationManager != null) {
+            ServerIdentity server = getServer(relation);
+            if (server != null) {
+                notificationManager.observationCanceled(server, getPath(relation));
+            }
+        }
+    }
+
+    protected ServerIdentity getServer(ObserveRelation relation) {
+        Exchange exchange = relation.getExchange();
+        return extractIdentity(exchange, exchange.getRequest());
+    }
+
+    protected LwM2mPath getPath(ObserveRelation relation) {
+        return new LwM2mPath("/" + relation.getExchange().getRequest().getOptions().getUriPathString());
     }
 
     @Override
@@ -459,6 +666,17 @@ public class ObjectResource extends LwM2mClientCoapResource implements ObjectLis
     public void objectInstancesRemoved(LwM2mObjectEnabler object, int... instanceIds) {
     }
 
+    @Override
+    public void attributesRemoved(LwM2mObjectEnabler object, ServerIdentity identity) {
+        if (notificationManager != null) {
+            if (identity == null) {
+                notificationManager.clear();
+            } else {
+                notificationManager.removeServer(identity);
+            }
+        }
+    }
+
     protected LwM2mPath getPath(String URI) throws InvalidRequestException {
         try {
             return new LwM2mPath(URI);
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.californium.endpoint;
+
+import static org.eclipse.leshan.client.object.Security.noSec;
+import static org.eclipse.leshan.core.LwM2mId.DEVICE;
+import static org.eclipse.leshan.core.LwM2mId.SECURITY;
+import static org.eclipse.leshan.core.LwM2mId.SERVER;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.elements.util.NamedThreadFactory;
+import org.eclipse.leshan.client.LeshanClient;
+import org.eclipse.leshan.client.LeshanClientBuilder;
+import org.eclipse.leshan.client.californium.endpoint.coap.CoapClientProtocolProvider;
+import org.eclipse.leshan.client.object.Device;
+import org.eclipse.leshan.client.object.Server;
+import org.eclipse.leshan.client.resource.ObjectsInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CaliforniumClientEndpointsProviderTest {
+
+    private ScheduledThreadPoolExecutor sharedExecutor;
+    private final List<LeshanClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        sharedExecutor = new ScheduledThreadPoolExecutor(2, new NamedThreadFactory("Shared Test Executor#"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (LeshanClient client : clients) {
+            client.destroy(false);
+        }
+        sharedExecutor.shutdownNow();
+    }
+
+    private LeshanClient createClient(String endpoint) {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        initializer.setInstancesForObject(SECURITY, noSec("coap://localhost:5683", 123));
+        initializer.setInstancesForObject(SERVER, new Server(123, 300));
+        initializer.setInstancesForObject(DEVICE, new Device("Eclipse Leshan", "test", endpoint));
+
+        CaliforniumClientEndpointsProvider.Builder endpointsBuilder = new CaliforniumClientEndpointsProvider.Builder(
+                new CoapClientProtocolProvider());
+        endpointsBuilder.setSharedExecutor(sharedExecutor);
+
+        LeshanClientBuilder builder = new LeshanClientBuilder(endpoint);
+        builder.setObjects(initializer.createAll());
+        builder.setEndpointsProvider(endpointsBuilder.build());
+        builder.setSharedExecutor(sharedExecutor);
+        LeshanClient client = builder.build();
+        clients.add(client);
+        return client;
+    }
+
+    @Test
+    public void shared_executor_is_used_by_all_clients() throws InterruptedException {
+        LeshanClient client1 = createClient("client1");
+        LeshanClient client2 = createClient("client2");
+        client1.start();
+        client2.start();
+
+        // registration engines of both clients use shared executor
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (sharedExecutor.getTaskCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(sharedExecutor.getTaskCount() >= 2, "both clients should schedule tasks on shared executor");
+
+        // no client creates its own thread pools
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            assertFalse(name.startsWith("Leshan Async Request timeout"), "unexpected thread " + name);
+            assertFalse(name.startsWith("RegistrationEngine#"), "unexpected thread " + name);
+            assertFalse(name.startsWith("CoapServer("), "unexpected thread " + name);
+        }
+
+        // shared executor is not shutdown with clients
+        client1.destroy(false);
+        client2.destroy(false);
+        clients.clear();
+        assertFalse(sharedExecutor.isShutdown());
+    }
+}
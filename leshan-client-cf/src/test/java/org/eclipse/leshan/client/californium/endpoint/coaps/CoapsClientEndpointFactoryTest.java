@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.californium.endpoint.coaps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+
+import org.eclipse.californium.core.CoapResource;
+import org.eclipse.californium.core.CoapServer;
+import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.Request;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.network.CoapEndpoint;
+import org.eclipse.californium.core.network.Endpoint;
+import org.eclipse.californium.core.server.resources.CoapExchange;
+import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.scandium.DTLSConnector;
+import org.eclipse.californium.scandium.config.DtlsConfig;
+import org.eclipse.californium.scandium.config.DtlsConfig.DtlsRole;
+import org.eclipse.californium.scandium.config.DtlsConnectorConfig;
+import org.eclipse.californium.scandium.dtls.DTLSSession;
+import org.eclipse.californium.scandium.dtls.pskstore.AdvancedSinglePskStore;
+import org.eclipse.leshan.client.californium.endpoint.CaliforniumClientEndpointsProvider;
+import org.eclipse.leshan.client.servers.ServerInfo;
+import org.eclipse.leshan.core.SecurityMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CoapsClientEndpointFactoryTest {
+
+    private static final String PSK_ID = "client_identity";
+
+    @TempDir
+    File directory;
+
+    private final byte[] pskKey = new byte[16];
+    private CoapServer server;
+    private InetSocketAddress serverAddress;
+    private Configuration clientConfig;
+    private ServerInfo serverInfo;
+
+    @BeforeEach
+    public void setUp() {
+        new SecureRandom().nextBytes(pskKey);
+
+        // start a DTLS server which accepts our PSK credentials
+        clientConfig = new CaliforniumClientEndpointsProvider.Builder(new CoapsClientProtocolProvider())
+                .createDefaultConfiguration();
+        Configuration serverConfig = new Configuration(clientConfig);
+        serverConfig.set(DtlsConfig.DTLS_ROLE, DtlsRole.SERVER_ONLY);
+        DtlsConnectorConfig dtlsConfig = DtlsConnectorConfig.builder(serverConfig)
+                .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .setAdvancedPskStore(new AdvancedSinglePskStore(PSK_ID, pskKey)).build();
+        server = new CoapServer(serverConfig);
+        server.addEndpoint(new CoapEndpoint.Builder().setConfiguration(serverConfig)
+                .setConnector(new DTLSConnector(dtlsConfig)).build());
+        server.add(new CoapResource("test") {
+            @Override
+            public void handleGET(CoapExchange exchange) {
+                exchange.respond(ResponseCode.CONTENT, "ok");
+            }
+        });
+        server.start();
+        serverAddress = server.getEndpoints().get(0).getAddress();
+
+        serverInfo = new ServerInfo();
+        serverInfo.serverId = 1;
+        serverInfo.serverUri = URI.create("coaps://" + serverAddress.getHostString() + ":" + serverAddress.getPort());
+        serverInfo.secureMode = SecurityMode.PSK;
+        serverInfo.pskId = PSK_ID;
+        serverInfo.pskKey = pskKey;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.destroy();
+    }
+
+    private Endpoint createEndpoint(CoapsClientEndpointFactory factory) {
+        return factory.createCoapEndpoint(InetAddress.getLoopbackAddress(), clientConfig, serverInfo, false, null,
+                null);
+    }
+
+    private void get(Endpoint endpoint) throws InterruptedException {
+        Request request = Request.newGet();
+        request.setURI(serverInfo.serverUri + "/test");
+        endpoint.sendRequest(request);
+        Response response = request.waitForResponse(5000);
+        assertNotNull(response, "server should answer");
+        assertEquals(ResponseCode.CONTENT, response.getCode());
+    }
+
+    @Test
+    public void dtls_state_is_restored_after_restart() throws Exception {
+        CoapsClientEndpointFactory factory = new CoapsClientEndpointFactory("test", new FileDtlsStateStore(directory));
+
+        // establish a DTLS connection then stop endpoint to save its state
+        Endpoint endpoint = createEndpoint(factory);
+        endpoint.start();
+        get(endpoint);
+        endpoint.stop();
+        endpoint.destroy();
+
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length, "DTLS state should be saved in one file");
+
+        // a new endpoint for the same server restores the session
+        Endpoint restored = createEndpoint(factory);
+        try {
+            DTLSConnector connector = (DTLSConnector) ((CoapEndpoint) restored).getConnector();
+            DTLSSession session = connector.getSessionByAddress(serverAddress);
+            assertNotNull(session, "DTLS session should be restored");
+            restored.start();
+            get(restored);
+
+            // session was resumed (abbreviated handshake), not renegotiated
+            assertEquals(session.getSessionIdentifier(),
+                    connector.getSessionByAddress(serverAddress).getSessionIdentifier());
+        } finally {
+            restored.destroy();
+        }
+    }
+
+    @Test
+    public void psk_secret_is_not_saved() throws Exception {
+        CoapsClientEndpointFactory factory = new CoapsClientEndpointFactory("test", new FileDtlsStateStore(directory));
+
+        Endpoint endpoint = createEndpoint(factory);
+        endpoint.start();
+        get(endpoint);
+        endpoint.stop();
+        endpoint.destroy();
+
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        assertFalse(contains(Files.readAllBytes(files[0].toPath()), pskKey), "PSK secret must not be persisted");
+    }
+
+    @Test
+    public void dtls_state_is_not_restored_when_credentials_change() throws Exception {
+        FileDtlsStateStore store = new FileDtlsStateStore(directory);
+        store.save(serverInfo, new byte[] { 1, 2, 3 });
+
+        ServerInfo otherCredentials = new ServerInfo();
+        otherCredentials.serverId = serverInfo.serverId;
+        otherCredentials.serverUri = serverInfo.serverUri;
+        otherCredentials.secureMode = SecurityMode.PSK;
+        otherCredentials.pskId = "other_identity";
+        otherCredentials.pskKey = pskKey;
+
+        assertNull(store.load(otherCredentials), "state should not be shared between credentials");
+        assertEquals(3, store.load(serverInfo).length);
+
+        store.remove(serverInfo);
+        assertNull(store.load(serverInfo));
+    }
+
+    private static boolean contains(byte[] data, byte[] sequence) {
+        for (int i = 0; i + sequence.length <= data.length; i++) {
+            int j = 0;
+            while (j < sequence.length && data[i + j] == sequence[j]) {
+                j++;
+            }
+            if (j == sequence.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.californium.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.resource.ObjectsInitializer;
+import org.eclipse.leshan.client.resource.SimpleInstanceEnabler;
+import org.eclipse.leshan.core.LwM2mId;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ObjectResourceTest {
+
+    private static final LwM2mPath BATTERY_LEVEL = new LwM2mPath(3, 0, 9);
+    private static final LwM2mPath MEMORY_FREE = new LwM2mPath(3, 0, 10);
+
+    private ScheduledExecutorService executor;
+    private TestObjectResource resource;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        initializer.setInstancesForObject(LwM2mId.DEVICE, new SimpleInstanceEnabler(0));
+        LwM2mObjectEnabler objectEnabler = initializer.create(LwM2mId.DEVICE);
+        resource = new TestObjectResource(objectEnabler, executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void changes_are_notified_immediately_without_coalescing() {
+        resource.resourceChanged(BATTERY_LEVEL);
+        resource.resourceChanged(MEMORY_FREE);
+
+        assertEquals(2, resource.notifications.size());
+    }
+
+    @Test
+    public void changes_in_window_are_merged_in_one_notification() throws InterruptedException {
+        resource.setNotificationCoalescing(200, 0);
+
+        resource.resourceChanged(BATTERY_LEVEL);
+        resource.resourceChanged(MEMORY_FREE);
+        resource.resourceChanged(BATTERY_LEVEL);
+        assertEquals(0, resource.notifications.size());
+
+        assertTrue(resource.waitForNotifications(1, 2, TimeUnit.SECONDS), "coalesced notification should be sent");
+        Thread.sleep(400);
+        assertEquals(1, resource.notifications.size());
+        assertEquals(new HashSet<>(Arrays.asList(BATTERY_LEVEL, MEMORY_FREE)),
+                new HashSet<>(Arrays.asList(resource.notifications.get(0))));
+    }
+
+    @Test
+    public void max_delay_forces_notification() throws InterruptedException {
+        resource.setNotificationCoalescing(200, 500);
+
+        // keep changing more often than the window for longer than max delay
+        long start = System.nanoTime();
+        while (resource.notifications.isEmpty() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2)) {
+            resource.resourceChanged(BATTERY_LEVEL);
+            Thread.sleep(50);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(1, resource.notifications.size());
+        assertTrue(elapsed < 1000, "max delay should flush pending changes before window ends");
+    }
+
+    private static class TestObjectResource extends ObjectResource {
+        private final List<LwM2mPath[]> notifications = Collections.synchronizedList(new ArrayList<>());
+
+        public TestObjectResource(LwM2mObjectEnabler objectEnabler, ScheduledExecutorService executor) {
+            super(objectEnabler, null, null, null, null, executor);
+        }
+
+        @Override
+        protected void notifyChanges(LwM2mPath... paths) {
+            synchronized (notifications) {
+                notifications.add(paths);
+                notifications.notifyAll();
+            }
+        }
+
+        public boolean waitForNotifications(int count, long timeout, TimeUnit unit) throws InterruptedException {
+            long end = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (notifications) {
+                while (notifications.size() < count) {
+                    long remaining = end - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(notifications, remaining);
+                }
+                return true;
+            }
+        }
+    }
+}
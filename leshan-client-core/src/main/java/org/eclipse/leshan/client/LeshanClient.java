@@ -109,6 +109,13 @@ public class LeshanClient implements LwM2mClient {
         requestSender = createRequestSender(this.endpointsProvider);
         dataSenderManager = createDataSenderManager(dataSenders, rootEnabler, requestSender);
 
+        // some data senders need to know registration state
+        for (DataSender dataSender : dataSenders) {
+            if (dataSender instanceof LwM2mClientObserver) {
+                observers.addObserver((LwM2mClientObserver) dataSender);
+            }
+        }
+
         engine = engineFactory.createRegistratioEngine(endpoint, objectTree, endpointsManager, requestSender,
                 bootstrapHandler, observers, additionalAttributes, bsAdditionalAttributes,
                 getSupportedContentFormat(decoder, encoder), sharedExecutor);
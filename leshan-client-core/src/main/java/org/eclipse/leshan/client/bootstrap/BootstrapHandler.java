@@ -107,6 +107,10 @@ public class BootstrapHandler {
             bootstrappingLatch = new CountDownLatch(1);
             bootstrapping = true;
             lastConsistencyError = null;
+            // a new bootstrap session starts, attributes written by previous servers are no more relevant
+            for (LwM2mObjectEnabler enabler : objects.values()) {
+                enabler.removeAttributes(null);
+            }
             return true;
         }
         return false;
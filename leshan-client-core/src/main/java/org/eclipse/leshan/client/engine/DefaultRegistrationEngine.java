@@ -42,8 +42,9 @@ import org.eclipse.leshan.client.resource.LwM2mObjectTree;
 import org.eclipse.leshan.client.servers.DmServerInfo;
 import org.eclipse.leshan.client.servers.ServerIdentity;
 import org.eclipse.leshan.client.servers.ServerInfo;
+import org.eclipse.leshan.client.servers.ServersInfoCache;
 import org.eclipse.leshan.client.servers.ServersInfoExtractor;
-import org.eclipse.leshan.client.util.LinkFormatHelper;
+import org.eclipse.leshan.client.util.ClientDescriptionCache;
 import org.eclipse.leshan.core.LwM2m.LwM2mVersion;
 import org.eclipse.leshan.core.LwM2mId;
 import org.eclipse.leshan.core.ResponseCode;
@@ -109,6 +110,8 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
     private final Map<String, String> additionalAttributes;
     private final Map<String, String> bsAdditionalAttributes; // @since 1.1
     private final Map<Integer /* objectId */, LwM2mObjectEnabler> objectEnablers;
+    private final ServersInfoCache serversInfo;
+    private final ClientDescriptionCache clientDescription;
     private final Map<String /* registrationId */, ServerIdentity> registeredServers;
     private final List<ServerIdentity> registeringServers;
     private final AtomicReference<ServerIdentity> currentBootstrapServer;
@@ -137,6 +140,9 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
             ContentFormat preferredContentFormat, Set<ContentFormat> supportedContentFormats) {
         this.endpoint = endpoint;
         this.objectEnablers = objectTree.getObjectEnablers();
+        this.serversInfo = new ServersInfoCache(objectEnablers);
+        objectTree.addListener(serversInfo);
+        this.clientDescription = objectTree.getClientDescriptionCache();
         this.bootstrapHandler = bootstrapState;
         this.endpointsManager = endpointsManager;
         this.observer = observer;
@@ -176,6 +182,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
         stop(false); // Stop without de-register
         synchronized (this) {
             started = true;
+            serversInfo.invalidate();
             // Try factory bootstrap
             // TODO support multi server
             ServerIdentity dmServer = factoryBootstrap();
@@ -191,7 +198,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
     }
 
     private ServerIdentity factoryBootstrap() {
-        ServerInfo serverInfo = selectServer(ServersInfoExtractor.getInfo(objectEnablers).deviceManagements);
+        ServerInfo serverInfo = selectServer(serversInfo.getInfo().deviceManagements);
         if (serverInfo != null) {
             return endpointsManager.createEndpoint(serverInfo, isClientInitiatedOnly());
         }
@@ -203,7 +210,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
     }
 
     private ServerIdentity clientInitiatedBootstrap() throws InterruptedException {
-        ServerInfo bootstrapServerInfo = ServersInfoExtractor.getBootstrapServerInfo(objectEnablers);
+        ServerInfo bootstrapServerInfo = serversInfo.getBootstrapServerInfo();
 
         if (bootstrapServerInfo == null) {
             LOG.error("Trying to bootstrap device but there is no bootstrap server config.");
@@ -249,8 +256,10 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
                             return null;
                         } else {
                             LOG.info("Bootstrap finished {}.", bootstrapServer.getUri());
-                            ServerInfo serverInfo = selectServer(
-                                    ServersInfoExtractor.getInfo(objectEnablers).deviceManagements);
+                            // security objects could have been modified without notification
+                            serversInfo.invalidate();
+                            clientDescription.invalidate();
+                            ServerInfo serverInfo = selectServer(serversInfo.getInfo().deviceManagements);
                             ServerIdentity dmServer = null;
                             if (serverInfo != null) {
                                 dmServer = endpointsManager.createEndpoint(serverInfo, isClientInitiatedOnly());
@@ -303,7 +312,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
     }
 
     private Status register(ServerIdentity server) throws InterruptedException {
-        DmServerInfo dmInfo = ServersInfoExtractor.getDMServerInfo(objectEnablers, server.getId());
+        DmServerInfo dmInfo = serversInfo.getDMServerInfo(server.getId());
 
         if (dmInfo == null) {
             LOG.info("Trying to register device but there is no LWM2M server config.");
@@ -317,7 +326,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
             LwM2mVersion lwM2mVersion = LwM2mVersion.lastSupported();
             EnumSet<BindingMode> supportedBindingMode = ServersInfoExtractor
                     .getDeviceSupportedBindingMode(objectEnablers.get(LwM2mId.DEVICE), 0);
-            Link[] links = LinkFormatHelper.getClientDescription(objectEnablers.values(), null,
+            Link[] links = clientDescription.getClientDescription(
                     ContentFormat.getOptionalContentFormatForClient(supportedContentFormats, lwM2mVersion));
 
             request = new RegisterRequest(endpoint, dmInfo.lifetime, lwM2mVersion.toString(), supportedBindingMode,
@@ -391,6 +400,10 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
                 registeredServers.remove(registrationID);
                 registrationID = null;
                 cancelUpdateTask(true);
+                // attributes written by this server are no more relevant
+                for (LwM2mObjectEnabler enabler : objectEnablers.values()) {
+                    enabler.removeAttributes(server);
+                }
                 LOG.info("De-register response {} {}.", response.getCode(), response.getErrorMessage());
                 if (observer != null) {
                     if (response.isSuccess()) {
@@ -433,7 +446,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
 
     private Status update(ServerIdentity server, String registrationID, RegistrationUpdate registrationUpdate)
             throws InterruptedException {
-        DmServerInfo dmInfo = ServersInfoExtractor.getDMServerInfo(objectEnablers, server.getId());
+        DmServerInfo dmInfo = serversInfo.getDMServerInfo(server.getId());
         if (dmInfo == null) {
             LOG.info("Trying to update registration but there is no LWM2M server config.");
             return Status.FAILURE;
@@ -499,7 +512,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
         if (!started)
             return false;
 
-        ServerInfo bootstrapServerInfo = ServersInfoExtractor.getBootstrapServerInfo(objectEnablers);
+        ServerInfo bootstrapServerInfo = serversInfo.getBootstrapServerInfo();
         if (bootstrapServerInfo == null) {
             // It seems we have no bootstrap server available in this case we can't schedule a new bootstraps
             return false;
@@ -780,7 +793,7 @@ public class DefaultRegistrationEngine implements RegistrationEngine {
             if (started) {
 
                 // check if we have a bootstrap server
-                ServerInfo bootstrapServerInfo = ServersInfoExtractor.getBootstrapServerInfo(objectEnablers);
+                ServerInfo bootstrapServerInfo = serversInfo.getBootstrapServerInfo();
                 if (bootstrapServerInfo == null) {
                     return false;
                 }
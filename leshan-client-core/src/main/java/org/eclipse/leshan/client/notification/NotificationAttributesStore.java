@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.notification;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttribute;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeSet;
+import org.eclipse.leshan.core.node.LwM2mPath;
+
+/**
+ * Store attributes written by LWM2M servers (using Write-Attributes request) on an object, object instance, resource or
+ * resource instance.
+ * <p>
+ * Attributes are stored by server (using its short server ID) and by path.
+ */
+public class NotificationAttributesStore {
+
+    private static final LwM2mAttributeSet EMPTY = new LwM2mAttributeSet();
+
+    private final Map<Key, LwM2mAttributeSet> attributes = new ConcurrentHashMap<>();
+
+    /**
+     * Apply given attributes to the given path for the given server.
+     * <p>
+     * Given attributes are merged with the ones already attached to this path. An attribute without value removes the
+     * corresponding attribute.
+     *
+     * @param serverId the short server ID of the server which wrote the attributes.
+     * @param path the path where attributes are attached.
+     * @param newAttributes the attributes to apply.
+     */
+    public synchronized void writeAttributes(Long serverId, LwM2mPath path, LwM2mAttributeSet newAttributes) {
+        Key key = new Key(serverId, path);
+        LwM2mAttributeSet previous = attributes.get(key);
+        LwM2mAttributeSet merged = previous == null ? newAttributes : previous.merge(newAttributes);
+
+        // remove attributes without values
+        List<LwM2mAttribute<?>> result = new ArrayList<>();
+        for (LwM2mAttribute<?> attribute : merged.getLwM2mAttributes()) {
+            if (attribute.hasValue()) {
+                result.add(attribute);
+            }
+        }
+
+        if (result.isEmpty()) {
+            attributes.remove(key);
+        } else {
+            attributes.put(key, new LwM2mAttributeSet(result));
+        }
+    }
+
+    /**
+     * @return the attributes directly attached to the given path for the given server. Never <code>null</code>.
+     */
+    public LwM2mAttributeSet getAttributes(Long serverId, LwM2mPath path) {
+        LwM2mAttributeSet result = attributes.get(new Key(serverId, path));
+        return result == null ? EMPTY : result;
+    }
+
+    /**
+     * @return the attributes which apply to the given path for the given server. This includes attributes inherited
+     *         from the parent levels (object, object instance, resource), attributes attached to a lower level take
+     *         precedence. Never <code>null</code>.
+     */
+    public LwM2mAttributeSet getEffectiveAttributes(Long serverId, LwM2mPath path) {
+        if (attributes.isEmpty() || path.isRoot()) {
+            return EMPTY;
+        }
+
+        LwM2mAttributeSet result = getAttributes(serverId, path.toObjectPath());
+        if (path.getObjectInstanceId() != null) {
+            result = merge(result, getAttributes(serverId, path.toObjectInstancePath()));
+        }
+        if (path.getResourceId() != null) {
+            result = merge(result, getAttributes(serverId, path.toResourcePath()));
+        }
+        if (path.isResourceInstance()) {
+            result = merge(result, getAttributes(serverId, path));
+        }
+        return result;
+    }
+
+    private LwM2mAttributeSet merge(LwM2mAttributeSet parent, LwM2mAttributeSet child) {
+        if (child.isEmpty()) {
+            return parent;
+        } else if (parent.isEmpty()) {
+            return child;
+        } else {
+            return parent.merge(child);
+        }
+    }
+
+    /**
+     * Remove all attributes attached to the given object instance (or to its resources) for all servers.
+     */
+    public void removeInstance(int objectId, int objectInstanceId) {
+        for (Iterator<Key> it = attributes.keySet().iterator(); it.hasNext();) {
+            LwM2mPath path = it.next().path;
+            if (path.getObjectId() == objectId && path.getObjectInstanceId() != null
+                    && path.getObjectInstanceId() == objectInstanceId) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove all attributes written by the given server.
+     */
+    public void removeServer(Long serverId) {
+        for (Iterator<Key> it = attributes.keySet().iterator(); it.hasNext();) {
+            Key key = it.next();
+            if (serverId == null ? key.serverId == null : serverId.equals(key.serverId)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove all attributes written by all servers.
+     */
+    public void clear() {
+        attributes.clear();
+    }
+
+    private static class Key {
+        private final Long serverId;
+        private final LwM2mPath path;
+
+        public Key(Long serverId, LwM2mPath path) {
+            this.serverId = serverId;
+            this.path = path;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((path == null) ? 0 : path.hashCode());
+            result = prime * result + ((serverId == null) ? 0 : serverId.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            if (path == null) {
+                if (other.path != null)
+                    return false;
+            } else if (!path.equals(other.path))
+                return false;
+            if (serverId == null) {
+                if (other.serverId != null)
+                    return false;
+            } else if (!serverId.equals(other.serverId))
+                return false;
+            return true;
+        }
+    }
+}
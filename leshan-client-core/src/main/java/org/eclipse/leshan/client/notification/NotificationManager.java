@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.notification;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.servers.ServerIdentity;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttribute;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeModel;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeSet;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributes;
+import org.eclipse.leshan.core.node.LwM2mNode;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mResourceInstance;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.request.ReadRequest;
+import org.eclipse.leshan.core.response.ReadResponse;
+
+/**
+ * Decides when notifications must be sent for observations targeting a given {@link LwM2mObjectEnabler}, using
+ * notification attributes written by servers : {@link LwM2mAttributes#MINIMUM_PERIOD},
+ * {@link LwM2mAttributes#MAXIMUM_PERIOD}, {@link LwM2mAttributes#GREATER_THAN}, {@link LwM2mAttributes#LESSER_THAN} and
+ * {@link LwM2mAttributes#STEP}.
+ * <p>
+ * The transport layer is expected to :
+ * <ul>
+ * <li>call {@link #shouldNotify(ServerIdentity, LwM2mPath)} when an observed path changed, to know if notification must
+ * be sent now. If not, the notification may be sent later using the {@link NotificationSender}.</li>
+ * <li>call {@link #notificationSent(ServerIdentity, LwM2mPath, LwM2mNode)} each time a notification (including the
+ * response which establishes the observation) is sent.</li>
+ * <li>call {@link #observationCanceled(ServerIdentity, LwM2mPath)} when an observation is removed.</li>
+ * </ul>
+ */
+public class NotificationManager {
+
+    private final LwM2mObjectEnabler enabler;
+    private final ScheduledExecutorService executor;
+    private final NotificationSender sender;
+
+    private final ConcurrentMap<ObservationKey, ObservationState> observations = new ConcurrentHashMap<>();
+
+    public NotificationManager(LwM2mObjectEnabler enabler, ScheduledExecutorService executor,
+            NotificationSender sender) {
+        this.enabler = enabler;
+        this.executor = executor;
+        this.sender = sender;
+    }
+
+    /**
+     * Must be called when an observed path changed.
+     *
+     * @return <code>true</code> if a notification must be sent now, <code>false</code> if no notification should be
+     *         sent now. In this last case, a notification could be sent later using the {@link NotificationSender}.
+     */
+    public boolean shouldNotify(ServerIdentity server, LwM2mPath observedPath) {
+        ObservationKey key = new ObservationKey(server, observedPath);
+        ObservationState state = observations.get(key);
+        if (state == null) {
+            // no notification sent yet for this observation
+            return true;
+        }
+
+        LwM2mAttributeSet attributes = enabler.getAttributes(server, observedPath);
+        if (attributes.isEmpty()) {
+            return true;
+        }
+
+        // value is read outside state lock, enabler could be locked by a thread which is currently notifying change.
+        Double greaterThan = getValue(attributes, LwM2mAttributes.GREATER_THAN);
+        Double lesserThan = getValue(attributes, LwM2mAttributes.LESSER_THAN);
+        Double step = getValue(attributes, LwM2mAttributes.STEP);
+        Double newValue = null;
+        if (greaterThan != null || lesserThan != null || step != null) {
+            newValue = readNumericValue(observedPath);
+        }
+
+        synchronized (state) {
+            if (state.pendingNotification != null) {
+                // a notification is already planned
+                return false;
+            }
+
+            if (newValue != null && state.lastValue != null
+                    && !isThresholdReached(state.lastValue, newValue, greaterThan, lesserThan, step)) {
+                return false;
+            }
+
+            Long pmin = getValue(attributes, LwM2mAttributes.MINIMUM_PERIOD);
+            if (pmin != null) {
+                long remaining = TimeUnit.SECONDS.toNanos(pmin) - (System.nanoTime() - state.lastNotificationTime);
+                if (remaining > 0) {
+                    // too early, delay the notification until minimum period is reached
+                    state.pendingNotification = executor.schedule(() -> fireNotification(key), remaining,
+                            TimeUnit.NANOSECONDS);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Must be called each time a notification is sent, including the response which establishes the observation.
+     *
+     * @param server the server which observes the path.
+     * @param observedPath the observed path.
+     * @param content the content of the notification.
+     */
+    public void notificationSent(ServerIdentity server, LwM2mPath observedPath, LwM2mNode content) {
+        ObservationKey key = new ObservationKey(server, observedPath);
+        ObservationState state = observations.computeIfAbsent(key, k -> new ObservationState());
+        LwM2mAttributeSet attributes = enabler.getAttributes(server, observedPath);
+
+        synchronized (state) {
+            state.lastNotificationTime = System.nanoTime();
+            state.lastValue = toNumericValue(content);
+            state.cancelTasks();
+
+            Long pmax = getValue(attributes, LwM2mAttributes.MAXIMUM_PERIOD);
+            if (pmax != null && pmax > 0) {
+                state.maxPeriodNotification = executor.schedule(() -> fireNotification(key), pmax, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Must be called when an observation is removed.
+     */
+    public void observationCanceled(ServerIdentity server, LwM2mPath observedPath) {
+        ObservationState state = observations.remove(new ObservationKey(server, observedPath));
+        if (state != null) {
+            synchronized (state) {
+                state.cancelTasks();
+            }
+        }
+    }
+
+    /**
+     * Cancel planned notifications and forget observations of the given server, e.g. when the client is deregistered
+     * from this server.
+     */
+    public void removeServer(ServerIdentity server) {
+        for (ObservationKey key : observations.keySet()) {
+            if (Objects.equals(server.getId(), key.server.getId())) {
+                observationCanceled(key.server, key.path);
+            }
+        }
+    }
+
+    /**
+     * Cancel all planned notifications and forget all observations.
+     */
+    public void clear() {
+        for (ObservationKey key : observations.keySet()) {
+            observationCanceled(key.server, key.path);
+        }
+    }
+
+    protected void fireNotification(ObservationKey key) {
+        ObservationState state = observations.get(key);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.pendingNotification = null;
+        }
+        sender.sendNotification(key.server, key.path);
+    }
+
+    protected boolean isThresholdReached(double lastValue, double newValue, Double greaterThan, Double lesserThan,
+            Double step) {
+        if (greaterThan != null && (lastValue <= greaterThan) != (newValue <= greaterThan)) {
+            return true;
+        }
+        if (lesserThan != null && (lastValue < lesserThan) != (newValue < lesserThan)) {
+            return true;
+        }
+        if (step != null && Math.abs(newValue - lastValue) >= step) {
+            return true;
+        }
+        return false;
+    }
+
+    protected Double readNumericValue(LwM2mPath path) {
+        if (!path.isResource() && !path.isResourceInstance()) {
+            return null;
+        }
+        ReadResponse response = enabler.read(ServerIdentity.SYSTEM, new ReadRequest(path.toString()));
+        if (response.isSuccess()) {
+            return toNumericValue(response.getContent());
+        }
+        return null;
+    }
+
+    protected Double toNumericValue(LwM2mNode node) {
+        Object value = null;
+        if (node instanceof LwM2mSingleResource) {
+            value = ((LwM2mSingleResource) node).getValue();
+        } else if (node instanceof LwM2mResourceInstance) {
+            value = ((LwM2mResourceInstance) node).getValue();
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return null;
+    }
+
+    private <T> T getValue(LwM2mAttributeSet attributes, LwM2mAttributeModel<T> model) {
+        LwM2mAttribute<T> attribute = attributes.getLwM2mAttribute(model);
+        return attribute == null ? null : attribute.getValue();
+    }
+
+    protected static class ObservationKey {
+        private final ServerIdentity server;
+        private final LwM2mPath path;
+
+        public ObservationKey(ServerIdentity server, LwM2mPath path) {
+            this.server = server;
+            this.path = path;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((path == null) ? 0 : path.hashCode());
+            result = prime * result + ((server == null) ? 0 : server.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            ObservationKey other = (ObservationKey) obj;
+            if (path == null) {
+                if (other.path != null)
+                    return false;
+            } else if (!path.equals(other.path))
+                return false;
+            if (server == null) {
+                if (other.server != null)
+                    return false;
+            } else if (!server.equals(other.server))
+                return false;
+            return true;
+        }
+    }
+
+    private static class ObservationState {
+        private long lastNotificationTime;
+        private Double lastValue;
+        private ScheduledFuture<?> pendingNotification;
+        private ScheduledFuture<?> maxPeriodNotification;
+
+        private void cancelTasks() {
+            if (pendingNotification != null) {
+                pendingNotification.cancel(false);
+                pendingNotification = null;
+            }
+            if (maxPeriodNotification != null) {
+                maxPeriodNotification.cancel(false);
+                maxPeriodNotification = null;
+            }
+        }
+    }
+}
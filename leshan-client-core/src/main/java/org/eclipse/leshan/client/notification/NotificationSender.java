@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.notification;
+
+import org.eclipse.leshan.client.servers.ServerIdentity;
+import org.eclipse.leshan.core.node.LwM2mPath;
+
+/**
+ * Used by {@link NotificationManager} to trigger a notification for a given observation, e.g. when a delayed
+ * notification must be sent or when maximum period is reached.
+ */
+public interface NotificationSender {
+
+    /**
+     * Send a notification for the observation of the given path by the given server, whatever the notification
+     * attributes are.
+     *
+     * @param server the server which observes the path.
+     * @param observedPath the observed path.
+     */
+    void sendNotification(ServerIdentity server, LwM2mPath observedPath);
+}
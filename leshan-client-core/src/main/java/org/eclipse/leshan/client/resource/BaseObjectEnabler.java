@@ -27,15 +27,24 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.leshan.client.LwM2mClient;
+import org.eclipse.leshan.client.notification.NotificationAttributesStore;
 import org.eclipse.leshan.client.resource.listener.ObjectListener;
 import org.eclipse.leshan.client.servers.ServerIdentity;
 import org.eclipse.leshan.client.util.LinkFormatHelper;
 import org.eclipse.leshan.core.LwM2mId;
 import org.eclipse.leshan.core.link.lwm2m.LwM2mLink;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttribute;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeModel;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeSet;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributes;
+import org.eclipse.leshan.core.model.LwM2mModel;
 import org.eclipse.leshan.core.model.ObjectModel;
 import org.eclipse.leshan.core.model.ResourceModel;
+import org.eclipse.leshan.core.model.StaticModel;
 import org.eclipse.leshan.core.node.LwM2mObjectInstance;
 import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.node.LwM2mResource;
@@ -75,6 +84,9 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     protected final int id;
     protected final TransactionalObjectListener transactionalListener;
     protected final ObjectModel objectModel;
+    protected final NotificationAttributesStore attributesStore = new NotificationAttributesStore();
+    // read-like operations share the read lock, operations which modify the object take the write lock
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     private LwM2mClient lwm2mClient;
 
@@ -90,12 +102,12 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized int getId() {
+    public int getId() {
         return id;
     }
 
     @Override
-    public synchronized ObjectModel getObjectModel() {
+    public ObjectModel getObjectModel() {
         return objectModel;
     }
 
@@ -108,7 +120,8 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized CreateResponse create(ServerIdentity identity, CreateRequest request) {
+    public CreateResponse create(ServerIdentity identity, CreateRequest request) {
+        lock.writeLock().lock();
         try {
             beginTransaction(LwM2mPath.OBJECT_DEPTH);
 
@@ -137,6 +150,7 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
 
         } finally {
             endTransaction(LwM2mPath.OBJECT_DEPTH);
+            lock.writeLock().unlock();
         }
     }
 
@@ -146,36 +160,41 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized ReadResponse read(ServerIdentity identity, ReadRequest request) {
-        LwM2mPath path = request.getPath();
-
-        // read is not supported for bootstrap
-        if (identity.isLwm2mBootstrapServer()) {
-            return ReadResponse.methodNotAllowed();
-        }
+    public ReadResponse read(ServerIdentity identity, ReadRequest request) {
+        lock.readLock().lock();
+        try {
+            LwM2mPath path = request.getPath();
 
-        if (!identity.isSystem()) {
-            // read the security or oscore object is forbidden
-            if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
-                return ReadResponse.notFound();
+            // read is not supported for bootstrap
+            if (identity.isLwm2mBootstrapServer()) {
+                return ReadResponse.methodNotAllowed();
             }
 
-            // check if the resource is readable.
-            if (path.isResource() || path.isResourceInstance()) {
-                ResourceModel resourceModel = objectModel.resources.get(path.getResourceId());
-                if (resourceModel == null) {
+            if (!identity.isSystem()) {
+                // read the security or oscore object is forbidden
+                if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
                     return ReadResponse.notFound();
-                } else if (!resourceModel.operations.isReadable()) {
-                    return ReadResponse.methodNotAllowed();
-                } else if (path.isResourceInstance() && !resourceModel.multiple) {
-                    return ReadResponse.badRequest("invalid path : resource is not multiple");
+                }
+
+                // check if the resource is readable.
+                if (path.isResource() || path.isResourceInstance()) {
+                    ResourceModel resourceModel = objectModel.resources.get(path.getResourceId());
+                    if (resourceModel == null) {
+                        return ReadResponse.notFound();
+                    } else if (!resourceModel.operations.isReadable()) {
+                        return ReadResponse.methodNotAllowed();
+                    } else if (path.isResourceInstance() && !resourceModel.multiple) {
+                        return ReadResponse.badRequest("invalid path : resource is not multiple");
+                    }
                 }
             }
-        }
 
-        return doRead(identity, request);
+            return doRead(identity, request);
 
-        // TODO we could do a validation of response.getContent by comparing with resourceSpec information
+            // TODO we could do a validation of response.getContent by comparing with resourceSpec information
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     protected ReadResponse doRead(ServerIdentity identity, ReadRequest request) {
@@ -207,7 +226,8 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized WriteResponse write(ServerIdentity identity, WriteRequest request) {
+    public WriteResponse write(ServerIdentity identity, WriteRequest request) {
+        lock.writeLock().lock();
         try {
             beginTransaction(LwM2mPath.OBJECT_DEPTH);
 
@@ -263,6 +283,7 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
             return doWrite(identity, request);
         } finally {
             endTransaction(LwM2mPath.OBJECT_DEPTH);
+            lock.writeLock().unlock();
         }
     }
 
@@ -272,14 +293,18 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized BootstrapWriteResponse write(ServerIdentity identity, BootstrapWriteRequest request) {
+    public BootstrapWriteResponse write(ServerIdentity identity, BootstrapWriteRequest request) {
+        lock.writeLock().lock();
+        try {
+            // We should not get a bootstrapWriteRequest from a LWM2M server
+            if (identity.isLwm2mServer()) {
+                return BootstrapWriteResponse.internalServerError("bootstrap write request from LWM2M server");
+            }
 
-        // We should not get a bootstrapWriteRequest from a LWM2M server
-        if (identity.isLwm2mServer()) {
-            return BootstrapWriteResponse.internalServerError("bootstrap write request from LWM2M server");
+            return doWrite(identity, request);
+        } finally {
+            lock.writeLock().unlock();
         }
-
-        return doWrite(identity, request);
     }
 
     protected BootstrapWriteResponse doWrite(ServerIdentity identity, BootstrapWriteRequest request) {
@@ -288,22 +313,27 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized DeleteResponse delete(ServerIdentity identity, DeleteRequest request) {
-        if (!identity.isSystem()) {
-            if (identity.isLwm2mBootstrapServer())
-                return DeleteResponse.methodNotAllowed();
+    public DeleteResponse delete(ServerIdentity identity, DeleteRequest request) {
+        lock.writeLock().lock();
+        try {
+            if (!identity.isSystem()) {
+                if (identity.isLwm2mBootstrapServer())
+                    return DeleteResponse.methodNotAllowed();
 
-            // delete the security object is forbidden
-            if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
-                return DeleteResponse.notFound();
-            }
+                // delete the security object is forbidden
+                if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
+                    return DeleteResponse.notFound();
+                }
 
-            if (id == LwM2mId.DEVICE) {
-                return DeleteResponse.methodNotAllowed();
+                if (id == LwM2mId.DEVICE) {
+                    return DeleteResponse.methodNotAllowed();
+                }
             }
-        }
 
-        return doDelete(identity, request);
+            return doDelete(identity, request);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     protected DeleteResponse doDelete(ServerIdentity identity, DeleteRequest request) {
@@ -312,16 +342,21 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized BootstrapDeleteResponse delete(ServerIdentity identity, BootstrapDeleteRequest request) {
-        if (!identity.isSystem()) {
-            if (identity.isLwm2mServer()) {
-                return BootstrapDeleteResponse.internalServerError("bootstrap delete request from LWM2M server");
-            }
-            if (id == LwM2mId.DEVICE) {
-                return BootstrapDeleteResponse.badRequest("Device object instance is not deletable");
+    public BootstrapDeleteResponse delete(ServerIdentity identity, BootstrapDeleteRequest request) {
+        lock.writeLock().lock();
+        try {
+            if (!identity.isSystem()) {
+                if (identity.isLwm2mServer()) {
+                    return BootstrapDeleteResponse.internalServerError("bootstrap delete request from LWM2M server");
+                }
+                if (id == LwM2mId.DEVICE) {
+                    return BootstrapDeleteResponse.badRequest("Device object instance is not deletable");
+                }
             }
+            return doDelete(identity, request);
+        } finally {
+            lock.writeLock().unlock();
         }
-        return doDelete(identity, request);
     }
 
     protected BootstrapDeleteResponse doDelete(ServerIdentity identity, BootstrapDeleteRequest request) {
@@ -330,7 +365,18 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized ExecuteResponse execute(ServerIdentity identity, ExecuteRequest request) {
+    public ExecuteResponse execute(ServerIdentity identity, ExecuteRequest request) {
+        // execute is done under write lock : it is serialized with write, create and delete on this object. As the
+        // write lock is reentrant, an execute callback can still modify this object.
+        lock.writeLock().lock();
+        try {
+            return unsafeExecute(identity, request);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ExecuteResponse unsafeExecute(ServerIdentity identity, ExecuteRequest request) {
         LwM2mPath path = request.getPath();
 
         // execute is not supported for bootstrap
@@ -365,30 +411,129 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized WriteAttributesResponse writeAttributes(ServerIdentity identity,
-            WriteAttributesRequest request) {
-        // execute is not supported for bootstrap
-        if (identity.isLwm2mBootstrapServer()) {
-            return WriteAttributesResponse.methodNotAllowed();
+    public WriteAttributesResponse writeAttributes(ServerIdentity identity, WriteAttributesRequest request) {
+        lock.readLock().lock();
+        try {
+            // execute is not supported for bootstrap
+            if (identity.isLwm2mBootstrapServer()) {
+                return WriteAttributesResponse.methodNotAllowed();
+            }
+
+            if (!identity.isSystem()) {
+                // write attributes on security or oscore object is forbidden
+                if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
+                    return WriteAttributesResponse.notFound();
+                }
+            }
+
+            return doWriteAttributes(identity, request);
+        } finally {
+            lock.readLock().unlock();
         }
-        // TODO should be implemented here to be available for all object enabler
-        // This should be a not implemented error, but this is not defined in the spec.
-        return WriteAttributesResponse.internalServerError("not implemented");
     }
 
-    @Override
-    public synchronized DiscoverResponse discover(ServerIdentity identity, DiscoverRequest request) {
+    protected WriteAttributesResponse doWriteAttributes(ServerIdentity identity, WriteAttributesRequest request) {
+        LwM2mPath path = request.getPath();
 
-        if (identity.isLwm2mBootstrapServer()) {
-            // discover is not supported for bootstrap
-            return DiscoverResponse.methodNotAllowed();
+        // check targeted node exists
+        if (!path.isObject()) {
+            if (!getAvailableInstanceIds().contains(path.getObjectInstanceId()))
+                return WriteAttributesResponse.notFound();
+
+            if (path.isResource() || path.isResourceInstance()) {
+                ResourceModel resourceModel = objectModel.resources.get(path.getResourceId());
+                if (resourceModel == null
+                        || !getAvailableResourceIds(path.getObjectInstanceId()).contains(path.getResourceId()))
+                    return WriteAttributesResponse.notFound();
+                if (path.isResourceInstance() && !resourceModel.multiple)
+                    return WriteAttributesResponse.badRequest("invalid path : resource is not multiple");
+            }
         }
 
-        if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
-            return DiscoverResponse.notFound();
+        // check attributes can be applied to targeted node (e.g. gt, lt, st only apply to numeric resource)
+        LwM2mModel model = new StaticModel(objectModel);
+        for (LwM2mAttribute<?> attribute : request.getAttributes().getLwM2mAttributes()) {
+            String error = attribute.getModel().getApplicabilityError(path, model);
+            if (error != null)
+                return WriteAttributesResponse.badRequest(error);
+        }
+
+        synchronized (attributesStore) {
+            // check resulting attributes are consistent
+            LwM2mAttributeSet resulting = attributesStore.getEffectiveAttributes(identity.getId(), path)
+                    .merge(request.getAttributes());
+            String error = getConsistencyError(resulting);
+            if (error != null)
+                return WriteAttributesResponse.badRequest(error);
+
+            attributesStore.writeAttributes(identity.getId(), path, request.getAttributes());
         }
-        return doDiscover(identity, request);
+        return WriteAttributesResponse.success();
+    }
+
+    /**
+     * Check consistency between notification attributes as defined in LWM2M specification : pmin must be lesser or
+     * equal to pmax, lt must be lesser than gt and lt + 2*st must be lesser than gt.
+     *
+     * @return an error message if attributes are not consistent, <code>null</code> otherwise.
+     */
+    protected String getConsistencyError(LwM2mAttributeSet attributes) {
+        Long pmin = getValue(attributes, LwM2mAttributes.MINIMUM_PERIOD);
+        Long pmax = getValue(attributes, LwM2mAttributes.MAXIMUM_PERIOD);
+        if (pmin != null && pmax != null && pmin > pmax) {
+            return String.format("'pmin' (%d) must be lesser or equal to 'pmax' (%d)", pmin, pmax);
+        }
+
+        Double gt = getValue(attributes, LwM2mAttributes.GREATER_THAN);
+        Double lt = getValue(attributes, LwM2mAttributes.LESSER_THAN);
+        Double st = getValue(attributes, LwM2mAttributes.STEP);
+        if (gt != null && lt != null) {
+            if (lt >= gt) {
+                return String.format("'lt' (%s) must be lesser than 'gt' (%s)", lt, gt);
+            }
+            if (st != null && lt + 2 * st >= gt) {
+                return String.format("'lt' + 2 * 'st' (%s + 2 * %s) must be lesser than 'gt' (%s)", lt, st, gt);
+            }
+        }
+        return null;
+    }
+
+    private <T> T getValue(LwM2mAttributeSet attributes, LwM2mAttributeModel<T> model) {
+        LwM2mAttribute<T> attribute = attributes.getLwM2mAttribute(model);
+        return attribute == null || !attribute.hasValue() ? null : attribute.getValue();
+    }
+
+    @Override
+    public LwM2mAttributeSet getAttributes(ServerIdentity identity, LwM2mPath path) {
+        return attributesStore.getEffectiveAttributes(identity.getId(), path);
+    }
+
+    @Override
+    public void removeAttributes(ServerIdentity identity) {
+        if (identity == null) {
+            attributesStore.clear();
+        } else {
+            attributesStore.removeServer(identity.getId());
+        }
+        transactionalListener.attributesRemoved(this, identity);
+    }
+
+    @Override
+    public DiscoverResponse discover(ServerIdentity identity, DiscoverRequest request) {
+        lock.readLock().lock();
+        try {
+            if (identity.isLwm2mBootstrapServer()) {
+                // discover is not supported for bootstrap
+                return DiscoverResponse.methodNotAllowed();
+            }
 
+            if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE) {
+                return DiscoverResponse.notFound();
+            }
+            return doDiscover(identity, request);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     protected DiscoverResponse doDiscover(ServerIdentity identity, DiscoverRequest request) {
@@ -427,13 +572,17 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized BootstrapDiscoverResponse discover(ServerIdentity identity, BootstrapDiscoverRequest request) {
+    public BootstrapDiscoverResponse discover(ServerIdentity identity, BootstrapDiscoverRequest request) {
+        lock.readLock().lock();
+        try {
+            if (!identity.isLwm2mBootstrapServer()) {
+                return BootstrapDiscoverResponse.badRequest("not a bootstrap server");
+            }
 
-        if (!identity.isLwm2mBootstrapServer()) {
-            return BootstrapDiscoverResponse.badRequest("not a bootstrap server");
+            return doDiscover(identity, request);
+        } finally {
+            lock.readLock().unlock();
         }
-
-        return doDiscover(identity, request);
     }
 
     protected BootstrapDiscoverResponse doDiscover(ServerIdentity identity, BootstrapDiscoverRequest request) {
@@ -448,31 +597,36 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized ObserveResponse observe(ServerIdentity identity, ObserveRequest request) {
-        LwM2mPath path = request.getPath();
-
-        // observe is not supported for bootstrap
-        if (identity.isLwm2mBootstrapServer())
-            return ObserveResponse.methodNotAllowed();
+    public ObserveResponse observe(ServerIdentity identity, ObserveRequest request) {
+        lock.readLock().lock();
+        try {
+            LwM2mPath path = request.getPath();
 
-        if (!identity.isSystem()) {
-            // observe or read of the security and oscore object are forbidden
-            if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE)
-                return ObserveResponse.notFound();
+            // observe is not supported for bootstrap
+            if (identity.isLwm2mBootstrapServer())
+                return ObserveResponse.methodNotAllowed();
 
-            // check if the resource is readable.
-            if (path.isResource() || path.isResourceInstance()) {
-                ResourceModel resourceModel = objectModel.resources.get(path.getResourceId());
-                if (resourceModel == null) {
+            if (!identity.isSystem()) {
+                // observe or read of the security and oscore object are forbidden
+                if (id == LwM2mId.SECURITY || id == LwM2mId.OSCORE)
                     return ObserveResponse.notFound();
-                } else if (!resourceModel.operations.isReadable()) {
-                    return ObserveResponse.methodNotAllowed();
-                } else if (path.isResourceInstance() && !resourceModel.multiple) {
-                    return ObserveResponse.badRequest("invalid path : resource is not multiple");
+
+                // check if the resource is readable.
+                if (path.isResource() || path.isResourceInstance()) {
+                    ResourceModel resourceModel = objectModel.resources.get(path.getResourceId());
+                    if (resourceModel == null) {
+                        return ObserveResponse.notFound();
+                    } else if (!resourceModel.operations.isReadable()) {
+                        return ObserveResponse.methodNotAllowed();
+                    } else if (path.isResourceInstance() && !resourceModel.multiple) {
+                        return ObserveResponse.badRequest("invalid path : resource is not multiple");
+                    }
                 }
             }
+            return doObserve(identity, request);
+        } finally {
+            lock.readLock().unlock();
         }
-        return doObserve(identity, request);
     }
 
     protected ObserveResponse doObserve(ServerIdentity identity, ObserveRequest request) {
@@ -508,13 +662,23 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     @Override
-    public synchronized void beginTransaction(byte level) {
-        transactionalListener.beginTransaction(level);
+    public void beginTransaction(byte level) {
+        lock.writeLock().lock();
+        try {
+            transactionalListener.beginTransaction(level);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void endTransaction(byte level) {
-        transactionalListener.endTransaction(level);
+    public void endTransaction(byte level) {
+        lock.writeLock().lock();
+        try {
+            transactionalListener.endTransaction(level);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
@@ -531,6 +695,9 @@ public abstract class BaseObjectEnabler implements LwM2mObjectEnabler {
     }
 
     protected void fireInstancesRemoved(int... instanceIds) {
+        for (int instanceId : instanceIds) {
+            attributesStore.removeInstance(id, instanceId);
+        }
         transactionalListener.objectInstancesRemoved(this, instanceIds);
     }
 
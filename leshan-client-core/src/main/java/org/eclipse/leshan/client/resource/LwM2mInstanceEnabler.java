@@ -18,6 +18,7 @@
  *******************************************************************************/
 package org.eclipse.leshan.client.resource;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.eclipse.leshan.client.LwM2mClient;
@@ -27,9 +28,13 @@ import org.eclipse.leshan.core.Destroyable;
 import org.eclipse.leshan.core.Startable;
 import org.eclipse.leshan.core.Stoppable;
 import org.eclipse.leshan.core.model.ObjectModel;
+import org.eclipse.leshan.core.model.ResourceModel.Type;
 import org.eclipse.leshan.core.node.LwM2mObjectInstance;
 import org.eclipse.leshan.core.node.LwM2mResource;
 import org.eclipse.leshan.core.node.LwM2mResourceInstance;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.OpaqueContent;
+import org.eclipse.leshan.core.request.ContentFormat;
 import org.eclipse.leshan.core.request.WriteRequest.Mode;
 import org.eclipse.leshan.core.request.argument.Arguments;
 import org.eclipse.leshan.core.response.ExecuteResponse;
@@ -56,6 +61,12 @@ import org.eclipse.leshan.core.response.WriteResponse;
  * {@link Destroyable} interface. And {@link Startable} ({@code #start()}) and {@link Stoppable} ({@code #stop()}) are
  * also same as this. If you need to restart the instance, please implement {@link Startable} with {@link Stoppable}
  * together.
+ * <p>
+ * <b>Concurrency:</b> when used with {@link ObjectEnabler}, operations which modify the object (write, create, delete,
+ * bootstrap write/delete) are exclusive, but read, observe and discover of the same object may be called concurrently
+ * by several threads, and <code>execute</code> is called without any object lock, so it may run concurrently with any
+ * other operation. Implementations must so be thread-safe. An <code>execute</code> implementation is allowed to modify
+ * its own object (e.g. calling {@link LwM2mObjectEnabler#write} or {@link LwM2mObjectEnabler#create}).
  */
 public interface LwM2mInstanceEnabler {
 
@@ -120,7 +131,9 @@ public interface LwM2mInstanceEnabler {
      * @param resourceId the ID of the resource to get the value of
      * @return the response object representing the outcome of the operation. An implementation should set the result's
      *         {@link ReadResponse#getCode() response code} to either reflect the success or reason for failure to
-     *         retrieve the value.
+     *         retrieve the value. For large {@link Type#OPAQUE} resources, a response created with
+     *         {@link ReadResponse#success(int, OpaqueContent)} can be returned, so value is sent block by block without
+     *         being loaded in memory.
      */
     ReadResponse read(ServerIdentity identity, int resourceId);
 
@@ -166,6 +179,32 @@ public interface LwM2mInstanceEnabler {
      */
     WriteResponse write(ServerIdentity identity, boolean replace, int resourceid, LwM2mResource value);
 
+    /**
+     * Sets the value of one of this LWM2M object instance's {@link Type#OPAQUE} single resources.
+     * <p>
+     * This is called instead of {@link #write(ServerIdentity, boolean, int, LwM2mResource)} when a server writes the
+     * resource using {@link ContentFormat#OPAQUE}. An implementation handling large values (e.g. a firmware package)
+     * can override it to copy the value to a file using {@link OpaqueContent#writeTo(java.io.OutputStream)} instead of
+     * keeping it in memory.
+     * <p>
+     * Default implementation delegates to {@link #write(ServerIdentity, boolean, int, LwM2mResource)}.
+     *
+     * @param identity the identity of the requester. This could be an internal call in this case
+     *        <code> identity == ServerIdentity.SYSTEM</code>.
+     * @param replace If replace is true that means that the resource value completely replace the previous value.
+     * @param resourceid the ID of the resource to set the value for
+     * @param value the value to set the resource to
+     * @return the response object representing the outcome of the operation.
+     */
+    default WriteResponse write(ServerIdentity identity, boolean replace, int resourceid, OpaqueContent value) {
+        try {
+            return write(identity, replace, resourceid,
+                    LwM2mSingleResource.newBinaryResource(resourceid, value.toByteArray()));
+        } catch (IOException e) {
+            return WriteResponse.internalServerError("Unable to read opaque value");
+        }
+    }
+
     /**
      * Sets the value of one of this LWM2M object instance's resources instance.
      *
@@ -24,7 +24,9 @@ import org.eclipse.leshan.client.servers.ServerIdentity;
 import org.eclipse.leshan.core.Destroyable;
 import org.eclipse.leshan.core.Startable;
 import org.eclipse.leshan.core.Stoppable;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeSet;
 import org.eclipse.leshan.core.model.ObjectModel;
+import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.request.BootstrapDeleteRequest;
 import org.eclipse.leshan.core.request.BootstrapDiscoverRequest;
 import org.eclipse.leshan.core.request.BootstrapReadRequest;
@@ -95,6 +97,23 @@ public interface LwM2mObjectEnabler {
 
     WriteAttributesResponse writeAttributes(ServerIdentity identity, WriteAttributesRequest request);
 
+    /**
+     * @return the attributes written by the given server which apply to the given path, including the ones inherited
+     *         from parent levels. Never <code>null</code>.
+     */
+    default LwM2mAttributeSet getAttributes(ServerIdentity identity, LwM2mPath path) {
+        return new LwM2mAttributeSet();
+    }
+
+    /**
+     * Remove attributes written by the given server, e.g. when the client is deregistered from this server.
+     *
+     * @param identity the server, or <code>null</code> to remove attributes written by all servers (e.g. when a
+     *        bootstrap session starts).
+     */
+    default void removeAttributes(ServerIdentity identity) {
+    }
+
     DiscoverResponse discover(ServerIdentity identity, DiscoverRequest request);
 
     BootstrapDiscoverResponse discover(ServerIdentity identity, BootstrapDiscoverRequest request);
@@ -25,6 +25,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.eclipse.leshan.client.LwM2mClient;
 import org.eclipse.leshan.client.resource.listener.ObjectListener;
 import org.eclipse.leshan.client.resource.listener.ObjectsListener;
+import org.eclipse.leshan.client.util.ClientDescriptionCache;
 import org.eclipse.leshan.core.Destroyable;
 import org.eclipse.leshan.core.Startable;
 import org.eclipse.leshan.core.Stoppable;
@@ -45,12 +46,17 @@ public class LwM2mObjectTree implements Startable, Stoppable, Destroyable {
     protected final CopyOnWriteArrayList<ObjectsListener> listeners = new CopyOnWriteArrayList<>();
     protected final ConcurrentHashMap<Integer, LwM2mObjectEnabler> objectEnablers = new ConcurrentHashMap<>();
     protected final LwM2mModel model;
+    protected final ClientDescriptionCache clientDescriptionCache;
 
     public LwM2mObjectTree(LwM2mClient client, LwM2mObjectEnabler... enablers) {
         this(client, Arrays.asList(enablers));
     }
 
     public LwM2mObjectTree(LwM2mClient client, Collection<? extends LwM2mObjectEnabler> enablers) {
+        // register cache first, so other listeners always get an up to date description
+        clientDescriptionCache = new ClientDescriptionCache(objectEnablers);
+        listeners.add(clientDescriptionCache);
+
         for (LwM2mObjectEnabler enabler : enablers) {
             LwM2mObjectEnabler previousEnabler = objectEnablers.putIfAbsent(enabler.getId(), enabler);
             if (previousEnabler != null) {
@@ -101,6 +107,13 @@ public class LwM2mObjectTree implements Startable, Stoppable, Destroyable {
         return model;
     }
 
+    /**
+     * @return a cache of the client description (object links) of this tree, used for Register and Update request.
+     */
+    public ClientDescriptionCache getClientDescriptionCache() {
+        return clientDescriptionCache;
+    }
+
     public Map<Integer, LwM2mObjectEnabler> getObjectEnablers() {
         return Collections.unmodifiableMap(objectEnablers);
     }
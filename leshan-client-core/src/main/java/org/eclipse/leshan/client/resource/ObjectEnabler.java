@@ -20,10 +20,10 @@ package org.eclipse.leshan.client.resource;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.leshan.client.LwM2mClient;
 import org.eclipse.leshan.client.resource.listener.ResourceListener;
@@ -34,11 +34,13 @@ import org.eclipse.leshan.core.LwM2mId;
 import org.eclipse.leshan.core.Startable;
 import org.eclipse.leshan.core.Stoppable;
 import org.eclipse.leshan.core.model.ObjectModel;
+import org.eclipse.leshan.core.model.ResourceModel.Type;
 import org.eclipse.leshan.core.node.LwM2mObject;
 import org.eclipse.leshan.core.node.LwM2mObjectInstance;
 import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.node.LwM2mResource;
 import org.eclipse.leshan.core.node.LwM2mResourceInstance;
+import org.eclipse.leshan.core.node.OpaqueContent;
 import org.eclipse.leshan.core.request.BootstrapDeleteRequest;
 import org.eclipse.leshan.core.request.BootstrapReadRequest;
 import org.eclipse.leshan.core.request.BootstrapWriteRequest;
@@ -81,7 +83,8 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
     public ObjectEnabler(int id, ObjectModel objectModel, Map<Integer, LwM2mInstanceEnabler> instances,
             LwM2mInstanceEnablerFactory instanceFactory, ContentFormat defaultContentFormat) {
         super(id, objectModel);
-        this.instances = new HashMap<>(instances);
+        // instances can be accessed without holding the object lock (e.g. to compute available instances)
+        this.instances = new ConcurrentHashMap<>(instances);
         this.instanceFactory = instanceFactory;
         this.defaultContentFormat = defaultContentFormat;
         for (Entry<Integer, LwM2mInstanceEnabler> entry : this.instances.entrySet()) {
@@ -91,14 +94,14 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
     }
 
     @Override
-    public synchronized List<Integer> getAvailableInstanceIds() {
+    public List<Integer> getAvailableInstanceIds() {
         List<Integer> ids = new ArrayList<>(instances.keySet());
         Collections.sort(ids);
         return ids;
     }
 
     @Override
-    public synchronized List<Integer> getAvailableResourceIds(int instanceId) {
+    public List<Integer> getAvailableResourceIds(int instanceId) {
         LwM2mInstanceEnabler instanceEnabler = instances.get(instanceId);
         if (instanceEnabler != null) {
             return instanceEnabler.getAvailableResourceIds(getObjectModel());
@@ -107,17 +110,17 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
         }
     }
 
-    public synchronized void addInstance(int instanceId, LwM2mInstanceEnabler newInstance) {
+    public void addInstance(int instanceId, LwM2mInstanceEnabler newInstance) {
         instances.put(instanceId, newInstance);
         listenInstance(newInstance, instanceId);
         fireInstancesAdded(instanceId);
     }
 
-    public synchronized LwM2mInstanceEnabler getInstance(int instanceId) {
+    public LwM2mInstanceEnabler getInstance(int instanceId) {
         return instances.get(instanceId);
     }
 
-    public synchronized LwM2mInstanceEnabler removeInstance(int instanceId) {
+    public LwM2mInstanceEnabler removeInstance(int instanceId) {
         LwM2mInstanceEnabler removedInstance = instances.remove(instanceId);
         if (removedInstance != null) {
             fireInstancesRemoved(removedInstance.getId());
@@ -205,7 +208,11 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
         if (path.isObject()) {
             List<LwM2mObjectInstance> lwM2mObjectInstances = new ArrayList<>();
             for (LwM2mInstanceEnabler instance : instances.values()) {
-                ReadResponse response = instance.read(identity);
+                ReadResponse response;
+                // read lock is shared, serialize calls to a same instance
+                synchronized (instance) {
+                    response = instance.read(identity);
+                }
                 if (response.isSuccess()) {
                     lwM2mObjectInstances.add((LwM2mObjectInstance) response.getContent());
                 }
@@ -218,17 +225,19 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
         if (instance == null)
             return ReadResponse.notFound();
 
-        if (path.getResourceId() == null) {
-            return instance.read(identity);
-        }
+        synchronized (instance) {
+            if (path.getResourceId() == null) {
+                return instance.read(identity);
+            }
 
-        // Manage Resource case
-        if (path.getResourceInstanceId() == null) {
-            return instance.read(identity, path.getResourceId());
-        }
+            // Manage Resource case
+            if (path.getResourceInstanceId() == null) {
+                return instance.read(identity, path.getResourceId());
+            }
 
-        // Manage Resource Instance case
-        return instance.read(identity, path.getResourceId(), path.getResourceInstanceId());
+            // Manage Resource Instance case
+            return instance.read(identity, path.getResourceId(), path.getResourceInstanceId());
+        }
     }
 
     @Override
@@ -247,7 +256,11 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
         if (path.isObject()) {
             List<LwM2mObjectInstance> lwM2mObjectInstances = new ArrayList<>();
             for (LwM2mInstanceEnabler instance : instances.values()) {
-                ReadResponse response = instance.observe(identity);
+                ReadResponse response;
+                // read lock is shared, serialize calls to a same instance
+                synchronized (instance) {
+                    response = instance.observe(identity);
+                }
                 if (response.isSuccess()) {
                     lwM2mObjectInstances.add((LwM2mObjectInstance) response.getContent());
                 }
@@ -260,17 +273,19 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
         if (instance == null)
             return ObserveResponse.notFound();
 
-        if (path.getResourceId() == null) {
-            return instance.observe(identity);
-        }
+        synchronized (instance) {
+            if (path.getResourceId() == null) {
+                return instance.observe(identity);
+            }
 
-        // Manage Resource case
-        if (path.getResourceInstanceId() == null) {
-            return instance.observe(identity, path.getResourceId());
-        }
+            // Manage Resource case
+            if (path.getResourceInstanceId() == null) {
+                return instance.observe(identity, path.getResourceId());
+            }
 
-        // Manage Resource Instance case
-        return instance.observe(identity, path.getResourceId(), path.getResourceInstanceId());
+            // Manage Resource Instance case
+            return instance.observe(identity, path.getResourceId(), path.getResourceInstanceId());
+        }
     }
 
     @Override
@@ -288,8 +303,13 @@ public class ObjectEnabler extends BaseObjectEnabler implements Destroyable, Sta
 
         // Manage Resource case
         if (path.getResourceInstanceId() == null) {
-            return instance.write(identity, request.isReplaceRequest(), path.getResourceId(),
-                    (LwM2mResource) request.getNode());
+            LwM2mResource resource = (LwM2mResource) request.getNode();
+            if (ContentFormat.OPAQUE.equals(request.getContentFormat()) && !resource.isMultiInstances()
+                    && resource.getType() == Type.OPAQUE) {
+                return instance.write(identity, request.isReplaceRequest(), path.getResourceId(),
+                        OpaqueContent.fromBytes((byte[]) resource.getValue()));
+            }
+            return instance.write(identity, request.isReplaceRequest(), path.getResourceId(), resource);
         }
 
         // Manage Resource Instance case
@@ -209,7 +209,7 @@ public class RootEnabler implements LwM2mRootEnabler {
     }
 
     @Override
-    public synchronized ObserveCompositeResponse observe(ServerIdentity identity, ObserveCompositeRequest request) {
+    public ObserveCompositeResponse observe(ServerIdentity identity, ObserveCompositeRequest request) {
         List<LwM2mPath> paths = request.getPaths();
 
         // Read Nodes
@@ -17,8 +17,10 @@ package org.eclipse.leshan.client.resource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.leshan.client.resource.listener.ObjectListener;
+import org.eclipse.leshan.client.servers.ServerIdentity;
 import org.eclipse.leshan.core.node.LwM2mPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +29,8 @@ import org.slf4j.LoggerFactory;
  * An {@link ObjectListener} which is able to store notification during transaction and raise all grouped event at the
  * end of the transaction.
  * <p>
- * This class is not threadsafe.
+ * This class is threadsafe. Transaction state is guarded by this listener, but events are always raised outside of this
+ * lock so inner listeners can safely call back the {@link LwM2mObjectEnabler}.
  */
 public class TransactionalObjectListener implements ObjectListener {
 
@@ -39,7 +42,7 @@ public class TransactionalObjectListener implements ObjectListener {
     protected List<LwM2mPath> resourcesChanged = new ArrayList<>();
 
     protected LwM2mObjectEnabler objectEnabler;
-    protected List<ObjectListener> innerListeners = new ArrayList<ObjectListener>();
+    protected List<ObjectListener> innerListeners = new CopyOnWriteArrayList<ObjectListener>();
 
     public TransactionalObjectListener(LwM2mObjectEnabler objectEnabler) {
         this.objectEnabler = objectEnabler;
@@ -61,7 +64,7 @@ public class TransactionalObjectListener implements ObjectListener {
      *
      * @param level the transaction level, a not 0 positive integer.
      */
-    public void beginTransaction(byte level) {
+    public synchronized void beginTransaction(byte level) {
         if (level <= 0) {
             throw new IllegalArgumentException("level must be > 0.");
         }
@@ -78,75 +81,106 @@ public class TransactionalObjectListener implements ObjectListener {
     }
 
     public void endTransaction(byte level) {
-        if (currentLevel == level) {
-            try {
-                fireStoredEvents();
-            } catch (Exception e) {
-                LOG.warn("Exception raised when we fired Event about object {}", objectEnabler.getId(), e);
+        int[] added;
+        int[] removed;
+        LwM2mPath[] changed;
+        synchronized (this) {
+            if (currentLevel != level) {
+                return;
             }
+            // collect stored events, they will be raised outside of the lock
+            added = toIntArray(instancesAdded);
+            removed = toIntArray(instancesRemoved);
+            changed = resourcesChanged.toArray(new LwM2mPath[resourcesChanged.size()]);
             instancesAdded.clear();
             instancesRemoved.clear();
             resourcesChanged.clear();
             currentLevel = 0;
         }
+        try {
+            fireStoredEvents(added, removed, changed);
+        } catch (Exception e) {
+            LOG.warn("Exception raised when we fired Event about object {}", objectEnabler.getId(), e);
+        }
     }
 
     protected boolean inTransaction() {
         return currentLevel > 0;
     }
 
+    /**
+     * Raise events currently stored by this listener. Stored events are not cleared.
+     */
     protected void fireStoredEvents() {
-        if (!instancesAdded.isEmpty())
-            fireObjectInstancesAdded(toIntArray(instancesAdded));
-        if (!instancesRemoved.isEmpty())
-            fireObjectInstancesRemoved(toIntArray(instancesRemoved));
-        if (!resourcesChanged.isEmpty())
-            fireResourcesChanged(resourcesChanged.toArray(new LwM2mPath[resourcesChanged.size()]));
+        int[] added;
+        int[] removed;
+        LwM2mPath[] changed;
+        synchronized (this) {
+            added = toIntArray(instancesAdded);
+            removed = toIntArray(instancesRemoved);
+            changed = resourcesChanged.toArray(new LwM2mPath[resourcesChanged.size()]);
+        }
+        fireStoredEvents(added, removed, changed);
+    }
+
+    protected void fireStoredEvents(int[] added, int[] removed, LwM2mPath[] changed) {
+        if (added.length > 0)
+            fireObjectInstancesAdded(added);
+        if (removed.length > 0)
+            fireObjectInstancesRemoved(removed);
+        if (changed.length > 0)
+            fireResourcesChanged(changed);
     }
 
     @Override
     public void objectInstancesAdded(LwM2mObjectEnabler object, int... instanceIds) {
-        if (!inTransaction()) {
-            fireObjectInstancesAdded(instanceIds);
-        } else {
-            // store additions
-            for (int instanceId : instanceIds) {
-                if (instancesRemoved.contains(instanceId)) {
-                    instancesRemoved.remove(instanceId);
-                } else if (!instancesAdded.contains(instanceId)) {
-                    instancesAdded.add(instanceId);
+        synchronized (this) {
+            if (inTransaction()) {
+                // store additions
+                for (int instanceId : instanceIds) {
+                    if (instancesRemoved.contains(instanceId)) {
+                        instancesRemoved.remove((Integer) instanceId);
+                    } else if (!instancesAdded.contains(instanceId)) {
+                        instancesAdded.add(instanceId);
+                    }
                 }
+                return;
             }
         }
+        fireObjectInstancesAdded(instanceIds);
     }
 
     @Override
     public void objectInstancesRemoved(LwM2mObjectEnabler object, int... instanceIds) {
-        if (!inTransaction()) {
-            fireObjectInstancesRemoved(instanceIds);
-        } else {
-            // store deletion
-            for (int instanceId : instanceIds) {
-                if (instancesAdded.contains(instanceId)) {
-                    instancesAdded.remove(instanceId);
-                } else if (!instancesRemoved.contains(instanceId)) {
-                    instancesRemoved.add(instanceId);
+        synchronized (this) {
+            if (inTransaction()) {
+                // store deletion
+                for (int instanceId : instanceIds) {
+                    if (instancesAdded.contains(instanceId)) {
+                        instancesAdded.remove((Integer) instanceId);
+                    } else if (!instancesRemoved.contains(instanceId)) {
+                        instancesRemoved.add(instanceId);
+                    }
                 }
+                return;
             }
         }
+        fireObjectInstancesRemoved(instanceIds);
     }
 
     @Override
     public void resourceChanged(LwM2mPath... paths) {
-        if (!inTransaction()) {
-            fireResourcesChanged(paths);
-        } else {
-            for (LwM2mPath path : paths) {
-                if (!resourcesChanged.contains(path)) {
-                    resourcesChanged.add(path);
+        synchronized (this) {
+            if (inTransaction()) {
+                for (LwM2mPath path : paths) {
+                    if (!resourcesChanged.contains(path)) {
+                        resourcesChanged.add(path);
+                    }
                 }
+                return;
             }
         }
+        fireResourcesChanged(paths);
     }
 
     protected int[] toIntArray(List<Integer> list) {
@@ -157,6 +191,14 @@ public class TransactionalObjectListener implements ObjectListener {
         return ret;
     }
 
+    @Override
+    public void attributesRemoved(LwM2mObjectEnabler object, ServerIdentity identity) {
+        // attributes are not part of transaction, event is raised immediately
+        for (ObjectListener listener : innerListeners) {
+            listener.attributesRemoved(objectEnabler, identity);
+        }
+    }
+
     protected void fireObjectInstancesAdded(int... instanceIds) {
         for (ObjectListener listener : innerListeners) {
             listener.objectInstancesAdded(objectEnabler, instanceIds);
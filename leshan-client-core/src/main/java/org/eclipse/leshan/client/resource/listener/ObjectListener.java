@@ -16,10 +16,20 @@
 package org.eclipse.leshan.client.resource.listener;
 
 import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.servers.ServerIdentity;
 
 public interface ObjectListener extends ResourceListener {
 
     void objectInstancesAdded(LwM2mObjectEnabler object, int... instanceIds);
 
     void objectInstancesRemoved(LwM2mObjectEnabler object, int... instanceIds);
+
+    /**
+     * Called when attributes written by a server on this object were removed.
+     *
+     * @param object the object enabler
+     * @param identity the server, or <code>null</code> if attributes of all servers were removed.
+     */
+    default void attributesRemoved(LwM2mObjectEnabler object, ServerIdentity identity) {
+    }
 }
@@ -0,0 +1,405 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.send;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.leshan.client.observer.LwM2mClientObserverAdapter;
+import org.eclipse.leshan.client.send.MappedRingBuffer.Batch;
+import org.eclipse.leshan.client.servers.ServerIdentity;
+import org.eclipse.leshan.core.Destroyable;
+import org.eclipse.leshan.core.Startable;
+import org.eclipse.leshan.core.Stoppable;
+import org.eclipse.leshan.core.node.LwM2mNode;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.DefaultLwM2mDecoder;
+import org.eclipse.leshan.core.node.codec.DefaultLwM2mEncoder;
+import org.eclipse.leshan.core.node.codec.LwM2mDecoder;
+import org.eclipse.leshan.core.node.codec.LwM2mEncoder;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.DeregisterRequest;
+import org.eclipse.leshan.core.request.RegisterRequest;
+import org.eclipse.leshan.core.request.UpdateRequest;
+import org.eclipse.leshan.core.response.SendResponse;
+import org.eclipse.leshan.core.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data sender which stores collected data in a file and sends it in batches.
+ * <p>
+ * Each collected sample is encoded in SenML-CBOR and appended to a memory-mapped ring buffer file, so memory usage
+ * stays constant and samples survive a restart. When the file is full, oldest samples are dropped.
+ * <p>
+ * Stored samples are sent using a single Send request to the current LWM2M server when :
+ * <ul>
+ * <li>stored data reaches the batch size,</li>
+ * <li>the oldest stored sample reaches the max age,</li>
+ * <li>the client registers or updates its registration successfully,</li>
+ * <li>{@link #flush()} is called.</li>
+ * </ul>
+ * Samples are removed from the file only once the server acknowledged them with a successful {@link SendResponse}.
+ * <p>
+ * This sender needs to know registration state, it is done automatically when it is used by a
+ * {@link org.eclipse.leshan.client.LeshanClient}.
+ */
+public class BatchDataSender extends LwM2mClientObserverAdapter
+        implements DataSender, Startable, Stoppable, Destroyable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchDataSender.class);
+
+    public final static String DEFAULT_NAME = "BATCH_SENDER";
+
+    private final String name;
+    private final MappedRingBuffer buffer;
+    private final int batchSize;
+    private final long maxAgeInMs;
+    private final long timeoutInMs;
+    private final LwM2mEncoder encoder;
+    private final LwM2mDecoder decoder;
+    private final ScheduledExecutorService executor;
+    private final boolean attachedExecutor;
+
+    private DataSenderManager dataSenderManager;
+    private ServerIdentity currentServer;
+    private boolean sending = false;
+    private ScheduledFuture<?> ageFlushTask;
+
+    protected BatchDataSender(Builder builder) throws IOException {
+        this.name = builder.name;
+        this.buffer = new MappedRingBuffer(builder.file, builder.capacity);
+        this.batchSize = builder.batchSize;
+        this.maxAgeInMs = builder.maxAgeInMs;
+        this.timeoutInMs = builder.timeoutInMs;
+        this.encoder = builder.encoder;
+        this.decoder = builder.decoder;
+        this.executor = builder.executor;
+        this.attachedExecutor = builder.attachedExecutor;
+    }
+
+    /**
+     * Read current values of given paths and store them.
+     */
+    public void collectData(List<LwM2mPath> paths) {
+        Instant currentTimestamp = Instant.now();
+        Map<LwM2mPath, LwM2mNode> currentValues = dataSenderManager.getCurrentValues(ServerIdentity.SYSTEM, paths);
+        byte[] sample = encoder.encodeTimestampedNodes(
+                new TimestampedLwM2mNodes.Builder().addNodes(currentTimestamp, currentValues).build(),
+                ContentFormat.SENML_CBOR, dataSenderManager.getModel());
+
+        boolean batchFull;
+        synchronized (this) {
+            int dropped = buffer.append(sample);
+            if (dropped > 0) {
+                LOG.warn("Sender {} is full : {} oldest samples dropped", name, dropped);
+            }
+            batchFull = buffer.size() >= batchSize;
+            if (!batchFull) {
+                scheduleAgeFlush();
+            }
+        }
+        if (batchFull) {
+            flush();
+        }
+    }
+
+    /**
+     * Send stored data asynchronously to the current server. Nothing is done if there is no stored data, no registered
+     * server or a Send request is already in progress.
+     */
+    public void flush() {
+        executor.execute(this::doFlush);
+    }
+
+    /**
+     * @return number of bytes used by stored samples.
+     */
+    public synchronized long getStoredDataSize() {
+        return buffer.size();
+    }
+
+    protected void doFlush() {
+        ServerIdentity server;
+        Batch batch;
+        synchronized (this) {
+            if (sending || currentServer == null || buffer.isEmpty()) {
+                return;
+            }
+            server = currentServer;
+            batch = buffer.peek(batchSize);
+            sending = true;
+        }
+
+        // rebuild data to send from stored samples, stopping at first invalid one
+        TimestampedLwM2mNodes.Builder builder = new TimestampedLwM2mNodes.Builder().raiseExceptionOnDuplicate(false);
+        int validSamples = 0;
+        for (byte[] sample : batch.records) {
+            try {
+                builder.add(
+                        decoder.decodeTimestampedNodes(sample, ContentFormat.SENML_CBOR, dataSenderManager.getModel()));
+                validSamples++;
+            } catch (CodecException | IllegalArgumentException e) {
+                if (validSamples == 0) {
+                    // only this sample is dropped, next ones will be sent by next flush
+                    LOG.warn("Sender {} drops invalid stored sample", name, e);
+                    onInvalidSample(batch.first(1));
+                    return;
+                }
+                break;
+            }
+        }
+        if (validSamples < batch.records.size()) {
+            // send valid samples only, invalid one will be dropped by next flush
+            batch = batch.first(validSamples);
+        }
+        TimestampedLwM2mNodes data = builder.build();
+        Batch sentBatch = batch;
+
+        try {
+            dataSenderManager.sendData(server, ContentFormat.SENML_CBOR, data, response -> {
+                if (response.isFailure()) {
+                    LOG.debug("Unable to send stored data to {} : {} {}", server, response.getCode(),
+                            response.getErrorMessage());
+                }
+                onSendResult(sentBatch, response.isSuccess());
+            }, error -> {
+                LOG.debug("Unable to send stored data to {}", server, error);
+                onSendResult(sentBatch, false);
+            }, timeoutInMs);
+        } catch (RuntimeException e) {
+            LOG.debug("Unable to send stored data to {}", server, e);
+            onSendResult(sentBatch, false);
+        }
+    }
+
+    protected void onSendResult(Batch batch, boolean success) {
+        boolean flushAgain;
+        synchronized (this) {
+            sending = false;
+            if (success) {
+                buffer.acknowledge(batch);
+            }
+            flushAgain = success && buffer.size() >= batchSize;
+            if (!flushAgain) {
+                // remaining data or failed data will be retried later
+                scheduleAgeFlush();
+            }
+        }
+        if (flushAgain) {
+            flush();
+        }
+    }
+
+    private void onInvalidSample(Batch invalidSample) {
+        synchronized (this) {
+            sending = false;
+            buffer.acknowledge(invalidSample);
+        }
+        flush();
+    }
+
+    private synchronized void scheduleAgeFlush() {
+        if (ageFlushTask == null && !buffer.isEmpty() && !executor.isShutdown()) {
+            ageFlushTask = executor.schedule(() -> {
+                synchronized (BatchDataSender.this) {
+                    ageFlushTask = null;
+                }
+                doFlush();
+            }, maxAgeInMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void onServerAvailable(ServerIdentity server) {
+        if (server.isLwm2mServer()) {
+            currentServer = server;
+            flush();
+        }
+    }
+
+    @Override
+    public void onRegistrationSuccess(ServerIdentity server, RegisterRequest request, String registrationID) {
+        onServerAvailable(server);
+    }
+
+    @Override
+    public void onUpdateSuccess(ServerIdentity server, UpdateRequest request) {
+        onServerAvailable(server);
+    }
+
+    @Override
+    public synchronized void onDeregistrationStarted(ServerIdentity server, DeregisterRequest request) {
+        if (server.equals(currentServer)) {
+            currentServer = null;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduleAgeFlush();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (ageFlushTask != null) {
+            ageFlushTask.cancel(false);
+            ageFlushTask = null;
+        }
+        currentServer = null;
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+        if (attachedExecutor) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                LOG.warn("Destroying {} sender was interrupted.", name, e);
+            }
+        }
+        synchronized (this) {
+            try {
+                buffer.close();
+            } catch (IOException e) {
+                LOG.warn("Unable to close file of {} sender.", name, e);
+            }
+        }
+    }
+
+    @Override
+    public void setDataSenderManager(DataSenderManager dataSenderManager) {
+        this.dataSenderManager = dataSenderManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public static class Builder {
+
+        private final File file;
+        private String name = DEFAULT_NAME;
+        private int capacity = 1024 * 1024;
+        private int batchSize = 16 * 1024;
+        private long maxAgeInMs = 60 * 1000;
+        private long timeoutInMs = 30 * 1000;
+        private LwM2mEncoder encoder;
+        private LwM2mDecoder decoder;
+        private ScheduledExecutorService executor;
+        private boolean attachedExecutor = true;
+
+        /**
+         * @param file the file used to store collected data. It is created if it does not exist.
+         */
+        public Builder(File file) {
+            this.file = file;
+        }
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @param capacity size in bytes of the file used to store data. Default is 1MB.
+         */
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param batchSize maximum size in bytes of stored data sent in one Send request. Data is sent as soon as this
+         *        size is reached. Default is 16KB.
+         */
+        public Builder setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param maxAge maximum time a sample is stored before trying to send it. Default is 1 minute.
+         */
+        public Builder setMaxAge(long maxAge, TimeUnit unit) {
+            this.maxAgeInMs = unit.toMillis(maxAge);
+            return this;
+        }
+
+        /**
+         * @param timeout timeout of Send requests. Default is 30 seconds.
+         */
+        public Builder setTimeout(long timeout, TimeUnit unit) {
+            this.timeoutInMs = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder setEncoder(LwM2mEncoder encoder) {
+            this.encoder = encoder;
+            return this;
+        }
+
+        public Builder setDecoder(LwM2mDecoder decoder) {
+            this.decoder = decoder;
+            return this;
+        }
+
+        /**
+         * Set a shared executor. Executor will not be shutdown automatically on {@link BatchDataSender#destroy()}.
+         */
+        public Builder setSharedExecutor(ScheduledExecutorService executor) {
+            this.executor = executor;
+            this.attachedExecutor = false;
+            return this;
+        }
+
+        /**
+         * Create the {@link BatchDataSender} and open its file.
+         *
+         * @throws IOException if file can not be opened.
+         */
+        public BatchDataSender build() throws IOException {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batch size must be > 0");
+            }
+            if (maxAgeInMs <= 0) {
+                throw new IllegalArgumentException("max age must be > 0");
+            }
+            if (encoder == null) {
+                encoder = new DefaultLwM2mEncoder();
+            }
+            if (decoder == null) {
+                decoder = new DefaultLwM2mDecoder();
+            }
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Leshan Batch Sender"));
+                attachedExecutor = true;
+            }
+            return new BatchDataSender(this);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.send;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A ring buffer of binary records backed by a memory-mapped file.
+ * <p>
+ * Records are appended at the tail and consumed from the head. Head and tail positions are stored in the file header,
+ * so records which were not acknowledged are still available after a restart. When there is not enough room for a new
+ * record, oldest records are dropped.
+ * <p>
+ * Positions are absolute and only grow, the offset in the file is the position modulo capacity.
+ * <p>
+ * File is forced to the storage device each time records are consumed, so acknowledged records are not sent again after
+ * a crash. Record lengths are checked when file is reopened : if they are not consistent with positions, buffer is
+ * reset.
+ * <p>
+ * This class is not threadsafe.
+ */
+class MappedRingBuffer implements Closeable {
+
+    private static final int MAGIC = 0x4C524246; // "LRBF"
+    // magic (4 bytes) + capacity (4 bytes) + head (8 bytes) + tail (8 bytes)
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_HEADER_SIZE = 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private long head;
+    private long tail;
+
+    /**
+     * A group of consecutive records read from the buffer.
+     */
+    static class Batch {
+        final List<byte[]> records;
+        final long start;
+        final long end;
+
+        Batch(List<byte[]> records, long start, long end) {
+            this.records = records;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @return a batch containing only the <code>count</code> first records of this batch.
+         */
+        Batch first(int count) {
+            long position = start;
+            for (int i = 0; i < count; i++) {
+                position += RECORD_HEADER_SIZE + records.get(i).length;
+            }
+            return new Batch(records.subList(0, count), start, position);
+        }
+    }
+
+    public MappedRingBuffer(File file, int capacity) throws IOException {
+        if (capacity <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException(String.format("capacity must be greater than %d", RECORD_HEADER_SIZE));
+        }
+        this.capacity = capacity;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == capacity) {
+            head = buffer.getLong(8);
+            tail = buffer.getLong(16);
+            if (head < 0 || tail < head || tail - head > capacity || !hasValidRecords()) {
+                // inconsistent file, we restart from an empty buffer
+                head = 0;
+                tail = 0;
+            }
+        } else {
+            // new file or file created with another capacity
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, capacity);
+            head = 0;
+            tail = 0;
+        }
+        storePositions();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of bytes used by records (including record headers)
+     */
+    public long size() {
+        return tail - head;
+    }
+
+    public boolean isEmpty() {
+        return tail == head;
+    }
+
+    /**
+     * Append a record at the tail of the buffer, dropping oldest records if needed.
+     *
+     * @return the number of dropped records.
+     * @throws IllegalArgumentException if record can not fit in the buffer even if empty.
+     */
+    public int append(byte[] record) {
+        int length = RECORD_HEADER_SIZE + record.length;
+        if (length > capacity) {
+            throw new IllegalArgumentException(
+                    String.format("record of %d bytes can not fit in a buffer of %d bytes", record.length, capacity));
+        }
+
+        int dropped = 0;
+        while (capacity - size() < length) {
+            head += RECORD_HEADER_SIZE + readInt(head);
+            dropped++;
+        }
+
+        write(tail, ByteBuffer.allocate(RECORD_HEADER_SIZE).putInt(0, record.length).array());
+        write(tail + RECORD_HEADER_SIZE, record);
+        tail += length;
+        storePositions();
+        return dropped;
+    }
+
+    /**
+     * Read records from the head of the buffer without consuming them.
+     *
+     * @param maxBytes the maximum number of record bytes to read, at least 1 record is read.
+     */
+    public Batch peek(int maxBytes) {
+        if (isEmpty()) {
+            return new Batch(Collections.<byte[]> emptyList(), head, head);
+        }
+        List<byte[]> records = new ArrayList<>();
+        long position = head;
+        int bytes = 0;
+        while (position < tail) {
+            int length = readInt(position);
+            if (!isValidLength(position, length)) {
+                // should not happen as records are checked on opening, but never read outside of stored records
+                Batch batch = new Batch(records, head, position);
+                clear();
+                return batch;
+            }
+            if (!records.isEmpty() && bytes + length > maxBytes) {
+                break;
+            }
+            byte[] record = new byte[length];
+            read(position + RECORD_HEADER_SIZE, record);
+            records.add(record);
+            bytes += length;
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return new Batch(records, head, position);
+    }
+
+    /**
+     * Consume all records of the given batch.
+     * <p>
+     * If some of those records were already dropped to make room for new ones, only remaining ones are consumed.
+     */
+    public void acknowledge(Batch batch) {
+        if (batch.end > head) {
+            head = batch.end;
+            storePositions();
+            buffer.force();
+        }
+    }
+
+    public void clear() {
+        head = tail;
+        storePositions();
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * @return <code>true</code> if records between head and tail are consistent with their lengths.
+     */
+    private boolean hasValidRecords() {
+        long position = head;
+        while (position < tail) {
+            int length = readInt(position);
+            if (!isValidLength(position, length)) {
+                return false;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return true;
+    }
+
+    private boolean isValidLength(long position, int length) {
+        return length >= 0 && RECORD_HEADER_SIZE + (long) length <= tail - position;
+    }
+
+    private void storePositions() {
+        buffer.putLong(8, head);
+        buffer.putLong(16, tail);
+    }
+
+    private int offset(long position) {
+        return (int) (position % capacity);
+    }
+
+    private int readInt(long position) {
+        byte[] bytes = new byte[RECORD_HEADER_SIZE];
+        read(position, bytes);
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    private void write(long position, byte[] src) {
+        int offset = offset(position);
+        int firstPart = Math.min(src.length, capacity - offset);
+        ByteBuffer dest = ((ByteBuffer) buffer).duplicate();
+        ((Buffer) dest).position(HEADER_SIZE + offset);
+        dest.put(src, 0, firstPart);
+        if (firstPart < src.length) {
+            // wrap around the end of the buffer
+            ((Buffer) dest).position(HEADER_SIZE);
+            dest.put(src, firstPart, src.length - firstPart);
+        }
+    }
+
+    private void read(long position, byte[] dst) {
+        int offset = offset(position);
+        int firstPart = Math.min(dst.length, capacity - offset);
+        ByteBuffer src = ((ByteBuffer) buffer).duplicate();
+        ((Buffer) src).position(HEADER_SIZE + offset);
+        src.get(dst, 0, firstPart);
+        if (firstPart < dst.length) {
+            // wrap around the end of the buffer
+            ((Buffer) src).position(HEADER_SIZE);
+            src.get(dst, firstPart, dst.length - firstPart);
+        }
+    }
+}
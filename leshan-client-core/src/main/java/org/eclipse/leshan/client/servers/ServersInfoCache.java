@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.servers;
+
+import static org.eclipse.leshan.core.LwM2mId.OSCORE;
+import static org.eclipse.leshan.core.LwM2mId.SECURITY;
+import static org.eclipse.leshan.core.LwM2mId.SERVER;
+
+import java.util.Map;
+
+import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.resource.listener.ObjectsListener;
+import org.eclipse.leshan.core.node.LwM2mPath;
+
+/**
+ * A cache of the {@link ServersInfo} extracted from an object tree.
+ * <p>
+ * {@link ServersInfoExtractor} reads and decodes the whole Security, Server and OSCORE objects. This class keeps the
+ * result until one of those objects is modified. It must be registered as listener of the object tree. As Security and
+ * OSCORE objects are generally not writable by LWM2M servers, changes made to them without raising events (e.g. during
+ * a bootstrap session) must be followed by a call to {@link #invalidate()}.
+ * <p>
+ * Returned {@link ServersInfo} is shared and must not be modified.
+ */
+public class ServersInfoCache implements ObjectsListener {
+
+    private final Map<Integer, LwM2mObjectEnabler> objectEnablers;
+
+    private long version = 0;
+    private volatile ServersInfo info;
+
+    public ServersInfoCache(Map<Integer, LwM2mObjectEnabler> objectEnablers) {
+        this.objectEnablers = objectEnablers;
+    }
+
+    public ServersInfo getInfo() {
+        ServersInfo current = info;
+        if (current != null)
+            return current;
+
+        long expectedVersion;
+        synchronized (this) {
+            expectedVersion = version;
+        }
+        // extract outside of the lock as reading object enablers could take some time.
+        current = ServersInfoExtractor.getInfo(objectEnablers);
+        synchronized (this) {
+            // do not store value if cache was invalidated during extraction
+            if (expectedVersion == version) {
+                info = current;
+            }
+        }
+        return current;
+    }
+
+    public DmServerInfo getDMServerInfo(Long shortID) {
+        ServersInfo info = getInfo();
+        if (info == null)
+            return null;
+
+        return info.deviceManagements.get(shortID);
+    }
+
+    public ServerInfo getBootstrapServerInfo() {
+        ServersInfo info = getInfo();
+        if (info == null)
+            return null;
+
+        return info.bootstrap;
+    }
+
+    public synchronized void invalidate() {
+        version++;
+        info = null;
+    }
+
+    protected boolean isServersObject(int objectId) {
+        return objectId == SECURITY || objectId == SERVER || objectId == OSCORE;
+    }
+
+    @Override
+    public void objectAdded(LwM2mObjectEnabler object) {
+        if (isServersObject(object.getId()))
+            invalidate();
+    }
+
+    @Override
+    public void objectRemoved(LwM2mObjectEnabler object) {
+        if (isServersObject(object.getId()))
+            invalidate();
+    }
+
+    @Override
+    public void objectInstancesAdded(LwM2mObjectEnabler object, int... instanceIds) {
+        if (isServersObject(object.getId()))
+            invalidate();
+    }
+
+    @Override
+    public void objectInstancesRemoved(LwM2mObjectEnabler object, int... instanceIds) {
+        if (isServersObject(object.getId()))
+            invalidate();
+    }
+
+    @Override
+    public void resourceChanged(LwM2mPath... paths) {
+        for (LwM2mPath path : paths) {
+            if (path.isRoot() || isServersObject(path.getObjectId())) {
+                invalidate();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.resource.listener.ObjectsListener;
+import org.eclipse.leshan.core.link.Link;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.request.ContentFormat;
+
+/**
+ * A cache of the client description (the object links sent in Register and Update requests).
+ * <p>
+ * Links are cached by object and only the objects impacted by an {@link ObjectsListener} event are recomputed, so
+ * building the description does not walk the whole object tree on each registration update.
+ * <p>
+ * This class must be registered as listener of the object tree it describes.
+ *
+ * @see LinkFormatHelper#getClientDescription(java.util.Collection, String, List)
+ */
+public class ClientDescriptionCache implements ObjectsListener {
+
+    private final Map<Integer, LwM2mObjectEnabler> objectEnablers;
+    private final ConcurrentHashMap<Integer, List<Link>> linksByObject = new ConcurrentHashMap<>();
+
+    public ClientDescriptionCache(Map<Integer, LwM2mObjectEnabler> objectEnablers) {
+        this.objectEnablers = objectEnablers;
+    }
+
+    /**
+     * @param supportedContentFormats content formats to advertise in the root link, can be <code>null</code>.
+     * @return the client description.
+     */
+    public Link[] getClientDescription(List<ContentFormat> supportedContentFormats) {
+        List<Link> links = new ArrayList<>();
+        links.add(LinkFormatHelper.getRootLink(null, supportedContentFormats));
+        for (final LwM2mObjectEnabler objectEnabler : new TreeMap<>(objectEnablers).values()) {
+            // computeIfAbsent blocks a concurrent invalidation for this object until links are stored, so an event
+            // fired during computation can not be lost.
+            links.addAll(linksByObject.computeIfAbsent(objectEnabler.getId(),
+                    id -> LinkFormatHelper.getObjectLinks(objectEnabler, null)));
+        }
+        return links.toArray(new Link[links.size()]);
+    }
+
+    public void invalidate() {
+        linksByObject.clear();
+    }
+
+    @Override
+    public void objectAdded(LwM2mObjectEnabler object) {
+        linksByObject.remove(object.getId());
+    }
+
+    @Override
+    public void objectRemoved(LwM2mObjectEnabler object) {
+        linksByObject.remove(object.getId());
+    }
+
+    @Override
+    public void objectInstancesAdded(LwM2mObjectEnabler object, int... instanceIds) {
+        linksByObject.remove(object.getId());
+    }
+
+    @Override
+    public void objectInstancesRemoved(LwM2mObjectEnabler object, int... instanceIds) {
+        linksByObject.remove(object.getId());
+    }
+
+    @Override
+    public void resourceChanged(LwM2mPath... paths) {
+        // resource values are not part of client description
+    }
+}
@@ -63,14 +63,7 @@ public final class LinkFormatHelper {
         List<Link> links = new ArrayList<>();
 
         // create links for root
-        List<Attribute> attributes = new ArrayList<>();
-        attributes.add(new ResourceTypeAttribute("oma.lwm2m"));
-        // serialize contentFormat;
-        if (supportedContentFormats != null && !supportedContentFormats.isEmpty()) {
-            attributes.add(new ContentFormatAttribute(supportedContentFormats));
-        }
-
-        links.add(new MixedLwM2mLink(rootPath, LwM2mPath.ROOTPATH, attributes));
+        links.add(getRootLink(rootPath, supportedContentFormats));
 
         // sort object
         List<LwM2mObjectEnabler> objEnablerList = new ArrayList<>(objectEnablers);
@@ -81,24 +74,47 @@ public final class LinkFormatHelper {
             }
         });
         for (LwM2mObjectEnabler objectEnabler : objEnablerList) {
-            // skip the security and oscore Object
-            if (objectEnabler.getId() == LwM2mId.SECURITY || objectEnabler.getId() == LwM2mId.OSCORE)
-                continue;
-
-            List<Integer> availableInstance = objectEnabler.getAvailableInstanceIds();
-            // Include an object link if there are no instances or there are object attributes (e.g. "ver")
-            List<LwM2mAttribute<?>> objectAttributes = getObjectAttributes(objectEnabler.getObjectModel());
-            if (availableInstance.isEmpty() || (objectAttributes != null)) {
-                links.add(new MixedLwM2mLink(rootPath, new LwM2mPath(objectEnabler.getId()), objectAttributes));
-            }
-            for (Integer instanceId : objectEnabler.getAvailableInstanceIds()) {
-                links.add(new MixedLwM2mLink(rootPath, new LwM2mPath(objectEnabler.getId(), instanceId)));
-            }
+            links.addAll(getObjectLinks(objectEnabler, rootPath));
         }
 
         return links.toArray(new Link[] {});
     }
 
+    /**
+     * @return the root link of a client description (Register/Update payload).
+     */
+    public static Link getRootLink(String rootPath, List<ContentFormat> supportedContentFormats) {
+        List<Attribute> attributes = new ArrayList<>();
+        attributes.add(new ResourceTypeAttribute("oma.lwm2m"));
+        // serialize contentFormat;
+        if (supportedContentFormats != null && !supportedContentFormats.isEmpty()) {
+            attributes.add(new ContentFormatAttribute(supportedContentFormats));
+        }
+        return new MixedLwM2mLink(rootPath, LwM2mPath.ROOTPATH, attributes);
+    }
+
+    /**
+     * @return the links describing the given object in a client description (Register/Update payload). Security and
+     *         OSCORE objects are never described so an empty list is returned for them.
+     */
+    public static List<Link> getObjectLinks(LwM2mObjectEnabler objectEnabler, String rootPath) {
+        // skip the security and oscore Object
+        if (objectEnabler.getId() == LwM2mId.SECURITY || objectEnabler.getId() == LwM2mId.OSCORE)
+            return Collections.emptyList();
+
+        List<Link> links = new ArrayList<>();
+        List<Integer> availableInstance = objectEnabler.getAvailableInstanceIds();
+        // Include an object link if there are no instances or there are object attributes (e.g. "ver")
+        List<LwM2mAttribute<?>> objectAttributes = getObjectAttributes(objectEnabler.getObjectModel());
+        if (availableInstance.isEmpty() || (objectAttributes != null)) {
+            links.add(new MixedLwM2mLink(rootPath, new LwM2mPath(objectEnabler.getId()), objectAttributes));
+        }
+        for (Integer instanceId : availableInstance) {
+            links.add(new MixedLwM2mLink(rootPath, new LwM2mPath(objectEnabler.getId(), instanceId)));
+        }
+        return links;
+    }
+
     public static LwM2mLink[] getBootstrapClientDescription(Collection<LwM2mObjectEnabler> objectEnablers) {
         List<Link> links = new ArrayList<>();
         // TODO should be version 1.1 ?
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.leshan.client.resource.BaseInstanceEnabler;
+import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.resource.ObjectsInitializer;
+import org.eclipse.leshan.client.servers.ServerIdentity;
+import org.eclipse.leshan.core.LwM2mId;
+import org.eclipse.leshan.core.ResponseCode;
+import org.eclipse.leshan.core.link.attributes.InvalidAttributeException;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributeSet;
+import org.eclipse.leshan.core.link.lwm2m.attributes.LwM2mAttributes;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.request.WriteAttributesRequest;
+import org.eclipse.leshan.core.response.ReadResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class NotificationManagerTest {
+
+    private static final LwM2mPath BATTERY_LEVEL = new LwM2mPath(3, 0, 9);
+
+    private final ServerIdentity server = new ServerIdentity(
+            Identity.unsecure(new InetSocketAddress("localhost", 5683)), 12345l, URI.create("coap://localhost:5683"));
+
+    private ScheduledExecutorService executor;
+    private TestDevice device;
+    private LwM2mObjectEnabler objectEnabler;
+    private TestNotificationSender sender;
+    private NotificationManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        device = new TestDevice();
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        initializer.setInstancesForObject(LwM2mId.DEVICE, device);
+        objectEnabler = initializer.create(LwM2mId.DEVICE);
+        sender = new TestNotificationSender();
+        manager = new NotificationManager(objectEnabler, executor, sender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void writeAttributes(String path, LwM2mAttributeSet attributes) {
+        ResponseCode code = objectEnabler.writeAttributes(server, new WriteAttributesRequest(path, attributes))
+                .getCode();
+        assertEquals(ResponseCode.CHANGED, code);
+    }
+
+    private void notificationSent(long value) {
+        device.batteryLevel = value;
+        manager.notificationSent(server, BATTERY_LEVEL, LwM2mSingleResource.newIntegerResource(9, value));
+    }
+
+    @Test
+    public void notify_without_attributes() {
+        notificationSent(10);
+        device.batteryLevel = 11;
+
+        assertTrue(manager.shouldNotify(server, BATTERY_LEVEL));
+    }
+
+    @Test
+    public void notify_when_step_reached() {
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.STEP, 5d)));
+        notificationSent(10);
+
+        device.batteryLevel = 14;
+        assertFalse(manager.shouldNotify(server, BATTERY_LEVEL));
+        device.batteryLevel = 5;
+        assertTrue(manager.shouldNotify(server, BATTERY_LEVEL));
+    }
+
+    @Test
+    public void notify_when_thresholds_crossed() {
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.GREATER_THAN, 50d),
+                LwM2mAttributes.create(LwM2mAttributes.LESSER_THAN, 20d)));
+        notificationSent(30);
+
+        device.batteryLevel = 45;
+        assertFalse(manager.shouldNotify(server, BATTERY_LEVEL));
+        device.batteryLevel = 55;
+        assertTrue(manager.shouldNotify(server, BATTERY_LEVEL));
+        device.batteryLevel = 15;
+        assertTrue(manager.shouldNotify(server, BATTERY_LEVEL));
+    }
+
+    @Test
+    public void delay_notification_until_minimum_period() throws InterruptedException {
+        // attribute is written at object level and inherited by resource
+        writeAttributes("/3", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.MINIMUM_PERIOD, 1l)));
+        notificationSent(10);
+
+        device.batteryLevel = 11;
+        assertFalse(manager.shouldNotify(server, BATTERY_LEVEL));
+        device.batteryLevel = 12;
+        assertFalse(manager.shouldNotify(server, BATTERY_LEVEL));
+
+        assertTrue(sender.waitForNotification(3, TimeUnit.SECONDS), "delayed notification should be sent");
+        assertEquals(1, sender.count);
+    }
+
+    @Test
+    public void notify_when_maximum_period_reached() throws InterruptedException {
+        writeAttributes("/3/0", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.MAXIMUM_PERIOD, 1l)));
+        notificationSent(10);
+
+        assertTrue(sender.waitForNotification(3, TimeUnit.SECONDS), "notification should be sent when pmax reached");
+    }
+
+    @Test
+    public void attribute_without_value_removes_it() throws InvalidAttributeException {
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.STEP, 5d)));
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.STEP)));
+
+        assertTrue(objectEnabler.getAttributes(server, BATTERY_LEVEL).isEmpty());
+    }
+
+    @Test
+    public void reject_thresholds_on_non_numeric_resource() {
+        // resource 1 is the manufacturer (string)
+        assertBadRequest("/3/0/1", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.GREATER_THAN, 50d)));
+        assertBadRequest("/3/0/1", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.LESSER_THAN, 50d)));
+        assertBadRequest("/3/0/1", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.STEP, 5d)));
+    }
+
+    @Test
+    public void reject_minimum_period_greater_than_maximum_period() {
+        // consistency is checked against attributes already written
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.MAXIMUM_PERIOD, 5l)));
+        assertBadRequest("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.MINIMUM_PERIOD, 10l)));
+        assertNull(
+                objectEnabler.getAttributes(server, BATTERY_LEVEL).getLwM2mAttribute(LwM2mAttributes.MINIMUM_PERIOD));
+    }
+
+    @Test
+    public void reject_inconsistent_thresholds() {
+        assertBadRequest("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.GREATER_THAN, 20d),
+                LwM2mAttributes.create(LwM2mAttributes.LESSER_THAN, 20d)));
+
+        // lt + 2*st must be lesser than gt
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.GREATER_THAN, 50d),
+                LwM2mAttributes.create(LwM2mAttributes.LESSER_THAN, 20d)));
+        assertBadRequest("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.STEP, 15d)));
+        writeAttributes("/3/0/9", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.STEP, 10d)));
+    }
+
+    @Test
+    public void remove_server_cancels_planned_notifications() throws InterruptedException {
+        writeAttributes("/3/0", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.MAXIMUM_PERIOD, 1l)));
+        notificationSent(10);
+
+        objectEnabler.removeAttributes(server);
+        manager.removeServer(server);
+
+        assertTrue(objectEnabler.getAttributes(server, BATTERY_LEVEL).isEmpty());
+        assertFalse(sender.waitForNotification(2, TimeUnit.SECONDS), "no notification expected after server removal");
+    }
+
+    @Test
+    public void clear_cancels_planned_notifications() throws InterruptedException {
+        writeAttributes("/3/0", new LwM2mAttributeSet(LwM2mAttributes.create(LwM2mAttributes.MAXIMUM_PERIOD, 1l)));
+        notificationSent(10);
+
+        objectEnabler.removeAttributes(null);
+        manager.clear();
+
+        assertTrue(objectEnabler.getAttributes(server, BATTERY_LEVEL).isEmpty());
+        assertFalse(sender.waitForNotification(2, TimeUnit.SECONDS), "no notification expected after clear");
+    }
+
+    private void assertBadRequest(String path, LwM2mAttributeSet attributes) {
+        ResponseCode code = objectEnabler.writeAttributes(server, new WriteAttributesRequest(path, attributes))
+                .getCode();
+        assertEquals(ResponseCode.BAD_REQUEST, code);
+    }
+
+    private static class TestDevice extends BaseInstanceEnabler {
+        volatile long batteryLevel;
+
+        public TestDevice() {
+            super(0);
+        }
+
+        @Override
+        public ReadResponse read(ServerIdentity identity, int resourceid) {
+            if (resourceid == 9) {
+                return ReadResponse.success(resourceid, batteryLevel);
+            }
+            return super.read(identity, resourceid);
+        }
+    }
+
+    private static class TestNotificationSender implements NotificationSender {
+        private final CountDownLatch notified = new CountDownLatch(1);
+        private volatile int count;
+
+        @Override
+        public void sendNotification(ServerIdentity server, LwM2mPath observedPath) {
+            count++;
+            notified.countDown();
+        }
+
+        public boolean waitForNotification(long timeout, TimeUnit unit) throws InterruptedException {
+            return notified.await(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.send;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.leshan.client.servers.ServerIdentity;
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.model.ObjectLoader;
+import org.eclipse.leshan.core.model.StaticModel;
+import org.eclipse.leshan.core.node.LwM2mNode;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.response.ErrorCallback;
+import org.eclipse.leshan.core.response.ResponseCallback;
+import org.eclipse.leshan.core.response.SendResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BatchDataSenderTest {
+
+    private static final LwM2mModel model = new StaticModel(ObjectLoader.loadAllDefault());
+
+    private final ServerIdentity givenServer = new ServerIdentity(
+            Identity.unsecure(new InetSocketAddress("localhost", 5683)), 12345l, URI.create("coap://localhost:5683"));
+    private final List<LwM2mPath> givenPaths = Arrays.asList(new LwM2mPath(3, 0, 9), new LwM2mPath(3, 0, 10));
+
+    @TempDir
+    File folder;
+
+    private File file;
+    private ScheduledExecutorService executor;
+    private BatchDataSender sender;
+    private FakeDataSenderManager manager;
+
+    @BeforeEach
+    public void prepareDataSender() throws IOException {
+        file = new File(folder, "send.data");
+        executor = new ScheduledThreadPoolExecutor(1);
+        sender = createSender();
+    }
+
+    @AfterEach
+    public void destroy() {
+        sender.destroy();
+        executor.shutdownNow();
+    }
+
+    private BatchDataSender createSender() throws IOException {
+        BatchDataSender sender = new BatchDataSender.Builder(file).setCapacity(4096).setMaxAge(1, TimeUnit.HOURS)
+                .setSharedExecutor(executor).build();
+        manager = new FakeDataSenderManager(sender);
+        return sender;
+    }
+
+    @Test
+    public void data_are_sent_on_registration_and_acknowledged() throws Exception {
+        List<Map<LwM2mPath, LwM2mNode>> collected = new ArrayList<>();
+        collected.add(manager.changeCurrentValues());
+        sender.collectData(givenPaths);
+        collected.add(manager.changeCurrentValues());
+        sender.collectData(givenPaths);
+
+        // no server available, nothing sent
+        sender.flush();
+        waitForExecutor();
+        assertNull(manager.lastValuesSent);
+
+        // data is sent in only 1 request when server is available
+        sender.onRegistrationSuccess(givenServer, null, "regid");
+        waitForExecutor();
+        sender.flush();
+        waitForExecutor();
+        assertEquals(1, manager.nbSendRequests);
+        assertEquals(collected, valuesByTimestamp(manager.lastValuesSent));
+        assertEquals(0, sender.getStoredDataSize());
+    }
+
+    @Test
+    public void data_are_kept_on_send_failure() throws Exception {
+        sender.onRegistrationSuccess(givenServer, null, "regid");
+        waitForExecutor();
+        Map<LwM2mPath, LwM2mNode> collected = manager.changeCurrentValues();
+        sender.collectData(givenPaths);
+        long storedDataSize = sender.getStoredDataSize();
+
+        manager.success = false;
+        sender.flush();
+        waitForExecutor();
+        assertEquals(storedDataSize, sender.getStoredDataSize());
+
+        manager.success = true;
+        sender.flush();
+        waitForExecutor();
+        assertEquals(Collections.singletonList(collected), valuesByTimestamp(manager.lastValuesSent));
+        assertEquals(0, sender.getStoredDataSize());
+    }
+
+    @Test
+    public void data_survive_restart() throws Exception {
+        Map<LwM2mPath, LwM2mNode> collected = manager.changeCurrentValues();
+        sender.collectData(givenPaths);
+        sender.destroy();
+
+        // recreate sender using same file
+        sender = createSender();
+        assertTrue(sender.getStoredDataSize() > 0);
+        sender.onRegistrationSuccess(givenServer, null, "regid");
+        waitForExecutor();
+        sender.flush();
+        waitForExecutor();
+        assertEquals(Collections.singletonList(collected), valuesByTimestamp(manager.lastValuesSent));
+    }
+
+    @Test
+    public void only_invalid_stored_sample_is_dropped() throws Exception {
+        Map<LwM2mPath, LwM2mNode> firstCollected = manager.changeCurrentValues();
+        sender.collectData(givenPaths);
+        sender.destroy();
+
+        // store an invalid sample between 2 valid ones
+        MappedRingBuffer buffer = new MappedRingBuffer(file, 4096);
+        buffer.append("invalid sample".getBytes());
+        buffer.close();
+        sender = createSender();
+        Map<LwM2mPath, LwM2mNode> lastCollected = manager.changeCurrentValues();
+        sender.collectData(givenPaths);
+
+        // samples before invalid one are sent
+        sender.onRegistrationSuccess(givenServer, null, "regid");
+        waitForExecutor();
+        assertEquals(Collections.singletonList(firstCollected), valuesByTimestamp(manager.lastValuesSent));
+
+        // invalid sample is dropped then next ones are sent
+        sender.flush();
+        waitForExecutor();
+        waitForExecutor();
+        assertEquals(2, manager.nbSendRequests);
+        assertEquals(Collections.singletonList(lastCollected), valuesByTimestamp(manager.lastValuesSent));
+        assertEquals(0, sender.getStoredDataSize());
+    }
+
+    private void waitForExecutor() throws Exception {
+        // executor has only 1 thread, so all previously submitted tasks are done when this one is
+        executor.submit(() -> {
+        }).get(2, TimeUnit.SECONDS);
+    }
+
+    private List<Map<LwM2mPath, LwM2mNode>> valuesByTimestamp(TimestampedLwM2mNodes nodes) {
+        List<Map<LwM2mPath, LwM2mNode>> values = new ArrayList<>();
+        for (Instant timestamp : nodes.getTimestamps()) {
+            values.add(nodes.getNodesAt(timestamp));
+        }
+        return values;
+    }
+
+    private class FakeDataSenderManager extends DataSenderManager {
+
+        private final Random random = new Random();
+        private Map<LwM2mPath, LwM2mNode> currentValues;
+        private TimestampedLwM2mNodes lastValuesSent;
+        private int nbSendRequests = 0;
+        private boolean success = true;
+
+        public FakeDataSenderManager(DataSender dataSender) {
+            super(Collections.singletonMap(dataSender.getName(), dataSender), null, null);
+        }
+
+        public Map<LwM2mPath, LwM2mNode> changeCurrentValues() {
+            currentValues = new HashMap<>();
+            for (LwM2mPath path : givenPaths) {
+                currentValues.put(path,
+                        LwM2mSingleResource.newIntegerResource(path.getResourceId(), random.nextInt(1000)));
+            }
+            return currentValues;
+        }
+
+        @Override
+        public Map<LwM2mPath, LwM2mNode> getCurrentValues(ServerIdentity server, List<LwM2mPath> paths) {
+            return currentValues;
+        }
+
+        @Override
+        public LwM2mModel getModel() {
+            return model;
+        }
+
+        @Override
+        public void sendData(ServerIdentity server, ContentFormat format, TimestampedLwM2mNodes nodes,
+                ResponseCallback<SendResponse> onResponse, ErrorCallback onError, long timeoutInMs) {
+            nbSendRequests++;
+            if (success) {
+                lastValuesSent = nodes;
+                onResponse.onResponse(SendResponse.success());
+            } else {
+                onResponse.onResponse(SendResponse.notFound());
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.send;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.eclipse.leshan.client.send.MappedRingBuffer.Batch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedRingBufferTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void oldest_records_are_dropped_when_full() throws IOException {
+        MappedRingBuffer buffer = new MappedRingBuffer(new File(folder, "ring.data"), 30);
+        // each record uses 4 + 6 bytes
+        assertEquals(0, buffer.append(record(1)));
+        assertEquals(0, buffer.append(record(2)));
+        assertEquals(0, buffer.append(record(3)));
+        assertEquals(1, buffer.append(record(4)));
+
+        Batch batch = buffer.peek(Integer.MAX_VALUE);
+        assertEquals(3, batch.records.size());
+        assertArrayEquals(record(2), batch.records.get(0));
+        assertArrayEquals(record(4), batch.records.get(2));
+        buffer.close();
+    }
+
+    @Test
+    public void records_wrap_around_and_survive_reopening() throws IOException {
+        File file = new File(folder, "ring.data");
+        MappedRingBuffer buffer = new MappedRingBuffer(file, 32);
+        buffer.append(record(1));
+        buffer.append(record(2));
+        buffer.acknowledge(buffer.peek(1));
+        // this one wraps around the end of the file
+        buffer.append(record(3));
+        buffer.append(record(4));
+        buffer.close();
+
+        buffer = new MappedRingBuffer(file, 32);
+        Batch batch = buffer.peek(12);
+        assertEquals(2, batch.records.size());
+        assertArrayEquals(record(2), batch.records.get(0));
+        assertArrayEquals(record(3), batch.records.get(1));
+
+        buffer.acknowledge(batch);
+        batch = buffer.peek(12);
+        assertArrayEquals(record(4), batch.records.get(0));
+        buffer.acknowledge(batch);
+        assertTrue(buffer.isEmpty());
+        buffer.close();
+    }
+
+    @Test
+    public void buffer_with_inconsistent_record_length_is_reset_on_reopening() throws IOException {
+        File file = new File(folder, "ring.data");
+        MappedRingBuffer buffer = new MappedRingBuffer(file, 64);
+        buffer.append(record(1));
+        buffer.append(record(2));
+        buffer.close();
+
+        // corrupt length of second record : 24 bytes of file header + 4 + 6 bytes of first record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(24 + 10);
+            raf.writeInt(1000);
+        }
+
+        buffer = new MappedRingBuffer(file, 64);
+        assertTrue(buffer.isEmpty());
+        assertTrue(buffer.peek(Integer.MAX_VALUE).records.isEmpty());
+
+        // buffer is still usable
+        buffer.append(record(3));
+        assertArrayEquals(record(3), buffer.peek(Integer.MAX_VALUE).records.get(0));
+        buffer.close();
+    }
+
+    @Test
+    public void first_records_of_batch_can_be_acknowledged() throws IOException {
+        MappedRingBuffer buffer = new MappedRingBuffer(new File(folder, "ring.data"), 64);
+        buffer.append(record(1));
+        buffer.append(record(2));
+        buffer.append(record(3));
+
+        buffer.acknowledge(buffer.peek(Integer.MAX_VALUE).first(1));
+        Batch batch = buffer.peek(Integer.MAX_VALUE);
+        assertEquals(2, batch.records.size());
+        assertArrayEquals(record(2), batch.records.get(0));
+        buffer.close();
+    }
+
+    private byte[] record(int value) {
+        return new byte[] { (byte) value, 1, 2, 3, 4, (byte) value };
+    }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.servers;
+
+import static org.eclipse.leshan.core.LwM2mId.SECURITY;
+import static org.eclipse.leshan.core.LwM2mId.SERVER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.leshan.client.object.Security;
+import org.eclipse.leshan.client.object.Server;
+import org.eclipse.leshan.client.resource.BaseInstanceEnabler;
+import org.eclipse.leshan.client.resource.LwM2mObjectTree;
+import org.eclipse.leshan.client.resource.ObjectEnabler;
+import org.eclipse.leshan.client.resource.ObjectsInitializer;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.response.ReadResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ServersInfoCacheTest {
+
+    private final AtomicBoolean invalidateOnNextRead = new AtomicBoolean(false);
+    private LwM2mObjectTree objectTree;
+    private ServersInfoCache cache;
+
+    @BeforeEach
+    public void createCache() {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        initializer.setInstancesForObject(SECURITY, Security.noSec("coap://localhost:5683", 1));
+        initializer.setClassForObject(SERVER, Server.class);
+        objectTree = new LwM2mObjectTree(null, initializer.create(SECURITY, SERVER));
+        addInstance(SERVER, 0, new InvalidatingServer(1));
+        cache = new ServersInfoCache(objectTree.getObjectEnablers());
+        objectTree.addListener(cache);
+    }
+
+    @Test
+    public void servers_info_cache_is_updated_on_servers_object_changes() {
+        ServersInfo info = cache.getInfo();
+        assertEquals(1, info.deviceManagements.size());
+        assertSame(info, cache.getInfo());
+
+        // changes on other objects does not invalidate the cache
+        cache.resourceChanged(new LwM2mPath(3, 0, 1));
+        assertSame(info, cache.getInfo());
+
+        addInstance(SECURITY, 1, Security.noSec("coap://localhost:5684", 2));
+        addInstance(SERVER, 1, new Server(2, 60));
+        info = cache.getInfo();
+        assertEquals(2, info.deviceManagements.size());
+        assertSame(info, cache.getInfo());
+
+        cache.invalidate();
+        assertNotSame(info, cache.getInfo());
+    }
+
+    @Test
+    public void servers_info_is_not_cached_if_invalidated_during_extraction() {
+        invalidateOnNextRead.set(true);
+        ServersInfo info = cache.getInfo();
+        assertEquals(1, info.deviceManagements.size());
+
+        // extraction was concurrent with an invalidation, so its result must not be reused
+        ServersInfo nextInfo = cache.getInfo();
+        assertNotSame(info, nextInfo);
+        assertSame(nextInfo, cache.getInfo());
+    }
+
+    private void addInstance(int objectId, int instanceId, BaseInstanceEnabler instance) {
+        ObjectEnabler objectEnabler = (ObjectEnabler) objectTree.getObjectEnabler(objectId);
+        instance.setId(instanceId);
+        instance.setModel(objectEnabler.getObjectModel());
+        objectEnabler.addInstance(instanceId, instance);
+    }
+
+    private class InvalidatingServer extends Server {
+
+        public InvalidatingServer(int shortServerId) {
+            super(shortServerId, 60);
+        }
+
+        @Override
+        public ReadResponse read(ServerIdentity identity, int resourceid) {
+            if (invalidateOnNextRead.getAndSet(false)) {
+                // simulate a change on servers object while cache extracts servers info
+                cache.invalidate();
+            }
+            return super.read(identity, resourceid);
+        }
+    }
+}
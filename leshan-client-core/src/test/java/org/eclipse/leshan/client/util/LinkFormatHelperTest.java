@@ -35,6 +35,7 @@ import org.eclipse.leshan.client.resource.BaseInstanceEnablerFactory;
 import org.eclipse.leshan.client.resource.DummyInstanceEnabler;
 import org.eclipse.leshan.client.resource.LwM2mInstanceEnabler;
 import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
+import org.eclipse.leshan.client.resource.LwM2mObjectTree;
 import org.eclipse.leshan.client.resource.ObjectEnabler;
 import org.eclipse.leshan.core.LwM2m.LwM2mVersion;
 import org.eclipse.leshan.core.link.DefaultLinkSerializer;
@@ -133,6 +134,28 @@ public class LinkFormatHelperTest {
         assertEquals("</>;rt=\"oma.lwm2m\",</6/0>", strLinks);
     }
 
+    @Test
+    public void client_description_cache_is_updated_on_instance_changes() {
+        Map<Integer, LwM2mInstanceEnabler> instancesMap = new HashMap<>();
+        instancesMap.put(0, new BaseInstanceEnabler());
+        ObjectEnabler locationEnabler = (ObjectEnabler) createObjectEnabler(getObjectModel(6), instancesMap);
+        LwM2mObjectTree objectTree = new LwM2mObjectTree(null, locationEnabler,
+                createObjectEnabler(getObjectModel(3), new HashMap<Integer, LwM2mInstanceEnabler>()));
+        ClientDescriptionCache cache = objectTree.getClientDescriptionCache();
+
+        assertEquals("</>;rt=\"oma.lwm2m\",</3>,</6/0>",
+                serializer.serializeCoreLinkFormat(cache.getClientDescription(null)));
+
+        locationEnabler.addInstance(1, new BaseInstanceEnabler());
+        assertEquals("</>;rt=\"oma.lwm2m\",</3>,</6/0>,</6/1>",
+                serializer.serializeCoreLinkFormat(cache.getClientDescription(null)));
+
+        locationEnabler.removeInstance(0);
+        objectTree.removeObjectEnabler(3);
+        assertEquals("</>;rt=\"oma.lwm2m\",</6/1>",
+                serializer.serializeCoreLinkFormat(cache.getClientDescription(null)));
+    }
+
     @Test
     public void encode_client_description_with_version_2_0() {
         List<LwM2mObjectEnabler> objectEnablers = new ArrayList<>();
@@ -17,17 +17,44 @@
  *******************************************************************************/
 package org.eclipse.leshan.client.util;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.leshan.client.resource.BaseInstanceEnabler;
 import org.eclipse.leshan.client.resource.LwM2mObjectEnabler;
 import org.eclipse.leshan.client.resource.ObjectsInitializer;
 import org.eclipse.leshan.client.servers.ServerIdentity;
 import org.eclipse.leshan.core.LwM2mId;
+import org.eclipse.leshan.core.node.LwM2mObjectInstance;
+import org.eclipse.leshan.core.node.LwM2mResource;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.OpaqueContent;
+import org.eclipse.leshan.core.request.ContentFormat;
 import org.eclipse.leshan.core.request.DeleteRequest;
+import org.eclipse.leshan.core.request.ExecuteRequest;
+import org.eclipse.leshan.core.request.ReadRequest;
+import org.eclipse.leshan.core.request.WriteRequest;
+import org.eclipse.leshan.core.request.WriteRequest.Mode;
+import org.eclipse.leshan.core.request.argument.Arguments;
+import org.eclipse.leshan.core.response.ExecuteResponse;
+import org.eclipse.leshan.core.response.ReadResponse;
+import org.eclipse.leshan.core.response.WriteResponse;
 import org.junit.jupiter.api.Test;
 
 public class ObjectEnablerTest {
@@ -43,6 +70,218 @@ public class ObjectEnablerTest {
         assertTrue(instanceEnabler.waitForDelete(2, TimeUnit.SECONDS), "callback delete should have been called");
     }
 
+    @Test
+    public void check_write_is_serialized_with_execute() throws Exception {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        BlockingExecuteInstanceEnabler instanceEnabler = new BlockingExecuteInstanceEnabler();
+        initializer.setInstancesForObject(LwM2mId.DEVICE, instanceEnabler);
+        LwM2mObjectEnabler objectEnabler = initializer.create(LwM2mId.DEVICE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // start an execute which blocks until we release it
+            Future<ExecuteResponse> execute = executor.submit(
+                    () -> objectEnabler.execute(ServerIdentity.SYSTEM, new ExecuteRequest(LwM2mId.DEVICE, 0, 4)));
+            assertTrue(instanceEnabler.executeStarted.await(2, TimeUnit.SECONDS), "execute should have been called");
+
+            // a write should wait for the end of execute
+            Future<WriteResponse> write = executor
+                    .submit(() -> objectEnabler.write(ServerIdentity.SYSTEM, new WriteRequest(Mode.UPDATE,
+                            LwM2mId.DEVICE, 0, LwM2mSingleResource.newStringResource(14, "+02"))));
+            assertThrows(TimeoutException.class, () -> write.get(200, TimeUnit.MILLISECONDS));
+            assertFalse(instanceEnabler.writtenDuringExecute);
+
+            instanceEnabler.releaseExecute.countDown();
+            assertTrue(execute.get(2, TimeUnit.SECONDS).isSuccess());
+            assertTrue(write.get(2, TimeUnit.SECONDS).isSuccess());
+        } finally {
+            instanceEnabler.releaseExecute.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void check_reads_of_same_instance_are_serialized() throws Exception {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        SlowReadInstanceEnabler instanceEnabler = new SlowReadInstanceEnabler();
+        initializer.setInstancesForObject(LwM2mId.DEVICE, instanceEnabler);
+        LwM2mObjectEnabler objectEnabler = initializer.create(LwM2mId.DEVICE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ReadResponse>> reads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reads.add(executor
+                        .submit(() -> objectEnabler.read(ServerIdentity.SYSTEM, new ReadRequest(LwM2mId.DEVICE, 0))));
+            }
+            for (Future<ReadResponse> read : reads) {
+                assertNotNull(read.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, instanceEnabler.maxConcurrentReads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_can_modify_its_own_object() throws Exception {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        WritingExecuteInstanceEnabler instanceEnabler = new WritingExecuteInstanceEnabler();
+        initializer.setInstancesForObject(LwM2mId.DEVICE, instanceEnabler);
+        LwM2mObjectEnabler objectEnabler = initializer.create(LwM2mId.DEVICE);
+        instanceEnabler.objectEnabler = objectEnabler;
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // execute callback writes UTC offset of the same object, this must not deadlock
+            Future<ExecuteResponse> execute = executor.submit(
+                    () -> objectEnabler.execute(ServerIdentity.SYSTEM, new ExecuteRequest(LwM2mId.DEVICE, 0, 4)));
+            assertTrue(execute.get(2, TimeUnit.SECONDS).isSuccess());
+            assertEquals("+02", instanceEnabler.utcOffset);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void opaque_write_is_given_as_opaque_content() throws Exception {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        OpaqueInstanceEnabler instanceEnabler = new OpaqueInstanceEnabler();
+        initializer.setInstancesForObject(LwM2mId.FIRMWARE, instanceEnabler);
+        LwM2mObjectEnabler objectEnabler = initializer.create(LwM2mId.FIRMWARE);
+
+        byte[] firmware = new byte[] { 1, 2, 3, 4 };
+        WriteResponse response = objectEnabler.write(ServerIdentity.SYSTEM,
+                new WriteRequest(ContentFormat.OPAQUE, LwM2mId.FIRMWARE, 0, 0, firmware));
+
+        assertTrue(response.isSuccess());
+        assertNotNull(instanceEnabler.writtenContent);
+        assertArrayEquals(firmware, instanceEnabler.writtenContent.toByteArray());
+    }
+
+    @Test
+    public void non_opaque_write_of_opaque_resource_use_default_write() throws Exception {
+        ObjectsInitializer initializer = new ObjectsInitializer();
+        OpaqueInstanceEnabler instanceEnabler = new OpaqueInstanceEnabler();
+        initializer.setInstancesForObject(LwM2mId.FIRMWARE, instanceEnabler);
+        LwM2mObjectEnabler objectEnabler = initializer.create(LwM2mId.FIRMWARE);
+
+        WriteResponse response = objectEnabler.write(ServerIdentity.SYSTEM,
+                new WriteRequest(ContentFormat.TLV, LwM2mId.FIRMWARE, 0, 0, new byte[] { 1, 2, 3, 4 }));
+
+        assertTrue(response.isSuccess());
+        assertNull(instanceEnabler.writtenContent);
+        assertNotNull(instanceEnabler.writtenResource);
+    }
+
+    public static class OpaqueInstanceEnabler extends BaseInstanceEnabler {
+
+        OpaqueContent writtenContent;
+        LwM2mResource writtenResource;
+
+        public OpaqueInstanceEnabler() {
+            super(0);
+        }
+
+        @Override
+        public WriteResponse write(ServerIdentity identity, boolean replace, int resourceid, LwM2mResource value) {
+            writtenResource = value;
+            return WriteResponse.success();
+        }
+
+        @Override
+        public WriteResponse write(ServerIdentity identity, boolean replace, int resourceid, OpaqueContent value) {
+            writtenContent = value;
+            return WriteResponse.success();
+        }
+    }
+
+    public static class BlockingExecuteInstanceEnabler extends BaseInstanceEnabler {
+
+        CountDownLatch executeStarted = new CountDownLatch(1);
+        CountDownLatch releaseExecute = new CountDownLatch(1);
+
+        public BlockingExecuteInstanceEnabler() {
+            super(0);
+        }
+
+        volatile boolean executing;
+        volatile boolean writtenDuringExecute;
+
+        @Override
+        public ExecuteResponse execute(ServerIdentity identity, int resourceid, Arguments arguments) {
+            executing = true;
+            executeStarted.countDown();
+            try {
+                releaseExecute.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                executing = false;
+            }
+            return ExecuteResponse.success();
+        }
+
+        @Override
+        public WriteResponse write(ServerIdentity identity, boolean replace, int resourceid, LwM2mResource value) {
+            if (executing) {
+                writtenDuringExecute = true;
+            }
+            return WriteResponse.success();
+        }
+    }
+
+    public static class SlowReadInstanceEnabler extends BaseInstanceEnabler {
+
+        AtomicInteger concurrentReads = new AtomicInteger();
+        AtomicInteger maxConcurrentReads = new AtomicInteger();
+
+        public SlowReadInstanceEnabler() {
+            super(0);
+        }
+
+        @Override
+        public ReadResponse read(ServerIdentity identity) {
+            int current = concurrentReads.incrementAndGet();
+            maxConcurrentReads.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentReads.decrementAndGet();
+            }
+            return ReadResponse.success(new LwM2mObjectInstance(getId(), Collections.<LwM2mResource> emptyList()));
+        }
+    }
+
+    public static class WritingExecuteInstanceEnabler extends BaseInstanceEnabler {
+
+        LwM2mObjectEnabler objectEnabler;
+        volatile String utcOffset;
+
+        public WritingExecuteInstanceEnabler() {
+            super(0);
+        }
+
+        @Override
+        public ExecuteResponse execute(ServerIdentity identity, int resourceid, Arguments arguments) {
+            WriteResponse response = objectEnabler.write(ServerIdentity.SYSTEM,
+                    new WriteRequest(Mode.UPDATE, LwM2mId.DEVICE, 0, LwM2mSingleResource.newStringResource(14, "+02")));
+            return response.isSuccess() ? ExecuteResponse.success()
+                    : ExecuteResponse.internalServerError(response.getErrorMessage());
+        }
+
+        @Override
+        public WriteResponse write(ServerIdentity identity, boolean replace, int resourceid, LwM2mResource value) {
+            if (resourceid == 14) {
+                utcOffset = (String) value.getValue();
+                return WriteResponse.success();
+            }
+            return super.write(identity, replace, resourceid, value);
+        }
+    }
+
     public static class TestInstanceEnabler extends BaseInstanceEnabler {
 
         CountDownLatch onDelete = new CountDownLatch(1);
@@ -46,6 +46,8 @@ import org.eclipse.leshan.client.californium.endpoint.CaliforniumClientEndpoints
 import org.eclipse.leshan.client.californium.endpoint.coap.CoapOscoreProtocolProvider;
 import org.eclipse.leshan.client.californium.endpoint.coaps.CoapsClientEndpointFactory;
 import org.eclipse.leshan.client.californium.endpoint.coaps.CoapsClientProtocolProvider;
+import org.eclipse.leshan.client.californium.endpoint.coaps.DtlsStateStore;
+import org.eclipse.leshan.client.californium.endpoint.coaps.FileDtlsStateStore;
 import org.eclipse.leshan.client.demo.cli.LeshanClientDemoCLI;
 import org.eclipse.leshan.client.demo.cli.interactive.InteractiveCommands;
 import org.eclipse.leshan.client.engine.DefaultRegistrationEngineFactory;
@@ -236,10 +238,13 @@ public class LeshanClientDemo {
         // Create Californium Endpoints Provider:
         // --------------------------------------
         // Define Custom CoAPS protocol provider
+        final DtlsStateStore dtlsStateStore = cli.dtls.dtlsStateDirectory != null
+                ? new FileDtlsStateStore(cli.dtls.dtlsStateDirectory)
+                : null;
         CoapsClientProtocolProvider customCoapsProtocolProvider = new CoapsClientProtocolProvider() {
             @Override
             public CaliforniumClientEndpointFactory createDefaultEndpointFactory() {
-                return new CoapsClientEndpointFactory() {
+                return new CoapsClientEndpointFactory("LWM2M Client", dtlsStateStore) {
 
                     @Override
                     protected DtlsConnectorConfig.Builder createRootDtlsConnectorConfigBuilder(
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.demo;
+
+import static org.eclipse.leshan.client.object.Security.noSec;
+import static org.eclipse.leshan.core.LwM2mId.DEVICE;
+import static org.eclipse.leshan.core.LwM2mId.SECURITY;
+import static org.eclipse.leshan.core.LwM2mId.SERVER;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.config.UdpConfig;
+import org.eclipse.leshan.client.LeshanClient;
+import org.eclipse.leshan.client.LeshanClientBuilder;
+import org.eclipse.leshan.client.californium.endpoint.CaliforniumClientEndpointsProvider;
+import org.eclipse.leshan.client.californium.endpoint.coap.CoapClientProtocolProvider;
+import org.eclipse.leshan.client.demo.cli.LeshanClientFleetDemoCLI;
+import org.eclipse.leshan.client.engine.DefaultRegistrationEngineFactory;
+import org.eclipse.leshan.client.object.Device;
+import org.eclipse.leshan.client.object.Server;
+import org.eclipse.leshan.client.resource.BaseInstanceEnabler;
+import org.eclipse.leshan.client.resource.ObjectsInitializer;
+import org.eclipse.leshan.client.servers.ServerIdentity;
+import org.eclipse.leshan.core.demo.LwM2mDemoConstant;
+import org.eclipse.leshan.core.demo.cli.ShortErrorMessageHandler;
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.model.ObjectLoader;
+import org.eclipse.leshan.core.model.ObjectModel;
+import org.eclipse.leshan.core.model.StaticModel;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.response.ReadResponse;
+import org.eclipse.leshan.core.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import picocli.CommandLine;
+
+/**
+ * A demo which simulates a fleet of LWM2M clients in only one JVM.
+ * <p>
+ * All clients share the same thread pool and the same Californium {@link Configuration}, so thousands of clients can be
+ * simulated on one host. Each client still uses its own UDP socket as a LWM2M server identifies a client by its
+ * address.
+ */
+public class LeshanClientFleetDemo {
+
+    static {
+        // Define a default logback.configurationFile
+        String property = System.getProperty("logback.configurationFile");
+        if (property == null) {
+            System.setProperty("logback.configurationFile", "logback-config.xml");
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeshanClientFleetDemo.class);
+    private static final int OBJECT_ID_TEMPERATURE_SENSOR = 3303;
+    private static final String TEMPERATURE_SENSOR_VALUE_PATH = "/3303/0/5700";
+    private static final long SEND_TIMEOUT_IN_MS = 10000;
+
+    public static void main(String[] args) {
+
+        // Parse command line
+        LeshanClientFleetDemoCLI cli = new LeshanClientFleetDemoCLI();
+        CommandLine command = new CommandLine(cli).setParameterExceptionHandler(new ShortErrorMessageHandler());
+        // Handle exit code error
+        int exitCode = command.execute(args);
+        if (exitCode != 0)
+            System.exit(exitCode);
+        // Handle help or version command
+        if (command.isUsageHelpRequested() || command.isVersionHelpRequested())
+            System.exit(0);
+
+        try {
+            new LeshanClientFleetDemo(cli).start();
+        } catch (Exception e) {
+
+            // Handler Execution Error
+            PrintWriter printer = command.getErr();
+            printer.print(command.getColorScheme().errorText("Unable to create and start client fleet ..."));
+            printer.printf("%n%n");
+            printer.print(command.getColorScheme().stackTraceText(e));
+            printer.flush();
+            System.exit(1);
+        }
+    }
+
+    private final LeshanClientFleetDemoCLI cli;
+    private final ScheduledExecutorService executor;
+    private final LwM2mModel model;
+    private final Configuration coapConfig;
+    private final List<LeshanClient> clients = new CopyOnWriteArrayList<>();
+    private final Random random = new Random();
+
+    public LeshanClientFleetDemo(LeshanClientFleetDemoCLI cli) throws Exception {
+        this.cli = cli;
+        this.executor = Executors.newScheduledThreadPool(cli.main.nbThreads, new NamedThreadFactory("Leshan Fleet"));
+
+        // All clients share the same model
+        List<ObjectModel> models = ObjectLoader.loadAllDefault();
+        models.addAll(ObjectLoader.loadDdfResources("/models", LwM2mDemoConstant.modelPaths));
+        this.model = new StaticModel(models);
+
+        // All clients share the same configuration, with a minimal number of thread by socket
+        coapConfig = new CaliforniumClientEndpointsProvider.Builder(new CoapClientProtocolProvider())
+                .createDefaultConfiguration();
+        coapConfig.set(UdpConfig.UDP_RECEIVER_THREAD_COUNT, 1);
+        coapConfig.set(UdpConfig.UDP_SENDER_THREAD_COUNT, 1);
+    }
+
+    public void start() {
+        // De-register on shutdown and stop clients.
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                for (LeshanClient client : clients) {
+                    client.destroy(true); // send de-registration request before destroy
+                }
+                executor.shutdownNow();
+            }
+        });
+
+        // Ramp up : start clients progressively
+        long delayBetweenClientInUs = TimeUnit.SECONDS.toMicros(1) / cli.rates.registerRate;
+        for (int i = 0; i < cli.main.nbClients; i++) {
+            final int index = i;
+            executor.schedule(() -> startClient(index), i * delayBetweenClientInUs, TimeUnit.MICROSECONDS);
+        }
+
+        // Log fleet state periodically
+        executor.scheduleAtFixedRate(() -> {
+            int registered = 0;
+            for (LeshanClient client : clients) {
+                if (!client.getRegisteredServers().isEmpty()) {
+                    registered++;
+                }
+            }
+            LOG.info("{} clients started, {} registered.", clients.size(), registered);
+        }, 10, 10, TimeUnit.SECONDS);
+    }
+
+    private void startClient(int index) {
+        try {
+            String endpoint = cli.main.endpointPrefix + index;
+            FleetTemperatureSensor sensor = new FleetTemperatureSensor();
+            LeshanClient client = createClient(endpoint, sensor);
+            clients.add(client);
+            client.start();
+
+            // Schedule simulated traffic, randomly spread over the period to avoid bursts.
+            if (cli.rates.updatePeriodInSec > 0) {
+                schedulePeriodically(client::triggerRegistrationUpdate, cli.rates.updatePeriodInSec);
+            }
+            if (cli.rates.notifyPeriodInSec > 0) {
+                schedulePeriodically(sensor::changeValue, cli.rates.notifyPeriodInSec);
+            }
+            if (cli.rates.sendPeriodInSec > 0) {
+                schedulePeriodically(() -> sendTemperature(client), cli.rates.sendPeriodInSec);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Unable to start client {}", index, e);
+        }
+    }
+
+    private void schedulePeriodically(Runnable task, int periodInSec) {
+        long periodInMs = TimeUnit.SECONDS.toMillis(periodInSec);
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Unexpected error in simulated traffic", e);
+            }
+        }, (long) (random.nextDouble() * periodInMs), periodInMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void sendTemperature(LeshanClient client) {
+        for (ServerIdentity server : client.getRegisteredServers().values()) {
+            client.getSendService().sendData(server, ContentFormat.SENML_CBOR,
+                    Arrays.asList(TEMPERATURE_SENSOR_VALUE_PATH), SEND_TIMEOUT_IN_MS, response -> {
+                        if (response.isFailure()) {
+                            LOG.debug("Send request failed : {}", response);
+                        }
+                    }, error -> LOG.debug("Send request failed", error));
+        }
+    }
+
+    private LeshanClient createClient(String endpoint, FleetTemperatureSensor sensor) {
+        // Initialize object list
+        ObjectsInitializer initializer = new ObjectsInitializer(model);
+        initializer.setInstancesForObject(SECURITY, noSec(cli.main.url, 123));
+        initializer.setInstancesForObject(SERVER, new Server(123, cli.main.lifetimeInSec));
+        initializer.setInstancesForObject(DEVICE, new Device("Eclipse Leshan", "fleet-demo", endpoint));
+        initializer.setInstancesForObject(OBJECT_ID_TEMPERATURE_SENSOR, sensor);
+
+        // Create client endpoints Provider using shared executor and configuration
+        CaliforniumClientEndpointsProvider.Builder endpointsBuilder = new CaliforniumClientEndpointsProvider.Builder(
+                new CoapClientProtocolProvider());
+        endpointsBuilder.setConfiguration(coapConfig);
+        endpointsBuilder.setClientAddress(cli.main.localAddress);
+        endpointsBuilder.setSharedExecutor(executor);
+
+        // Create client
+        LeshanClientBuilder builder = new LeshanClientBuilder(endpoint);
+        builder.setObjects(initializer.createAll());
+        builder.setEndpointsProvider(endpointsBuilder.build());
+        builder.setRegistrationEngineFactory(new DefaultRegistrationEngineFactory());
+        builder.setSharedExecutor(executor);
+        return builder.build();
+    }
+
+    /**
+     * A very simple temperature sensor which changes its value only when asked to.
+     */
+    private static class FleetTemperatureSensor extends BaseInstanceEnabler {
+
+        private static final int SENSOR_VALUE = 5700;
+        private static final List<Integer> supportedResources = Arrays.asList(SENSOR_VALUE);
+
+        private final Random rng = new Random();
+        private volatile double currentTemp = 20d;
+
+        @Override
+        public ReadResponse read(ServerIdentity identity, int resourceId) {
+            if (resourceId == SENSOR_VALUE) {
+                return ReadResponse.success(resourceId, currentTemp);
+            }
+            return super.read(identity, resourceId);
+        }
+
+        public void changeValue() {
+            currentTemp = 20d + (rng.nextInt(200) - 100) / 10d;
+            fireResourceChange(SENSOR_VALUE);
+        }
+
+        @Override
+        public List<Integer> getAvailableResourceIds(ObjectModel model) {
+            return supportedResources;
+        }
+    }
+}
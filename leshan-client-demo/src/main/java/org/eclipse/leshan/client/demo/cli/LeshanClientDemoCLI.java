@@ -252,6 +252,12 @@ public class LeshanClientDemoCLI implements Runnable {
                 description = { //
                         "Activate support of old/deprecated cipher suites." })
         public boolean supportDeprecatedCiphers;
+
+        @Option(names = { "-ds", "--dtls-state" },
+                description = { //
+                        "Directory where DTLS state (session and connection ID) is saved on stop and restored on start.", //
+                        "This allows to avoid full handshake after a restart." })
+        public File dtlsStateDirectory;
     }
 
     /* ********************************** Identity Section ******************************** */
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.client.demo.cli;
+
+import java.net.InetAddress;
+
+import org.eclipse.californium.core.coap.CoAP;
+import org.eclipse.leshan.core.demo.cli.MultiParameterException;
+import org.eclipse.leshan.core.demo.cli.StandardHelpOptions;
+import org.eclipse.leshan.core.demo.cli.VersionProvider;
+import org.eclipse.leshan.core.demo.cli.converters.InetAddressConverter;
+import org.eclipse.leshan.core.demo.cli.converters.StrictlyPositiveIntegerConverter;
+import org.eclipse.leshan.core.util.StringUtils;
+
+import picocli.CommandLine.ArgGroup;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+/**
+ * This is the class defining the Command Line Interface of Leshan Client Fleet Demo.
+ */
+@Command(name = "leshan-client-fleet-demo",
+         sortOptions = false,
+         description = "%n"//
+                 + "@|italic " //
+                 + "This is a LWM2M client fleet simulator implemented with Leshan library.%n" //
+                 + "It starts a lot of clients in the same JVM sharing the same thread pool, they will try to register to a LWM2M server at "
+                 + "coap://" + LeshanClientDemoCLI.DEFAULT_COAP_URL + " by default.%n" //
+                 + "|@%n%n",
+         versionProvider = VersionProvider.class)
+public class LeshanClientFleetDemoCLI implements Runnable {
+
+    @Mixin
+    public StandardHelpOptions helpsOptions;
+
+    /* ********************************** General Section ******************************** */
+    @ArgGroup(validate = false, heading = "%n")
+    public GeneralSection main = new GeneralSection();
+
+    public static class GeneralSection {
+
+        @Option(names = { "-u", "--server-url" },
+                description = { //
+                        "Set the server URL. If port is missing it will be added automatically with default value.", //
+                        "Default: " + LeshanClientDemoCLI.DEFAULT_COAP_URL })
+        public String url;
+
+        @Option(names = { "-n", "--endpoint-prefix" },
+                defaultValue = "leshan-fleet-",
+                description = { //
+                        "Prefix of endpoint names, the client index is appended to it.", //
+                        "Default: ${DEFAULT-VALUE}" })
+        public String endpointPrefix;
+
+        @Option(names = { "-nb", "--number-of-clients" },
+                defaultValue = "100",
+                description = { //
+                        "Number of simulated clients.", //
+                        "Default: ${DEFAULT-VALUE}" },
+                converter = StrictlyPositiveIntegerConverter.class)
+        public Integer nbClients;
+
+        @Option(names = { "-l", "--lifetime" },
+                defaultValue = "300" /* 5 minutes */,
+                description = { //
+                        "The registration lifetime in seconds.", //
+                        "Default : ${DEFAULT-VALUE}s." },
+                converter = StrictlyPositiveIntegerConverter.class)
+        public Integer lifetimeInSec;
+
+        @Option(names = { "-lh", "--local-address" },
+                description = { //
+                        "Set the local CoAP address of the Clients.", //
+                        "Default: any local address." },
+                converter = InetAddressConverter.class)
+        public InetAddress localAddress;
+
+        @Option(names = { "-t", "--threads" },
+                description = { //
+                        "Number of threads of the pool shared by all clients.", //
+                        "Default: 2 x number of available processors." },
+                converter = StrictlyPositiveIntegerConverter.class)
+        public Integer nbThreads = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /* ********************************** Rates Section ******************************** */
+    @ArgGroup(validate = false,
+              heading = "%n@|bold,underline Traffic Options|@ %n%n"//
+                      + "@|italic " //
+                      + "Those options aim to define the load generated by the fleet. Periodic actions are randomly spread over the period." //
+                      + "|@%n%n")
+    public RatesSection rates = new RatesSection();
+
+    public static class RatesSection {
+
+        @Option(names = { "-rr", "--register-rate" },
+                defaultValue = "10",
+                description = { //
+                        "Number of clients started (so registering) by second during ramp up.", //
+                        "Default: ${DEFAULT-VALUE}" },
+                converter = StrictlyPositiveIntegerConverter.class)
+        public Integer registerRate;
+
+        @Option(names = { "-up", "--update-period" },
+                defaultValue = "0",
+                description = { //
+                        "Period in seconds between 2 registration updates triggered by each client.", //
+                        "0 means updates are only sent when lifetime requires it.", //
+                        "Default: ${DEFAULT-VALUE}" })
+        public Integer updatePeriodInSec;
+
+        @Option(names = { "-np", "--notify-period" },
+                defaultValue = "0",
+                description = { //
+                        "Period in seconds between 2 changes of temperature sensor value of each client.", //
+                        "Each change will raise a notification if the server observes it.", //
+                        "0 means no change.", //
+                        "Default: ${DEFAULT-VALUE}" })
+        public Integer notifyPeriodInSec;
+
+        @Option(names = { "-sp", "--send-period" },
+                defaultValue = "0",
+                description = { //
+                        "Period in seconds between 2 Send requests of temperature sensor value by each client.", //
+                        "0 means no Send request.", //
+                        "Default: ${DEFAULT-VALUE}" })
+        public Integer sendPeriodInSec;
+    }
+
+    @Spec
+    CommandSpec spec;
+
+    @Override
+    public void run() {
+        // Some post-validation which imply several options.
+        // For validation about only one option, just use ITypeConverter instead
+        if (rates.updatePeriodInSec < 0) {
+            throw new MultiParameterException(spec.commandLine(), "update period must be positive or 0", "-up");
+        }
+        if (rates.notifyPeriodInSec < 0) {
+            throw new MultiParameterException(spec.commandLine(), "notify period must be positive or 0", "-np");
+        }
+        if (rates.sendPeriodInSec < 0) {
+            throw new MultiParameterException(spec.commandLine(), "send period must be positive or 0", "-sp");
+        }
+
+        normalizedServerUrl();
+
+        // we support only coap
+        if (!main.url.startsWith("coap://")) {
+            throw new MultiParameterException(spec.commandLine(),
+                    String.format("Invalid URL %s : we support only 'coap' for now", main.url), "-u");
+        }
+    }
+
+    protected void normalizedServerUrl() {
+        String url = main.url;
+        if (url == null)
+            url = "localhost";
+
+        // try to guess if port is present.
+        String[] splittedUrl = url.split(":");
+        String port = splittedUrl[splittedUrl.length - 1];
+        if (!StringUtils.isNumeric(port)) {
+            // it seems port is not present, so we try to add it
+            main.url = url + ":" + CoAP.DEFAULT_COAP_PORT;
+        }
+
+        // try to guess if scheme is present :
+        if (!main.url.contains("://")) {
+            // it seems scheme is not present try to add it
+            main.url = "coap://" + main.url;
+        }
+    }
+}
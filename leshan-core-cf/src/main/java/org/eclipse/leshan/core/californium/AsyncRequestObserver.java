@@ -15,6 +15,7 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.californium;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.californium.core.coap.Request;
@@ -51,7 +52,21 @@ public abstract class AsyncRequestObserver<T extends LwM2mResponse> extends Coap
     public AsyncRequestObserver(Request coapRequest, final ResponseCallback<T> responseCallback,
             final ErrorCallback errorCallback, long timeoutInMs, ScheduledExecutorService executor,
             ExceptionTranslator exceptionTranslator) {
-        super(coapRequest, null, errorCallback, timeoutInMs, executor, exceptionTranslator);
+        this(coapRequest, responseCallback, errorCallback, timeoutInMs, executor, null, exceptionTranslator);
+    }
+
+    /**
+     * Same as
+     * {@link #AsyncRequestObserver(Request, ResponseCallback, ErrorCallback, long, ScheduledExecutorService, ExceptionTranslator)}
+     * but {@link LwM2mResponse} is built and callbacks are called using the given <code>callbackExecutor</code>.
+     *
+     * @param callbackExecutor used to build response and call callbacks. If <code>null</code> this is done directly in
+     *        the thread which raised the event (generally a Californium thread).
+     */
+    public AsyncRequestObserver(Request coapRequest, final ResponseCallback<T> responseCallback,
+            final ErrorCallback errorCallback, long timeoutInMs, ScheduledExecutorService executor,
+            Executor callbackExecutor, ExceptionTranslator exceptionTranslator) {
+        super(coapRequest, null, errorCallback, timeoutInMs, executor, callbackExecutor, exceptionTranslator);
         this.responseCallback = new CoapResponseCallback() {
 
             @Override
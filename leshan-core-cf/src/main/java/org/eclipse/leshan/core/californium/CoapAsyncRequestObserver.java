@@ -18,6 +18,8 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.californium;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +54,7 @@ public class CoapAsyncRequestObserver extends AbstractRequestObserver {
     private ScheduledFuture<?> cleaningTask;
     private boolean cancelled = false;
     private final ScheduledExecutorService executor;
+    private final Executor callbackExecutor;
     private final ExceptionTranslator exceptionTranslator;
 
     // The Californium API does not ensure that message callback are exclusive
@@ -80,25 +83,43 @@ public class CoapAsyncRequestObserver extends AbstractRequestObserver {
     public CoapAsyncRequestObserver(Request coapRequest, CoapResponseCallback responseCallback,
             ErrorCallback errorCallback, long timeoutInMs, ScheduledExecutorService executor,
             ExceptionTranslator exceptionTranslator) {
+        this(coapRequest, responseCallback, errorCallback, timeoutInMs, executor, null, exceptionTranslator);
+    }
+
+    /**
+     * Same as
+     * {@link #CoapAsyncRequestObserver(Request, CoapResponseCallback, ErrorCallback, long, ScheduledExecutorService, ExceptionTranslator)}
+     * but callbacks are called using the given <code>callbackExecutor</code>.
+     *
+     * @param callbackExecutor used to call <code>responseCallback</code> and <code>errorCallback</code>, so slow
+     *        callbacks do not block Californium threads or timeout scheduler. If <code>null</code> callbacks are called
+     *        directly in the thread which raised the event.
+     */
+    public CoapAsyncRequestObserver(Request coapRequest, CoapResponseCallback responseCallback,
+            ErrorCallback errorCallback, long timeoutInMs, ScheduledExecutorService executor, Executor callbackExecutor,
+            ExceptionTranslator exceptionTranslator) {
         super(coapRequest);
         this.responseCallback = responseCallback;
         this.errorCallback = errorCallback;
         this.timeoutInMs = timeoutInMs;
         this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
         this.exceptionTranslator = exceptionTranslator;
     }
 
     @Override
-    public void onResponse(Response coapResponse) {
+    public void onResponse(final Response coapResponse) {
         LOG.debug("Received coap response: {} for {}", coapResponse, coapRequest);
         coapRequest.removeMessageObserver(this);
         if (eventRaised.compareAndSet(false, true)) {
             cancelCleaningTask();
-            try {
-                responseCallback.onResponse(coapResponse);
-            } catch (RuntimeException e) {
-                LOG.warn("Uncaught exception during onResponse callback", e);
-            }
+            raise(() -> {
+                try {
+                    responseCallback.onResponse(coapResponse);
+                } catch (RuntimeException e) {
+                    LOG.warn("Uncaught exception during onResponse callback", e);
+                }
+            });
 
         } else {
             LOG.debug("OnResponse callback ignored because an event was already raised for this request {}",
@@ -115,8 +136,8 @@ public class CoapAsyncRequestObserver extends AbstractRequestObserver {
     public void onTimeout() {
         if (eventRaised.compareAndSet(false, true)) {
             cancelCleaningTask();
-            errorCallback.onError(new TimeoutException(Type.COAP_TIMEOUT,
-                    "Request %s timed out : CoAP or blockwise timeout", coapRequest.getURI()));
+            raiseError(new TimeoutException(Type.COAP_TIMEOUT, "Request %s timed out : CoAP or blockwise timeout",
+                    coapRequest.getURI()));
         } else {
             LOG.debug("OnTimeout callback ignored because an event was already raised for this request {}",
                     coapRequest);
@@ -128,10 +149,10 @@ public class CoapAsyncRequestObserver extends AbstractRequestObserver {
         if (eventRaised.compareAndSet(false, true)) {
             cancelCleaningTask();
             if (responseTimedOut.get()) {
-                errorCallback.onError(new TimeoutException(Type.RESPONSE_TIMEOUT,
-                        "Request %s timed out : no response received", coapRequest.getURI()));
+                raiseError(new TimeoutException(Type.RESPONSE_TIMEOUT, "Request %s timed out : no response received",
+                        coapRequest.getURI()));
             } else {
-                errorCallback.onError(new RequestCanceledException("Request %s cancelled", coapRequest.getURI()));
+                raiseError(new RequestCanceledException("Request %s cancelled", coapRequest.getURI()));
             }
         } else {
             LOG.debug(
@@ -144,7 +165,7 @@ public class CoapAsyncRequestObserver extends AbstractRequestObserver {
     public void onReject() {
         if (eventRaised.compareAndSet(false, true)) {
             cancelCleaningTask();
-            errorCallback.onError(new RequestRejectedException("Request %s rejected", coapRequest.getURI()));
+            raiseError(new RequestRejectedException("Request %s rejected", coapRequest.getURI()));
         } else {
             LOG.debug("OnReject callback ignored because an event was already raised for this request {}", coapRequest);
         }
@@ -154,13 +175,32 @@ public class CoapAsyncRequestObserver extends AbstractRequestObserver {
     public void onSendError(Throwable error) {
         if (eventRaised.compareAndSet(false, true)) {
             cancelCleaningTask();
-            errorCallback.onError(exceptionTranslator.translate(coapRequest, error));
+            raiseError(exceptionTranslator.translate(coapRequest, error));
         } else {
             LOG.debug("onSendError callback ignored because an event was already raised for this request {}",
                     coapRequest);
         }
     }
 
+    private void raiseError(final Exception error) {
+        raise(() -> errorCallback.onError(error));
+    }
+
+    /**
+     * Run the given event using callback executor if there is one, else in current thread.
+     */
+    protected void raise(Runnable event) {
+        if (callbackExecutor != null) {
+            try {
+                callbackExecutor.execute(event);
+                return;
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Callback executor rejects event for request {}, raising it in current thread", coapRequest);
+            }
+        }
+        event.run();
+    }
+
     private synchronized void scheduleCleaningTask() {
         if (!cancelled)
             if (cleaningTask == null) {
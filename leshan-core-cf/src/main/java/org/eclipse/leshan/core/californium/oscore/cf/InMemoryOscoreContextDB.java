@@ -15,18 +15,30 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.californium.oscore.cf;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.californium.oscore.CoapOSException;
 import org.eclipse.californium.oscore.HashMapCtxDB;
 import org.eclipse.californium.oscore.OSCoreCtx;
 import org.eclipse.californium.oscore.OSCoreCtxDB;
 import org.eclipse.californium.oscore.OSException;
+import org.eclipse.leshan.core.util.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * An {@link OSCoreCtxDB} which store context in memory and is able to derive context from {@link OscoreParameters}
  * provided in {@link OscoreStore}
- *
+ * <p>
+ * Lookups of already known contexts use {@link HashMapCtxDB} synchronized methods, so they still share the monitor of
+ * this DB with context addition and removal, but this lock is only held during map accesses. {@link OscoreStore} access
+ * and context derivation are done outside of any lock and only once by recipient ID, even if several threads need the
+ * same missing context at the same time.
+ * <p>
+ * Derived contexts are never evicted: this would reset their sequence number and replay window.
  */
 // TODO OSCORE this should be moved in californium.
 public class InMemoryOscoreContextDB extends HashMapCtxDB {
@@ -34,13 +46,17 @@ public class InMemoryOscoreContextDB extends HashMapCtxDB {
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryOscoreContextDB.class);
 
     private final OscoreStore store;
+    // derivations in progress by recipient ID
+    private final ConcurrentHashMap<String, FutureTask<OSCoreCtx>> derivations = new ConcurrentHashMap<>();
+    // incremented on each removal, to not add a context derived from parameters removed in the meantime.
+    private final AtomicLong removals = new AtomicLong();
 
     public InMemoryOscoreContextDB(OscoreStore oscoreStore) {
         this.store = oscoreStore;
     }
 
     @Override
-    public synchronized OSCoreCtx getContext(byte[] rid, byte[] IDContext) throws CoapOSException {
+    public OSCoreCtx getContext(byte[] rid, byte[] IDContext) throws CoapOSException {
         // search in local DB
         OSCoreCtx osCoreCtx = super.getContext(rid, IDContext);
 
@@ -51,35 +67,25 @@ public class InMemoryOscoreContextDB extends HashMapCtxDB {
         // if nothing found
         if (osCoreCtx == null) {
             // try to derive new context from OSCORE parameter in OSCORE Store
-            OscoreParameters params = store.getOscoreParameters(rid);
-            if (params != null) {
-                osCoreCtx = deriveContext(params);
-                // add new new context in local DB
-                super.addContext(osCoreCtx);
-            }
+            osCoreCtx = deriveAndAddContext(rid);
         }
         return osCoreCtx;
     }
 
     @Override
-    public synchronized OSCoreCtx getContext(byte[] rid) {
+    public OSCoreCtx getContext(byte[] rid) {
         OSCoreCtx osCoreCtx = super.getContext(rid);
 
         // if nothing found
         if (osCoreCtx == null) {
             // try to derive new context from OSCORE parameter in OSCORE Store
-            OscoreParameters params = store.getOscoreParameters(rid);
-            if (params != null) {
-                osCoreCtx = deriveContext(params);
-                // add new new context in local DB
-                super.addContext(osCoreCtx);
-            }
+            osCoreCtx = deriveAndAddContext(rid);
         }
         return osCoreCtx;
     }
 
     @Override
-    public synchronized OSCoreCtx getContext(String uri) throws OSException {
+    public OSCoreCtx getContext(String uri) throws OSException {
         OSCoreCtx osCoreCtx = super.getContext(uri);
 
         // if nothing found
@@ -98,6 +104,62 @@ public class InMemoryOscoreContextDB extends HashMapCtxDB {
         return osCoreCtx;
     }
 
+    @Override
+    public void removeContext(OSCoreCtx ctx) {
+        synchronized (this) {
+            removals.incrementAndGet();
+            super.removeContext(ctx);
+        }
+    }
+
+    private OSCoreCtx deriveAndAddContext(final byte[] rid) {
+        String key = Hex.encodeHexString(rid);
+        FutureTask<OSCoreCtx> task = new FutureTask<>(() -> {
+            // context could have been added by a derivation which ended just before this one started
+            OSCoreCtx existing = super.getContext(rid);
+            if (existing != null)
+                return existing;
+
+            while (true) {
+                long removalsBefore = removals.get();
+                OscoreParameters params = store.getOscoreParameters(rid);
+                if (params == null)
+                    return null;
+                OSCoreCtx derived = deriveContext(params);
+                if (derived == null)
+                    return null;
+
+                // add new context in local DB, only if no context was removed during derivation (HashMapCtxDB is
+                // synchronized on this)
+                synchronized (this) {
+                    if (removalsBefore == removals.get()) {
+                        super.addContext(derived);
+                        return derived;
+                    }
+                }
+            }
+        });
+
+        FutureTask<OSCoreCtx> pending = derivations.putIfAbsent(key, task);
+        if (pending == null) {
+            pending = task;
+            try {
+                task.run();
+            } finally {
+                derivations.remove(key, task);
+            }
+        }
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            LOG.error("Unable to get context for recipient ID {}", key, e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
     private static OSCoreCtx deriveContext(OscoreParameters oscoreParameters) {
         try {
             OSCoreCtx osCoreCtx = new OSCoreCtx(oscoreParameters.getMasterSecret(), true,
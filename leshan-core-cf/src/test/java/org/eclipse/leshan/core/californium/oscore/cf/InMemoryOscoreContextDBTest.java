@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.californium.oscore.cf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.cose.AlgorithmID;
+import org.eclipse.californium.oscore.OSCoreCtx;
+import org.junit.jupiter.api.Test;
+
+public class InMemoryOscoreContextDBTest {
+
+    private static final byte[] RID = new byte[] { 1 };
+    private static final byte[] OTHER_RID = new byte[] { 2 };
+
+    private static OscoreParameters parameters(byte[] rid) {
+        return new OscoreParameters(new byte[] { 0 }, rid, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 },
+                AlgorithmID.AES_CCM_16_64_128, AlgorithmID.HKDF_HMAC_SHA_256, new byte[] { 9 });
+    }
+
+    private static class TestOscoreStore implements OscoreStore {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch called = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile Runnable onFirstCall;
+
+        @Override
+        public OscoreParameters getOscoreParameters(byte[] recipientID) {
+            if (calls.incrementAndGet() == 1) {
+                called.countDown();
+                if (onFirstCall != null) {
+                    onFirstCall.run();
+                }
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return parameters(recipientID);
+        }
+
+        @Override
+        public byte[] getRecipientId(String foreignPeerURI) {
+            return null;
+        }
+    }
+
+    @Test
+    public void context_is_derived_only_once_for_concurrent_lookups() throws Exception {
+        TestOscoreStore store = new TestOscoreStore();
+        InMemoryOscoreContextDB db = new InMemoryOscoreContextDB(store);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OSCoreCtx>> lookups = new ArrayList<>();
+            lookups.add(executor.submit(() -> db.getContext(RID)));
+            // wait first derivation is in progress before doing other lookups
+            assertTrue(store.called.await(2, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                lookups.add(executor.submit(() -> db.getContext(RID)));
+            }
+            Thread.sleep(100);
+            store.release.countDown();
+
+            OSCoreCtx ctx = lookups.get(0).get(2, TimeUnit.SECONDS);
+            assertNotNull(ctx);
+            for (Future<OSCoreCtx> lookup : lookups) {
+                assertSame(ctx, lookup.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, store.calls.get(), "OSCORE store should be called only once");
+        } finally {
+            store.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void derivation_is_retried_when_a_context_is_removed_meanwhile() throws Exception {
+        TestOscoreStore store = new TestOscoreStore();
+        store.release.countDown();
+        InMemoryOscoreContextDB db = new InMemoryOscoreContextDB(store);
+        OSCoreCtx other = db.getContext(OTHER_RID);
+        assertNotNull(other);
+
+        // a removal happens while context is derived from parameters which could be stale
+        store.calls.set(0);
+        store.onFirstCall = () -> db.removeContext(other);
+        OSCoreCtx ctx = db.getContext(RID);
+
+        assertNotNull(ctx);
+        assertEquals(2, store.calls.get(), "parameters should be read again after a removal");
+        assertSame(ctx, db.getContext(RID));
+    }
+}
@@ -15,6 +15,10 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * An encoder for the old deprecated LwM2m format.
  */
@@ -22,4 +26,20 @@ public interface LwM2mJsonEncoder {
 
     public String toJsonLwM2m(JsonRootObject jro) throws LwM2mJsonException;
 
+    /**
+     * Encode the given object in UTF-8 into the given {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of {@link #toJsonLwM2m(JsonRootObject)} in the stream, encoders which
+     * are able to write directly in a stream should override it.
+     *
+     * @throws LwM2mJsonException if encoding failed or if writing in the stream failed.
+     */
+    public default void toJsonLwM2m(JsonRootObject jro, OutputStream out) throws LwM2mJsonException {
+        try {
+            out.write(toJsonLwM2m(jro).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new LwM2mJsonException("Unable to write LWM2M JSON in stream", e);
+        }
+    }
+
 }
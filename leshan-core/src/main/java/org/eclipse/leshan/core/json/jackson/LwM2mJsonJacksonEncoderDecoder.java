@@ -18,6 +18,7 @@
 package org.eclipse.leshan.core.json.jackson;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.eclipse.leshan.core.json.JsonRootObject;
 import org.eclipse.leshan.core.json.LwM2mJsonDecoder;
@@ -44,6 +45,15 @@ public class LwM2mJsonJacksonEncoderDecoder implements LwM2mJsonDecoder, LwM2mJs
         }
     }
 
+    @Override
+    public void toJsonLwM2m(JsonRootObject jro, OutputStream out) throws LwM2mJsonException {
+        try {
+            serDes.serialize(jro, out);
+        } catch (JsonException e) {
+            throw new LwM2mJsonException("Unable to serialize LWM2M JSON.", e);
+        }
+    }
+
     @Override
     public JsonRootObject fromJsonLwM2m(String jsonString) throws LwM2mJsonException {
         try {
@@ -18,7 +18,9 @@ package org.eclipse.leshan.core.link;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.leshan.core.link.attributes.Attribute;
 import org.eclipse.leshan.core.link.attributes.AttributeParser;
@@ -28,17 +30,41 @@ import org.eclipse.leshan.core.parser.StringParser;
 
 /**
  * A Link as defined in http://tools.ietf.org/html/rfc6690.
+ * <p>
+ * The parser splits the payload into link-values directly on the UTF-8 bytes and keeps a bounded cache of already
+ * parsed link-values. As {@link Link} are immutable, identical link descriptions (e.g. sent by a whole fleet of devices
+ * running the same firmware) share the same {@link Link} instance and are not parsed again.
  */
 public class DefaultLinkParser implements LinkParser {
 
+    /**
+     * Default maximum number of link-values kept in cache.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
     private AttributeParser attributeParser;
+    private final int cacheSize;
+    private final ConcurrentHashMap<LinkValueKey, Link> cache;
 
     public DefaultLinkParser() {
         this(new DefaultAttributeParser());
     }
 
     public DefaultLinkParser(AttributeParser attributeParser) {
+        this(attributeParser, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param attributeParser the parser used for link-param.
+     * @param cacheSize maximum number of parsed link-values kept in cache, 0 to disable the cache.
+     */
+    public DefaultLinkParser(AttributeParser attributeParser, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size must be positive or 0");
+        }
         this.attributeParser = attributeParser;
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize > 0 ? new ConcurrentHashMap<LinkValueKey, Link>() : null;
     }
 
     /**
@@ -62,16 +88,95 @@ public class DefaultLinkParser implements LinkParser {
             return new Link[] {};
         }
 
+        // split link-value-list on bytes : ',' is a separator only outside of URI-Reference and quoted-string
+        List<Link> links = new ArrayList<>();
+        int start = 0;
+        boolean inUriReference = false;
+        boolean inQuotedString = false;
+        for (int i = 0; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (inUriReference) {
+                inUriReference = b != '>';
+            } else if (inQuotedString) {
+                if (b == '\\') {
+                    i++;
+                } else {
+                    inQuotedString = b != '"';
+                }
+            } else if (b == '<' && i == start) {
+                inUriReference = true;
+            } else if (b == '"') {
+                inQuotedString = true;
+            } else if (b == ',') {
+                Link link = parseLinkValue(bytes, start, i);
+                if (link == null) {
+                    return parseLinkValueList(bytes);
+                }
+                links.add(link);
+                start = i + 1;
+            }
+        }
+        Link link = parseLinkValue(bytes, start, bytes.length);
+        if (link == null) {
+            return parseLinkValueList(bytes);
+        }
+        links.add(link);
+        return links.toArray(new Link[links.size()]);
+    }
+
+    /**
+     * Parse a single link-value from <code>bytes</code> between <code>start</code> (inclusive) and <code>end</code>
+     * (exclusive), using cache if enabled.
+     *
+     * @return the parsed {@link Link} or <code>null</code> if this is not a valid link-value.
+     */
+    protected Link parseLinkValue(byte[] bytes, int start, int end) {
+        LinkValueKey key = null;
+        if (cache != null) {
+            key = new LinkValueKey(bytes, start, end);
+            Link link = cache.get(key);
+            if (link != null) {
+                return link;
+            }
+        }
+
+        StringParser<LinkParseException> parser = createParser(
+                new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        Link link;
+        try {
+            link = consumeLinkValue(parser);
+        } catch (LinkParseException e) {
+            return null;
+        }
+        if (parser.hasMoreChar()) {
+            return null;
+        }
+
+        if (cache != null) {
+            if (cache.size() >= cacheSize) {
+                // simple bounded strategy : cache is rebuilt from scratch once full
+                cache.clear();
+            }
+            Link previous = cache.putIfAbsent(key.copy(), link);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return link;
+    }
+
+    /**
+     * Parse the whole link-value-list as a {@code String}.
+     * <p>
+     * This is used as fall-back when a link-value can not be parsed alone, so error reporting is done against the whole
+     * payload.
+     */
+    protected Link[] parseLinkValueList(byte[] bytes) throws LinkParseException {
         // convert input to String
         String strLinks = new String(bytes, StandardCharsets.UTF_8);
 
         // create a String Parser
-        StringParser<LinkParseException> parser = new StringParser<LinkParseException>(strLinks) {
-            @Override
-            public void raiseException(String message, Exception cause) throws LinkParseException {
-                throw new LinkParseException(message, cause);
-            }
-        };
+        StringParser<LinkParseException> parser = createParser(strLinks);
 
         // Parse link-value-list
         List<Link> links = new ArrayList<>();
@@ -91,6 +196,15 @@ public class DefaultLinkParser implements LinkParser {
         return links.toArray(new Link[links.size()]);
     }
 
+    protected StringParser<LinkParseException> createParser(String strToParse) {
+        return new StringParser<LinkParseException>(strToParse) {
+            @Override
+            public void raiseException(String message, Exception cause) throws LinkParseException {
+                throw new LinkParseException(message, cause);
+            }
+        };
+    }
+
     /**
      * consume a link-value with rules (subset of RFC6690 (https://datatracker.ietf.org/doc/html/RFC6690#section-2)):
      *
@@ -255,4 +369,61 @@ public class DefaultLinkParser implements LinkParser {
         }
         return parmName;
     }
+
+    /**
+     * A key identifying a link-value by its bytes, usable without copying the payload.
+     */
+    private static final class LinkValueKey {
+        private final byte[] bytes;
+        private final int start;
+        private final int end;
+        private final int hash;
+
+        public LinkValueKey(byte[] bytes, int start, int end) {
+            this(bytes, start, end, hash(bytes, start, end));
+        }
+
+        private LinkValueKey(byte[] bytes, int start, int end, int hash) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+            this.hash = hash;
+        }
+
+        private static int hash(byte[] bytes, int start, int end) {
+            int result = 1;
+            for (int i = start; i < end; i++) {
+                result = 31 * result + bytes[i];
+            }
+            return result;
+        }
+
+        /**
+         * @return a key which does not share the underlying payload.
+         */
+        public LinkValueKey copy() {
+            return new LinkValueKey(Arrays.copyOfRange(bytes, start, end), 0, end - start, hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof LinkValueKey))
+                return false;
+            LinkValueKey other = (LinkValueKey) obj;
+            if (hash != other.hash || end - start != other.end - other.start)
+                return false;
+            for (int i = start, j = other.start; i < end; i++, j++) {
+                if (bytes[i] != other.bytes[j])
+                    return false;
+            }
+            return true;
+        }
+    }
 }
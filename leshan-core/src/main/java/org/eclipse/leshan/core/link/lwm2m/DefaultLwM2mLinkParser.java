@@ -18,6 +18,8 @@ package org.eclipse.leshan.core.link.lwm2m;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.leshan.core.link.DefaultLinkParser;
 import org.eclipse.leshan.core.link.Link;
@@ -37,10 +39,16 @@ import org.eclipse.leshan.core.node.LwM2mPath;
 
 /**
  * A Default Link Parser which is able to create more LWM2M flavored link.
+ * <p>
+ * {@link MixedLwM2mLink} created by {@link #parseCoreLinkFormat(byte[])} are cached, so identical link descriptions
+ * share the same immutable instance.
  */
 public class DefaultLwM2mLinkParser implements LwM2mLinkParser {
 
+    private static final int CACHE_SIZE = DefaultLinkParser.DEFAULT_CACHE_SIZE;
+
     private LinkParser parser;
+    private final ConcurrentHashMap<MixedLinkKey, Link> mixedLinks = new ConcurrentHashMap<>();
 
     public DefaultLwM2mLinkParser() {
         // Define all supported Attributes
@@ -131,6 +139,14 @@ public class DefaultLwM2mLinkParser implements LwM2mLinkParser {
             if (path.startsWith(rootPath)) {
                 // if it starts by rootPath this should be a LwM2mLink :
 
+                // reuse already converted link if any
+                MixedLinkKey key = new MixedLinkKey(rootPath, links[i]);
+                Link mixedLink = mixedLinks.get(key);
+                if (mixedLink != null) {
+                    links[i] = mixedLink;
+                    continue;
+                }
+
                 // create lwm2m path
                 LwM2mPath lwm2mPath;
                 try {
@@ -149,13 +165,47 @@ public class DefaultLwM2mLinkParser implements LwM2mLinkParser {
                     attributes.validate(lwm2mPath);
 
                     // create link and replace it
-                    links[i] = new MixedLwM2mLink(rootPath, LwM2mPath.parse(path, rootPath), attributes);
+                    links[i] = new MixedLwM2mLink(rootPath, lwm2mPath, attributes);
                 } catch (IllegalArgumentException e) {
                     String strLink = new String(bytes, StandardCharsets.UTF_8);
                     throw new LinkParseException(e, "Unable to parse link %s in %s", links[i], strLink);
                 }
+
+                // keep it in cache
+                if (mixedLinks.size() >= CACHE_SIZE) {
+                    mixedLinks.clear();
+                }
+                mixedLink = mixedLinks.putIfAbsent(key, links[i]);
+                if (mixedLink != null) {
+                    links[i] = mixedLink;
+                }
             }
         }
         return links;
     }
+
+    private static final class MixedLinkKey {
+        private final String rootPath;
+        private final Link link;
+
+        public MixedLinkKey(String rootPath, Link link) {
+            this.rootPath = rootPath;
+            this.link = link;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rootPath, link);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof MixedLinkKey))
+                return false;
+            MixedLinkKey other = (MixedLinkKey) obj;
+            return Objects.equals(rootPath, other.rootPath) && Objects.equals(link, other.link);
+        }
+    }
 }
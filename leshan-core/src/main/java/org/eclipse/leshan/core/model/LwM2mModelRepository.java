@@ -17,6 +17,8 @@ package org.eclipse.leshan.core.model;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 
@@ -99,6 +101,8 @@ public class LwM2mModelRepository {
 
     // This map contains all the object models available. Different version could be used.
     private final NavigableMap<Key, ObjectModel> objects;
+    // Index of the most recent version of each object, as it is looked up for each resource by LwM2mModel.
+    private final Map<Integer, ObjectModel> lastVersionObjects;
 
     public LwM2mModelRepository(ObjectModel... objectModels) {
         this(Arrays.asList(objectModels));
@@ -130,6 +134,11 @@ public class LwM2mModelRepository {
             // TODO use unmodifiableNavigableMap when we pass to java8.
             objects = map;
         }
+        lastVersionObjects = new HashMap<>();
+        for (ObjectModel model : objects.values()) {
+            // objects are sorted by id then version, so last one wins
+            lastVersionObjects.put(model.id, model);
+        }
     }
 
     private void validateKey(Integer id, String version) {
@@ -159,11 +168,7 @@ public class LwM2mModelRepository {
     public ObjectModel getObjectModel(Integer objectId) {
         LwM2mNodeUtil.validateObjectId(objectId);
 
-        Key floorKey = objects.floorKey(getKey(objectId, Version.MAX));
-        if (floorKey == null || !floorKey.id.equals(objectId)) {
-            return null;
-        }
-        return objects.get(floorKey);
+        return lastVersionObjects.get(objectId);
     }
 
     private Key getKey(Integer objectId, String version) {
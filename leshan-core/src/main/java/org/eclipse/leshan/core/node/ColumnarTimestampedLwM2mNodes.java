@@ -0,0 +1,470 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.leshan.core.model.ResourceModel.Type;
+import org.eclipse.leshan.core.util.datatype.ULong;
+
+/**
+ * A columnar container for timestamped values of resources and resource instances.
+ * <p>
+ * Values are stored by {@link LwM2mPath}, each path having its own {@link Column} of primitive timestamps and values.
+ * This is a compact alternative to {@link TimestampedLwM2mNodes} for large batches of samples (e.g. a "Send" of
+ * thousands of sensor values) as it avoids to create one {@link Instant}, one {@link Map} and one {@link LwM2mNode} by
+ * sample.
+ * <p>
+ * Use {@link #toTimestampedLwM2mNodes()} to get the usual {@link TimestampedLwM2mNodes} representation.
+ */
+public class ColumnarTimestampedLwM2mNodes {
+
+    /**
+     * Value used in timestamps column when the value has no timestamp.
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Map<LwM2mPath, Column> columns;
+
+    private ColumnarTimestampedLwM2mNodes(Map<LwM2mPath, Column> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @return all paths which have at least one value.
+     */
+    public Set<LwM2mPath> getPaths() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * @return the column of values for the given path or <code>null</code> if there is no value for this path.
+     */
+    public Column getColumn(LwM2mPath path) {
+        return columns.get(path);
+    }
+
+    public Collection<Column> getColumns() {
+        return Collections.unmodifiableCollection(columns.values());
+    }
+
+    /**
+     * @return the total number of values.
+     */
+    public int size() {
+        int size = 0;
+        for (Column column : columns.values()) {
+            size += column.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    /**
+     * Convert this columnar representation to a {@link TimestampedLwM2mNodes}.
+     */
+    public TimestampedLwM2mNodes toTimestampedLwM2mNodes() {
+        TimestampedLwM2mNodes.Builder builder = TimestampedLwM2mNodes.builder();
+        for (Column column : columns.values()) {
+            LwM2mPath path = column.getPath();
+            for (int i = 0; i < column.size(); i++) {
+                builder.put(column.getInstant(i), path, column.getNode(i));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnarTimestampedLwM2mNodes [%s]", columns.values());
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((columns == null) ? 0 : columns.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ColumnarTimestampedLwM2mNodes other = (ColumnarTimestampedLwM2mNodes) obj;
+        if (columns == null) {
+            if (other.columns != null)
+                return false;
+        } else if (!columns.equals(other.columns))
+            return false;
+        return true;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Timestamped values for a given resource or resource instance path.
+     * <p>
+     * Timestamps are stored as nanoseconds since epoch ({@link #NO_TIMESTAMP} if there is no timestamp). Values are
+     * stored depending of {@link Type} :
+     * <ul>
+     * <li>{@link Type#INTEGER}, {@link Type#UNSIGNED_INTEGER}, {@link Type#BOOLEAN}, {@link Type#TIME} (in
+     * milliseconds) in a <code>long[]</code>, see {@link #getLongValue(int)}</li>
+     * <li>{@link Type#FLOAT} in a <code>double[]</code>, see {@link #getDoubleValue(int)}</li>
+     * <li>any other type in an <code>Object[]</code>, see {@link #getValue(int)}</li>
+     * </ul>
+     */
+    public static class Column {
+
+        private final LwM2mPath path;
+        private final Type type;
+        private int size;
+        private long[] timestamps;
+        private long[] longValues;
+        private double[] doubleValues;
+        private Object[] objectValues;
+
+        private Column(LwM2mPath path, Type type, int initialCapacity) {
+            this.path = path;
+            this.type = type;
+            this.timestamps = new long[initialCapacity];
+            if (isLongType(type)) {
+                longValues = new long[initialCapacity];
+            } else if (type == Type.FLOAT) {
+                doubleValues = new double[initialCapacity];
+            } else {
+                objectValues = new Object[initialCapacity];
+            }
+        }
+
+        private static boolean isLongType(Type type) {
+            return type == Type.INTEGER || type == Type.UNSIGNED_INTEGER || type == Type.BOOLEAN || type == Type.TIME;
+        }
+
+        private void add(long timestamp, Object value) {
+            ensureCapacity(size + 1);
+            timestamps[size] = timestamp;
+            switch (type) {
+            case INTEGER:
+            case UNSIGNED_INTEGER:
+                longValues[size] = ((Number) value).longValue();
+                break;
+            case BOOLEAN:
+                longValues[size] = ((Boolean) value) ? 1 : 0;
+                break;
+            case TIME:
+                longValues[size] = ((Date) value).getTime();
+                break;
+            case FLOAT:
+                doubleValues[size] = ((Number) value).doubleValue();
+                break;
+            default:
+                objectValues[size] = value;
+                break;
+            }
+            size++;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > timestamps.length) {
+                int newCapacity = Math.max(capacity, timestamps.length * 2);
+                timestamps = Arrays.copyOf(timestamps, newCapacity);
+                if (longValues != null) {
+                    longValues = Arrays.copyOf(longValues, newCapacity);
+                } else if (doubleValues != null) {
+                    doubleValues = Arrays.copyOf(doubleValues, newCapacity);
+                } else {
+                    objectValues = Arrays.copyOf(objectValues, newCapacity);
+                }
+            }
+        }
+
+        private void trim() {
+            if (size != timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size);
+                if (longValues != null) {
+                    longValues = Arrays.copyOf(longValues, size);
+                } else if (doubleValues != null) {
+                    doubleValues = Arrays.copyOf(doubleValues, size);
+                } else {
+                    objectValues = Arrays.copyOf(objectValues, size);
+                }
+            }
+        }
+
+        private void validateNoDuplicate() {
+            long[] sorted = Arrays.copyOf(timestamps, size);
+            Arrays.sort(sorted);
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] == sorted[i - 1]) {
+                    throw new IllegalArgumentException(String.format(
+                            "Unable to create ColumnarTimestampedLwM2mNodes : duplicate value for path %s", path));
+                }
+            }
+        }
+
+        public LwM2mPath getPath() {
+            return path;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the timestamp in nanoseconds since epoch or {@link ColumnarTimestampedLwM2mNodes#NO_TIMESTAMP}
+         */
+        public long getTimestamp(int index) {
+            checkIndex(index);
+            return timestamps[index];
+        }
+
+        public boolean hasTimestamp(int index) {
+            return getTimestamp(index) != NO_TIMESTAMP;
+        }
+
+        /**
+         * @return the timestamp as {@link Instant} or <code>null</code> if value at this index has no timestamp.
+         */
+        public Instant getInstant(int index) {
+            long timestamp = getTimestamp(index);
+            if (timestamp == NO_TIMESTAMP) {
+                return null;
+            }
+            return Instant.ofEpochSecond(Math.floorDiv(timestamp, 1_000_000_000L),
+                    Math.floorMod(timestamp, 1_000_000_000L));
+        }
+
+        /**
+         * @return the raw value for {@link Type#INTEGER}, {@link Type#UNSIGNED_INTEGER}, {@link Type#BOOLEAN} (0 or 1),
+         *         {@link Type#TIME} (milliseconds since epoch).
+         * @throws IllegalStateException if type of this column is not stored as long.
+         */
+        public long getLongValue(int index) {
+            checkIndex(index);
+            if (longValues == null) {
+                throw new IllegalStateException(String.format("%s values are not stored as long", type));
+            }
+            return longValues[index];
+        }
+
+        /**
+         * @return the raw value for {@link Type#FLOAT}
+         * @throws IllegalStateException if type of this column is not {@link Type#FLOAT}.
+         */
+        public double getDoubleValue(int index) {
+            checkIndex(index);
+            if (doubleValues == null) {
+                throw new IllegalStateException(String.format("%s values are not stored as double", type));
+            }
+            return doubleValues[index];
+        }
+
+        /**
+         * @return the value as it would be returned by {@link LwM2mResource#getValue()}.
+         */
+        public Object getValue(int index) {
+            checkIndex(index);
+            switch (type) {
+            case INTEGER:
+                return longValues[index];
+            case UNSIGNED_INTEGER:
+                return ULong.valueOf(longValues[index]);
+            case BOOLEAN:
+                return longValues[index] != 0;
+            case TIME:
+                return new Date(longValues[index]);
+            case FLOAT:
+                return doubleValues[index];
+            default:
+                return objectValues[index];
+            }
+        }
+
+        /**
+         * @return the value at the given index as a {@link LwM2mNode}.
+         */
+        public LwM2mNode getNode(int index) {
+            if (path.isResourceInstance()) {
+                return LwM2mResourceInstance.newInstance(path.getResourceInstanceId(), getValue(index), type);
+            } else {
+                return LwM2mSingleResource.newResource(path.getResourceId(), getValue(index), type);
+            }
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Column [path=%s, type=%s, size=%s]", path, type, size);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((path == null) ? 0 : path.hashCode());
+            result = prime * result + ((type == null) ? 0 : type.hashCode());
+            result = prime * result + size;
+            for (int i = 0; i < size; i++) {
+                result = prime * result + Long.hashCode(timestamps[i]);
+            }
+            if (longValues != null) {
+                for (int i = 0; i < size; i++) {
+                    result = prime * result + Long.hashCode(longValues[i]);
+                }
+            } else if (doubleValues != null) {
+                for (int i = 0; i < size; i++) {
+                    result = prime * result + Double.hashCode(doubleValues[i]);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    result = prime * result + Arrays.deepHashCode(new Object[] { objectValues[i] });
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            Column other = (Column) obj;
+            if (size != other.size || type != other.type || !path.equals(other.path))
+                return false;
+            for (int i = 0; i < size; i++) {
+                if (timestamps[i] != other.timestamps[i])
+                    return false;
+                if (longValues != null) {
+                    if (longValues[i] != other.longValues[i])
+                        return false;
+                } else if (doubleValues != null) {
+                    if (Double.compare(doubleValues[i], other.doubleValues[i]) != 0)
+                        return false;
+                } else if (!Objects.deepEquals(objectValues[i], other.objectValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public static class Builder {
+
+        private static final int DEFAULT_COLUMN_CAPACITY = 16;
+
+        private final Map<LwM2mPath, Column> columns = new LinkedHashMap<>();
+        private boolean noDuplicate = true;
+
+        public Builder raiseExceptionOnDuplicate(boolean raiseException) {
+            noDuplicate = raiseException;
+            return this;
+        }
+
+        /**
+         * Add a value without timestamp.
+         */
+        public Builder put(LwM2mPath path, Type type, Object value) {
+            return put(NO_TIMESTAMP, path, type, value);
+        }
+
+        /**
+         * Add a value with a timestamp (<code>null</code> meaning no timestamp).
+         */
+        public Builder put(Instant timestamp, LwM2mPath path, Type type, Object value) {
+            long nanos;
+            if (timestamp == null) {
+                nanos = NO_TIMESTAMP;
+            } else {
+                try {
+                    nanos = Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000_000L),
+                            timestamp.getNano());
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException(
+                            String.format("Timestamp %s can not be stored as nanoseconds since epoch", timestamp), e);
+                }
+            }
+            return put(nanos, path, type, value);
+        }
+
+        /**
+         * Add a value with a timestamp in nanoseconds since epoch ({@link #NO_TIMESTAMP} meaning no timestamp).
+         */
+        public Builder put(long timestampInNanos, LwM2mPath path, Type type, Object value) {
+            if (path == null || !(path.isResource() || path.isResourceInstance())) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid path %s : path should be a resource or resource instance path", path));
+            }
+            if (type == null || value == null) {
+                throw new IllegalArgumentException(String.format("Type and value must not be null for path %s", path));
+            }
+
+            Column column = columns.get(path);
+            if (column == null) {
+                column = new Column(path, type, DEFAULT_COLUMN_CAPACITY);
+                columns.put(path, column);
+            } else if (column.getType() != type) {
+                throw new IllegalArgumentException(String.format(
+                        "Inconsistent type for path %s : %s was expected but was %s", path, column.getType(), type));
+            }
+            column.add(timestampInNanos, value);
+            return this;
+        }
+
+        /**
+         * Build the {@link ColumnarTimestampedLwM2mNodes} and raise {@link IllegalArgumentException} if builder inputs
+         * are invalid.
+         */
+        public ColumnarTimestampedLwM2mNodes build() throws IllegalArgumentException {
+            for (Column column : columns.values()) {
+                if (noDuplicate) {
+                    column.validateNoDuplicate();
+                }
+                column.trim();
+            }
+            return new ColumnarTimestampedLwM2mNodes(columns);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.leshan.core.util.Validate;
+
+/**
+ * The value of an {@link org.eclipse.leshan.core.model.ResourceModel.Type#OPAQUE} resource which is not necessarily
+ * held in memory (e.g. a firmware package or a log file).
+ * <p>
+ * Content can be read several times and by range, so a large value can be transferred block by block without being
+ * loaded as a whole.
+ *
+ * @see #fromFile(Path)
+ * @see #fromBytes(byte[])
+ */
+public abstract class OpaqueContent {
+
+    /**
+     * @return the size of this content in bytes.
+     */
+    public abstract long getLength();
+
+    /**
+     * Open a new {@link InputStream} on this content, which should be closed by the caller.
+     */
+    public abstract InputStream openStream() throws IOException;
+
+    /**
+     * Read <code>length</code> bytes of this content starting at <code>position</code>.
+     * <p>
+     * Default implementation skips bytes of a new stream, subclasses should override it if they support random access.
+     *
+     * @param position the position of the first byte to read in this content.
+     * @param dst the buffer into which bytes are to be transferred.
+     * @param offset the offset in <code>dst</code> of the first transferred byte.
+     * @param length the number of bytes to read, content must contain enough bytes after <code>position</code>.
+     *
+     * @throws IOException if content can not be read.
+     */
+    public void read(long position, byte[] dst, int offset, int length) throws IOException {
+        checkRange(position, length);
+        try (InputStream in = openStream()) {
+            long toSkip = position;
+            while (toSkip > 0) {
+                long skipped = in.skip(toSkip);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException();
+                    }
+                    skipped = 1;
+                }
+                toSkip -= skipped;
+            }
+            readFully(in, dst, offset, length);
+        }
+    }
+
+    /**
+     * Get the whole content as a byte array.
+     * <p>
+     * This loads the whole content in memory, prefer {@link #openStream()}, {@link #writeTo(OutputStream)} or
+     * {@link #read(long, byte[], int, int)} for large content.
+     *
+     * @throws IOException if content can not be read.
+     */
+    public byte[] toByteArray() throws IOException {
+        long length = getLength();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Content is too large (%d bytes) to be stored in an array", length));
+        }
+        byte[] bytes = new byte[(int) length];
+        read(0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Copy the whole content to the given stream.
+     *
+     * @throws IOException if content can not be read or written to the stream.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = openStream()) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    protected void checkRange(long position, int length) {
+        if (position < 0 || length < 0 || position + length > getLength()) {
+            throw new IndexOutOfBoundsException(String.format("Invalid range [%d, %d[ for content of %d bytes",
+                    position, position + length, getLength()));
+        }
+    }
+
+    protected static void readFully(InputStream in, byte[] dst, int offset, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int r = in.read(dst, offset + read, length - read);
+            if (r < 0) {
+                throw new EOFException();
+            }
+            read += r;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [length=%d]", getClass().getSimpleName(), getLength());
+    }
+
+    /**
+     * Create an {@link OpaqueContent} backed by the given array. Array is not copied and so should not be modified
+     * afterwards.
+     */
+    public static OpaqueContent fromBytes(byte[] value) {
+        return new BytesContent(value);
+    }
+
+    /**
+     * Create an {@link OpaqueContent} backed by the given file. The file is only opened when content is read and should
+     * not be modified while content is used.
+     */
+    public static OpaqueContent fromFile(Path file) {
+        return new FileContent(file);
+    }
+
+    private static class BytesContent extends OpaqueContent {
+        private final byte[] value;
+
+        public BytesContent(byte[] value) {
+            Validate.notNull(value);
+            this.value = value;
+        }
+
+        @Override
+        public long getLength() {
+            return value.length;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(value);
+        }
+
+        @Override
+        public void read(long position, byte[] dst, int offset, int length) {
+            checkRange(position, length);
+            System.arraycopy(value, (int) position, dst, offset, length);
+        }
+
+        @Override
+        public byte[] toByteArray() {
+            return value;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(value);
+        }
+    }
+
+    private static class FileContent extends OpaqueContent {
+        private final Path file;
+
+        public FileContent(Path file) {
+            Validate.notNull(file);
+            this.file = file;
+        }
+
+        @Override
+        public long getLength() {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                throw new IllegalStateException(String.format("Unable to get size of %s", file), e);
+            }
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void read(long position, byte[] dst, int offset, int length) throws IOException {
+            checkRange(position, length);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.wrap(dst, offset, length);
+                long pos = position;
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, pos);
+                    if (read < 0) {
+                        throw new EOFException();
+                    }
+                    pos += read;
+                }
+            }
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            Files.copy(file, out);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FileContent [file=%s, length=%d]", file, getLength());
+        }
+    }
+}
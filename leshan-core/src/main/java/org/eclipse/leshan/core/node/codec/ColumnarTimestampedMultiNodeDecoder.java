@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node.codec;
+
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
+
+/**
+ * A decoder for {@link ColumnarTimestampedLwM2mNodes}.
+ *
+ * @see DefaultLwM2mDecoder
+ */
+public interface ColumnarTimestampedMultiNodeDecoder {
+    /**
+     * Deserializes a binary content into a {@link ColumnarTimestampedLwM2mNodes}.
+     * <p>
+     *
+     * @param content the content
+     * @param model the collection of supported object models
+     * @return the decoded timestamped values represented by {@link ColumnarTimestampedLwM2mNodes}
+     * @throws CodecException if content is malformed or can not be represented as columns.
+     */
+    ColumnarTimestampedLwM2mNodes decodeColumnarTimestampedNodes(byte[] content, LwM2mModel model)
+            throws CodecException;
+
+}
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mObject;
 import org.eclipse.leshan.core.node.LwM2mObjectInstance;
@@ -230,6 +231,27 @@ public class DefaultLwM2mDecoder implements LwM2mDecoder {
         }
     }
 
+    @Override
+    public ColumnarTimestampedLwM2mNodes decodeColumnarTimestampedNodes(byte[] content, ContentFormat format,
+            LwM2mModel model) throws CodecException {
+        LOG.trace("Decoding columnar value for format {}: {}", format, content);
+
+        if (format == null) {
+            throw new CodecException("Content format is mandatory.");
+        }
+
+        NodeDecoder decoder = nodeDecoders.get(format);
+        if (decoder == null) {
+            throw new CodecException("Content format %s is not supported", format);
+        }
+
+        if (decoder instanceof ColumnarTimestampedMultiNodeDecoder) {
+            return ((ColumnarTimestampedMultiNodeDecoder) decoder).decodeColumnarTimestampedNodes(content, model);
+        } else {
+            throw new CodecException("Decoder does not support columnar decoding for this content format %s", format);
+        }
+    }
+
     @Override
     public List<LwM2mPath> decodePaths(byte[] content, ContentFormat format) throws CodecException {
         LOG.trace("Decoding paths encoded with {}: {}", format, content);
@@ -273,6 +295,11 @@ public class DefaultLwM2mDecoder implements LwM2mDecoder {
         return nodeDecoders.get(format) != null;
     }
 
+    @Override
+    public boolean isColumnarSupported(ContentFormat format) {
+        return nodeDecoders.get(format) instanceof ColumnarTimestampedMultiNodeDecoder;
+    }
+
     @Override
     public Set<ContentFormat> getSupportedContentFormat() {
         return nodeDecoders.keySet();
@@ -16,6 +16,9 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -151,6 +154,26 @@ public class DefaultLwM2mEncoder implements LwM2mEncoder {
         return encoded;
     }
 
+    @Override
+    public int encode(LwM2mNode node, ContentFormat format, LwM2mPath path, LwM2mModel model, OutputStream out)
+            throws CodecException {
+        Validate.notNull(node);
+        Validate.notNull(out);
+
+        if (format == null) {
+            throw new CodecException("Content format is mandatory. [%s]", path);
+        }
+
+        NodeEncoder encoder = nodeEncoders.get(format);
+        if (encoder == null) {
+            throw new CodecException("Content format %s is not supported [%s]", format, path);
+        }
+        LOG.trace("Encoding node {} for path {} and format {} into stream", node, path, format);
+        CountingOutputStream counter = new CountingOutputStream(out);
+        encoder.encode(node, path, model, converter, counter);
+        return counter.count;
+    }
+
     @Override
     public byte[] encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, ContentFormat format, LwM2mModel model)
             throws CodecException {
@@ -177,6 +200,33 @@ public class DefaultLwM2mEncoder implements LwM2mEncoder {
         return encoded;
     }
 
+    @Override
+    public int encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, ContentFormat format, LwM2mModel model, OutputStream out)
+            throws CodecException {
+        // Validate arguments
+        Validate.notEmpty(nodes);
+        Validate.notNull(out);
+        Set<LwM2mPath> paths = nodes.keySet();
+
+        // Search encoder
+        if (format == null) {
+            throw new CodecException("Content format is mandatory. [%s]", paths);
+        }
+        NodeEncoder encoder = nodeEncoders.get(format);
+        if (encoder == null) {
+            throw new CodecException("Content format %s is not supported [%s]", format, paths);
+        }
+        if (!(encoder instanceof MultiNodeEncoder)) {
+            throw new CodecException("Cannot encode several nodes with format %s. [%s]", format, paths);
+        }
+
+        // Encode nodes
+        LOG.trace("Encoding nodes {} for path {} and format {} into stream", nodes, paths, format);
+        CountingOutputStream counter = new CountingOutputStream(out);
+        ((MultiNodeEncoder) encoder).encodeNodes(nodes, model, converter, counter);
+        return counter.count;
+    }
+
     @Override
     public byte[] encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, ContentFormat format,
             LwM2mPath path, LwM2mModel model) throws CodecException {
@@ -200,6 +250,29 @@ public class DefaultLwM2mEncoder implements LwM2mEncoder {
 
     }
 
+    @Override
+    public int encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, ContentFormat format, LwM2mPath path,
+            LwM2mModel model, OutputStream out) throws CodecException {
+        Validate.notEmpty(timestampedNodes);
+        Validate.notNull(out);
+        if (format == null) {
+            throw new CodecException("Content format is mandatory. [%s]", path);
+        }
+
+        NodeEncoder encoder = nodeEncoders.get(format);
+        if (encoder == null) {
+            throw new CodecException("Content format %s is not supported [%s]", format, path);
+        }
+        if (!(encoder instanceof TimestampedNodeEncoder)) {
+            throw new CodecException("Cannot encode timestampedNode with format %s. [%s]", format, path);
+        }
+        LOG.trace("Encoding time-stamped nodes {} for path {} and format {} into stream", timestampedNodes, path,
+                format);
+        CountingOutputStream counter = new CountingOutputStream(out);
+        ((TimestampedNodeEncoder) encoder).encodeTimestampedData(timestampedNodes, path, model, converter, counter);
+        return counter.count;
+    }
+
     @Override
     public byte[] encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, ContentFormat format, LwM2mModel model)
             throws CodecException {
@@ -224,6 +297,33 @@ public class DefaultLwM2mEncoder implements LwM2mEncoder {
         }
     }
 
+    @Override
+    public int encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, ContentFormat format, LwM2mModel model,
+            OutputStream out) throws CodecException {
+        Validate.notNull(timestampedNodes);
+        Validate.notNull(out);
+
+        if (format == null) {
+            throw new CodecException("Content format is mandatory.");
+        }
+
+        NodeEncoder encoder = nodeEncoders.get(format);
+        if (encoder == null) {
+            throw new CodecException("Content format %s is not supported", format);
+        }
+
+        CountingOutputStream counter = new CountingOutputStream(out);
+        if (encoder instanceof TimestampedMultiNodeEncoder) {
+            ((TimestampedMultiNodeEncoder) encoder).encodeTimestampedNodes(timestampedNodes, model, converter, counter);
+        } else if (encoder instanceof MultiNodeEncoder) {
+            ((MultiNodeEncoder) encoder).encodeNodes(timestampedNodes.getNodes(), model, converter, counter);
+        } else {
+            throw new CodecException("Encoder does not support multiple nodes encoding for this content format: %s",
+                    format);
+        }
+        return counter.count;
+    }
+
     @Override
     public byte[] encodePaths(List<LwM2mPath> paths, ContentFormat format) throws CodecException {
         Validate.notEmpty(paths);
@@ -251,4 +351,27 @@ public class DefaultLwM2mEncoder implements LwM2mEncoder {
     public Set<ContentFormat> getSupportedContentFormat() {
         return nodeEncoders.keySet();
     }
+
+    /**
+     * Count bytes written in the stream given by the caller.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private int count;
+
+        public CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
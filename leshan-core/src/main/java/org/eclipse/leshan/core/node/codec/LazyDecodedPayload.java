@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node.codec;
+
+import java.util.function.Supplier;
+
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.util.Validate;
+
+/**
+ * A received payload with its {@link ContentFormat} which is only decoded on demand.
+ * <p>
+ * This allows to forward raw payload without paying decoding cost, while still giving access to decoded value when
+ * needed. Decoding is done at most once : the result (or the raised exception) is memoized and returned to all next
+ * callers of {@link #getDecoded()}.
+ *
+ * @param <T> type of decoded value
+ */
+public class LazyDecodedPayload<T> {
+
+    private final byte[] payload;
+    private final ContentFormat contentFormat;
+    private Supplier<T> decoder;
+
+    private volatile T decoded;
+    private volatile RuntimeException decodingError;
+
+    /**
+     * @param payload the raw payload, MUST NOT be modified after.
+     * @param contentFormat the content format of the payload.
+     * @param decoder function used to decode the payload, which should raise a {@link CodecException} if payload is
+     *        invalid.
+     */
+    public LazyDecodedPayload(byte[] payload, ContentFormat contentFormat, Supplier<T> decoder) {
+        Validate.notNull(decoder);
+        this.payload = payload == null ? new byte[0] : payload;
+        this.contentFormat = contentFormat;
+        this.decoder = decoder;
+    }
+
+    /**
+     * @return the raw payload as received. This array MUST NOT be modified.
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public ContentFormat getContentFormat() {
+        return contentFormat;
+    }
+
+    /**
+     * @return <code>true</code> if payload was already decoded (successfully or not).
+     */
+    public boolean isDecoded() {
+        return decoded != null || decodingError != null;
+    }
+
+    /**
+     * Decode the payload on first call, then return the memoized value.
+     *
+     * @return the decoded value
+     * @throws CodecException (or any other {@link RuntimeException} raised by the decoder) if the payload can not be
+     *         decoded. Same exception is raised again on next calls.
+     */
+    public T getDecoded() {
+        T value = decoded;
+        if (value == null) {
+            synchronized (this) {
+                value = decoded;
+                if (value == null) {
+                    if (decodingError != null) {
+                        throw decodingError;
+                    }
+                    try {
+                        value = decoder.get();
+                        if (value == null) {
+                            throw new CodecException("Unable to decode %s payload : no value returned", contentFormat);
+                        }
+                        decoded = value;
+                    } catch (RuntimeException e) {
+                        decodingError = e;
+                        throw e;
+                    } finally {
+                        // decoder is not needed anymore, release what it references.
+                        decoder = null;
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LazyDecodedPayload [contentFormat=%s, payload=%d bytes, decoded=%s]", contentFormat,
+                payload.length, decoded);
+    }
+}
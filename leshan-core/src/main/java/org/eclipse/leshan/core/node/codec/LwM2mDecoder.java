@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.node.LwM2mResourceInstance;
@@ -111,6 +112,25 @@ public interface LwM2mDecoder {
     TimestampedLwM2mNodes decodeTimestampedNodes(byte[] content, ContentFormat format, LwM2mModel model)
             throws CodecException;
 
+    /**
+     * Deserializes a binary content into a {@link ColumnarTimestampedLwM2mNodes}.
+     * <p>
+     * This is a more compact alternative to {@link #decodeTimestampedNodes(byte[], ContentFormat, LwM2mModel)} for
+     * large batch of timestamped resource values.
+     * <p>
+     * Default implementation does not support any content format, see {@link #isColumnarSupported(ContentFormat)}.
+     *
+     * @param content the content
+     * @param format the content format
+     * @param model the collection of supported object models
+     * @return the decoded timestamped values represented by {@link ColumnarTimestampedLwM2mNodes}
+     * @throws CodecException if content is malformed or if it can not be represented as columns.
+     */
+    default ColumnarTimestampedLwM2mNodes decodeColumnarTimestampedNodes(byte[] content, ContentFormat format,
+            LwM2mModel model) throws CodecException {
+        throw new CodecException("Content format %s is not supported for columnar decoding", format);
+    }
+
     /**
      * Deserializes a binary content into a list of {@link LwM2mPath}.
      *
@@ -127,6 +147,14 @@ public interface LwM2mDecoder {
      */
     boolean isSupported(ContentFormat format);
 
+    /**
+     * return true is the given {@link ContentFormat} can be decoded with
+     * {@link #decodeColumnarTimestampedNodes(byte[], ContentFormat, LwM2mModel)}
+     */
+    default boolean isColumnarSupported(ContentFormat format) {
+        return false;
+    }
+
     /**
      * @return {@link ContentFormat} supported by this decoder
      */
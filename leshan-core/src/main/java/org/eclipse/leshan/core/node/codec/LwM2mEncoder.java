@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +51,35 @@ public interface LwM2mEncoder {
      */
     byte[] encode(LwM2mNode node, ContentFormat format, LwM2mPath path, LwM2mModel model) throws CodecException;
 
+    /**
+     * Serializes a {@link LwM2mNode} with the given content format directly into a caller-provided
+     * {@link OutputStream}.
+     * <p>
+     * This allows to write encoded node in a reused buffer (e.g. a {@link java.nio.ByteBuffer} through
+     * {@link org.eclipse.leshan.core.util.ByteBufferOutputStream}) instead of allocating a new byte array each time.
+     * <p>
+     * Default implementation writes the result of {@link #encode(LwM2mNode, ContentFormat, LwM2mPath, LwM2mModel)} in
+     * the stream.
+     *
+     * @param node the object/instance/resource to serialize
+     * @param format the content format
+     * @param path the path of the node to serialize
+     * @param model the collection of supported object models
+     * @param out the stream where the encoded node is written
+     * @return the number of bytes written
+     * @throws CodecException if encoding failed or if writing in the stream failed.
+     */
+    default int encode(LwM2mNode node, ContentFormat format, LwM2mPath path, LwM2mModel model, OutputStream out)
+            throws CodecException {
+        byte[] encoded = encode(node, format, path, model);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded node for path %s", path);
+        }
+        return encoded.length;
+    }
+
     /**
      * Serializes a list of {@link LwM2mNode} using the given content format.
      *
@@ -61,6 +92,31 @@ public interface LwM2mEncoder {
      */
     byte[] encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, ContentFormat format, LwM2mModel model) throws CodecException;
 
+    /**
+     * Serializes a list of {@link LwM2mNode} using the given content format directly into a caller-provided
+     * {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of {@link #encodeNodes(Map, ContentFormat, LwM2mModel)} in the stream.
+     *
+     * @param nodes the Map from {@link LwM2mPath} to {@link LwM2mNode} to serialize. value can be <code>null</code> if
+     *        no data was available for a given path
+     * @param format the content format
+     * @param model the collection of supported object models
+     * @param out the stream where the encoded nodes are written
+     * @return the number of bytes written
+     * @throws CodecException if encoding failed or if writing in the stream failed.
+     */
+    default int encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, ContentFormat format, LwM2mModel model, OutputStream out)
+            throws CodecException {
+        byte[] encoded = encodeNodes(nodes, format, model);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded nodes for paths %s", nodes.keySet());
+        }
+        return encoded.length;
+    }
+
     /**
      * Serializes a list of time-stamped {@link LwM2mNode} with the given content format.
      *
@@ -74,6 +130,32 @@ public interface LwM2mEncoder {
     byte[] encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, ContentFormat format, LwM2mPath path,
             LwM2mModel model) throws CodecException;
 
+    /**
+     * Serializes a list of time-stamped {@link LwM2mNode} with the given content format directly into a caller-provided
+     * {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of
+     * {@link #encodeTimestampedData(List, ContentFormat, LwM2mPath, LwM2mModel)} in the stream.
+     *
+     * @param timestampedNodes the list of time-stamped object/instance/resource to serialize
+     * @param format the content format
+     * @param path the path of the node to serialize
+     * @param model the collection of supported object models
+     * @param out the stream where the encoded nodes are written
+     * @return the number of bytes written
+     * @throws CodecException if encoding failed or if writing in the stream failed.
+     */
+    default int encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, ContentFormat format, LwM2mPath path,
+            LwM2mModel model, OutputStream out) throws CodecException {
+        byte[] encoded = encodeTimestampedData(timestampedNodes, format, path, model);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded timestamped nodes for path %s", path);
+        }
+        return encoded.length;
+    }
+
     /**
      * Serializes a multiple time-stamped nodes contained in {@link TimestampedLwM2mNodes} with the given content
      * format.
@@ -87,6 +169,31 @@ public interface LwM2mEncoder {
     byte[] encodeTimestampedNodes(TimestampedLwM2mNodes data, ContentFormat format, LwM2mModel model)
             throws CodecException;
 
+    /**
+     * Serializes a multiple time-stamped nodes contained in {@link TimestampedLwM2mNodes} with the given content format
+     * directly into a caller-provided {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of
+     * {@link #encodeTimestampedNodes(TimestampedLwM2mNodes, ContentFormat, LwM2mModel)} in the stream.
+     *
+     * @param data the {@link TimestampedLwM2mNodes} to serialize
+     * @param format the content format
+     * @param model the collection of supported object models
+     * @param out the stream where the encoded nodes are written
+     * @return the number of bytes written
+     * @throws CodecException if encoding failed or if writing in the stream failed.
+     */
+    default int encodeTimestampedNodes(TimestampedLwM2mNodes data, ContentFormat format, LwM2mModel model,
+            OutputStream out) throws CodecException {
+        byte[] encoded = encodeTimestampedNodes(data, format, model);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded timestamped nodes");
+        }
+        return encoded.length;
+    }
+
     /**
      * Serializes a list of {@link LwM2mPath} with the given content format.
      *
@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import org.eclipse.leshan.core.model.LwM2mModel;
@@ -40,4 +42,26 @@ public interface MultiNodeEncoder {
      */
     byte[] encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, LwM2mModel model, LwM2mValueConverter converter)
             throws CodecException;
+
+    /**
+     * Serializes a list of {@link LwM2mNode} into the given {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of {@link #encodeNodes(Map, LwM2mModel, LwM2mValueConverter)} in the
+     * stream, encoders which are able to write directly in a stream should override it.
+     *
+     * @param nodes the Map from {@link LwM2mPath} to {@link LwM2mNode} to serialize. value can be <code>null</code> if
+     *        no data was available for a given path
+     * @param model the collection of supported object models
+     * @param out the stream where the encoded nodes are written
+     * @throws CodecException if there payload is malformed or if writing in the stream failed.
+     */
+    default void encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, LwM2mModel model, LwM2mValueConverter converter,
+            OutputStream out) throws CodecException {
+        byte[] encoded = encodeNodes(nodes, model, converter);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded nodes for paths %s", nodes.keySet());
+        }
+    }
 }
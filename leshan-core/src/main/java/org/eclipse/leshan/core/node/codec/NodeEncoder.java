@@ -15,6 +15,9 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.eclipse.leshan.core.model.LwM2mModel;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mPath;
@@ -40,4 +43,29 @@ public interface NodeEncoder {
      */
     byte[] encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter)
             throws CodecException;
+
+    /**
+     * Serializes a {@link LwM2mNode} into the given {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of
+     * {@link #encode(LwM2mNode, LwM2mPath, LwM2mModel, LwM2mValueConverter)} in the stream, encoders which are able to
+     * write directly in a stream should override it.
+     *
+     * @param node the object/instance/resource to serialize
+     * @param path the path of the node to serialize
+     * @param model the collection of supported object models
+     * @param converter a data type converter.
+     * @param out the stream where the encoded node is written
+     *
+     * @throws CodecException if there payload is malformed or if writing in the stream failed.
+     */
+    default void encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter,
+            OutputStream out) throws CodecException {
+        byte[] encoded = encode(node, path, model, converter);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded node for path %s", path);
+        }
+    }
 }
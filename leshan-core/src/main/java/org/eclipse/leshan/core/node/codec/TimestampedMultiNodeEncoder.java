@@ -15,6 +15,9 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.eclipse.leshan.core.model.LwM2mModel;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
 
@@ -36,4 +39,27 @@ public interface TimestampedMultiNodeEncoder {
      */
     byte[] encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, LwM2mModel model,
             LwM2mValueConverter converter) throws CodecException;
+
+    /**
+     * Serializes a {@link TimestampedLwM2mNodes} object into the given {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of
+     * {@link #encodeTimestampedNodes(TimestampedLwM2mNodes, LwM2mModel, LwM2mValueConverter)} in the stream, encoders
+     * which are able to write directly in a stream should override it.
+     *
+     * @param timestampedNodes timestamped nodes to be serialized
+     * @param model the collection of supported object models
+     * @param converter value converter for resources
+     * @param out the stream where the encoded nodes are written
+     * @throws CodecException if encoding fails or if writing in the stream failed.
+     */
+    default void encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, LwM2mModel model,
+            LwM2mValueConverter converter, OutputStream out) throws CodecException {
+        byte[] encoded = encodeTimestampedNodes(timestampedNodes, model, converter);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded timestamped nodes");
+        }
+    }
 }
@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.eclipse.leshan.core.model.LwM2mModel;
@@ -41,4 +43,28 @@ public interface TimestampedNodeEncoder extends NodeEncoder {
      */
     byte[] encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
             LwM2mValueConverter converter) throws CodecException;
+
+    /**
+     * Serializes a list of time-stamped {@link LwM2mNode} into the given {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of
+     * {@link #encodeTimestampedData(List, LwM2mPath, LwM2mModel, LwM2mValueConverter)} in the stream, encoders which
+     * are able to write directly in a stream should override it.
+     *
+     * @param timestampedNodes the list of time-stamped object/instance/resource to serialize
+     * @param path the path of the node to serialize
+     * @param model the collection of supported object models
+     * @param converter a data type converter.
+     * @param out the stream where the encoded nodes are written
+     * @throws CodecException if there payload is malformed or if writing in the stream failed.
+     */
+    default void encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
+            LwM2mValueConverter converter, OutputStream out) throws CodecException {
+        byte[] encoded = encodeTimestampedData(timestampedNodes, path, model, converter);
+        try {
+            out.write(encoded);
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded timestamped nodes for path %s", path);
+        }
+    }
 }
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec.json;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
@@ -44,6 +45,7 @@ import org.eclipse.leshan.core.node.TimestampedLwM2mNode;
 import org.eclipse.leshan.core.node.codec.CodecException;
 import org.eclipse.leshan.core.node.codec.LwM2mValueConverter;
 import org.eclipse.leshan.core.node.codec.TimestampedNodeEncoder;
+import org.eclipse.leshan.core.util.ReusableByteArrayOutputStream;
 import org.eclipse.leshan.core.util.TimestampUtil;
 import org.eclipse.leshan.core.util.Validate;
 import org.eclipse.leshan.core.util.base64.Base64Encoder;
@@ -76,6 +78,15 @@ public class LwM2mNodeJsonEncoder implements TimestampedNodeEncoder {
     @Override
     public byte[] encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter)
             throws CodecException {
+        try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+            encode(node, path, model, converter, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    @Override
+    public void encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter,
+            OutputStream out) throws CodecException {
         Validate.notNull(node);
         Validate.notNull(path);
         Validate.notNull(model);
@@ -90,7 +101,7 @@ public class LwM2mNodeJsonEncoder implements TimestampedNodeEncoder {
         jsonObject.setResourceList(internalEncoder.resourceList);
         jsonObject.setBaseName(internalEncoder.baseName);
         try {
-            return encoder.toJsonLwM2m(jsonObject).getBytes();
+            encoder.toJsonLwM2m(jsonObject, out);
         } catch (LwM2mJsonException e) {
             throw new CodecException(e, "Unable to encode node[path:%s] : %s", path, node);
         }
@@ -99,6 +110,15 @@ public class LwM2mNodeJsonEncoder implements TimestampedNodeEncoder {
     @Override
     public byte[] encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
             LwM2mValueConverter converter) {
+        try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+            encodeTimestampedData(timestampedNodes, path, model, converter, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    @Override
+    public void encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
+            LwM2mValueConverter converter, OutputStream out) {
         Validate.notNull(timestampedNodes);
         Validate.notNull(path);
         Validate.notNull(model);
@@ -129,7 +149,7 @@ public class LwM2mNodeJsonEncoder implements TimestampedNodeEncoder {
         jsonObject.setResourceList(entries);
         jsonObject.setBaseName(internalEncoder.baseName);
         try {
-            return encoder.toJsonLwM2m(jsonObject).getBytes();
+            encoder.toJsonLwM2m(jsonObject, out);
         } catch (LwM2mJsonException e) {
             throw new CodecException(e, "Unable to encode timestamped nodes[path:%s] : %s", path, timestampedNodes);
         }
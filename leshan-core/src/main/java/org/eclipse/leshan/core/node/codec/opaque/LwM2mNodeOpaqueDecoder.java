@@ -25,8 +25,16 @@ import org.eclipse.leshan.core.node.LwM2mSingleResource;
 import org.eclipse.leshan.core.node.codec.CodecException;
 import org.eclipse.leshan.core.node.codec.NodeDecoder;
 
+/**
+ * A {@link NodeDecoder} for the {@link org.eclipse.leshan.core.request.ContentFormat#OPAQUE} content format.
+ * <p>
+ * The content is used as resource value as is (without any copy), so the payload given to this decoder must not be
+ * modified afterwards.
+ */
 public class LwM2mNodeOpaqueDecoder implements NodeDecoder {
 
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+
     @SuppressWarnings("unchecked")
     @Override
     public <T extends LwM2mNode> T decode(byte[] content, LwM2mPath path, LwM2mModel model, Class<T> nodeClass)
@@ -42,12 +50,11 @@ public class LwM2mNodeOpaqueDecoder implements NodeDecoder {
                     desc.type, path);
         }
 
+        byte[] value = content != null ? content : EMPTY_CONTENT;
         if (path.isResource()) {
-            return (T) LwM2mSingleResource.newBinaryResource(path.getResourceId(),
-                    content != null ? content : new byte[0]);
+            return (T) LwM2mSingleResource.newBinaryResource(path.getResourceId(), value);
         } else {
-            return (T) LwM2mResourceInstance.newBinaryInstance(path.getResourceInstanceId(),
-                    content != null ? content : new byte[0]);
+            return (T) LwM2mResourceInstance.newBinaryInstance(path.getResourceInstanceId(), value);
         }
     }
 }
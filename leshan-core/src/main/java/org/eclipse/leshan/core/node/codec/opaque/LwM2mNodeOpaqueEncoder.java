@@ -32,6 +32,11 @@ import org.eclipse.leshan.core.util.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * A {@link NodeEncoder} for the {@link org.eclipse.leshan.core.request.ContentFormat#OPAQUE} content format.
+ * <p>
+ * The resource value is returned as is (without any copy) when no conversion is needed.
+ */
 public class LwM2mNodeOpaqueEncoder implements NodeEncoder {
     private static final Logger LOG = LoggerFactory.getLogger(LwM2mNodeOpaqueEncoder.class);
 
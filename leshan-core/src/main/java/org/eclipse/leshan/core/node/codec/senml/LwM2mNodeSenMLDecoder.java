@@ -33,6 +33,7 @@ import org.eclipse.leshan.core.link.lwm2m.DefaultLwM2mLinkParser;
 import org.eclipse.leshan.core.model.LwM2mModel;
 import org.eclipse.leshan.core.model.ResourceModel;
 import org.eclipse.leshan.core.model.ResourceModel.Type;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.LwM2mMultipleResource;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mObject;
@@ -45,6 +46,7 @@ import org.eclipse.leshan.core.node.ObjectLink;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNode;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.ColumnarTimestampedMultiNodeDecoder;
 import org.eclipse.leshan.core.node.codec.DefaultLwM2mDecoder;
 import org.eclipse.leshan.core.node.codec.MultiNodeDecoder;
 import org.eclipse.leshan.core.node.codec.TimestampedMultiNodeDecoder;
@@ -60,7 +62,8 @@ import org.eclipse.leshan.senml.SenMLRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class LwM2mNodeSenMLDecoder implements TimestampedNodeDecoder, MultiNodeDecoder, TimestampedMultiNodeDecoder {
+public class LwM2mNodeSenMLDecoder implements TimestampedNodeDecoder, MultiNodeDecoder, TimestampedMultiNodeDecoder,
+        ColumnarTimestampedMultiNodeDecoder {
 
     private static final Logger LOG = LoggerFactory.getLogger(LwM2mNodeSenMLDecoder.class);
 
@@ -215,6 +218,36 @@ public class LwM2mNodeSenMLDecoder implements TimestampedNodeDecoder, MultiNodeD
         }
     }
 
+    @Override
+    public ColumnarTimestampedLwM2mNodes decodeColumnarTimestampedNodes(byte[] content, LwM2mModel model)
+            throws CodecException {
+        try {
+            // Decode SenML pack
+            SenMLPack pack = decoder.fromSenML(content);
+
+            ColumnarTimestampedLwM2mNodes.Builder columns = ColumnarTimestampedLwM2mNodes.builder();
+
+            LwM2mSenMLResolver resolver = new LwM2mSenMLResolver();
+            for (SenMLRecord record : pack.getRecords()) {
+                LwM2mResolvedSenMLRecord resolvedRecord = resolver.resolve(record);
+                LwM2mPath path = resolvedRecord.getPath();
+                if (!path.isResource() && !path.isResourceInstance()) {
+                    throw new CodecException(
+                            "Invalid path [%s] for resource, it should be a resource or a resource instance path",
+                            path);
+                }
+                Type type = getResourceType(path, model, record);
+                Object value = parseResourceValue(record.getResourceValue(), type, path);
+                columns.put(TimestampUtil.fromSeconds(resolvedRecord.getTimeStamp()), path, type, value);
+            }
+
+            return columns.build();
+        } catch (SenMLException | IllegalArgumentException e) {
+            String hexValue = content != null ? Hex.encodeHexString(content) : "";
+            throw new CodecException(e, "Unable to decode nodes : %s", hexValue, e);
+        }
+    }
+
     /**
      * Parse records for a given LWM2M path.
      */
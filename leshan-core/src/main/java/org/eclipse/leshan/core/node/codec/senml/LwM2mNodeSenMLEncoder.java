@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec.senml;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -68,6 +69,26 @@ public class LwM2mNodeSenMLEncoder implements TimestampedNodeEncoder, MultiNodeE
 
     @Override
     public byte[] encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter) {
+        SenMLPack pack = toSenMLPack(node, path, model, converter);
+        try {
+            return encoder.toSenML(pack);
+        } catch (SenMLException e) {
+            throw new CodecException(e, "Unable to encode node[path:%s] : %s", path, node);
+        }
+    }
+
+    @Override
+    public void encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter,
+            OutputStream out) {
+        SenMLPack pack = toSenMLPack(node, path, model, converter);
+        try {
+            encoder.toSenML(pack, out);
+        } catch (SenMLException e) {
+            throw new CodecException(e, "Unable to encode node[path:%s] : %s", path, node);
+        }
+    }
+
+    private SenMLPack toSenMLPack(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter) {
         Validate.notNull(node);
         Validate.notNull(path);
         Validate.notNull(model);
@@ -81,17 +102,34 @@ public class LwM2mNodeSenMLEncoder implements TimestampedNodeEncoder, MultiNodeE
 
         SenMLPack pack = new SenMLPack();
         pack.setRecords(internalEncoder.records);
+        return pack;
+    }
 
+    @Override
+    public byte[] encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, LwM2mModel model, LwM2mValueConverter converter)
+            throws CodecException {
+        SenMLPack pack = nodesToSenMLPack(nodes, model, converter);
+        // Encodes SenML pack using internal encoder (it could be SenML-JSON or SenML-CBOR encoder)
         try {
             return encoder.toSenML(pack);
         } catch (SenMLException e) {
-            throw new CodecException(e, "Unable to encode node[path:%s] : %s", path, node);
+            throw new CodecException(e, "Unable to encode multi node[paths:%s] : %s", nodes.keySet(), nodes);
         }
     }
 
     @Override
-    public byte[] encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, LwM2mModel model, LwM2mValueConverter converter)
-            throws CodecException {
+    public void encodeNodes(Map<LwM2mPath, LwM2mNode> nodes, LwM2mModel model, LwM2mValueConverter converter,
+            OutputStream out) throws CodecException {
+        SenMLPack pack = nodesToSenMLPack(nodes, model, converter);
+        try {
+            encoder.toSenML(pack, out);
+        } catch (SenMLException e) {
+            throw new CodecException(e, "Unable to encode multi node[paths:%s] : %s", nodes.keySet(), nodes);
+        }
+    }
+
+    private SenMLPack nodesToSenMLPack(Map<LwM2mPath, LwM2mNode> nodes, LwM2mModel model,
+            LwM2mValueConverter converter) {
         // validate arguments
         Validate.notEmpty(nodes);
 
@@ -117,17 +155,33 @@ public class LwM2mNodeSenMLEncoder implements TimestampedNodeEncoder, MultiNodeE
             // Meaning that a given path could have no corresponding value.
         }
 
-        // Encodes SenML pack using internal encoder (it could be SenML-JSON or SenML-CBOR encoder)
+        return pack;
+    }
+
+    @Override
+    public byte[] encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
+            LwM2mValueConverter converter) throws CodecException {
+        SenMLPack pack = timestampedDataToSenMLPack(timestampedNodes, path, model, converter);
         try {
             return encoder.toSenML(pack);
         } catch (SenMLException e) {
-            throw new CodecException(e, "Unable to encode multi node[paths:%s] : %s", nodes.keySet(), nodes);
+            throw new CodecException(e, "Unable to encode timestamped node[path:%s] : %s", path, timestampedNodes);
         }
     }
 
     @Override
-    public byte[] encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
-            LwM2mValueConverter converter) throws CodecException {
+    public void encodeTimestampedData(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path, LwM2mModel model,
+            LwM2mValueConverter converter, OutputStream out) throws CodecException {
+        SenMLPack pack = timestampedDataToSenMLPack(timestampedNodes, path, model, converter);
+        try {
+            encoder.toSenML(pack, out);
+        } catch (SenMLException e) {
+            throw new CodecException(e, "Unable to encode timestamped node[path:%s] : %s", path, timestampedNodes);
+        }
+    }
+
+    private SenMLPack timestampedDataToSenMLPack(List<TimestampedLwM2mNode> timestampedNodes, LwM2mPath path,
+            LwM2mModel model, LwM2mValueConverter converter) {
         Validate.notNull(timestampedNodes);
         Validate.notNull(path);
         Validate.notNull(model);
@@ -154,17 +208,33 @@ public class LwM2mNodeSenMLEncoder implements TimestampedNodeEncoder, MultiNodeE
             internalEncoder.records.get(0).setBaseTime(timestampInSeconds);
             pack.addRecords(internalEncoder.records);
         }
+        return pack;
+    }
 
+    @Override
+    public byte[] encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, LwM2mModel model,
+            LwM2mValueConverter converter) throws CodecException {
+        SenMLPack pack = timestampedNodesToSenMLPack(timestampedNodes, model, converter);
         try {
             return encoder.toSenML(pack);
         } catch (SenMLException e) {
-            throw new CodecException(e, "Unable to encode timestamped node[path:%s] : %s", path, timestampedNodes);
+            throw new CodecException(e, "Unable to encode timestamped nodes: %s", timestampedNodes);
         }
     }
 
     @Override
-    public byte[] encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, LwM2mModel model,
-            LwM2mValueConverter converter) throws CodecException {
+    public void encodeTimestampedNodes(TimestampedLwM2mNodes timestampedNodes, LwM2mModel model,
+            LwM2mValueConverter converter, OutputStream out) throws CodecException {
+        SenMLPack pack = timestampedNodesToSenMLPack(timestampedNodes, model, converter);
+        try {
+            encoder.toSenML(pack, out);
+        } catch (SenMLException e) {
+            throw new CodecException(e, "Unable to encode timestamped nodes: %s", timestampedNodes);
+        }
+    }
+
+    private SenMLPack timestampedNodesToSenMLPack(TimestampedLwM2mNodes timestampedNodes, LwM2mModel model,
+            LwM2mValueConverter converter) {
         Validate.notEmpty(timestampedNodes.getTimestamps());
 
         SenMLPack pack = new SenMLPack();
@@ -190,12 +260,7 @@ public class LwM2mNodeSenMLEncoder implements TimestampedNodeEncoder, MultiNodeE
                 }
             }
         }
-
-        try {
-            return encoder.toSenML(pack);
-        } catch (SenMLException e) {
-            throw new CodecException(e, "Unable to encode timestamped nodes: %s", timestampedNodes);
-        }
+        return pack;
     }
 
     private class InternalEncoder implements LwM2mNodeVisitor {
@@ -15,8 +15,9 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.node.codec.tlv;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Map.Entry;
@@ -66,6 +67,24 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
     @Override
     public byte[] encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter)
             throws CodecException {
+        // TlvEncoder allocates a buffer of the exact encoded size, so backing array can be returned without copy.
+        return encodeTlv(node, path, model, converter).array();
+    }
+
+    @Override
+    public void encode(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter,
+            OutputStream out) throws CodecException {
+        Validate.notNull(out);
+
+        ByteBuffer encoded = encodeTlv(node, path, model, converter);
+        try {
+            out.write(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining());
+        } catch (IOException e) {
+            throw new CodecException(e, "Unable to write encoded TLV for path %s", path);
+        }
+    }
+
+    private ByteBuffer encodeTlv(LwM2mNode node, LwM2mPath path, LwM2mModel model, LwM2mValueConverter converter) {
         Validate.notNull(node);
         Validate.notNull(path);
         Validate.notNull(model);
@@ -75,7 +94,7 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
         internalEncoder.model = model;
         internalEncoder.converter = converter;
         node.accept(internalEncoder);
-        return internalEncoder.out.toByteArray();
+        return internalEncoder.out;
     }
 
     private class InternalEncoder implements LwM2mNodeVisitor {
@@ -86,7 +105,7 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
         private LwM2mValueConverter converter;
 
         // visitor output
-        private ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private ByteBuffer out;
 
         @Override
         public void visit(LwM2mObject object) {
@@ -104,11 +123,7 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
                 i++;
             }
 
-            try {
-                out.write(TlvEncoder.encode(tlvs).array());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            out = TlvEncoder.encode(tlvs);
         }
 
         @Override
@@ -128,11 +143,7 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
                 tlvs = new Tlv[] { new Tlv(TlvType.OBJECT_INSTANCE, resources, null, instance.getId()) };
             }
 
-            try {
-                out.write(TlvEncoder.encode(tlvs).array());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            out = TlvEncoder.encode(tlvs);
         }
 
         @Override
@@ -141,11 +152,7 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
 
             Tlv rTlv = encodeResource(resource, path);
 
-            try {
-                out.write(TlvEncoder.encode(new Tlv[] { rTlv }).array());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            out = TlvEncoder.encode(new Tlv[] { rTlv });
         }
 
         private Tlv[] encodeResources(Collection<LwM2mResource> resources, LwM2mPath instancePath) {
@@ -190,11 +197,7 @@ public class LwM2mNodeTlvEncoder implements NodeEncoder {
 
             Tlv rTlv = encodeResourceInstance(resourceInstance, path, expectedType);
 
-            try {
-                out.write(TlvEncoder.encode(new Tlv[] { rTlv }).array());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            out = TlvEncoder.encode(new Tlv[] { rTlv });
         }
 
         private Tlv encodeResourceInstance(LwM2mResourceInstance resourceInstance, LwM2mPath resourceInstancePath,
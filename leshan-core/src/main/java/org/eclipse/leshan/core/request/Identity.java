@@ -35,6 +35,8 @@ public class Identity {
     private final PublicKey rawPublicKey;
     private final String x509CommonName;
     private final OscoreIdentity oscoreIdentity;
+    // lazily computed as Identity is immutable, 0 means not computed yet (like String#hashCode)
+    private int hash;
 
     private Identity(InetSocketAddress peerAddress, String pskIdentity, PublicKey rawPublicKey, String x509CommonName,
             OscoreIdentity oscoreIdentity) {
@@ -150,6 +152,15 @@ public class Identity {
 
     @Override
     public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = computeHashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    private int computeHashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((peerAddress == null) ? 0 : peerAddress.hashCode());
@@ -169,6 +180,8 @@ public class Identity {
         if (getClass() != obj.getClass())
             return false;
         Identity other = (Identity) obj;
+        if (hash != 0 && other.hash != 0 && hash != other.hash)
+            return false;
         if (peerAddress == null) {
             if (other.peerAddress != null)
                 return false;
@@ -15,9 +15,11 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.request;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mObject;
 import org.eclipse.leshan.core.node.LwM2mObjectInstance;
@@ -25,6 +27,8 @@ import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.node.LwM2mResourceInstance;
 import org.eclipse.leshan.core.node.LwM2mSingleResource;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.request.exception.InvalidRequestException;
 import org.eclipse.leshan.core.response.SendResponse;
 import org.eclipse.leshan.core.util.Validate;
@@ -39,7 +43,9 @@ import org.eclipse.leshan.core.util.Validate;
 public class SendRequest extends AbstractLwM2mRequest<SendResponse> implements UplinkRequest<SendResponse> {
 
     private final ContentFormat format;
-    private final TimestampedLwM2mNodes timestampedNodes;
+    private final ColumnarTimestampedLwM2mNodes columnarNodes;
+    private final LazyDecodedPayload<TimestampedLwM2mNodes> rawPayload;
+    private volatile TimestampedLwM2mNodes timestampedNodes;
 
     /**
      * @param format {@link ContentFormat} used to encode data. It MUST be {@link ContentFormat#SENML_CBOR} or
@@ -58,16 +64,66 @@ public class SendRequest extends AbstractLwM2mRequest<SendResponse> implements U
     public SendRequest(ContentFormat format, TimestampedLwM2mNodes timestampedNodes, Object coapRequest) {
         super(coapRequest);
         this.timestampedNodes = timestampedNodes;
+        this.columnarNodes = null;
+        this.rawPayload = null;
         // Validate Format
-        if (format == null || !(format.equals(ContentFormat.SENML_CBOR) || format.equals(ContentFormat.SENML_JSON))) {
-            throw new InvalidRequestException("Content format MUST be SenML_CBOR or SenML_JSON but was " + format);
-        }
+        validateFormat(format);
         // Validate Nodes
         validateNodes(timestampedNodes.getNodes());
 
         this.format = format;
     }
 
+    /**
+     * Create a {@link SendRequest} from columnar data.
+     * <p>
+     * {@link TimestampedLwM2mNodes} returned by {@link #getTimestampedNodes()} is only created on first call.
+     *
+     * @param format {@link ContentFormat} used to encode data. It MUST be {@link ContentFormat#SENML_CBOR} or
+     *        {@link ContentFormat#SENML_JSON}
+     * @param columnarNodes the timestamped values. Value can not be <code>null</code> or empty.
+     * @param coapRequest the underlying request
+     */
+    public SendRequest(ContentFormat format, ColumnarTimestampedLwM2mNodes columnarNodes, Object coapRequest) {
+        super(coapRequest);
+        this.columnarNodes = columnarNodes;
+        this.rawPayload = null;
+        // Validate Format
+        validateFormat(format);
+        // Validate Nodes : columnar representation only contains resource or resource instance values
+        Validate.notNull(columnarNodes);
+        Validate.notEmpty(columnarNodes.getPaths());
+
+        this.format = format;
+    }
+
+    /**
+     * Create a {@link SendRequest} from a payload which is not decoded yet.
+     * <p>
+     * Payload is only decoded (and validated) on first call to {@link #getTimestampedNodes()}, which will raise an
+     * {@link InvalidRequestException} if payload is invalid.
+     *
+     * @param rawPayload the received payload. Its format MUST be {@link ContentFormat#SENML_CBOR} or
+     *        {@link ContentFormat#SENML_JSON}
+     * @param coapRequest the underlying request
+     */
+    public SendRequest(LazyDecodedPayload<TimestampedLwM2mNodes> rawPayload, Object coapRequest) {
+        super(coapRequest);
+        Validate.notNull(rawPayload);
+        this.rawPayload = rawPayload;
+        this.columnarNodes = null;
+        // Validate Format
+        validateFormat(rawPayload.getContentFormat());
+
+        this.format = rawPayload.getContentFormat();
+    }
+
+    private void validateFormat(ContentFormat format) {
+        if (format == null || !(format.equals(ContentFormat.SENML_CBOR) || format.equals(ContentFormat.SENML_JSON))) {
+            throw new InvalidRequestException("Content format MUST be SenML_CBOR or SenML_JSON but was " + format);
+        }
+    }
+
     private void validateNodes(Map<LwM2mPath, LwM2mNode> nodes) {
         Validate.notEmpty(nodes);
         for (Entry<LwM2mPath, LwM2mNode> entry : nodes.entrySet()) {
@@ -91,7 +147,37 @@ public class SendRequest extends AbstractLwM2mRequest<SendResponse> implements U
     }
 
     public TimestampedLwM2mNodes getTimestampedNodes() {
-        return timestampedNodes;
+        TimestampedLwM2mNodes nodes = timestampedNodes;
+        if (nodes == null) {
+            if (rawPayload != null) {
+                try {
+                    nodes = rawPayload.getDecoded();
+                } catch (CodecException e) {
+                    throw new InvalidRequestException(e, "Invalid %s payload for Send request", format);
+                }
+                validateNodes(nodes.getNodes());
+            } else {
+                nodes = columnarNodes.toTimestampedLwM2mNodes();
+            }
+            timestampedNodes = nodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the received payload or <code>null</code> if this request was not created from a
+     *         {@link LazyDecodedPayload}.
+     */
+    public LazyDecodedPayload<TimestampedLwM2mNodes> getRawPayload() {
+        return rawPayload;
+    }
+
+    /**
+     * @return the columnar representation of sent data or <code>null</code> if this request was not created from
+     *         {@link ColumnarTimestampedLwM2mNodes}.
+     */
+    public ColumnarTimestampedLwM2mNodes getColumnarTimestampedNodes() {
+        return columnarNodes;
     }
 
     public ContentFormat getFormat() {
@@ -105,15 +191,28 @@ public class SendRequest extends AbstractLwM2mRequest<SendResponse> implements U
 
     @Override
     public String toString() {
-        return String.format("SendRequest [format=%s, timestampedNodes=%s]", format, timestampedNodes);
+        Object nodes = columnarNodes;
+        if (nodes == null) {
+            nodes = timestampedNodes != null ? timestampedNodes : rawPayload;
+        }
+        return String.format("SendRequest [format=%s, timestampedNodes=%s]", format, nodes);
     }
 
+    // equals and hashCode compare requests by representation, so they never decode or convert data : requests created
+    // from a payload are compared by payload, those created from columnar data by columns, others by nodes.
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((format == null) ? 0 : format.hashCode());
-        result = prime * result + ((timestampedNodes == null) ? 0 : timestampedNodes.hashCode());
+        if (rawPayload != null) {
+            result = prime * result + Arrays.hashCode(rawPayload.getPayload());
+        } else if (columnarNodes != null) {
+            result = prime * result + columnarNodes.hashCode();
+        } else {
+            result = prime * result + ((timestampedNodes == null) ? 0 : timestampedNodes.hashCode());
+        }
         return result;
     }
 
@@ -131,6 +230,13 @@ public class SendRequest extends AbstractLwM2mRequest<SendResponse> implements U
                 return false;
         } else if (!format.equals(other.format))
             return false;
+        if (rawPayload != null || other.rawPayload != null) {
+            return rawPayload != null && other.rawPayload != null
+                    && Arrays.equals(rawPayload.getPayload(), other.rawPayload.getPayload());
+        }
+        if (columnarNodes != null || other.columnarNodes != null) {
+            return columnarNodes != null && columnarNodes.equals(other.columnarNodes);
+        }
         if (timestampedNodes == null) {
             if (other.timestampedNodes != null)
                 return false;
@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.response;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Date;
 import java.util.Map;
 
@@ -24,17 +26,39 @@ import org.eclipse.leshan.core.node.LwM2mMultipleResource;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mSingleResource;
 import org.eclipse.leshan.core.node.ObjectLink;
+import org.eclipse.leshan.core.node.OpaqueContent;
 import org.eclipse.leshan.core.request.exception.InvalidResponseException;
 import org.eclipse.leshan.core.util.datatype.ULong;
 
 public class ReadResponse extends AbstractLwM2mResponse {
 
     protected final LwM2mNode content;
+    protected final int opaqueResourceId;
+    protected final OpaqueContent opaqueContent;
+    private volatile LwM2mNode opaqueNode;
 
     public ReadResponse(ResponseCode code, LwM2mNode content, String errorMessage) {
         this(code, content, errorMessage, null);
     }
 
+    /**
+     * Create a successful response for an {@link Type#OPAQUE} resource which content is not loaded in memory.
+     * <p>
+     * Content is only loaded if {@link #getContent()} is called, transport layer should prefer
+     * {@link #getOpaqueContent()} to send it block by block.
+     *
+     * @param resourceId the id of the opaque resource.
+     * @param content the value of the opaque resource.
+     */
+    protected ReadResponse(int resourceId, OpaqueContent content) {
+        super(ResponseCode.CONTENT, null, null);
+        if (content == null)
+            throw new InvalidResponseException("Content is mandatory for successful response");
+        this.content = null;
+        this.opaqueResourceId = resourceId;
+        this.opaqueContent = content;
+    }
+
     public ReadResponse(ResponseCode code, LwM2mNode content, String errorMessage, Object coapResponse) {
         super(code, errorMessage, coapResponse);
 
@@ -43,6 +67,8 @@ public class ReadResponse extends AbstractLwM2mResponse {
                 throw new InvalidResponseException("Content is mandatory for successful response");
         }
         this.content = content;
+        this.opaqueResourceId = -1;
+        this.opaqueContent = null;
     }
 
     @Override
@@ -72,7 +98,46 @@ public class ReadResponse extends AbstractLwM2mResponse {
      * @return the value or <code>null</code> if the client returned an error response.
      */
     public LwM2mNode getContent() {
-        return content;
+        if (opaqueContent == null) {
+            return content;
+        }
+        // load opaque content only on demand
+        LwM2mNode node = opaqueNode;
+        if (node == null) {
+            try {
+                node = LwM2mSingleResource.newBinaryResource(opaqueResourceId, opaqueContent.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read opaque content", e);
+            }
+            opaqueNode = node;
+        }
+        return node;
+    }
+
+    /**
+     * Get the value of an {@link Type#OPAQUE} resource as an {@link OpaqueContent}.
+     * <p>
+     * If this response was created with an {@link OpaqueContent}, it is returned without loading it. Else if content is
+     * an opaque single resource, its value is wrapped without copy.
+     *
+     * @return the opaque value or <code>null</code> if the content is not a single opaque resource.
+     */
+    public OpaqueContent getOpaqueContent() {
+        if (opaqueContent != null) {
+            return opaqueContent;
+        }
+        if (content instanceof LwM2mSingleResource && ((LwM2mSingleResource) content).getType() == Type.OPAQUE) {
+            return OpaqueContent.fromBytes((byte[]) ((LwM2mSingleResource) content).getValue());
+        }
+        return null;
+    }
+
+    /**
+     * @return <code>true</code> if this response was created from an {@link OpaqueContent} which may not be loaded in
+     *         memory.
+     */
+    public boolean hasStreamedContent() {
+        return opaqueContent != null;
     }
 
     @Override
@@ -80,7 +145,8 @@ public class ReadResponse extends AbstractLwM2mResponse {
         if (errorMessage != null)
             return String.format("ReadResponse [code=%s, errormessage=%s]", code, errorMessage);
         else
-            return String.format("ReadResponse [code=%s, content=%s]", code, content);
+            return String.format("ReadResponse [code=%s, content=%s]", code,
+                    opaqueContent != null ? opaqueContent : content);
     }
 
     // Syntactic sugar static constructors :
@@ -123,6 +189,14 @@ public class ReadResponse extends AbstractLwM2mResponse {
         return new ReadResponse(ResponseCode.CONTENT, LwM2mSingleResource.newBinaryResource(resourceId, value), null);
     }
 
+    /**
+     * Create a successful response for an {@link Type#OPAQUE} resource without loading its value in memory, see
+     * {@link #getOpaqueContent()}.
+     */
+    public static ReadResponse success(int resourceId, OpaqueContent value) {
+        return new ReadResponse(resourceId, value);
+    }
+
     public static ReadResponse success(int resourceId, Map<Integer, ?> value, Type type) {
         return new ReadResponse(ResponseCode.CONTENT, LwM2mMultipleResource.newResource(resourceId, value, type), null);
     }
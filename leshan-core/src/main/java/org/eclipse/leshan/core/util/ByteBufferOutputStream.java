@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link OutputStream} writing into a caller-provided {@link ByteBuffer} (e.g. a pooled or direct buffer), starting
+ * at its current position.
+ * <p>
+ * Writing more bytes than buffer remaining capacity fails with an {@link IOException}.
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    private final ByteBuffer buffer;
+
+    public ByteBufferOutputStream(ByteBuffer buffer) {
+        Validate.notNull(buffer);
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return the buffer this stream is writing into.
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkRemaining(len);
+        buffer.put(b, off, len);
+    }
+
+    private void checkRemaining(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            throw new IOException(String.format("Buffer overflow : unable to write %d bytes, only %d remaining", length,
+                    buffer.remaining()));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.util;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A {@link ByteArrayOutputStream} kept by each thread, so an encoder writing in a stream can produce a byte array
+ * without allocating and growing a new buffer for each encoding.
+ * <p>
+ * Typical usage :
+ *
+ * <pre>
+ * try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+ *     encode(value, buffer);
+ *     return buffer.toByteArray();
+ * }
+ * </pre>
+ *
+ * Buffer grown beyond {@value #MAX_RETAINED_CAPACITY} bytes is not kept once released, so encoding a large payload does
+ * not pin memory for the lifetime of the thread.
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    public static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final ThreadLocal<ReusableByteArrayOutputStream> BUFFERS = ThreadLocal
+            .withInitial(ReusableByteArrayOutputStream::new);
+
+    private boolean inUse;
+
+    private ReusableByteArrayOutputStream() {
+        super(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Get an empty buffer for the current thread. It must be released by calling {@link #close()} once its content is
+     * no more needed.
+     * <p>
+     * If the buffer of the current thread is already in use (e.g. nested encoding), a new one is returned.
+     */
+    public static ReusableByteArrayOutputStream acquire() {
+        ReusableByteArrayOutputStream buffer = BUFFERS.get();
+        if (buffer.inUse) {
+            return new ReusableByteArrayOutputStream();
+        }
+        buffer.inUse = true;
+        buffer.reset();
+        return buffer;
+    }
+
+    /**
+     * @return the size of the internal buffer.
+     */
+    int capacity() {
+        return buf.length;
+    }
+
+    /**
+     * Release this buffer, so it can be reused by next call to {@link #acquire()} on this thread.
+     */
+    @Override
+    public void close() {
+        reset();
+        if (buf.length > MAX_RETAINED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        inUse = false;
+    }
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Keeps a canonical instance of immutable values, so equal values can share the same instance (like
+ * {@link String#intern()}).
+ * <p>
+ * Canonical instances are weakly referenced: once no more used elsewhere they can be garbage collected and are removed
+ * from this interner.
+ * <p>
+ * Equality is {@link Object#equals(Object)} except for arrays which are compared by content. Interned values (and
+ * arrays content) must never be modified.
+ * <p>
+ * This class is thread-safe and does not use a global lock, but each call hashes the whole value: callers should only
+ * intern new values, not values they already got from this interner.
+ *
+ * @param <T> the type of interned values.
+ */
+public class WeakInterner<T> {
+
+    private final ConcurrentMap<Entry, Entry> canonicals = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+    /**
+     * Get the canonical instance equal to the given value. If there is none, the given value becomes the canonical
+     * instance.
+     */
+    public T intern(T value) {
+        return intern(value, Function.identity());
+    }
+
+    /**
+     * Get the canonical instance equal to the given value. If there is none, <code>toCanonical</code> is applied to the
+     * value (e.g. to create an immutable copy) and the result becomes the canonical instance.
+     * <p>
+     * The result of <code>toCanonical</code> must be equal to the value.
+     */
+    public T intern(T value, Function<? super T, ? extends T> toCanonical) {
+        if (value == null) {
+            return null;
+        }
+        expungeCollected();
+
+        Entry lookup = new Entry(value, null);
+        while (true) {
+            Entry existing = canonicals.get(lookup);
+            if (existing != null) {
+                T canonical = existing.get();
+                if (canonical != null) {
+                    return canonical;
+                }
+            }
+
+            // under contention, toCanonical could be applied several times but only one result becomes canonical.
+            T canonical = toCanonical.apply(value);
+            Entry entry = new Entry(canonical, collected);
+            existing = canonicals.putIfAbsent(entry, entry);
+            if (existing == null) {
+                return canonical;
+            }
+            T other = existing.get();
+            if (other != null) {
+                return other;
+            }
+            // existing entry was collected in the meantime, try again.
+        }
+    }
+
+    /**
+     * @return the number of canonical instances currently kept.
+     */
+    public int size() {
+        expungeCollected();
+        return canonicals.size();
+    }
+
+    private void expungeCollected() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            canonicals.remove(ref);
+        }
+    }
+
+    private static int hash(Object value) {
+        if (value instanceof Object[]) {
+            return Arrays.hashCode((Object[]) value);
+        }
+        return value.hashCode();
+    }
+
+    private static boolean equivalent(Object a, Object b) {
+        if (a instanceof Object[] && b instanceof Object[]) {
+            return a.getClass() == b.getClass() && Arrays.equals((Object[]) a, (Object[]) b);
+        }
+        return a.equals(b);
+    }
+
+    private class Entry extends WeakReference<T> {
+        private final int hash;
+
+        Entry(T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof WeakInterner.Entry))
+                return false;
+            @SuppressWarnings("unchecked")
+            Entry other = (Entry) obj;
+            if (hash != other.hash)
+                return false;
+            T value = get();
+            T otherValue = other.get();
+            // a collected entry is only equal to itself
+            return value != null && otherValue != null && equivalent(value, otherValue);
+        }
+    }
+}
@@ -15,12 +15,19 @@
  *******************************************************************************/
 package org.eclipse.leshan.core.util.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.leshan.core.util.ReusableByteArrayOutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
@@ -31,6 +38,9 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
  */
 public abstract class JacksonJsonSerDes<T> {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET,
+            false);
+
     public abstract JsonNode jSerialize(T t) throws JsonException;
 
     public String sSerialize(T t) throws JsonException {
@@ -38,7 +48,21 @@ public abstract class JacksonJsonSerDes<T> {
     }
 
     public byte[] bSerialize(T t) throws JsonException {
-        return jSerialize(t).toString().getBytes();
+        try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+            serialize(t, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Serialize the given object in UTF-8 JSON directly into the given stream. The stream is not closed.
+     */
+    public void serialize(T t, OutputStream out) throws JsonException {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeTree(jSerialize(t));
+        } catch (IOException e) {
+            throw new JsonException(e, "Unable to write JSON in stream");
+        }
     }
 
     public ArrayNode jSerialize(Collection<T> jaes) throws JsonException {
@@ -54,7 +78,27 @@ public abstract class JacksonJsonSerDes<T> {
     }
 
     public byte[] bSerialize(Collection<T> ts) throws JsonException {
-        return jSerialize(ts).toString().getBytes();
+        try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+            serialize(ts, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Serialize the given objects as a UTF-8 JSON array directly into the given stream. The stream is not closed.
+     * <p>
+     * Elements are written one by one, so the JSON tree of the whole array is never built.
+     */
+    public void serialize(Collection<T> ts, OutputStream out) throws JsonException {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (T t : ts) {
+                generator.writeTree(jSerialize(t));
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new JsonException(e, "Unable to write JSON array in stream");
+        }
     }
 
     public abstract T deserialize(JsonNode o) throws JsonException;
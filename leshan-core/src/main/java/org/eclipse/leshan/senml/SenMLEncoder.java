@@ -15,6 +15,9 @@
  *******************************************************************************/
 package org.eclipse.leshan.senml;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * An encoder for SenML format.
  *
@@ -24,4 +27,20 @@ public interface SenMLEncoder {
 
     public byte[] toSenML(SenMLPack pack) throws SenMLException;
 
+    /**
+     * Encode the given pack into the given {@link OutputStream}.
+     * <p>
+     * Default implementation writes the result of {@link #toSenML(SenMLPack)} in the stream, encoders which are able to
+     * write directly in a stream should override it.
+     *
+     * @throws SenMLException if encoding failed or if writing in the stream failed.
+     */
+    public default void toSenML(SenMLPack pack, OutputStream out) throws SenMLException {
+        try {
+            out.write(toSenML(pack));
+        } catch (IOException e) {
+            throw new SenMLException("Unable to write SenML pack in stream", e);
+        }
+    }
+
 }
@@ -15,7 +15,6 @@
  *******************************************************************************/
 package org.eclipse.leshan.senml.cbor.upokecenter;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
@@ -154,82 +153,103 @@ public class SenMLCborPackSerDes {
     }
 
     public byte[] serializeToCbor(SenMLPack pack) throws SenMLException {
-        try (OutputStream stream = new ByteArrayOutputStream()) {
+        try {
             CBORObject cborArray = CBORObject.NewArray();
             for (SenMLRecord record : pack.getRecords()) {
-                CBORObject cborRecord = newMap();
-                if (record.getBaseName() != null && !record.getBaseName().isEmpty()) {
-                    cborRecord.Add(-2, record.getBaseName());
-                }
+                cborArray.Add(serializeRecord(record));
+            }
+            return cborArray.EncodeToBytes();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new SenMLException(e, "Unable to serialize SenML in CBOR");
+        }
+    }
 
-                if (record.getBaseTime() != null) {
-                    cborRecord.Add(-3, record.getBaseTime());
-                }
+    /**
+     * Serialize the given pack directly into the given stream.
+     * <p>
+     * Records are written one by one, so the CBOR tree of the whole pack is never built.
+     */
+    public void serializeToCbor(SenMLPack pack, OutputStream out) throws SenMLException {
+        try {
+            // CBOR array header (major type 4) with number of records
+            CBORObject.WriteValue(out, 4, pack.getRecords().size());
+            for (SenMLRecord record : pack.getRecords()) {
+                serializeRecord(record).WriteTo(out);
+            }
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            throw new SenMLException(e, "Unable to serialize SenML in CBOR");
+        }
+    }
 
-                if (record.getName() != null && !record.getName().isEmpty()) {
-                    cborRecord.Add(0, record.getName());
-                }
+    private CBORObject serializeRecord(SenMLRecord record) throws SenMLException {
+        CBORObject cborRecord = newMap();
+        if (record.getBaseName() != null && !record.getBaseName().isEmpty()) {
+            cborRecord.Add(-2, record.getBaseName());
+        }
 
-                if (record.getTime() != null) {
-                    cborRecord.Add(6, record.getTime());
-                }
+        if (record.getBaseTime() != null) {
+            cborRecord.Add(-3, record.getBaseTime());
+        }
 
-                Type type = record.getType();
-                if (type != null) {
-                    switch (record.getType()) {
-                    case NUMBER:
-                        Number value = record.getNumberValue();
-                        if (value instanceof Byte) {
-                            cborRecord.Add(2, value.byteValue());
-                        } else if (value instanceof Short) {
-                            cborRecord.Add(2, value.shortValue());
-                        } else if (value instanceof Integer) {
-                            cborRecord.Add(2, value.intValue());
-                        } else if (value instanceof Long) {
-                            cborRecord.Add(2, value.longValue());
-                        } else if (value instanceof BigInteger) {
-                            cborRecord.Add(2, value);
-                        }
-                        // unsigned integer
-                        else if (value instanceof ULong) {
-                            cborRecord.Add(2, NumberUtil.unsignedLongToEInteger(((ULong) value).longValue()));
-                        }
-                        // floating-point
-                        else if (value instanceof Float) {
-                            cborRecord.Add(2, value.floatValue());
-                        } else if (value instanceof Double) {
-                            cborRecord.Add(2, value.doubleValue());
-                        } else if (value instanceof BigDecimal) {
-                            cborRecord.Add(2, value);
-                        }
-                        break;
-                    case BOOLEAN:
-                        cborRecord.Add(4, record.getBooleanValue());
-                        break;
-                    case OBJLNK:
-                        cborRecord.Add("vlo", record.getObjectLinkValue());
-                        break;
-                    case OPAQUE:
-                        cborRecord.Add(8, record.getOpaqueValue());
-                        break;
-                    case STRING:
-                        cborRecord.Add(3, record.getStringValue());
-                        break;
-                    default:
-                        break;
-                    }
-                } else {
-                    if (!allowNoValue) {
-                        throw new SenMLException(
-                                "Invalid SenML record : record must have a value (v,vb,vlo,vd,vs) : %s", record);
-                    }
+        if (record.getName() != null && !record.getName().isEmpty()) {
+            cborRecord.Add(0, record.getName());
+        }
+
+        if (record.getTime() != null) {
+            cborRecord.Add(6, record.getTime());
+        }
+
+        Type type = record.getType();
+        if (type != null) {
+            switch (record.getType()) {
+            case NUMBER:
+                Number value = record.getNumberValue();
+                if (value instanceof Byte) {
+                    cborRecord.Add(2, value.byteValue());
+                } else if (value instanceof Short) {
+                    cborRecord.Add(2, value.shortValue());
+                } else if (value instanceof Integer) {
+                    cborRecord.Add(2, value.intValue());
+                } else if (value instanceof Long) {
+                    cborRecord.Add(2, value.longValue());
+                } else if (value instanceof BigInteger) {
+                    cborRecord.Add(2, value);
+                }
+                // unsigned integer
+                else if (value instanceof ULong) {
+                    cborRecord.Add(2, NumberUtil.unsignedLongToEInteger(((ULong) value).longValue()));
                 }
-                cborArray.Add(cborRecord);
+                // floating-point
+                else if (value instanceof Float) {
+                    cborRecord.Add(2, value.floatValue());
+                } else if (value instanceof Double) {
+                    cborRecord.Add(2, value.doubleValue());
+                } else if (value instanceof BigDecimal) {
+                    cborRecord.Add(2, value);
+                }
+                break;
+            case BOOLEAN:
+                cborRecord.Add(4, record.getBooleanValue());
+                break;
+            case OBJLNK:
+                cborRecord.Add("vlo", record.getObjectLinkValue());
+                break;
+            case OPAQUE:
+                cborRecord.Add(8, record.getOpaqueValue());
+                break;
+            case STRING:
+                cborRecord.Add(3, record.getStringValue());
+                break;
+            default:
+                break;
+            }
+        } else {
+            if (!allowNoValue) {
+                throw new SenMLException("Invalid SenML record : record must have a value (v,vb,vlo,vd,vs) : %s",
+                        record);
             }
-            return cborArray.EncodeToBytes();
-        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
-            throw new SenMLException(e, "Unable to serialize SenML in CBOR");
         }
+        return cborRecord;
     }
 
     CBORObject newMap() {
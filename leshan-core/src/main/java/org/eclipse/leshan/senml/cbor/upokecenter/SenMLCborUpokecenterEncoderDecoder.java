@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.leshan.senml.cbor.upokecenter;
 
+import java.io.OutputStream;
+
 import org.eclipse.leshan.senml.SenMLDecoder;
 import org.eclipse.leshan.senml.SenMLEncoder;
 import org.eclipse.leshan.senml.SenMLException;
@@ -68,6 +70,11 @@ public class SenMLCborUpokecenterEncoderDecoder implements SenMLDecoder, SenMLEn
         return serDes.serializeToCbor(pack);
     }
 
+    @Override
+    public void toSenML(SenMLPack pack, OutputStream out) throws SenMLException {
+        serDes.serializeToCbor(pack, out);
+    }
+
     @Override
     public SenMLPack fromSenML(byte[] data) throws SenMLException {
         try {
@@ -15,6 +15,7 @@
 package org.eclipse.leshan.senml.json.jackson;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.eclipse.leshan.core.util.base64.Base64Decoder;
 import org.eclipse.leshan.core.util.base64.Base64Encoder;
@@ -80,6 +81,15 @@ public class SenMLJsonJacksonEncoderDecoder implements SenMLDecoder, SenMLEncode
         }
     }
 
+    @Override
+    public void toSenML(SenMLPack pack, OutputStream out) throws SenMLException {
+        try {
+            serDes.serialize(pack.getRecords(), out);
+        } catch (JsonException e) {
+            throw new SenMLException("Unable to serialize SenML JSON.", e);
+        }
+    }
+
     @Override
     public SenMLPack fromSenML(byte[] jsonString) throws SenMLException {
         try {
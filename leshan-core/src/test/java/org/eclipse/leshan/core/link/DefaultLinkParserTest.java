@@ -16,6 +16,7 @@
 package org.eclipse.leshan.core.link;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.charset.StandardCharsets;
@@ -237,4 +238,23 @@ public class DefaultLinkParserTest {
         Link[] objs = parser.parseCoreLinkFormat(input.getBytes());
         assertEquals(objs[0].getAttributes().get("ver"), new UnquotedStringAttribute("ver", "2.2"));
     }
+
+    @Test
+    public void identical_link_values_share_same_instance() throws LinkParseException {
+        Link[] first = parser.parseCoreLinkFormat("</>;rt=\"oma.lwm2m\";ct=110,</1>;ver=1.1,</3/0>".getBytes());
+        Link[] second = parser.parseCoreLinkFormat("</1>;ver=1.1,</3/0>,</4/0>".getBytes());
+
+        assertSame(first[1], second[0]);
+        assertSame(first[2], second[1]);
+        assertEquals("/4/0", second[2].getUriReference());
+    }
+
+    @Test
+    public void parse_comma_in_quoted_string_and_uri() throws LinkParseException {
+        Link[] parsed = parser.parseCoreLinkFormat("</a,b>;param=\"x,\\\"y\",</c>".getBytes());
+        assertEquals(2, parsed.length);
+        assertEquals("/a,b", parsed[0].getUriReference());
+        assertEquals("x,\"y", parsed[0].getAttributes().get("param").getValue());
+        assertEquals("/c", parsed[1].getUriReference());
+    }
 }
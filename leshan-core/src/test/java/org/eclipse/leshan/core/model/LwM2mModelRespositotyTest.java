@@ -85,6 +85,24 @@ public class LwM2mModelRespositotyTest {
         assertNull(objectModel);
     }
 
+    @Test
+    public void validate_get_last_version_from_unordered_models() {
+
+        // create repository
+        List<ObjectModel> models = new ArrayList<ObjectModel>();
+        models.add(createModel(1, "1.10"));
+        models.add(createModel(1, "1.9"));
+        models.add(createModel(1, "1.0"));
+        LwM2mModelRepository repository = new LwM2mModelRepository(models);
+
+        // validate get most recent version (with repository and with model)
+        ObjectModel objectModel = repository.getObjectModel(1);
+        assertEquals(objectModel.version, "1.10");
+
+        objectModel = repository.getLwM2mModel().getObjectModel(1);
+        assertEquals(objectModel.version, "1.10");
+    }
+
     private ObjectModel createModel(Integer objectId, String version) {
         ResourceModel resourceModel = new ResourceModel(0, "a resource", Operations.R, false, false, Type.BOOLEAN, null,
                 null, null);
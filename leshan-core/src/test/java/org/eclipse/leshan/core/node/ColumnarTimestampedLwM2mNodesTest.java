@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.eclipse.leshan.core.model.ResourceModel.Type;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarTimestampedLwM2mNodesTest {
+
+    private final Instant timestamp = Instant.ofEpochSecond(1_000_000_000, 123);
+
+    @Test
+    public void should_store_values_in_primitive_columns() {
+        // given
+        ColumnarTimestampedLwM2mNodes columns = ColumnarTimestampedLwM2mNodes.builder() //
+                .put(timestamp, new LwM2mPath("/3303/0/5700"), Type.FLOAT, 21.5d) //
+                .put(timestamp.plusSeconds(1), new LwM2mPath("/3303/0/5700"), Type.FLOAT, 22.5d) //
+                .put(new LwM2mPath("/3/0/13"), Type.TIME, new Date(5000)) //
+                .build();
+
+        // then
+        ColumnarTimestampedLwM2mNodes.Column temperature = columns.getColumn(new LwM2mPath("/3303/0/5700"));
+        assertEquals(2, temperature.size());
+        assertEquals(timestamp, temperature.getInstant(0));
+        assertEquals(22.5d, temperature.getDoubleValue(1));
+
+        ColumnarTimestampedLwM2mNodes.Column time = columns.getColumn(new LwM2mPath("/3/0/13"));
+        assertFalse(time.hasTimestamp(0));
+        assertNull(time.getInstant(0));
+        assertEquals(5000, time.getLongValue(0));
+        assertEquals(new Date(5000), time.getValue(0));
+    }
+
+    @Test
+    public void should_convert_to_timestamped_nodes() {
+        // given
+        ColumnarTimestampedLwM2mNodes columns = ColumnarTimestampedLwM2mNodes.builder() //
+                .put(timestamp, new LwM2mPath("/3/0/7/0"), Type.INTEGER, 3800L) //
+                .put(new LwM2mPath("/3/0/15"), Type.STRING, "Europe/Paris") //
+                .build();
+
+        // when
+        TimestampedLwM2mNodes nodes = columns.toTimestampedLwM2mNodes();
+
+        // then
+        TimestampedLwM2mNodes expected = TimestampedLwM2mNodes.builder() //
+                .put(timestamp, new LwM2mPath("/3/0/7/0"), LwM2mResourceInstance.newIntegerInstance(0, 3800)) //
+                .put(new LwM2mPath("/3/0/15"), LwM2mSingleResource.newStringResource(15, "Europe/Paris")) //
+                .build();
+        assertEquals(expected, nodes);
+    }
+
+    @Test
+    public void should_raise_exception_on_duplicate() {
+        ColumnarTimestampedLwM2mNodes.Builder builder = ColumnarTimestampedLwM2mNodes.builder() //
+                .put(timestamp, new LwM2mPath("/3303/0/5700"), Type.FLOAT, 21.5d) //
+                .put(timestamp, new LwM2mPath("/3303/0/5700"), Type.FLOAT, 22.5d);
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> builder.build());
+    }
+
+    @Test
+    public void should_raise_exception_on_inconsistent_type() {
+        ColumnarTimestampedLwM2mNodes.Builder builder = ColumnarTimestampedLwM2mNodes.builder() //
+                .put(timestamp, new LwM2mPath("/3303/0/5700"), Type.FLOAT, 21.5d);
+
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> builder.put(new LwM2mPath("/3303/0/5700"), Type.STRING, "21.5"));
+    }
+
+    @Test
+    public void should_raise_exception_on_object_instance_path() {
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> ColumnarTimestampedLwM2mNodes.builder().put(new LwM2mPath("/3303/0"), Type.STRING, "21.5"));
+    }
+}
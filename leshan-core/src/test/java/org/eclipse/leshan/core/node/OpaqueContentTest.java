@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OpaqueContentTest {
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    @Test
+    public void read_range_of_file_content(@TempDir Path dir) throws IOException {
+        byte[] expected = content(5000);
+        Path file = dir.resolve("log");
+        Files.write(file, expected);
+
+        OpaqueContent content = OpaqueContent.fromFile(file);
+        assertEquals(5000, content.getLength());
+
+        byte[] block = new byte[1024];
+        content.read(4096, block, 0, 904);
+        assertArrayEquals(Arrays.copyOfRange(expected, 4096, 5000), Arrays.copyOf(block, 904));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.writeTo(out);
+        assertArrayEquals(expected, out.toByteArray());
+        assertArrayEquals(expected, content.toByteArray());
+    }
+
+    @Test
+    public void read_range_of_bytes_content() throws IOException {
+        byte[] expected = content(100);
+        OpaqueContent content = OpaqueContent.fromBytes(expected);
+
+        byte[] block = new byte[10];
+        content.read(90, block, 0, 10);
+        assertArrayEquals(Arrays.copyOfRange(expected, 90, 100), block);
+        assertSame(expected, content.toByteArray());
+    }
+
+    @Test
+    public void read_range_with_default_stream_implementation() throws IOException {
+        byte[] expected = content(100);
+        OpaqueContent content = new OpaqueContent() {
+            @Override
+            public InputStream openStream() throws IOException {
+                return OpaqueContent.fromBytes(expected).openStream();
+            }
+
+            @Override
+            public long getLength() {
+                return expected.length;
+            }
+        };
+
+        byte[] block = new byte[20];
+        content.read(50, block, 0, 20);
+        assertArrayEquals(Arrays.copyOfRange(expected, 50, 70), block);
+    }
+
+    @Test
+    public void read_out_of_range_fails() {
+        OpaqueContent content = OpaqueContent.fromBytes(content(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> content.read(5, new byte[10], 0, 10));
+    }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.node.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.junit.jupiter.api.Test;
+
+public class LazyDecodedPayloadTest {
+
+    @Test
+    public void payload_is_decoded_once_on_demand() {
+        AtomicInteger decodingCount = new AtomicInteger();
+        LazyDecodedPayload<String> payload = new LazyDecodedPayload<>("value".getBytes(), ContentFormat.TEXT, () -> {
+            decodingCount.incrementAndGet();
+            return "value";
+        });
+
+        assertFalse(payload.isDecoded());
+        assertEquals(0, decodingCount.get());
+
+        String first = payload.getDecoded();
+        String second = payload.getDecoded();
+
+        assertTrue(payload.isDecoded());
+        assertSame(first, second);
+        assertEquals(1, decodingCount.get());
+    }
+
+    @Test
+    public void decoding_error_is_memoized() {
+        AtomicInteger decodingCount = new AtomicInteger();
+        LazyDecodedPayload<String> payload = new LazyDecodedPayload<>(new byte[] { 1 }, ContentFormat.TEXT, () -> {
+            decodingCount.incrementAndGet();
+            throw new CodecException("invalid payload");
+        });
+
+        CodecException first = assertThrows(CodecException.class, () -> payload.getDecoded());
+        CodecException second = assertThrows(CodecException.class, () -> payload.getDecoded());
+
+        assertTrue(payload.isDecoded());
+        assertSame(first, second);
+        assertEquals(1, decodingCount.get());
+    }
+}
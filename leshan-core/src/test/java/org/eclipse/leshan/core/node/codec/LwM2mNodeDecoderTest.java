@@ -42,6 +42,7 @@ import org.eclipse.leshan.core.model.ResourceModel;
 import org.eclipse.leshan.core.model.ResourceModel.Operations;
 import org.eclipse.leshan.core.model.ResourceModel.Type;
 import org.eclipse.leshan.core.model.StaticModel;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.LwM2mMultipleResource;
 import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mObject;
@@ -1367,4 +1368,39 @@ public class LwM2mNodeDecoderTest {
         assertEquals(expectedResult.build(), data);
     }
 
+    @Test
+    public void senml_multiple_timestamped_nodes_as_columns() throws CodecException {
+        // given
+        StringBuilder b = new StringBuilder();
+        b.append("[{\"bn\":\"/4/0/\",\"bt\":268600000,\"n\":\"0\",\"v\":1,\"t\":1},");
+        b.append("{\"n\":\"1\",\"v\":2,\"t\":2},");
+        b.append("{\"n\":\"1\",\"v\":3,\"t\":3},");
+        b.append("{\"bn\":\"/3/0/7/\",\"n\":\"0\",\"v\":3800}");
+        b.append("]");
+        byte[] content = b.toString().getBytes();
+
+        // when
+        ColumnarTimestampedLwM2mNodes data = decoder.decodeColumnarTimestampedNodes(content, ContentFormat.SENML_JSON,
+                model);
+
+        // then
+        ColumnarTimestampedLwM2mNodes.Column column = data.getColumn(new LwM2mPath("/4/0/1"));
+        assertEquals(2, column.size());
+        assertEquals(Type.INTEGER, column.getType());
+        assertEquals(268600002_000_000_000L, column.getTimestamp(0));
+        assertEquals(2, column.getLongValue(0));
+        assertEquals(3, column.getLongValue(1));
+        assertEquals(4, data.size());
+
+        assertEquals(decoder.decodeTimestampedNodes(content, ContentFormat.SENML_JSON, model),
+                data.toTimestampedLwM2mNodes());
+    }
+
+    @Test
+    public void columnar_decoding_is_only_supported_for_senml() {
+        assertTrue(decoder.isColumnarSupported(ContentFormat.SENML_JSON));
+        assertTrue(decoder.isColumnarSupported(ContentFormat.SENML_CBOR));
+        assertFalse(decoder.isColumnarSupported(ContentFormat.TLV));
+        assertFalse(decoder.isColumnarSupported(ContentFormat.JSON));
+    }
 }
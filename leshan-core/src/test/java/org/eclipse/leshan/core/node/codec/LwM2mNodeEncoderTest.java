@@ -20,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -46,6 +48,7 @@ import org.eclipse.leshan.core.node.TimestampedLwM2mNode;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.codec.senml.LwM2mNodeSenMLEncoder;
 import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.util.ByteBufferOutputStream;
 import org.eclipse.leshan.core.util.Hex;
 import org.eclipse.leshan.senml.cbor.upokecenter.SenMLCborUpokecenterEncoderDecoder;
 import org.junit.jupiter.api.BeforeAll;
@@ -194,6 +197,129 @@ public class LwM2mNodeEncoderTest {
         assertArrayEquals(ENCODED_DEVICE_WITH_INSTANCE, encoded);
     }
 
+    @Test
+    public void tlv_encode_device_object_instance_in_stream() {
+        LwM2mObjectInstance oInstance = new LwM2mObjectInstance(0, getDeviceResources());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF); // check that already written content is preserved
+        int length = encoder.encode(oInstance, ContentFormat.TLV, new LwM2mPath("/3"), model, out);
+
+        assertEquals(ENCODED_DEVICE_WITH_INSTANCE.length, length);
+        byte[] encoded = out.toByteArray();
+        assertEquals((byte) 0xFF, encoded[0]);
+        assertArrayEquals(ENCODED_DEVICE_WITH_INSTANCE, Arrays.copyOfRange(encoded, 1, encoded.length));
+    }
+
+    @Test
+    public void text_encode_single_resource_in_stream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int length = encoder.encode(LwM2mSingleResource.newFloatResource(15, 56.4D), ContentFormat.TEXT,
+                new LwM2mPath("/323/0/15"), model, out);
+
+        assertEquals(4, length);
+        assertEquals("56.4", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void json_and_senml_encode_device_object_instance_in_stream() {
+        LwM2mObjectInstance oInstance = new LwM2mObjectInstance(0, getDeviceResources());
+        for (ContentFormat format : Arrays.asList(ContentFormat.JSON, ContentFormat.SENML_JSON,
+                ContentFormat.SENML_CBOR)) {
+            byte[] expected = encoder.encode(oInstance, format, new LwM2mPath("/3/0"), model);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int length = encoder.encode(oInstance, format, new LwM2mPath("/3/0"), model, out);
+
+            assertEquals(expected.length, length);
+            assertArrayEquals(expected, out.toByteArray(), format.toString());
+        }
+    }
+
+    @Test
+    public void senml_encode_device_object_instance_in_byte_buffer() {
+        LwM2mObjectInstance oInstance = new LwM2mObjectInstance(0, getDeviceResources());
+        byte[] expected = encoder.encode(oInstance, ContentFormat.SENML_CBOR, new LwM2mPath("/3/0"), model);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int length = encoder.encode(oInstance, ContentFormat.SENML_CBOR, new LwM2mPath("/3/0"), model,
+                new ByteBufferOutputStream(buffer));
+
+        assertEquals(expected.length, length);
+        assertEquals(expected.length, buffer.position());
+        assertArrayEquals(expected, Arrays.copyOf(buffer.array(), length));
+    }
+
+    @Test
+    public void senml_encode_in_too_small_byte_buffer() {
+        LwM2mObjectInstance oInstance = new LwM2mObjectInstance(0, getDeviceResources());
+        ByteBufferOutputStream out = new ByteBufferOutputStream(ByteBuffer.allocate(16));
+
+        assertThrowsExactly(CodecException.class, () -> {
+            encoder.encode(oInstance, ContentFormat.SENML_JSON, new LwM2mPath("/3/0"), model, out);
+        });
+    }
+
+    @Test
+    public void json_and_senml_encode_timestamped_resources_in_stream() {
+        List<TimestampedLwM2mNode> data = new ArrayList<>();
+        data.add(new TimestampedLwM2mNode(Instant.ofEpochSecond(268_500_000),
+                LwM2mSingleResource.newFloatResource(1, 22.9)));
+        data.add(new TimestampedLwM2mNode(Instant.ofEpochSecond(268_500_010),
+                LwM2mSingleResource.newFloatResource(1, 22.4)));
+
+        for (ContentFormat format : Arrays.asList(ContentFormat.JSON, ContentFormat.SENML_JSON,
+                ContentFormat.SENML_CBOR)) {
+            byte[] expected = encoder.encodeTimestampedData(data, format, new LwM2mPath(1024, 0, 1), model);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int length = encoder.encodeTimestampedData(data, format, new LwM2mPath(1024, 0, 1), model, out);
+
+            assertEquals(expected.length, length);
+            assertArrayEquals(expected, out.toByteArray(), format.toString());
+        }
+    }
+
+    @Test
+    public void senml_encode_nodes_in_stream() {
+        Map<LwM2mPath, LwM2mNode> nodes = new LinkedHashMap<>();
+        nodes.put(new LwM2mPath("3/0/0"), LwM2mSingleResource.newStringResource(0, "Open Mobile Alliance"));
+        nodes.put(new LwM2mPath("6/0"), new LwM2mObjectInstance(0, LwM2mSingleResource.newFloatResource(0, 43.918998),
+                LwM2mSingleResource.newFloatResource(1, 2.351149)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int length = encoder.encodeNodes(nodes, ContentFormat.SENML_JSON, model, out);
+
+        String expected = "[{\"bn\":\"/3/0/0\",\"vs\":\"Open Mobile Alliance\"},"
+                + "{\"bn\":\"/6/0/\",\"n\":\"0\",\"v\":43.918998},{\"n\":\"1\",\"v\":2.351149}]";
+        assertEquals(expected.length(), length);
+        assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        out = new ByteArrayOutputStream();
+        length = encoder.encodeNodes(nodes, ContentFormat.SENML_CBOR, model, out);
+        assertArrayEquals(encoder.encodeNodes(nodes, ContentFormat.SENML_CBOR, model), out.toByteArray());
+        assertEquals(out.size(), length);
+    }
+
+    @Test
+    public void senml_encode_timestamped_nodes_in_stream() {
+        Instant timestamp = Instant.ofEpochSecond(500_000_000);
+        TimestampedLwM2mNodes timestampedLwM2mNodes = TimestampedLwM2mNodes.builder()
+                .put(timestamp.plusSeconds(4), new LwM2mPath(0, 0, 0),
+                        LwM2mSingleResource.newStringResource(0, "SampleString"))
+                .put(timestamp.plusSeconds(5), new LwM2mPath(0, 0, 1), LwM2mSingleResource.newBooleanResource(1, false))
+                .build();
+
+        for (ContentFormat format : Arrays.asList(ContentFormat.SENML_JSON, ContentFormat.SENML_CBOR)) {
+            byte[] expected = encoder.encodeTimestampedNodes(timestampedLwM2mNodes, format, model);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int length = encoder.encodeTimestampedNodes(timestampedLwM2mNodes, format, model, out);
+
+            assertEquals(expected.length, length);
+            assertArrayEquals(expected, out.toByteArray(), format.toString());
+        }
+    }
+
     @Test
     public void json_encode_device_object_instance() {
 
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Collections;
+
+import org.eclipse.leshan.core.model.ResourceModel.Type;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
+import org.junit.jupiter.api.Test;
+
+public class SendRequestTest {
+
+    @Test
+    public void lazy_requests_are_compared_without_decoding() {
+        SendRequest request = new SendRequest(invalidPayload(new byte[] { 1, 2 }), null);
+        SendRequest same = new SendRequest(invalidPayload(new byte[] { 1, 2 }), null);
+        SendRequest other = new SendRequest(invalidPayload(new byte[] { 3 }), null);
+
+        assertEquals(request, same);
+        assertEquals(request.hashCode(), same.hashCode());
+        assertNotEquals(request, other);
+        assertFalse(request.getRawPayload().isDecoded());
+    }
+
+    @Test
+    public void columnar_requests_are_compared_without_conversion() {
+        SendRequest request = new SendRequest(ContentFormat.SENML_CBOR, columnar(42), null);
+        SendRequest same = new SendRequest(ContentFormat.SENML_CBOR, columnar(42), null);
+        SendRequest other = new SendRequest(ContentFormat.SENML_CBOR, columnar(43), null);
+
+        assertEquals(request, same);
+        assertEquals(request.hashCode(), same.hashCode());
+        assertNotEquals(request, other);
+        assertNotEquals(request, new SendRequest(ContentFormat.SENML_CBOR,
+                Collections.singletonMap(new LwM2mPath(3, 0, 9), LwM2mSingleResource.newIntegerResource(9, 42))));
+        assertNull(request.getRawPayload());
+    }
+
+    private LazyDecodedPayload<TimestampedLwM2mNodes> invalidPayload(byte[] payload) {
+        return new LazyDecodedPayload<>(payload, ContentFormat.SENML_CBOR, () -> {
+            throw new CodecException("invalid payload");
+        });
+    }
+
+    private ColumnarTimestampedLwM2mNodes columnar(long value) {
+        return ColumnarTimestampedLwM2mNodes.builder().put(1000L, new LwM2mPath(3, 0, 9), Type.INTEGER, value).build();
+    }
+}
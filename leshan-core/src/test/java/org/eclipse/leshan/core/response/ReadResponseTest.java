@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.response;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.OpaqueContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ReadResponseTest {
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    @Test
+    public void read_response_loads_opaque_content_only_on_demand(@TempDir Path dir) throws IOException {
+        byte[] expected = content(3000);
+        Path file = dir.resolve("log");
+        Files.write(file, expected);
+
+        ReadResponse response = ReadResponse.success(2, OpaqueContent.fromFile(file));
+        assertTrue(response.isSuccess());
+        assertTrue(response.hasStreamedContent());
+        assertEquals(3000, response.getOpaqueContent().getLength());
+
+        LwM2mSingleResource resource = (LwM2mSingleResource) response.getContent();
+        assertEquals(2, resource.getId());
+        assertArrayEquals(expected, (byte[]) resource.getValue());
+    }
+
+    @Test
+    public void read_response_give_access_to_decoded_opaque_value() throws IOException {
+        byte[] value = content(10);
+        ReadResponse response = ReadResponse.success(0, value);
+        assertSame(value, response.getOpaqueContent().toByteArray());
+
+        assertNull(ReadResponse.success(0, "string").getOpaqueContent());
+    }
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ReusableByteArrayOutputStreamTest {
+
+    @Test
+    public void buffer_is_reused_once_released() {
+        ReusableByteArrayOutputStream first = ReusableByteArrayOutputStream.acquire();
+        first.write(1);
+        assertArrayEquals(new byte[] { 1 }, first.toByteArray());
+        first.close();
+
+        try (ReusableByteArrayOutputStream second = ReusableByteArrayOutputStream.acquire()) {
+            assertSame(first, second);
+            assertEquals(0, second.size());
+        }
+    }
+
+    @Test
+    public void nested_acquire_returns_another_buffer() {
+        try (ReusableByteArrayOutputStream outer = ReusableByteArrayOutputStream.acquire()) {
+            try (ReusableByteArrayOutputStream inner = ReusableByteArrayOutputStream.acquire()) {
+                assertNotSame(outer, inner);
+            }
+        }
+    }
+
+    @Test
+    public void large_buffer_is_not_retained() {
+        byte[] large = new byte[ReusableByteArrayOutputStream.MAX_RETAINED_CAPACITY + 1];
+        try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+            buffer.write(large, 0, large.length);
+            assertEquals(large.length, buffer.toByteArray().length);
+        }
+
+        try (ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire()) {
+            assertTrue(buffer.capacity() <= ReusableByteArrayOutputStream.MAX_RETAINED_CAPACITY);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class WeakInternerTest {
+
+    @Test
+    public void equal_values_share_canonical_instance() {
+        WeakInterner<List<String>> interner = new WeakInterner<>();
+        List<String> first = Arrays.asList("a", "b");
+        List<String> second = new ArrayList<>(first);
+
+        List<String> canonical = interner.intern(first, Collections::unmodifiableList);
+        assertNotSame(first, canonical);
+        assertSame(canonical, interner.intern(second, Collections::unmodifiableList));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void arrays_are_compared_by_content() {
+        WeakInterner<String[]> interner = new WeakInterner<>();
+        String[] first = new String[] { "a", "b" };
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(new String[] { "a", "b" }));
+        assertNotSame(first, interner.intern(new String[] { "b", "a" }));
+    }
+
+    @Test
+    public void concurrent_intern_returns_one_canonical_instance() throws Exception {
+        WeakInterner<List<Integer>> interner = new WeakInterner<>();
+        int nbThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Callable<List<Integer>>> tasks = new ArrayList<>();
+            for (int i = 0; i < nbThreads; i++) {
+                tasks.add(() -> interner.intern(Arrays.asList(1, 2, 3), ArrayList::new));
+            }
+            List<Future<List<Integer>>> results = executor.invokeAll(tasks, 5, TimeUnit.SECONDS);
+            List<Integer> canonical = results.get(0).get();
+            for (Future<List<Integer>> result : results) {
+                assertSame(canonical, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.integration.tests.server.redis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.eclipse.leshan.core.SecurityMode;
+import org.eclipse.leshan.integration.tests.util.RedisIntegrationTestHelper;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ServerSecurity;
+import org.eclipse.leshan.server.bootstrap.InvalidConfigurationException;
+import org.eclipse.leshan.server.redis.RedisBootstrapConfigStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
+public class RedisBootstrapConfigStoreTest {
+
+    private Pool<Jedis> pool;
+    private String prefix;
+    private RedisBootstrapConfigStore store;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new RedisIntegrationTestHelper().createJedisPool();
+        // use a unique prefix, so tests are not impacted by previous runs
+        prefix = "BSSTORE-TEST-" + UUID.randomUUID() + "#";
+        store = createStore();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.destroy();
+    }
+
+    private RedisBootstrapConfigStore createStore() {
+        return new RedisBootstrapConfigStore.Builder(pool).setPrefix(prefix).build();
+    }
+
+    private BootstrapConfig pskConfig(String pskIdentity, byte[] pskKey) {
+        BootstrapConfig config = new BootstrapConfig();
+        ServerSecurity bsSecurity = new ServerSecurity();
+        bsSecurity.bootstrapServer = true;
+        bsSecurity.uri = "coaps://localhost:5684";
+        bsSecurity.securityMode = SecurityMode.PSK;
+        bsSecurity.publicKeyOrId = pskIdentity.getBytes(UTF_8);
+        bsSecurity.secretKey = pskKey;
+        config.security.put(0, bsSecurity);
+        return config;
+    }
+
+    @Test
+    public void psk_identity_must_be_unique() throws InvalidConfigurationException {
+        store.add("ep1", pskConfig("identity", new byte[] { 1 }));
+
+        assertThrows(InvalidConfigurationException.class,
+                () -> store.add("ep2", pskConfig("identity", new byte[] { 2 })));
+
+        assertEquals("ep1", store.getByIdentity("identity").getEndpoint());
+        assertNull(store.get("ep2", null, null));
+
+        // same endpoint can update its config keeping its identity
+        store.add("ep1", pskConfig("identity", new byte[] { 3 }));
+        assertArrayEquals(new byte[] { 3 }, store.getByIdentity("identity").getPreSharedKey());
+    }
+
+    @Test
+    public void psk_identity_index_is_updated_when_identity_changes() throws InvalidConfigurationException {
+        store.add("ep1", pskConfig("identity1", new byte[] { 1 }));
+        store.add("ep1", pskConfig("identity2", new byte[] { 1 }));
+
+        assertNull(store.getByIdentity("identity1"));
+        assertEquals("ep1", store.getByIdentity("identity2").getEndpoint());
+
+        // old identity can now be used by another endpoint
+        store.add("ep2", pskConfig("identity1", new byte[] { 2 }));
+        assertEquals("ep2", store.getByIdentity("identity1").getEndpoint());
+    }
+
+    @Test
+    public void remove_cleans_psk_identity_index() throws InvalidConfigurationException {
+        store.add("ep1", pskConfig("identity", new byte[] { 1 }));
+
+        assertNotNull(store.remove("ep1"));
+
+        assertNull(store.get("ep1", null, null));
+        assertNull(store.getByIdentity("identity"));
+        assertNull(store.remove("ep1"));
+
+        // identity is free again
+        store.add("ep2", pskConfig("identity", new byte[] { 2 }));
+        assertEquals("ep2", store.getByIdentity("identity").getEndpoint());
+    }
+
+    @Test
+    public void cache_of_other_instance_is_invalidated() throws InvalidConfigurationException, InterruptedException {
+        RedisBootstrapConfigStore otherInstance = createStore();
+        try {
+            store.start();
+            otherInstance.start();
+            store.add("ep1", pskConfig("identity", new byte[] { 1 }));
+
+            // wait the other instance caches the config
+            long deadline = System.currentTimeMillis() + 2000;
+            while (otherInstance.get("ep1", null, null) == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(otherInstance.get("ep1", null, null));
+
+            // modify config on first instance, other one must see it
+            store.add("ep1", pskConfig("identity", new byte[] { 2 }));
+            deadline = System.currentTimeMillis() + 2000;
+            while (otherInstance.get("ep1", null, null).security.get(0).secretKey[0] != 2
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertArrayEquals(new byte[] { 2 }, otherInstance.get("ep1", null, null).security.get(0).secretKey);
+
+            // remove on first instance
+            store.remove("ep1");
+            deadline = System.currentTimeMillis() + 2000;
+            while (otherInstance.get("ep1", null, null) != null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNull(otherInstance.get("ep1", null, null));
+        } finally {
+            otherInstance.destroy();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.integration.tests.server.redis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.eclipse.leshan.integration.tests.util.RedisIntegrationTestHelper;
+import org.eclipse.leshan.server.redis.RedisDtlsStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
+public class RedisDtlsStateStoreTest {
+
+    private static final String ENDPOINT_KEY = "coaps://0.0.0.0:5684";
+
+    private Pool<Jedis> pool;
+    private String prefix;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new RedisIntegrationTestHelper().createJedisPool();
+        // use a unique prefix, so tests are not impacted by previous runs
+        prefix = "DTLS-TEST-" + UUID.randomUUID() + "#";
+    }
+
+    private RedisDtlsStateStore createStore(String nodeId) {
+        return new RedisDtlsStateStore.Builder(pool).setPrefix(prefix).setNodeId(nodeId).build();
+    }
+
+    @Test
+    public void sessions_are_shared_between_nodes() {
+        RedisDtlsStateStore node1 = createStore("node1");
+        RedisDtlsStateStore node2 = createStore("node2");
+
+        node1.putSession(new byte[] { 1, 2 }, new byte[] { 3, 4, 5 });
+        assertArrayEquals(new byte[] { 3, 4, 5 }, node2.getSession(new byte[] { 1, 2 }));
+
+        node2.removeSession(new byte[] { 1, 2 });
+        assertNull(node1.getSession(new byte[] { 1, 2 }));
+    }
+
+    @Test
+    public void connections_are_reloaded_after_restart() {
+        createStore("node1").saveConnections(ENDPOINT_KEY, new byte[] { 1, 2, 3 });
+
+        RedisDtlsStateStore restarted = createStore("node1");
+        assertArrayEquals(new byte[] { 1, 2, 3 }, restarted.loadConnections(ENDPOINT_KEY));
+        assertNull(restarted.loadConnections("coaps://0.0.0.0:5685"));
+    }
+
+    @Test
+    public void connections_of_nodes_using_same_endpoint_uri_do_not_collide() {
+        RedisDtlsStateStore node1 = createStore("node1");
+        RedisDtlsStateStore node2 = createStore("node2");
+
+        node1.saveConnections(ENDPOINT_KEY, new byte[] { 1 });
+        node2.saveConnections(ENDPOINT_KEY, new byte[] { 2 });
+
+        assertArrayEquals(new byte[] { 1 }, node1.loadConnections(ENDPOINT_KEY));
+        assertArrayEquals(new byte[] { 2 }, node2.loadConnections(ENDPOINT_KEY));
+    }
+
+    @Test
+    public void node_id_is_mandatory() {
+        assertThrows(IllegalArgumentException.class, () -> new RedisDtlsStateStore.Builder(pool).build());
+    }
+}
@@ -17,6 +17,7 @@
 package org.eclipse.leshan.integration.tests.server.redis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -24,10 +25,18 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.Request;
@@ -57,11 +66,15 @@ import org.eclipse.leshan.server.observation.LwM2mNotificationReceiver;
 import org.eclipse.leshan.server.profile.ClientProfile;
 import org.eclipse.leshan.server.redis.RedisRegistrationStore;
 import org.eclipse.leshan.server.registration.Registration;
+import org.eclipse.leshan.server.registration.RegistrationQuery;
 import org.eclipse.leshan.server.registration.RegistrationStore;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
 public class RedisRegistrationStoreTest {
 
     private final String ep = "urn:endpoint";
@@ -80,12 +93,15 @@ public class RedisRegistrationStoreTest {
     Registration registration;
 
     RedisIntegrationTestHelper helper;
+    Pool<Jedis> pool;
+    String uniquePrefix;
 
     @BeforeEach
     public void setUp() throws UnknownHostException {
         helper = new RedisIntegrationTestHelper();
         address = InetAddress.getLocalHost();
-        store = new RedisRegistrationStore(helper.createJedisPool());
+        pool = helper.createJedisPool();
+        store = new RedisRegistrationStore(pool);
         observationStore = new LwM2mObservationStore(store, new LwM2mNotificationReceiver() {
 
             @Override
@@ -178,6 +194,231 @@ public class RedisRegistrationStoreTest {
         assertNull(leshanObservation);
     }
 
+    @Test
+    public void find_registrations_using_query_indexes() {
+        RedisRegistrationStore queryStore = createStoreWithUniquePrefix();
+        try {
+            queryStore.addRegistration(givenARegistration("ep1", "id1", 1, EnumSet.of(BindingMode.U),
+                    Collections.singletonMap("tenant", "A"), new Date(1000)));
+            queryStore.addRegistration(givenARegistration("ep2", "id2", 2, EnumSet.of(BindingMode.U, BindingMode.Q),
+                    Collections.singletonMap("tenant", "B"), new Date(2000)));
+
+            assertEquals(endpoints("ep1", "ep2"),
+                    find(queryStore, new RegistrationQuery.Builder().setSupportedObject(3)));
+            assertEquals(endpoints("ep2"), find(queryStore, new RegistrationQuery.Builder().setQueueMode(true)));
+            assertEquals(endpoints("ep1"), find(queryStore,
+                    new RegistrationQuery.Builder().addBindingMode(BindingMode.U).addAttribute("tenant", "A")));
+            assertEquals(endpoints("ep2"),
+                    find(queryStore, new RegistrationQuery.Builder().setLastUpdateRange(new Date(1500), null)));
+            assertEquals(endpoints(), find(queryStore, new RegistrationQuery.Builder().setSupportedObject(5)));
+
+            // indexes follow de-registrations
+            queryStore.removeRegistration("id2");
+            assertEquals(endpoints("ep1"), find(queryStore, new RegistrationQuery.Builder().setSupportedObject(3)));
+            assertEquals(endpoints(), find(queryStore, new RegistrationQuery.Builder().addAttribute("tenant", "B")));
+        } finally {
+            queryStore.removeRegistration("id1");
+            queryStore.removeRegistration("id2");
+            queryStore.destroy();
+        }
+    }
+
+    @Test
+    public void start_indexes_registrations_stored_without_query_indexes() {
+        uniquePrefix = "REGSTORE-TEST-" + UUID.randomUUID() + "#";
+        RedisRegistrationStore queryStore = new RedisRegistrationStore.Builder(pool).setPrefix(uniquePrefix)
+                .setRebuildQueryIndexesOnStart(true).build();
+        RedisRegistrationStore otherStore = new RedisRegistrationStore.Builder(pool).setPrefix(uniquePrefix)
+                .setRebuildQueryIndexesOnStart(true).build();
+        try {
+            queryStore.addRegistration(givenARegistration("ep1", "id1", 1, EnumSet.of(BindingMode.U),
+                    Collections.singletonMap("tenant", "A"), new Date(1000)));
+
+            // simulate a registration stored before query indexes existed and stale index entries
+            try (Jedis j = pool.getResource()) {
+                Set<String> indexKeys = j.keys(uniquePrefix + "EPS#TERM#*");
+                assertFalse(indexKeys.isEmpty());
+                j.del(indexKeys.toArray(new String[0]));
+                j.del(uniquePrefix + "LASTUPD#EP");
+                j.sadd(uniquePrefix + "EPS#TERM#a:tenant=A", "removedEp");
+                j.sadd(uniquePrefix + "EPS#TERM#a:tenant=B", "ep1");
+                j.zadd(uniquePrefix + "LASTUPD#EP", 2000, "removedEp");
+            }
+            assertEquals(endpoints(), find(queryStore, new RegistrationQuery.Builder().addAttribute("tenant", "B")));
+
+            // indexes are rebuilt on start
+            queryStore.start();
+            assertEquals(endpoints("ep1"),
+                    find(queryStore, new RegistrationQuery.Builder().addAttribute("tenant", "A")));
+            assertEquals(endpoints("ep1"),
+                    find(queryStore, new RegistrationQuery.Builder().setLastUpdateRange(new Date(500), null)));
+
+            // stale entries are removed
+            try (Jedis j = pool.getResource()) {
+                assertEquals(Collections.singleton("ep1"), j.smembers(uniquePrefix + "EPS#TERM#a:tenant=A"));
+                assertFalse(j.exists(uniquePrefix + "EPS#TERM#a:tenant=B"));
+                assertNull(j.zscore(uniquePrefix + "LASTUPD#EP", "removedEp"));
+                assertTrue(j.exists(uniquePrefix + "LASTUPD#EP#MIGRATED"));
+
+                // migration is only done once
+                j.del(uniquePrefix + "LASTUPD#EP");
+            }
+            otherStore.start();
+            assertEquals(endpoints(),
+                    find(otherStore, new RegistrationQuery.Builder().setLastUpdateRange(new Date(500), null)));
+        } finally {
+            queryStore.stop();
+            otherStore.stop();
+            queryStore.removeRegistration("id1");
+            queryStore.destroy();
+            otherStore.destroy();
+        }
+    }
+
+    @Test
+    public void get_registrations_sorted_by_endpoint() {
+        RedisRegistrationStore sortedStore = createStoreWithUniquePrefix();
+        try {
+            // more registrations than a batch of the iterator
+            List<String> expected = new ArrayList<>();
+            for (int i = 250; i > 0; i--) {
+                String endpoint = String.format("ep%03d", i);
+                sortedStore.addRegistration(givenARegistration(endpoint, "id" + i, i, EnumSet.of(BindingMode.U),
+                        Collections.<String, String> emptyMap(), new Date()));
+                expected.add(0, endpoint);
+            }
+            sortedStore.removeRegistration("id250");
+            expected.remove("ep250");
+
+            assertEquals(expected, sorted(sortedStore, null));
+            assertEquals(expected.subList(99, 249), sorted(sortedStore, "ep100"));
+            assertEquals(expected.subList(100, 249), sorted(sortedStore, "ep100\0"));
+            assertEquals(Collections.emptyList(), sorted(sortedStore, "ep999"));
+        } finally {
+            for (int i = 1; i < 250; i++) {
+                sortedStore.removeRegistration("id" + i);
+            }
+            sortedStore.destroy();
+        }
+    }
+
+    @Test
+    public void get_observations_by_path() {
+        RedisRegistrationStore pathStore = createStoreWithUniquePrefix();
+        try {
+            givenASimpleRegistration(lifetime);
+            pathStore.addRegistration(registration);
+
+            SingleObservation single = givenASingleObservation(1, "/3/0/1");
+            List<LwM2mPath> paths = Arrays.asList(new LwM2mPath("/3/0/1"), new LwM2mPath("/3/0/2"));
+            CompositeObservation composite = new CompositeObservation(new ObservationIdentifier(new byte[] { 2 }),
+                    registrationId, paths, ContentFormat.SENML_CBOR, ContentFormat.SENML_CBOR, null, null);
+            pathStore.addObservation(registrationId, single, false);
+            pathStore.addObservation(registrationId, composite, false);
+
+            assertEquals(single.getId(), pathStore.getObservation(registrationId, new LwM2mPath("/3/0/1")).getId());
+            assertEquals(composite.getId(), pathStore.getCompositeObservation(registrationId, paths).getId());
+            assertNull(pathStore.getObservation(registrationId, new LwM2mPath("/3/0/2")));
+            assertNull(pathStore.getCompositeObservation(registrationId, Arrays.asList(new LwM2mPath("/3/0/1"))));
+
+            // new observation on same path replaces previous one
+            SingleObservation newSingle = givenASingleObservation(3, "/3/0/1");
+            assertEquals(1, pathStore.addObservation(registrationId, newSingle, false).size());
+            assertEquals(newSingle.getId(), pathStore.getObservation(registrationId, new LwM2mPath("/3/0/1")).getId());
+
+            // index follows observation removal
+            pathStore.removeObservation(registrationId, newSingle.getId());
+            assertNull(pathStore.getObservation(registrationId, new LwM2mPath("/3/0/1")));
+            pathStore.removeObservations(registrationId);
+            assertNull(pathStore.getCompositeObservation(registrationId, paths));
+        } finally {
+            pathStore.removeRegistration(registrationId);
+            pathStore.destroy();
+        }
+    }
+
+    @Test
+    public void get_observation_stored_without_path_index() {
+        RedisRegistrationStore pathStore = createStoreWithUniquePrefix();
+        try {
+            givenASimpleRegistration(lifetime);
+            pathStore.addRegistration(registration);
+            SingleObservation single = givenASingleObservation(1, "/3/0/1");
+            pathStore.addObservation(registrationId, single, false);
+
+            // simulate an observation stored before path index existed
+            try (Jedis j = pool.getResource()) {
+                assertEquals(1, j.del(uniquePrefix + "TKN#PATH#REGID#" + registrationId));
+            }
+
+            // lookup falls back to a scan without modifying the index
+            assertEquals(single.getId(), pathStore.getObservation(registrationId, new LwM2mPath("/3/0/1")).getId());
+            assertNull(pathStore.getObservation(registrationId, new LwM2mPath("/3/0/2")));
+            try (Jedis j = pool.getResource()) {
+                assertFalse(j.exists(uniquePrefix + "TKN#PATH#REGID#" + registrationId));
+            }
+
+            // next observation cancels the not indexed one on the same path and indexes the others
+            SingleObservation other = givenASingleObservation(2, "/3/0/2");
+            pathStore.addObservation(registrationId, other, false);
+            SingleObservation newSingle = givenASingleObservation(3, "/3/0/1");
+            Collection<Observation> removed = pathStore.addObservation(registrationId, newSingle, false);
+            assertEquals(1, removed.size());
+            assertEquals(single.getId(), removed.iterator().next().getId());
+            assertEquals(2, pathStore.getObservations(registrationId).size());
+            assertEquals(newSingle.getId(), pathStore.getObservation(registrationId, new LwM2mPath("/3/0/1")).getId());
+            assertEquals(other.getId(), pathStore.getObservation(registrationId, new LwM2mPath("/3/0/2")).getId());
+            try (Jedis j = pool.getResource()) {
+                assertTrue(j.hexists(uniquePrefix + "TKN#PATH#REGID#" + registrationId, "/3/0/1"));
+                assertTrue(j.hexists(uniquePrefix + "TKN#PATH#REGID#" + registrationId, "/3/0/2"));
+            }
+        } finally {
+            pathStore.removeRegistration(registrationId);
+            pathStore.destroy();
+        }
+    }
+
+    private SingleObservation givenASingleObservation(int token, String path) {
+        return new SingleObservation(new ObservationIdentifier(new byte[] { (byte) token }), registrationId,
+                new LwM2mPath(path), ContentFormat.TLV, null, null);
+    }
+
+    private RedisRegistrationStore createStoreWithUniquePrefix() {
+        // use a unique prefix, so tests are not impacted by previous runs
+        uniquePrefix = "REGSTORE-TEST-" + UUID.randomUUID() + "#";
+        return new RedisRegistrationStore.Builder(pool).setPrefix(uniquePrefix).build();
+    }
+
+    private Set<String> find(RegistrationStore store, RegistrationQuery.Builder query) {
+        Set<String> result = new HashSet<>();
+        for (Iterator<Registration> it = store.findRegistrations(query.build()); it.hasNext();) {
+            result.add(it.next().getEndpoint());
+        }
+        return result;
+    }
+
+    private List<String> sorted(RegistrationStore store, String fromEndpoint) {
+        List<String> result = new ArrayList<>();
+        for (Iterator<Registration> it = store.getRegistrationsSortedByEndpoint(fromEndpoint); it.hasNext();) {
+            result.add(it.next().getEndpoint());
+        }
+        return result;
+    }
+
+    private Set<String> endpoints(String... endpoints) {
+        Set<String> result = new HashSet<>();
+        Collections.addAll(result, endpoints);
+        return result;
+    }
+
+    private Registration givenARegistration(String endpoint, String id, int port, EnumSet<BindingMode> bindingMode,
+            Map<String, String> attributes, Date lastUpdate) {
+        return new Registration.Builder(id, endpoint, Identity.unsecure(address, port),
+                EndpointUriUtil.createUri("coap://localhost:5683")).lifeTimeInSec(lifetime).bindingMode(bindingMode)
+                        .objectLinks(objectLinks).additionalRegistrationAttributes(attributes).lastUpdate(lastUpdate)
+                        .build();
+    }
+
     private void givenASimpleRegistration(Long lifetime) {
         Registration.Builder builder = new Registration.Builder(registrationId, ep, Identity.unsecure(address, port),
                 EndpointUriUtil.createUri("coap://localhost:5683"));
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.californium;
+
+import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.elements.util.DatagramWriter;
+import org.eclipse.californium.scandium.dtls.DTLSSession;
+import org.eclipse.californium.scandium.dtls.SessionId;
+import org.eclipse.californium.scandium.dtls.SessionStore;
+import org.eclipse.leshan.server.security.DtlsStateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link SessionStore} which stores DTLS sessions in a Leshan {@link DtlsStateStore}.
+ * <p>
+ * Store errors are logged and never propagated to Scandium : in worst case a full handshake is done.
+ * <p>
+ * Note that resuming a session does not re-check credentials, but each LWM2M request is still authorized against the
+ * {@link org.eclipse.leshan.server.security.SecurityStore}.
+ */
+public class LwM2mSessionStore implements SessionStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LwM2mSessionStore.class);
+
+    private final DtlsStateStore store;
+
+    public LwM2mSessionStore(DtlsStateStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void put(DTLSSession session) {
+        SessionId sessionId = session.getSessionIdentifier();
+        if (sessionId == null || sessionId.isEmpty())
+            return;
+
+        DatagramWriter writer = new DatagramWriter(true);
+        try {
+            session.writeTo(writer);
+            store.putSession(sessionId.getBytes(), writer.toByteArray());
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to store DTLS session {}", sessionId, e);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Override
+    public DTLSSession get(SessionId id) {
+        try {
+            byte[] data = store.getSession(id.getBytes());
+            if (data == null)
+                return null;
+            return DTLSSession.fromReader(new DatagramReader(data));
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to get DTLS session {}", id, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void remove(SessionId id) {
+        try {
+            store.removeSession(id.getBytes());
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to remove DTLS session {}", id, e);
+        }
+    }
+}
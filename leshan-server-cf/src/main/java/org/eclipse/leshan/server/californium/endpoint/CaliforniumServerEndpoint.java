@@ -52,6 +52,7 @@ public class CaliforniumServerEndpoint implements LwM2mServerEndpoint {
 
     private final Protocol protocol;
     private final ScheduledExecutorService executor;
+    private final CallbackExecutor callbackExecutor;
     private final CoapEndpoint endpoint;
     private final ServerEndpointToolbox toolbox;
     private final ServerCoapMessageTranslator translator;
@@ -67,6 +68,19 @@ public class CaliforniumServerEndpoint implements LwM2mServerEndpoint {
             ServerEndpointToolbox toolbox, LwM2mNotificationReceiver notificationReceiver,
             IdentityHandler identityHandler, ExceptionTranslator exceptionTranslator,
             ScheduledExecutorService executor) {
+        this(protocol, endpoint, translator, toolbox, notificationReceiver, identityHandler, exceptionTranslator,
+                executor, null);
+    }
+
+    /**
+     * @param executor used to schedule asynchronous request timeouts.
+     * @param callbackExecutor used to build responses and call callbacks of asynchronous requests, ordered by
+     *        registration. If <code>null</code> this is done in Californium threads.
+     */
+    public CaliforniumServerEndpoint(Protocol protocol, CoapEndpoint endpoint, ServerCoapMessageTranslator translator,
+            ServerEndpointToolbox toolbox, LwM2mNotificationReceiver notificationReceiver,
+            IdentityHandler identityHandler, ExceptionTranslator exceptionTranslator, ScheduledExecutorService executor,
+            CallbackExecutor callbackExecutor) {
         this.protocol = protocol;
         this.translator = translator;
         this.toolbox = toolbox;
@@ -75,6 +89,7 @@ public class CaliforniumServerEndpoint implements LwM2mServerEndpoint {
         this.identityHandler = identityHandler;
         this.exceptionTranslator = exceptionTranslator;
         this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
     }
 
     @Override
@@ -154,7 +169,8 @@ public class CaliforniumServerEndpoint implements LwM2mServerEndpoint {
 
         // Add CoAP request callback
         MessageObserver obs = new AsyncRequestObserver<T>(coapRequest, responseCallback, errorCallback, timeoutInMs,
-                executor, exceptionTranslator) {
+                executor, callbackExecutor != null ? callbackExecutor.forKey(destination.getRegistrationId()) : null,
+                exceptionTranslator) {
             @Override
             public T buildResponse(Response coapResponse) {
                 // Build LwM2m response
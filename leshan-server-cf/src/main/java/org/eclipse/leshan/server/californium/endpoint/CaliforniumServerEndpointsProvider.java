@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -42,6 +43,9 @@ import org.eclipse.leshan.core.californium.identity.IdentityHandler;
 import org.eclipse.leshan.core.californium.identity.IdentityHandlerProvider;
 import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
 import org.eclipse.leshan.core.endpoint.Protocol;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.ObservationIdentifier;
@@ -52,15 +56,21 @@ import org.eclipse.leshan.core.response.ObserveCompositeResponse;
 import org.eclipse.leshan.core.response.ObserveResponse;
 import org.eclipse.leshan.core.util.NamedThreadFactory;
 import org.eclipse.leshan.server.LeshanServer;
+import org.eclipse.leshan.server.admission.Admission;
+import org.eclipse.leshan.server.admission.RateLimitingAdmissionController;
+import org.eclipse.leshan.server.admission.UplinkAdmissionController;
 import org.eclipse.leshan.server.californium.RootResource;
 import org.eclipse.leshan.server.californium.endpoint.coap.CoapServerProtocolProvider;
 import org.eclipse.leshan.server.endpoint.LwM2mServerEndpoint;
 import org.eclipse.leshan.server.endpoint.LwM2mServerEndpointsProvider;
 import org.eclipse.leshan.server.endpoint.ServerEndpointToolbox;
 import org.eclipse.leshan.server.observation.LwM2mNotificationReceiver;
+import org.eclipse.leshan.server.observation.RawObservationListener;
 import org.eclipse.leshan.server.profile.ClientProfile;
 import org.eclipse.leshan.server.request.UplinkRequestReceiver;
 import org.eclipse.leshan.server.security.ServerSecurityInfo;
+import org.eclipse.leshan.server.send.ColumnarSendListener;
+import org.eclipse.leshan.server.send.RawSendListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,12 +80,19 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
 
     private final Logger LOG = LoggerFactory.getLogger(CaliforniumServerEndpointsProvider.class);
 
+    // Timer shared by all endpoints to schedule asynchronous request timeouts. A timeout task only cancels the CoAP
+    // request, the resulting error callback is then dispatched to the callback executor (if any), so one thread is
+    // enough even with many ongoing requests. Without callback executor, error callbacks of timed out requests are
+    // called by this thread, like before.
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory("Leshan Async Request timeout"));
 
+    private final CallbackExecutor callbackExecutor;
+    private final UplinkAdmissionController admissionController;
+
     private final Configuration serverConfig;
     private final List<CaliforniumServerEndpointFactory> endpointsFactory;
-    private final ServerCoapMessageTranslator messagetranslator = new ServerCoapMessageTranslator();
+    private final ServerCoapMessageTranslator messagetranslator;
     private final List<CaliforniumServerEndpoint> endpoints;
     private CoapServer coapServer;
 
@@ -86,6 +103,10 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
     protected CaliforniumServerEndpointsProvider(Builder builder) {
         this.serverConfig = builder.serverConfiguration;
         this.endpointsFactory = builder.endpointsFactory;
+        this.callbackExecutor = builder.callbackExecutor;
+        this.admissionController = builder.admissionController;
+        this.messagetranslator = new ServerCoapMessageTranslator(builder.lazyPayloadDecoding,
+                builder.lazyPayloadValidation, builder.columnarSendDecoding, builder.admissionController);
         this.endpoints = new ArrayList<CaliforniumServerEndpoint>();
     }
 
@@ -135,7 +156,7 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
                 // create LWM2M endpoint
                 CaliforniumServerEndpoint lwm2mEndpoint = new CaliforniumServerEndpoint(endpointFactory.getProtocol(),
                         coapEndpoint, messagetranslator, toolbox, notificatonReceiver, identityHandler,
-                        exceptionTranslator, executor);
+                        exceptionTranslator, executor, callbackExecutor);
                 endpoints.add(lwm2mEndpoint);
 
                 // add Californium endpoint to coap server
@@ -146,8 +167,34 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
 
                     @Override
                     public void onNotification(Request coapRequest, Response coapResponse) {
-                        // Get Observation
                         String regid = coapRequest.getUserContext().get(ObserveUtil.CTX_REGID);
+
+                        // Check server can handle it before queuing it (notification can not be rejected, so it is
+                        // dropped)
+                        if (admissionController != null) {
+                            Admission admission = admissionController.admit(identityHandler.getIdentity(coapResponse),
+                                    null, ObserveResponse.class);
+                            if (!admission.isAccepted()) {
+                                LOG.debug("Notification for registration {} dropped : {}", regid, admission);
+                                return;
+                            }
+                        }
+
+                        if (callbackExecutor != null) {
+                            // use same executor than responses to keep notification ordered with observe response
+                            try {
+                                callbackExecutor.forKey(regid)
+                                        .execute(() -> handleNotification(regid, coapRequest, coapResponse));
+                                return;
+                            } catch (RejectedExecutionException e) {
+                                LOG.debug("Callback executor rejects notification for registration {}", regid);
+                            }
+                        }
+                        handleNotification(regid, coapRequest, coapResponse);
+                    }
+
+                    private void handleNotification(String regid, Request coapRequest, Response coapResponse) {
+                        // Get Observation
                         Observation observation = server.getRegistrationStore().getObservation(regid,
                                 new ObservationIdentifier(coapResponse.getToken().getBytes()));
                         if (observation == null) {
@@ -161,6 +208,20 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
 
                         // create Observe Response
                         try {
+                            if (messagetranslator.isLazyPayloadDecoding()) {
+                                if (observation instanceof SingleObservation) {
+                                    LazyDecodedPayload<ObserveResponse> notification = messagetranslator
+                                            .createLazyObservation(observation, coapResponse, toolbox, profile);
+                                    notificatonReceiver.onNotification((SingleObservation) observation, profile,
+                                            notification);
+                                } else if (observation instanceof CompositeObservation) {
+                                    LazyDecodedPayload<ObserveCompositeResponse> notification = messagetranslator
+                                            .createLazyObservation(observation, coapResponse, toolbox, profile);
+                                    notificatonReceiver.onNotification((CompositeObservation) observation, profile,
+                                            notification);
+                                }
+                                return;
+                            }
                             AbstractLwM2mResponse response = messagetranslator.createObservation(observation,
                                     coapResponse, toolbox, profile);
                             if (observation instanceof SingleObservation) {
@@ -196,11 +257,24 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
 
     }
 
+    /**
+     * @return the number of asynchronous request callbacks and notifications waiting to be handled by the callback
+     *         executor, or 0 if no callback executor is used.
+     *
+     * @see Builder#setCallbackExecutor(CallbackExecutor)
+     */
+    public int getOutstandingCallbacks() {
+        return callbackExecutor != null ? callbackExecutor.getOutstandingCallbacks() : 0;
+    }
+
     @Override
     public void destroy() {
         executor.shutdownNow();
         try {
             executor.awaitTermination(5, TimeUnit.SECONDS);
+            if (callbackExecutor != null) {
+                callbackExecutor.shutdown(5, TimeUnit.SECONDS);
+            }
         } catch (InterruptedException e) {
             LOG.warn("Destroying RequestSender was interrupted.", e);
         }
@@ -212,6 +286,11 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
         private final List<ServerProtocolProvider> protocolProviders;
         private Configuration serverConfiguration;
         private final List<CaliforniumServerEndpointFactory> endpointsFactory;
+        private CallbackExecutor callbackExecutor;
+        private boolean lazyPayloadDecoding;
+        private boolean lazyPayloadValidation;
+        private boolean columnarSendDecoding;
+        private UplinkAdmissionController admissionController;
 
         public Builder(ServerProtocolProvider... protocolProviders) {
             // TODO TL : handle duplicate ?
@@ -333,6 +412,64 @@ public class CaliforniumServerEndpointsProvider implements LwM2mServerEndpointsP
             return this;
         }
 
+        /**
+         * Set the executor used to decode responses/notifications and call asynchronous request callbacks. Tasks for a
+         * same registration are executed in order.
+         * <p>
+         * By default, there is no callback executor and this is done directly in Californium threads, so slow callbacks
+         * can delay other messages processing.
+         */
+        public Builder setCallbackExecutor(CallbackExecutor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Enable lazy decoding of "Send" request and notification payloads.
+         * <p>
+         * When enabled, payload is not decoded on reception. {@link RawSendListener} and {@link RawObservationListener}
+         * receive raw payload with its content format and a memoized decoded view, so decoding costs nothing if no
+         * listener needs decoded value. Other listeners get decoded value as usual.
+         * <p>
+         * Default is <code>false</code>.
+         *
+         * @param validate if <code>true</code>, payload is still decoded on reception to check it is valid (decoded
+         *        value is kept and reused by listeners).
+         */
+        public Builder setLazyPayloadDecoding(boolean lazy, boolean validate) {
+            this.lazyPayloadDecoding = lazy;
+            this.lazyPayloadValidation = validate;
+            return this;
+        }
+
+        /**
+         * Enable decoding of "Send" request payloads in columnar representation when content format supports it (e.g.
+         * SenML).
+         * <p>
+         * {@link ColumnarSendListener} then receive {@link ColumnarTimestampedLwM2mNodes} and
+         * {@link TimestampedLwM2mNodes} is only created if another listener needs it. This should only be enabled if
+         * most listeners are {@link ColumnarSendListener}, else data are decoded then converted.
+         * <p>
+         * Default is <code>false</code>.
+         */
+        public Builder setColumnarSendDecoding(boolean columnar) {
+            this.columnarSendDecoding = columnar;
+            return this;
+        }
+
+        /**
+         * Set the {@link UplinkAdmissionController} used to reject Register, Update and Send requests with a 5.03
+         * response (with Max-Age option) or to drop notifications when server is overloaded.
+         * <p>
+         * By default, there is no admission control.
+         *
+         * @see RateLimitingAdmissionController
+         */
+        public Builder setAdmissionController(UplinkAdmissionController admissionController) {
+            this.admissionController = admissionController;
+            return this;
+        }
+
         protected Builder generateDefaultValue() {
             if (serverConfiguration == null) {
                 serverConfiguration = createDefaultConfiguration();
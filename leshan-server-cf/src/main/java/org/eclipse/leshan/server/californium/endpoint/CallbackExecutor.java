@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.californium.endpoint;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.leshan.core.util.NamedThreadFactory;
+import org.eclipse.leshan.core.util.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An executor used to decode responses/notifications and call user callbacks outside of Californium threads.
+ * <p>
+ * Tasks are dispatched on a fixed number of single thread executors (stripes) chosen using a key (generally the
+ * registration ID), so all tasks for a given key are executed in submission order while tasks for different keys can be
+ * executed concurrently.
+ * <p>
+ * The number of submitted tasks not yet executed is available via {@link #getOutstandingCallbacks()}.
+ */
+public class CallbackExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CallbackExecutor.class);
+
+    private final ExecutorService[] stripes;
+    private final AtomicInteger outstandingCallbacks = new AtomicInteger();
+
+    /**
+     * Create a {@link CallbackExecutor} with <code>nbThreads</code> threads named "Leshan Async Request callback#N".
+     */
+    public CallbackExecutor(int nbThreads) {
+        this(nbThreads, new NamedThreadFactory("Leshan Async Request callback#%d"));
+    }
+
+    /**
+     * Create a {@link CallbackExecutor} with <code>nbThreads</code> threads created by the given
+     * <code>threadFactory</code>.
+     * <p>
+     * Any {@link ThreadFactory} can be used, e.g. on recent JVM a virtual thread factory.
+     */
+    public CallbackExecutor(int nbThreads, ThreadFactory threadFactory) {
+        Validate.isTrue(nbThreads > 0, "number of threads must be greater than 0");
+        Validate.notNull(threadFactory);
+        stripes = new ExecutorService[nbThreads];
+        for (int i = 0; i < nbThreads; i++) {
+            stripes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * @return an {@link Executor} which executes tasks in submission order for the given key.
+     */
+    public Executor forKey(String key) {
+        final ExecutorService stripe = stripes[key == null ? 0 : Math.floorMod(key.hashCode(), stripes.length)];
+        return task -> {
+            outstandingCallbacks.incrementAndGet();
+            try {
+                stripe.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        LOG.warn("Uncaught exception during callback for {}", key, e);
+                    } finally {
+                        outstandingCallbacks.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                outstandingCallbacks.decrementAndGet();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * @return the number of callbacks submitted but not yet completed.
+     */
+    public int getOutstandingCallbacks() {
+        return outstandingCallbacks.get();
+    }
+
+    /**
+     * Stop all threads, waiting at most <code>timeout</code> for pending callbacks to be executed.
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService stripe : stripes) {
+            stripe.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            stripe.shutdownNow();
+        }
+    }
+}
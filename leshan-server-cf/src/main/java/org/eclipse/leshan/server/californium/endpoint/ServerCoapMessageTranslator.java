@@ -32,6 +32,7 @@ import org.eclipse.leshan.core.node.LwM2mNode;
 import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNode;
 import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.SingleObservation;
@@ -43,6 +44,7 @@ import org.eclipse.leshan.core.response.LwM2mResponse;
 import org.eclipse.leshan.core.response.ObserveCompositeResponse;
 import org.eclipse.leshan.core.response.ObserveResponse;
 import org.eclipse.leshan.core.util.Hex;
+import org.eclipse.leshan.server.admission.UplinkAdmissionController;
 import org.eclipse.leshan.server.californium.registration.RegisterResource;
 import org.eclipse.leshan.server.californium.request.CoapRequestBuilder;
 import org.eclipse.leshan.server.californium.request.LwM2mResponseBuilder;
@@ -57,6 +59,56 @@ public class ServerCoapMessageTranslator {
 
     private final Logger LOG = LoggerFactory.getLogger(ServerCoapMessageTranslator.class);
 
+    private final boolean lazyPayloadDecoding;
+    private final boolean lazyPayloadValidation;
+    private final boolean columnarSendDecoding;
+    private final UplinkAdmissionController admissionController;
+
+    public ServerCoapMessageTranslator() {
+        this(false, false, null);
+    }
+
+    /**
+     * @param lazyPayloadDecoding if <code>true</code> "Send" request and notification payloads are not decoded on
+     *        reception but only when a listener needs decoded value.
+     * @param lazyPayloadValidation if <code>true</code> payloads which should be decoded lazily are still decoded on
+     *        reception to validate them. Decoded value is kept so it will not be decoded again.
+     *
+     * @param admissionController used by created resources to reject uplink requests when server is overloaded, can be
+     *        <code>null</code>.
+     *
+     * @see LazyDecodedPayload
+     */
+    public ServerCoapMessageTranslator(boolean lazyPayloadDecoding, boolean lazyPayloadValidation,
+            UplinkAdmissionController admissionController) {
+        this(lazyPayloadDecoding, lazyPayloadValidation, false, admissionController);
+    }
+
+    /**
+     * @param lazyPayloadDecoding if <code>true</code> "Send" request and notification payloads are not decoded on
+     *        reception but only when a listener needs decoded value.
+     * @param lazyPayloadValidation if <code>true</code> payloads which should be decoded lazily are still decoded on
+     *        reception to validate them. Decoded value is kept so it will not be decoded again.
+     * @param columnarSendDecoding if <code>true</code> "Send" request payloads are decoded in columnar representation
+     *        when content format supports it.
+     * @param admissionController used by created resources to reject uplink requests when server is overloaded, can be
+     *        <code>null</code>.
+     *
+     * @see LazyDecodedPayload
+     * @see org.eclipse.leshan.server.send.ColumnarSendListener
+     */
+    public ServerCoapMessageTranslator(boolean lazyPayloadDecoding, boolean lazyPayloadValidation,
+            boolean columnarSendDecoding, UplinkAdmissionController admissionController) {
+        this.lazyPayloadDecoding = lazyPayloadDecoding;
+        this.lazyPayloadValidation = lazyPayloadValidation;
+        this.columnarSendDecoding = columnarSendDecoding;
+        this.admissionController = admissionController;
+    }
+
+    public boolean isLazyPayloadDecoding() {
+        return lazyPayloadDecoding;
+    }
+
     public Request createCoapRequest(ClientProfile clientProfile, DownlinkRequest<? extends LwM2mResponse> lwm2mRequest,
             ServerEndpointToolbox toolbox, IdentityHandler identityHandler) {
         CoapRequestBuilder builder = new CoapRequestBuilder(clientProfile.getIdentity(), clientProfile.getRootPath(),
@@ -78,9 +130,32 @@ public class ServerCoapMessageTranslator {
     public List<Resource> createResources(UplinkRequestReceiver receiver, ServerEndpointToolbox toolbox,
             IdentityHandlerProvider identityHandlerProvider) {
         return Arrays.asList( //
-                (Resource) new RegisterResource(receiver, toolbox.getLinkParser(), identityHandlerProvider), //
+                (Resource) new RegisterResource(receiver, toolbox.getLinkParser(), identityHandlerProvider,
+                        admissionController), //
                 (Resource) new SendResource(receiver, toolbox.getDecoder(), toolbox.getProfileProvider(),
-                        identityHandlerProvider));
+                        identityHandlerProvider, lazyPayloadDecoding, lazyPayloadValidation, columnarSendDecoding,
+                        admissionController));
+    }
+
+    /**
+     * Create a notification response which will only be decoded on demand using
+     * {@link #createObservation(Observation, Response, ServerEndpointToolbox, ClientProfile)}.
+     *
+     * @throws InvalidResponseException if payload validation is enabled and notification is invalid.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractLwM2mResponse> LazyDecodedPayload<T> createLazyObservation(Observation observation,
+            Response coapResponse, ServerEndpointToolbox toolbox, ClientProfile profile) {
+        ContentFormat contentFormat = null;
+        if (coapResponse.getOptions().hasContentFormat()) {
+            contentFormat = ContentFormat.fromCode(coapResponse.getOptions().getContentFormat());
+        }
+        LazyDecodedPayload<T> notification = new LazyDecodedPayload<>(coapResponse.getPayload(), contentFormat,
+                () -> (T) createObservation(observation, coapResponse, toolbox, profile));
+        if (lazyPayloadValidation) {
+            notification.getDecoded();
+        }
+        return notification;
     }
 
     public AbstractLwM2mResponse createObservation(Observation observation, Response coapResponse,
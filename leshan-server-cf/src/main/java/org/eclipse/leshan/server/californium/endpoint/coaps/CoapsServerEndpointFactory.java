@@ -15,12 +15,18 @@
  *******************************************************************************/
 package org.eclipse.leshan.server.californium.endpoint.coaps;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.security.Principal;
 import java.security.PublicKey;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import javax.security.auth.x500.X500Principal;
@@ -31,6 +37,8 @@ import org.eclipse.californium.core.config.CoapConfig;
 import org.eclipse.californium.core.config.CoapConfig.TrackerMode;
 import org.eclipse.californium.core.network.CoapEndpoint;
 import org.eclipse.californium.core.network.CoapEndpoint.Builder;
+import org.eclipse.californium.core.network.Endpoint;
+import org.eclipse.californium.core.network.EndpointObserver;
 import org.eclipse.californium.core.network.serialization.UdpDataParser;
 import org.eclipse.californium.core.network.serialization.UdpDataSerializer;
 import org.eclipse.californium.core.observe.ObservationStore;
@@ -41,6 +49,8 @@ import org.eclipse.californium.elements.EndpointContext;
 import org.eclipse.californium.elements.EndpointContextMatcher;
 import org.eclipse.californium.elements.MapBasedEndpointContext;
 import org.eclipse.californium.elements.MapBasedEndpointContext.Attributes;
+import org.eclipse.californium.elements.PersistentComponent;
+import org.eclipse.californium.elements.PersistentConnector;
 import org.eclipse.californium.elements.auth.PreSharedKeyIdentity;
 import org.eclipse.californium.elements.auth.RawPublicKeyIdentity;
 import org.eclipse.californium.elements.auth.X509CertPath;
@@ -48,6 +58,9 @@ import org.eclipse.californium.elements.config.Configuration;
 import org.eclipse.californium.elements.config.Configuration.ModuleDefinitionsProvider;
 import org.eclipse.californium.elements.config.SystemConfig;
 import org.eclipse.californium.elements.config.UdpConfig;
+import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache;
+import org.eclipse.californium.elements.util.PersistentComponentUtil;
 import org.eclipse.californium.scandium.DTLSConnector;
 import org.eclipse.californium.scandium.config.DtlsConfig;
 import org.eclipse.californium.scandium.config.DtlsConfig.DtlsRole;
@@ -70,10 +83,12 @@ import org.eclipse.leshan.core.util.X509CertUtil;
 import org.eclipse.leshan.server.LeshanServer;
 import org.eclipse.leshan.server.californium.ConnectionCleaner;
 import org.eclipse.leshan.server.californium.LwM2mPskStore;
+import org.eclipse.leshan.server.californium.LwM2mSessionStore;
 import org.eclipse.leshan.server.californium.endpoint.CaliforniumServerEndpointFactory;
 import org.eclipse.leshan.server.californium.observation.LwM2mObservationStore;
 import org.eclipse.leshan.server.californium.observation.ObservationSerDes;
 import org.eclipse.leshan.server.observation.LwM2mNotificationReceiver;
+import org.eclipse.leshan.server.security.DtlsStateStore;
 import org.eclipse.leshan.server.security.EditableSecurityStore;
 import org.eclipse.leshan.server.security.SecurityInfo;
 import org.eclipse.leshan.server.security.SecurityStore;
@@ -86,6 +101,11 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
 
     private static final Logger LOG = LoggerFactory.getLogger(CoapsServerEndpointFactory.class);
 
+    /**
+     * Connections without any traffic during this period are not persisted.
+     */
+    public static final long DEFAULT_DTLS_STATE_MAX_QUIET_PERIOD_IN_SEC = TimeUnit.DAYS.toSeconds(1);
+
     public static Protocol getSupportedProtocol() {
         return Protocol.COAPS;
     }
@@ -108,6 +128,7 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
     protected final Configuration configuration;
     protected final Consumer<DtlsConnectorConfig.Builder> dtlsConnectorConfigInitializer;
     protected final Consumer<CoapEndpoint.Builder> coapEndpointConfigInitializer;
+    protected final DtlsStateStore dtlsStateStore;
 
     public CoapsServerEndpointFactory(URI uri) {
         this(uri, null, null, null, null);
@@ -116,6 +137,17 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
     public CoapsServerEndpointFactory(URI uri, String loggingTagPrefix, Configuration configuration,
             Consumer<DtlsConnectorConfig.Builder> dtlsConnectorConfigInitializer,
             Consumer<Builder> coapEndpointConfigInitializer) {
+        this(uri, loggingTagPrefix, configuration, dtlsConnectorConfigInitializer, coapEndpointConfigInitializer, null);
+    }
+
+    /**
+     * @param dtlsStateStore a store used to share DTLS sessions and to save DTLS connections when endpoint is stopped
+     *        and restore them when endpoint is created. Connections are only saved on graceful stop, not on crash. Can
+     *        be <code>null</code>, in that case DTLS state is only kept in memory.
+     */
+    public CoapsServerEndpointFactory(URI uri, String loggingTagPrefix, Configuration configuration,
+            Consumer<DtlsConnectorConfig.Builder> dtlsConnectorConfigInitializer,
+            Consumer<Builder> coapEndpointConfigInitializer, DtlsStateStore dtlsStateStore) {
         EndpointUriUtil.validateURI(uri);
 
         this.endpointUri = uri;
@@ -123,6 +155,7 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
         this.configuration = configuration;
         this.dtlsConnectorConfigInitializer = dtlsConnectorConfigInitializer;
         this.coapEndpointConfigInitializer = coapEndpointConfigInitializer;
+        this.dtlsStateStore = dtlsStateStore;
     }
 
     @Override
@@ -181,9 +214,83 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
 
         // create DTLS connection cleaner
         createConnectionCleaner(server.getSecurityStore(), endpoint);
+
+        // restore previous DTLS connections and persist them each time endpoint is stopped
+        if (dtlsStateStore != null && endpoint.getConnector() instanceof PersistentConnector) {
+            final PersistentComponentUtil persistence = createDtlsStatePersistence(
+                    (PersistentConnector) endpoint.getConnector());
+            restoreDtlsConnections(persistence);
+            endpoint.addObserver(new EndpointObserver() {
+                @Override
+                public void started(Endpoint endpoint) {
+                }
+
+                @Override
+                public void stopped(Endpoint endpoint) {
+                    saveDtlsConnections(persistence);
+                }
+
+                @Override
+                public void destroyed(Endpoint endpoint) {
+                }
+            });
+        }
         return endpoint;
     }
 
+    /**
+     * @return the key used to identify this endpoint in {@link DtlsStateStore}. By default, the endpoint URI.
+     *         {@link DtlsStateStore} shared between several nodes is responsible to identify the node, as several nodes
+     *         generally use the same endpoint URI.
+     */
+    protected String getDtlsStateKey() {
+        return endpointUri.toString();
+    }
+
+    protected PersistentComponentUtil createDtlsStatePersistence(final PersistentConnector connector) {
+        PersistentComponentUtil persistence = new PersistentComponentUtil();
+        persistence.add(new PersistentComponent() {
+            @Override
+            public String getLabel() {
+                return "dtls";
+            }
+
+            @Override
+            public int save(OutputStream out, long maxQuietPeriodInSeconds) throws IOException {
+                return connector.saveConnections(out, maxQuietPeriodInSeconds);
+            }
+
+            @Override
+            public int load(InputStream in, long delta) throws IOException {
+                return connector.loadConnections(in, delta);
+            }
+        });
+        return persistence;
+    }
+
+    protected void restoreDtlsConnections(PersistentComponentUtil persistence) {
+        try {
+            byte[] connections = dtlsStateStore.loadConnections(getDtlsStateKey());
+            if (connections != null) {
+                int count = persistence.loadComponents(new ByteArrayInputStream(connections));
+                LOG.info("{} DTLS connection(s) restored for endpoint {}", count, endpointUri);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to restore DTLS connections for endpoint {}", endpointUri, e);
+        }
+    }
+
+    protected void saveDtlsConnections(PersistentComponentUtil persistence) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int count = persistence.saveComponents(out, DEFAULT_DTLS_STATE_MAX_QUIET_PERIOD_IN_SEC);
+            dtlsStateStore.saveConnections(getDtlsStateKey(), out.toByteArray());
+            LOG.info("{} DTLS connection(s) saved for endpoint {}", count, endpointUri);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to save DTLS connections for endpoint {}", endpointUri, e);
+        }
+    }
+
     protected DtlsConnectorConfig.Builder createDtlsConnectorConfigBuilder(Configuration endpointConfiguration) {
         DtlsConnectorConfig.Builder builder = new DtlsConnectorConfig.Builder(endpointConfiguration);
         if (dtlsConnectorConfigInitializer != null)
@@ -209,6 +316,15 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
             }
         }
 
+        // Handle Session Store
+        if (dtlsStateStore != null) {
+            if (incompleteConfig.getSessionStore() != null) {
+                LOG.warn("A SessionStore is already set, DTLS sessions will not be stored in DtlsStateStore.");
+            } else {
+                dtlsConfigBuilder.setSessionStore(new LwM2mSessionStore(dtlsStateStore));
+            }
+        }
+
         // Handle secure address
         if (incompleteConfig.getAddress() == null) {
             dtlsConfigBuilder.setAddress(address);
@@ -305,10 +421,48 @@ public class CoapsServerEndpointFactory implements CaliforniumServerEndpointFact
     public IdentityHandler createIdentityHandler() {
         return new IdentityHandler() {
 
+            // Identity derived from peer principal by DTLS session, to avoid to extract it again for each message.
+            private final LeastRecentlyUsedCache<Bytes, Identity> identities = new LeastRecentlyUsedCache<>();
+
             @Override
             public Identity getIdentity(Message receivedMessage) {
                 EndpointContext context = receivedMessage.getSourceContext();
                 InetSocketAddress peerAddress = context.getPeerAddress();
+                Bytes sessionId = context.get(DtlsEndpointContext.KEY_SESSION_ID);
+                if (sessionId == null || sessionId.isEmpty()) {
+                    return extractIdentity(context, peerAddress);
+                }
+
+                Identity cached;
+                synchronized (identities) {
+                    cached = identities.get(sessionId);
+                }
+                if (cached != null && cached.getPeerAddress().equals(peerAddress)) {
+                    return cached;
+                }
+
+                // address can change for a same session (e.g. using connection ID), reuse already extracted credential
+                Identity identity = cached != null ? changePeerAddress(cached, peerAddress)
+                        : extractIdentity(context, peerAddress);
+                if (identity != null) {
+                    synchronized (identities) {
+                        identities.put(sessionId, identity);
+                    }
+                }
+                return identity;
+            }
+
+            private Identity changePeerAddress(Identity identity, InetSocketAddress peerAddress) {
+                if (identity.isPSK()) {
+                    return Identity.psk(peerAddress, identity.getPskIdentity());
+                } else if (identity.isRPK()) {
+                    return Identity.rpk(peerAddress, identity.getRawPublicKey());
+                } else {
+                    return Identity.x509(peerAddress, identity.getX509CommonName());
+                }
+            }
+
+            private Identity extractIdentity(EndpointContext context, InetSocketAddress peerAddress) {
                 Principal senderIdentity = context.getPeerIdentity();
                 if (senderIdentity != null) {
                     if (senderIdentity instanceof PreSharedKeyIdentity) {
@@ -23,11 +23,13 @@ import org.eclipse.californium.elements.config.Configuration.ModuleDefinitionsPr
 import org.eclipse.californium.scandium.config.DtlsConnectorConfig;
 import org.eclipse.leshan.core.endpoint.Protocol;
 import org.eclipse.leshan.server.californium.endpoint.AbstractEndpointFactoryBuilder;
+import org.eclipse.leshan.server.security.DtlsStateStore;
 
 public class CoapsServerEndpointFactoryBuilder
         extends AbstractEndpointFactoryBuilder<CoapsServerEndpointFactoryBuilder, CoapsServerEndpointFactory> {
 
     protected Consumer<DtlsConnectorConfig.Builder> dtlsConnectorConfigInitializer;
+    protected DtlsStateStore dtlsStateStore;
 
     @Override
     protected Protocol getSupportedProtocol() {
@@ -51,9 +53,19 @@ public class CoapsServerEndpointFactoryBuilder
         return this;
     }
 
+    /**
+     * Set a store to share DTLS sessions between server nodes and persist DTLS connections across restarts.
+     *
+     * @see DtlsStateStore
+     */
+    public CoapsServerEndpointFactoryBuilder setDtlsStateStore(DtlsStateStore dtlsStateStore) {
+        this.dtlsStateStore = dtlsStateStore;
+        return this;
+    }
+
     @Override
     public CoapsServerEndpointFactory build() {
         return new CoapsServerEndpointFactory(uri, loggingTagPrefix, configuration, dtlsConnectorConfigInitializer,
-                coapEndpointConfigInitializer);
+                coapEndpointConfigInitializer, dtlsStateStore);
     }
 }
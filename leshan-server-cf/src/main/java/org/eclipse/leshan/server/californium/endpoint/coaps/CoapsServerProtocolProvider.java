@@ -28,10 +28,12 @@ import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
 import org.eclipse.leshan.core.endpoint.Protocol;
 import org.eclipse.leshan.server.californium.endpoint.CaliforniumServerEndpointFactory;
 import org.eclipse.leshan.server.californium.endpoint.ServerProtocolProvider;
+import org.eclipse.leshan.server.security.DtlsStateStore;
 
 public class CoapsServerProtocolProvider implements ServerProtocolProvider {
 
     protected Consumer<DtlsConnectorConfig.Builder> dtlsConnectorConfigInitializer;
+    protected DtlsStateStore dtlsStateStore;
 
     public CoapsServerProtocolProvider() {
     }
@@ -40,6 +42,12 @@ public class CoapsServerProtocolProvider implements ServerProtocolProvider {
         this.dtlsConnectorConfigInitializer = dtlsConnectorConfigInitializer;
     }
 
+    public CoapsServerProtocolProvider(Consumer<DtlsConnectorConfig.Builder> dtlsConnectorConfigInitializer,
+            DtlsStateStore dtlsStateStore) {
+        this.dtlsConnectorConfigInitializer = dtlsConnectorConfigInitializer;
+        this.dtlsStateStore = dtlsStateStore;
+    }
+
     @Override
     public Protocol getProtocol() {
         return CoapsServerEndpointFactory.getSupportedProtocol();
@@ -58,7 +66,7 @@ public class CoapsServerProtocolProvider implements ServerProtocolProvider {
     @Override
     public CaliforniumServerEndpointFactory createDefaultEndpointFactory(URI uri) {
         return new CoapsServerEndpointFactoryBuilder().setURI(uri)
-                .setDtlsConnectorConfig(dtlsConnectorConfigInitializer).build();
+                .setDtlsConnectorConfig(dtlsConnectorConfigInitializer).setDtlsStateStore(dtlsStateStore).build();
     }
 
     @Override
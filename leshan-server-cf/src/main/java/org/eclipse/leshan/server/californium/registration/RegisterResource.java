@@ -42,6 +42,8 @@ import org.eclipse.leshan.core.response.DeregisterResponse;
 import org.eclipse.leshan.core.response.RegisterResponse;
 import org.eclipse.leshan.core.response.SendableResponse;
 import org.eclipse.leshan.core.response.UpdateResponse;
+import org.eclipse.leshan.server.admission.UplinkAdmissionController;
+import org.eclipse.leshan.server.californium.request.AdmissionUtil;
 import org.eclipse.leshan.server.registration.RegistrationService;
 import org.eclipse.leshan.server.request.UplinkRequestReceiver;
 import org.slf4j.Logger;
@@ -74,13 +76,24 @@ public class RegisterResource extends LwM2mCoapResource {
 
     private final UplinkRequestReceiver receiver;
     private final LinkParser linkParser;
+    private final UplinkAdmissionController admissionController;
 
     public RegisterResource(UplinkRequestReceiver receiver, LinkParser linkParser,
             IdentityHandlerProvider identityHandlerProvider) {
+        this(receiver, linkParser, identityHandlerProvider, null);
+    }
+
+    /**
+     * @param admissionController used to reject Register and Update requests when server is overloaded, can be
+     *        <code>null</code>. Deregister requests are never rejected.
+     */
+    public RegisterResource(UplinkRequestReceiver receiver, LinkParser linkParser,
+            IdentityHandlerProvider identityHandlerProvider, UplinkAdmissionController admissionController) {
         super(RESOURCE_NAME, identityHandlerProvider);
 
         this.receiver = receiver;
         this.linkParser = linkParser;
+        this.admissionController = admissionController;
         getAttributes().addResourceType("core.rd");
     }
 
@@ -131,6 +144,13 @@ public class RegisterResource extends LwM2mCoapResource {
         // --------------------------------
         Identity sender = getForeignPeerIdentity(exchange.advanced(), request);
 
+        // Check server can handle it
+        // --------------------------------
+        if (AdmissionUtil.rejectIfNotAdmitted(admissionController, exchange, sender, getEndpointName(request),
+                RegisterRequest.class)) {
+            return;
+        }
+
         // Create LwM2m request from CoAP request
         // --------------------------------
         // We don't check content media type is APPLICATION LINK FORMAT for now as this is the only format we can expect
@@ -200,6 +220,11 @@ public class RegisterResource extends LwM2mCoapResource {
         // Get identity
         Identity sender = getForeignPeerIdentity(exchange.advanced(), request);
 
+        // Check server can handle it
+        if (AdmissionUtil.rejectIfNotAdmitted(admissionController, exchange, sender, null, UpdateRequest.class)) {
+            return;
+        }
+
         // Create LwM2m request from CoAP request
         Long lifetime = null;
         String smsNumber = null;
@@ -269,6 +294,15 @@ public class RegisterResource extends LwM2mCoapResource {
         sendableResponse.sent();
     }
 
+    private String getEndpointName(Request request) {
+        for (String param : request.getOptions().getUriQuery()) {
+            if (param.startsWith(QUERY_PARAM_ENDPOINT)) {
+                return param.substring(3);
+            }
+        }
+        return null;
+    }
+
     /*
      * Override the default behavior so that requests to sub resources (typically /rd/{client-reg-id}) are handled by
      * /rd resource.
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.californium.request;
+
+import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.server.resources.CoapExchange;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.server.admission.Admission;
+import org.eclipse.leshan.server.admission.UplinkAdmissionController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility used by server CoAP resources to apply {@link UplinkAdmissionController} decision.
+ */
+public class AdmissionUtil {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionUtil.class);
+
+    /**
+     * Check if request can be handled and if not, respond with a 5.03 Service Unavailable response using Max-Age option
+     * to tell to client when it can retry.
+     *
+     * @return <code>true</code> if request was rejected and so response is already sent.
+     */
+    public static boolean rejectIfNotAdmitted(UplinkAdmissionController admissionController, CoapExchange exchange,
+            Identity sender, String endpointName, Class<?> requestType) {
+        if (admissionController == null) {
+            return false;
+        }
+        Admission admission = admissionController.admit(sender, endpointName, requestType);
+        if (admission.isAccepted()) {
+            return false;
+        }
+
+        LOG.debug("{} from {} rejected : {}", requestType.getSimpleName(), sender, admission);
+        Response response = new Response(ResponseCode.SERVICE_UNAVAILABLE);
+        response.getOptions().setMaxAge(admission.getRetryAfterInSec());
+        if (admission.getReason() != null) {
+            response.setPayload(admission.getReason());
+        }
+        exchange.respond(response);
+        return true;
+    }
+}
@@ -22,8 +22,11 @@ import org.eclipse.californium.core.coap.Request;
 import org.eclipse.californium.core.server.resources.CoapExchange;
 import org.eclipse.leshan.core.californium.LwM2mCoapResource;
 import org.eclipse.leshan.core.californium.identity.IdentityHandlerProvider;
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.node.codec.LwM2mDecoder;
 import org.eclipse.leshan.core.request.ContentFormat;
 import org.eclipse.leshan.core.request.Identity;
@@ -31,6 +34,8 @@ import org.eclipse.leshan.core.request.SendRequest;
 import org.eclipse.leshan.core.request.exception.InvalidRequestException;
 import org.eclipse.leshan.core.response.SendResponse;
 import org.eclipse.leshan.core.response.SendableResponse;
+import org.eclipse.leshan.server.admission.UplinkAdmissionController;
+import org.eclipse.leshan.server.californium.request.AdmissionUtil;
 import org.eclipse.leshan.server.profile.ClientProfile;
 import org.eclipse.leshan.server.profile.ClientProfileProvider;
 import org.eclipse.leshan.server.request.UplinkRequestReceiver;
@@ -44,13 +49,48 @@ public class SendResource extends LwM2mCoapResource {
     private final LwM2mDecoder decoder;
     private final UplinkRequestReceiver receiver;
     private final ClientProfileProvider profileProvider;
+    private final boolean lazyDecoding;
+    private final boolean lazyValidation;
+    private final boolean columnarDecoding;
+    private final UplinkAdmissionController admissionController;
 
     public SendResource(UplinkRequestReceiver receiver, LwM2mDecoder decoder, ClientProfileProvider profileProvider,
             IdentityHandlerProvider identityHandlerProvider) {
+        this(receiver, decoder, profileProvider, identityHandlerProvider, false, false, null);
+    }
+
+    /**
+     * @param lazyDecoding if <code>true</code> payload is not decoded on reception, see
+     *        {@link SendRequest#getRawPayload()}
+     * @param lazyValidation if <code>true</code> lazily decoded payload is still decoded on reception to be validated.
+     * @param admissionController used to reject Send requests when server is overloaded, can be <code>null</code>.
+     */
+    public SendResource(UplinkRequestReceiver receiver, LwM2mDecoder decoder, ClientProfileProvider profileProvider,
+            IdentityHandlerProvider identityHandlerProvider, boolean lazyDecoding, boolean lazyValidation,
+            UplinkAdmissionController admissionController) {
+        this(receiver, decoder, profileProvider, identityHandlerProvider, lazyDecoding, lazyValidation, false,
+                admissionController);
+    }
+
+    /**
+     * @param lazyDecoding if <code>true</code> payload is not decoded on reception, see
+     *        {@link SendRequest#getRawPayload()}
+     * @param lazyValidation if <code>true</code> lazily decoded payload is still decoded on reception to be validated.
+     * @param columnarDecoding if <code>true</code> payload is decoded in columnar representation when content format
+     *        supports it, see {@link SendRequest#getColumnarTimestampedNodes()}
+     * @param admissionController used to reject Send requests when server is overloaded, can be <code>null</code>.
+     */
+    public SendResource(UplinkRequestReceiver receiver, LwM2mDecoder decoder, ClientProfileProvider profileProvider,
+            IdentityHandlerProvider identityHandlerProvider, boolean lazyDecoding, boolean lazyValidation,
+            boolean columnarDecoding, UplinkAdmissionController admissionController) {
         super("dp", identityHandlerProvider);
         this.decoder = decoder;
         this.receiver = receiver;
         this.profileProvider = profileProvider;
+        this.lazyDecoding = lazyDecoding;
+        this.lazyValidation = lazyValidation;
+        this.columnarDecoding = columnarDecoding;
+        this.admissionController = admissionController;
     }
 
     @Override
@@ -65,6 +105,12 @@ public class SendResource extends LwM2mCoapResource {
             return;
         }
 
+        // check server can handle it
+        if (AdmissionUtil.rejectIfNotAdmitted(admissionController, exchange, sender, clientProfile.getEndpoint(),
+                SendRequest.class)) {
+            return;
+        }
+
         try {
             // Decode payload
             byte[] payload = exchange.getRequestPayload();
@@ -78,11 +124,9 @@ public class SendResource extends LwM2mCoapResource {
                 return;
             }
 
-            TimestampedLwM2mNodes data = decoder.decodeTimestampedNodes(payload, contentFormat,
-                    clientProfile.getModel());
+            SendRequest sendRequest = decodeSendRequest(payload, contentFormat, clientProfile, coapRequest);
 
             // Handle "send op request
-            SendRequest sendRequest = new SendRequest(contentFormat, data, coapRequest);
             SendableResponse<SendResponse> sendableResponse = receiver.requestReceived(sender, clientProfile,
                     sendRequest, exchange.advanced().getEndpoint().getUri());
             SendResponse response = sendableResponse.getResponse();
@@ -97,7 +141,7 @@ public class SendResource extends LwM2mCoapResource {
                 sendableResponse.sent();
                 return;
             }
-        } catch (CodecException e) {
+        } catch (CodecException | InvalidRequestException e) {
             exchange.respond(ResponseCode.BAD_REQUEST, "Invalid Payload");
             receiver.onError(sender, clientProfile,
                     new InvalidRequestException(e, "Invalid payload in [%s] from [%s]", coapRequest, sender),
@@ -108,4 +152,34 @@ public class SendResource extends LwM2mCoapResource {
             throw e;
         }
     }
+
+    /**
+     * Decode payload as {@link TimestampedLwM2mNodes}, unless lazy decoding is enabled or columnar decoding is enabled
+     * and supported by content format. In this last case, {@link TimestampedLwM2mNodes} is only created if a listener
+     * needs it.
+     */
+    protected SendRequest decodeSendRequest(byte[] payload, ContentFormat contentFormat, ClientProfile clientProfile,
+            Request coapRequest) throws CodecException {
+        if (lazyDecoding) {
+            LwM2mModel model = clientProfile.getModel();
+            SendRequest sendRequest = new SendRequest(new LazyDecodedPayload<>(payload, contentFormat,
+                    () -> decoder.decodeTimestampedNodes(payload, contentFormat, model)), coapRequest);
+            if (lazyValidation) {
+                // decode now, result is kept in request.
+                sendRequest.getTimestampedNodes();
+            }
+            return sendRequest;
+        }
+        if (columnarDecoding && decoder.isColumnarSupported(contentFormat)) {
+            ColumnarTimestampedLwM2mNodes data = decoder.decodeColumnarTimestampedNodes(payload, contentFormat,
+                    clientProfile.getModel());
+            if (data.isEmpty()) {
+                // let SendRequest raise the right error for empty payload.
+                return new SendRequest(contentFormat, data.toTimestampedLwM2mNodes(), coapRequest);
+            }
+            return new SendRequest(contentFormat, data, coapRequest);
+        }
+        TimestampedLwM2mNodes data = decoder.decodeTimestampedNodes(payload, contentFormat, clientProfile.getModel());
+        return new SendRequest(contentFormat, data, coapRequest);
+    }
 }
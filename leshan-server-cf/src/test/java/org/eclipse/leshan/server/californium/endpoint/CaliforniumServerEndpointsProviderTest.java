@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.californium.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.californium.core.CoapResource;
+import org.eclipse.californium.core.CoapServer;
+import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.MediaTypeRegistry;
+import org.eclipse.californium.core.network.CoapEndpoint;
+import org.eclipse.californium.core.server.resources.CoapExchange;
+import org.eclipse.leshan.core.endpoint.Protocol;
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.node.LwM2mNode;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.DefaultLwM2mDecoder;
+import org.eclipse.leshan.core.request.BindingMode;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.request.ReadRequest;
+import org.eclipse.leshan.core.response.ReadResponse;
+import org.eclipse.leshan.server.LeshanServer;
+import org.eclipse.leshan.server.LeshanServerBuilder;
+import org.eclipse.leshan.server.registration.Registration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CaliforniumServerEndpointsProviderTest {
+
+    private static final String CALLBACK_THREAD = "Leshan Async Request callback";
+
+    private CoapServer device;
+    private CaliforniumServerEndpointsProvider endpointsProvider;
+    private LeshanServer server;
+    private final AtomicReference<String> decodingThread = new AtomicReference<>();
+
+    @BeforeEach
+    public void start() {
+        // a fake device which answers to read on /3/0/0
+        device = new CoapServer();
+        device.addEndpoint(CoapEndpoint.builder()
+                .setInetSocketAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).build());
+        CoapResource resource = new CoapResource("0") {
+            @Override
+            public void handleGET(CoapExchange exchange) {
+                exchange.respond(ResponseCode.CONTENT, "Leshan", MediaTypeRegistry.TEXT_PLAIN);
+            }
+        };
+        device.add(new CoapResource("3").add(new CoapResource("0").add(resource)));
+        device.start();
+
+        CaliforniumServerEndpointsProvider.Builder builder = new CaliforniumServerEndpointsProvider.Builder();
+        builder.addEndpoint(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Protocol.COAP);
+        builder.setCallbackExecutor(new CallbackExecutor(2));
+        endpointsProvider = builder.build();
+
+        server = new LeshanServerBuilder().setEndpointsProvider(endpointsProvider)
+                .setDecoder(new DefaultLwM2mDecoder() {
+                    @Override
+                    public <T extends LwM2mNode> T decode(byte[] content, ContentFormat format, LwM2mPath path,
+                            LwM2mModel model, Class<T> nodeClass) throws CodecException {
+                        decodingThread.set(Thread.currentThread().getName());
+                        return super.decode(content, format, path, model, nodeClass);
+                    }
+                }).build();
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.destroy();
+        device.destroy();
+    }
+
+    private Registration registrationFor(InetSocketAddress address) {
+        return new Registration.Builder("regid", "endpoint", Identity.unsecure(address),
+                server.getEndpoint(Protocol.COAP).getURI()).bindingMode(EnumSet.of(BindingMode.U)).build();
+    }
+
+    private void waitForNoOutstandingCallbacks() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (endpointsProvider.getOutstandingCallbacks() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, endpointsProvider.getOutstandingCallbacks());
+    }
+
+    @Test
+    public void response_is_decoded_and_callback_called_off_californium_threads() throws InterruptedException {
+        Registration registration = registrationFor(device.getEndpoints().get(0).getAddress());
+
+        CountDownLatch called = new CountDownLatch(1);
+        AtomicReference<String> callbackThread = new AtomicReference<>();
+        AtomicReference<ReadResponse> received = new AtomicReference<>();
+        server.send(registration, new ReadRequest(ContentFormat.TEXT, 3, 0, 0), 2000, response -> {
+            callbackThread.set(Thread.currentThread().getName());
+            received.set(response);
+            called.countDown();
+        }, e -> called.countDown());
+
+        assertTrue(called.await(2, TimeUnit.SECONDS), "callback should have been called");
+        assertNotNull(received.get());
+        assertTrue(received.get().isSuccess());
+        assertTrue(decodingThread.get().startsWith(CALLBACK_THREAD),
+                "response should be decoded by callback executor but was by " + decodingThread.get());
+        assertTrue(callbackThread.get().startsWith(CALLBACK_THREAD),
+                "callback should be called by callback executor but was by " + callbackThread.get());
+        waitForNoOutstandingCallbacks();
+    }
+
+    @Test
+    public void timeout_callback_is_called_off_timer_thread() throws InterruptedException {
+        // device which never answers
+        device.stop();
+        Registration registration = registrationFor(device.getEndpoints().get(0).getAddress());
+
+        CountDownLatch called = new CountDownLatch(1);
+        AtomicReference<String> errorThread = new AtomicReference<>();
+        server.send(registration, new ReadRequest(ContentFormat.TEXT, 3, 0, 0), 200, response -> called.countDown(),
+                e -> {
+                    errorThread.set(Thread.currentThread().getName());
+                    called.countDown();
+                });
+
+        assertTrue(called.await(2, TimeUnit.SECONDS), "error callback should have been called");
+        assertTrue(errorThread.get().startsWith(CALLBACK_THREAD),
+                "error callback should be called by callback executor but was by " + errorThread.get());
+        waitForNoOutstandingCallbacks();
+    }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.californium.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class CallbackExecutorTest {
+
+    @Test
+    public void callbacks_for_same_key_are_executed_in_order() throws InterruptedException {
+        CallbackExecutor callbackExecutor = new CallbackExecutor(4);
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+        Executor executor = callbackExecutor.forKey("regid");
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            expected.add(value);
+            executor.execute(() -> executed.add(value));
+        }
+        assertEquals(101, callbackExecutor.getOutstandingCallbacks());
+
+        blocker.countDown();
+        callbackExecutor.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(expected, executed);
+        assertEquals(0, callbackExecutor.getOutstandingCallbacks());
+    }
+}
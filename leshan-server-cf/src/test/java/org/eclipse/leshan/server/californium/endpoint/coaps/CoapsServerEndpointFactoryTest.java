@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.californium.endpoint.coaps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.eclipse.californium.core.coap.Request;
+import org.eclipse.californium.elements.DtlsEndpointContext;
+import org.eclipse.californium.elements.auth.PreSharedKeyIdentity;
+import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.scandium.dtls.SessionId;
+import org.eclipse.leshan.core.californium.identity.IdentityHandler;
+import org.eclipse.leshan.core.request.Identity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CoapsServerEndpointFactoryTest {
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 5684);
+    private static final InetSocketAddress OTHER_ADDRESS = new InetSocketAddress("127.0.0.1", 5685);
+
+    private IdentityHandler identityHandler;
+
+    @BeforeEach
+    public void createIdentityHandler() {
+        identityHandler = new CoapsServerEndpointFactory(URI.create("coaps://localhost:5684")).createIdentityHandler();
+    }
+
+    private static Request receivedRequest(InetSocketAddress peerAddress, Principal principal, Bytes sessionId) {
+        Request request = Request.newPost();
+        request.setSourceContext(new DtlsEndpointContext(peerAddress, null, principal, sessionId, 1,
+                "TLS_PSK_WITH_AES_128_CCM_8", System.currentTimeMillis()));
+        return request;
+    }
+
+    @Test
+    public void identity_is_reused_for_same_dtls_session() {
+        SessionId sessionId = new SessionId(new byte[] { 1, 2, 3, 4 });
+
+        Identity first = identityHandler
+                .getIdentity(receivedRequest(ADDRESS, new PreSharedKeyIdentity("client1"), sessionId));
+        Identity second = identityHandler
+                .getIdentity(receivedRequest(ADDRESS, new PreSharedKeyIdentity("client1"), sessionId));
+
+        assertTrue(first.isPSK());
+        assertEquals("client1", first.getPskIdentity());
+        assertSame(first, second);
+    }
+
+    @Test
+    public void identity_is_rebuilt_when_address_changes_in_same_dtls_session() {
+        SessionId sessionId = new SessionId(new byte[] { 1, 2, 3, 4 });
+        X500Principal principal = new X500Principal("CN=client1, O=Leshan");
+
+        Identity first = identityHandler.getIdentity(receivedRequest(ADDRESS, principal, sessionId));
+        Identity moved = identityHandler.getIdentity(receivedRequest(OTHER_ADDRESS, principal, sessionId));
+
+        assertNotSame(first, moved);
+        assertEquals(OTHER_ADDRESS, moved.getPeerAddress());
+        assertTrue(moved.isX509());
+        assertEquals("client1", moved.getX509CommonName());
+        assertEquals(Identity.x509(OTHER_ADDRESS, "client1"), moved);
+
+        // new address is now the cached one
+        assertSame(moved, identityHandler.getIdentity(receivedRequest(OTHER_ADDRESS, principal, sessionId)));
+    }
+
+    @Test
+    public void identity_is_not_shared_between_dtls_sessions() {
+        Identity first = identityHandler.getIdentity(receivedRequest(ADDRESS, new PreSharedKeyIdentity("client1"),
+                new SessionId(new byte[] { 1, 2, 3, 4 })));
+        Identity other = identityHandler.getIdentity(receivedRequest(ADDRESS, new PreSharedKeyIdentity("client2"),
+                new SessionId(new byte[] { 5, 6, 7, 8 })));
+
+        assertEquals("client1", first.getPskIdentity());
+        assertEquals("client2", other.getPskIdentity());
+    }
+}
@@ -47,6 +47,7 @@ import org.eclipse.leshan.server.endpoint.ServerEndpointToolbox;
 import org.eclipse.leshan.server.model.LwM2mModelProvider;
 import org.eclipse.leshan.server.observation.ObservationService;
 import org.eclipse.leshan.server.observation.ObservationServiceImpl;
+import org.eclipse.leshan.server.observation.SharedObservationService;
 import org.eclipse.leshan.server.profile.DefaultClientProfileProvider;
 import org.eclipse.leshan.server.queue.ClientAwakeTimeProvider;
 import org.eclipse.leshan.server.queue.PresenceListener;
@@ -97,6 +98,7 @@ public class LeshanServer {
     private final LwM2mServerEndpointsProvider endpointsProvider;
 
     private final ObservationServiceImpl observationService;
+    private final SharedObservationService sharedObservationService;
     private final SecurityStore securityStore;
     private final LwM2mModelProvider modelProvider;
     private PresenceServiceImpl presenceService;
@@ -165,7 +167,7 @@ public class LeshanServer {
         // create request sender
         requestSender = createRequestSender(endpointsProvider, registrationService, this.modelProvider,
                 presenceService);
-
+        sharedObservationService = createSharedObservationService(requestSender, observationService);
     }
 
     protected RegistrationServiceImpl createRegistrationService(RegistrationStore registrationStore) {
@@ -180,6 +182,14 @@ public class LeshanServer {
         return observationService;
     }
 
+    protected SharedObservationService createSharedObservationService(DownlinkRequestSender requestSender,
+            ObservationServiceImpl observationService) {
+        SharedObservationService sharedObservationService = new SharedObservationService(requestSender,
+                observationService, DEFAULT_TIMEOUT);
+        observationService.addListener(sharedObservationService);
+        return sharedObservationService;
+    }
+
     protected PresenceServiceImpl createPresenceService(RegistrationService registrationService,
             ClientAwakeTimeProvider awakeTimeProvider, boolean updateRegistrationOnNotification) {
         PresenceServiceImpl presenceService = new PresenceServiceImpl(awakeTimeProvider);
@@ -338,6 +348,14 @@ public class LeshanServer {
         return this.observationService;
     }
 
+    /**
+     * Get the {@link SharedObservationService} to observe resources without creating a new observation when an
+     * equivalent one is already used by another part of the application.
+     */
+    public SharedObservationService getSharedObservationService() {
+        return this.sharedObservationService;
+    }
+
     /**
      * Get the {@link SendService} which can be used to listen data received from LWM2M client which are using
      * {@link SendRequest}.
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.admission;
+
+/**
+ * Result of {@link UplinkAdmissionController#admit(org.eclipse.leshan.core.request.Identity, String, Class)}.
+ */
+public class Admission {
+
+    public static final Admission ACCEPTED = new Admission(true, 0, null);
+
+    private final boolean accepted;
+    private final long retryAfterInSec;
+    private final String reason;
+
+    protected Admission(boolean accepted, long retryAfterInSec, String reason) {
+        this.accepted = accepted;
+        this.retryAfterInSec = retryAfterInSec;
+        this.reason = reason;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return the delay in seconds after which client should retry (used as CoAP Max-Age of 5.03 response).
+     */
+    public long getRetryAfterInSec() {
+        return retryAfterInSec;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public static Admission reject(long retryAfterInSec, String reason) {
+        return new Admission(false, retryAfterInSec, reason);
+    }
+
+    @Override
+    public String toString() {
+        if (accepted)
+            return "Admission [accepted]";
+        return String.format("Admission [rejected, retryAfter=%ds, reason=%s]", retryAfterInSec, reason);
+    }
+}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.admission;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.util.Validate;
+
+/**
+ * An {@link UplinkAdmissionController} based on token buckets and queue depths.
+ * <p>
+ * A message is rejected if :
+ * <ol>
+ * <li>one of the monitored queues (e.g. store or dispatch queues) reached its limit (load shedding),</li>
+ * <li>or there is no more token in the bucket of the sender identity,</li>
+ * <li>or there is no more token in the bucket of the client endpoint name,</li>
+ * <li>or there is no more token in the global bucket.</li>
+ * </ol>
+ * Device buckets are checked before the global one, so a misbehaving device does not consume global tokens. Tokens
+ * taken from device buckets are given back if the message is finally rejected by the global bucket.
+ * <p>
+ * At most <code>maxTrackedDevices</code> buckets are kept by kind (identity or endpoint), least recently used ones are
+ * evicted first. Buckets are split in lock stripes by key, so eviction order is only maintained by stripe and devices
+ * sending messages concurrently do not contend on a single lock.
+ * <p>
+ * When a message is rejected, retry delay is computed from the time needed to refill the bucket. For load shedding, a
+ * random jitter is added to the configured delay to avoid all clients retrying at the same time.
+ */
+public class RateLimitingAdmissionController implements UplinkAdmissionController {
+
+    private final TokenBucket globalBucket;
+    private final BucketConfig endpointConfig;
+    private final BucketConfig identityConfig;
+    private final StripedBuckets<String> endpointBuckets;
+    private final StripedBuckets<Object> identityBuckets;
+    private final List<QueueLimit> queueLimits;
+    private final long sheddingRetryAfterInSec;
+
+    protected RateLimitingAdmissionController(Builder builder) {
+        this.globalBucket = builder.globalConfig != null
+                ? new TokenBucket(builder.globalConfig.capacity, builder.globalConfig.tokensPerSecond)
+                : null;
+        this.endpointConfig = builder.endpointConfig;
+        this.identityConfig = builder.identityConfig;
+        this.endpointBuckets = new StripedBuckets<>(builder.maxTrackedDevices);
+        this.identityBuckets = new StripedBuckets<>(builder.maxTrackedDevices);
+        this.queueLimits = new ArrayList<>(builder.queueLimits);
+        this.sheddingRetryAfterInSec = builder.sheddingRetryAfterInSec;
+    }
+
+    @Override
+    public Admission admit(Identity sender, String endpointName, Class<?> messageType) {
+        // load shedding
+        for (QueueLimit queueLimit : queueLimits) {
+            if (queueLimit.depth.getAsInt() >= queueLimit.maxDepth) {
+                long jitter = ThreadLocalRandom.current().nextLong(sheddingRetryAfterInSec / 2 + 1);
+                return Admission.reject(sheddingRetryAfterInSec + jitter,
+                        String.format("Server overloaded : %s queue is full", queueLimit.name));
+            }
+        }
+
+        // per device rate limiting
+        TokenBucket identityBucket = null;
+        if (identityConfig != null && sender != null) {
+            identityBucket = identityBuckets.get(getIdentityKey(sender), identityConfig);
+            long delay = identityBucket.tryAcquire();
+            if (delay > 0) {
+                return Admission.reject(toSeconds(delay), "Too many requests for this identity");
+            }
+        }
+        TokenBucket endpointBucket = null;
+        if (endpointConfig != null && endpointName != null) {
+            endpointBucket = endpointBuckets.get(endpointName, endpointConfig);
+            long delay = endpointBucket.tryAcquire();
+            if (delay > 0) {
+                refund(identityBucket);
+                return Admission.reject(toSeconds(delay), "Too many requests for this endpoint");
+            }
+        }
+
+        // global rate limiting
+        if (globalBucket != null) {
+            long delay = globalBucket.tryAcquire();
+            if (delay > 0) {
+                // message is not admitted, so device should not be charged for it
+                refund(identityBucket);
+                refund(endpointBucket);
+                return Admission.reject(toSeconds(delay), "Too many requests");
+            }
+        }
+        return Admission.ACCEPTED;
+    }
+
+    private void refund(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    /**
+     * LRU maps of buckets, split in stripes each guarded by its own lock.
+     */
+    private static class StripedBuckets<K> {
+        private static final int MAX_STRIPES = 64;
+        private static final int MIN_STRIPE_SIZE = 1024;
+
+        private final Map<K, TokenBucket>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        public StripedBuckets(int maxSize) {
+            // small maps are not split, so LRU eviction stays exact
+            int nbStripes = Math.max(1, Math.min(MAX_STRIPES, maxSize / MIN_STRIPE_SIZE));
+            int maxSizeByStripe = (maxSize + nbStripes - 1) / nbStripes;
+            stripes = new Map[nbStripes];
+            for (int i = 0; i < nbStripes; i++) {
+                stripes[i] = new LinkedHashMap<K, TokenBucket>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Entry<K, TokenBucket> eldest) {
+                        return size() > maxSizeByStripe;
+                    }
+                };
+            }
+        }
+
+        public TokenBucket get(K key, BucketConfig config) {
+            Map<K, TokenBucket> buckets = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+            synchronized (buckets) {
+                TokenBucket bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new TokenBucket(config.capacity, config.tokensPerSecond);
+                    buckets.put(key, bucket);
+                }
+                return bucket;
+            }
+        }
+    }
+
+    /**
+     * @return the key identifying the sender credentials (or IP address for unsecured device).
+     */
+    protected Object getIdentityKey(Identity identity) {
+        if (identity.isPSK()) {
+            return "psk:" + identity.getPskIdentity();
+        } else if (identity.isRPK()) {
+            return identity.getRawPublicKey();
+        } else if (identity.isX509()) {
+            return "x509:" + identity.getX509CommonName();
+        } else if (identity.isOSCORE()) {
+            return identity.getOscoreIdentity();
+        } else {
+            return identity.getPeerAddress().getAddress();
+        }
+    }
+
+    private long toSeconds(long delayInNanos) {
+        return Math.max(1, (long) Math.ceil(delayInNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private static class BucketConfig {
+        private final long capacity;
+        private final double tokensPerSecond;
+
+        public BucketConfig(long capacity, double tokensPerSecond) {
+            Validate.isTrue(capacity > 0, "capacity must be greater than 0");
+            Validate.isTrue(tokensPerSecond > 0, "tokensPerSecond must be greater than 0");
+            this.capacity = capacity;
+            this.tokensPerSecond = tokensPerSecond;
+        }
+    }
+
+    private static class QueueLimit {
+        private final String name;
+        private final IntSupplier depth;
+        private final int maxDepth;
+
+        public QueueLimit(String name, IntSupplier depth, int maxDepth) {
+            this.name = name;
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+        }
+    }
+
+    public static class Builder {
+
+        private BucketConfig globalConfig;
+        private BucketConfig endpointConfig;
+        private BucketConfig identityConfig;
+        private int maxTrackedDevices = 100000;
+        private final List<QueueLimit> queueLimits = new ArrayList<>();
+        private long sheddingRetryAfterInSec = 30;
+
+        /**
+         * Limit the number of messages accepted for the whole server.
+         *
+         * @param burst the number of messages which can be accepted at once.
+         * @param messagesPerSecond the sustained rate.
+         */
+        public Builder setGlobalRate(long burst, double messagesPerSecond) {
+            this.globalConfig = new BucketConfig(burst, messagesPerSecond);
+            return this;
+        }
+
+        /**
+         * Limit the number of messages accepted by client endpoint name.
+         */
+        public Builder setEndpointRate(long burst, double messagesPerSecond) {
+            this.endpointConfig = new BucketConfig(burst, messagesPerSecond);
+            return this;
+        }
+
+        /**
+         * Limit the number of messages accepted by client identity (PSK identity, public key, certificate common name,
+         * OSCORE identity or IP address for unsecured client).
+         */
+        public Builder setIdentityRate(long burst, double messagesPerSecond) {
+            this.identityConfig = new BucketConfig(burst, messagesPerSecond);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of endpoint or identity buckets, least recently used buckets are removed first.
+         * Default is 100000.
+         */
+        public Builder setMaxTrackedDevices(int maxTrackedDevices) {
+            Validate.isTrue(maxTrackedDevices > 0, "maxTrackedDevices must be greater than 0");
+            this.maxTrackedDevices = maxTrackedDevices;
+            return this;
+        }
+
+        /**
+         * Reject all messages while the given queue depth is greater or equal to <code>maxDepth</code>.
+         * <p>
+         * e.g. {@code addQueueLimit("callbacks", endpointsProvider::getOutstandingCallbacks, 10000)}
+         *
+         * @param name the queue name used in rejection reason.
+         * @param depth supplier of the current queue depth, called for each message so it MUST be fast.
+         * @param maxDepth the depth from which messages are rejected.
+         */
+        public Builder addQueueLimit(String name, IntSupplier depth, int maxDepth) {
+            Validate.notNull(depth);
+            this.queueLimits.add(new QueueLimit(name, depth, maxDepth));
+            return this;
+        }
+
+        /**
+         * Set the retry delay used when a queue limit is reached, a random jitter of up to 50% is added. Default is 30
+         * seconds.
+         */
+        public Builder setSheddingRetryAfter(long sheddingRetryAfterInSec) {
+            Validate.isTrue(sheddingRetryAfterInSec >= 0, "sheddingRetryAfterInSec must be positive or 0");
+            this.sheddingRetryAfterInSec = sheddingRetryAfterInSec;
+            return this;
+        }
+
+        public RateLimitingAdmissionController build() {
+            return new RateLimitingAdmissionController(this);
+        }
+    }
+}
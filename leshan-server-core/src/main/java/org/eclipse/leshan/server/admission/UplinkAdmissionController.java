@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.admission;
+
+import org.eclipse.leshan.core.request.Identity;
+
+/**
+ * Decides if a message sent by a LWM2M client (Register, Update, Send request or notification) should be handled or
+ * rejected to protect the server from overload.
+ * <p>
+ * This is called for each uplink message before any decoding, so implementation MUST be fast and non-blocking.
+ */
+public interface UplinkAdmissionController {
+
+    /**
+     * @param sender the identity of the client which sent the message.
+     * @param endpointName the endpoint name of the client or <code>null</code> if it is not known without extra cost
+     *        (e.g. for an Update request).
+     * @param messageType the type of received message (e.g. {@code RegisterRequest.class} or
+     *        {@code ObserveResponse.class} for notifications).
+     * @return the admission decision, never <code>null</code>.
+     */
+    Admission admit(Identity sender, String endpointName, Class<?> messageType);
+}
@@ -91,6 +91,9 @@ public class LeshanBootstrapServer {
      * Starts the server and binds it to the specified port.
      */
     public void start() {
+        if (securityStore instanceof Startable) {
+            ((Startable) securityStore).start();
+        }
         if (requestSender instanceof Startable) {
             ((Startable) requestSender).start();
         }
@@ -114,6 +117,9 @@ public class LeshanBootstrapServer {
         if (requestSender instanceof Stoppable) {
             ((Stoppable) requestSender).stop();
         }
+        if (securityStore instanceof Stoppable) {
+            ((Stoppable) securityStore).stop();
+        }
         LOG.info("Bootstrap server stopped.");
     }
 
@@ -130,6 +136,12 @@ public class LeshanBootstrapServer {
         } else if (requestSender instanceof Stoppable) {
             ((Stoppable) requestSender).stop();
         }
+
+        if (securityStore instanceof Destroyable) {
+            ((Destroyable) securityStore).destroy();
+        } else if (securityStore instanceof Stoppable) {
+            ((Stoppable) securityStore).stop();
+        }
         LOG.info("Bootstrap server destroyed.");
     }
 
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.leshan.core.model.LwM2mModel;
 import org.eclipse.leshan.core.model.LwM2mModelRepository;
@@ -49,6 +50,8 @@ public class VersionedBootstrapModelProvider implements LwM2mBootstrapModelProvi
     private class DynamicModel implements LwM2mModel {
 
         private final Map<Integer, String> supportedObjects;
+        // Object models are cached as encoders and decoders look them up for each resource.
+        private final Map<Integer, ObjectModel> objectModels = new ConcurrentHashMap<>();
 
         public DynamicModel(Map<Integer, String> supportedObjects) {
             this.supportedObjects = supportedObjects;
@@ -65,11 +68,17 @@ public class VersionedBootstrapModelProvider implements LwM2mBootstrapModelProvi
 
         @Override
         public ObjectModel getObjectModel(int objectId) {
-            String version = supportedObjects.get(objectId);
-            if (version != null) {
-                return repository.getObjectModel(objectId, version);
+            ObjectModel objectModel = objectModels.get(objectId);
+            if (objectModel == null) {
+                String version = supportedObjects.get(objectId);
+                if (version != null) {
+                    objectModel = repository.getObjectModel(objectId, version);
+                    if (objectModel != null) {
+                        objectModels.put(objectId, objectModel);
+                    }
+                }
             }
-            return null;
+            return objectModel;
         }
 
         @Override
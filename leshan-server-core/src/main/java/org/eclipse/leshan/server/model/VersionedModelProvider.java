@@ -17,14 +17,16 @@ package org.eclipse.leshan.server.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.WeakHashMap;
 
 import org.eclipse.leshan.core.LwM2m.Version;
 import org.eclipse.leshan.core.model.LwM2mModel;
 import org.eclipse.leshan.core.model.LwM2mModelRepository;
 import org.eclipse.leshan.core.model.ObjectModel;
-import org.eclipse.leshan.core.model.ResourceModel;
+import org.eclipse.leshan.core.model.StaticModel;
 import org.eclipse.leshan.server.registration.Registration;
 
 /**
@@ -34,6 +36,9 @@ import org.eclipse.leshan.server.registration.Registration;
 public class VersionedModelProvider implements LwM2mModelProvider {
 
     private LwM2mModelRepository repository;
+    // Resolved models are shared by all clients supporting the same objects, as encoders and decoders look them up for
+    // each resource. Entries are removed once no more client uses an equal supported objects map.
+    private final Map<Map<Integer, Version>, LwM2mModel> models = Collections.synchronizedMap(new WeakHashMap<>());
 
     public VersionedModelProvider(Collection<ObjectModel> objectModels) {
         this.repository = new LwM2mModelRepository(objectModels);
@@ -45,46 +50,22 @@ public class VersionedModelProvider implements LwM2mModelProvider {
 
     @Override
     public LwM2mModel getObjectModel(Registration registration) {
-        return new DynamicModel(registration);
+        return getModel(registration.getSupportedObject());
     }
 
-    private class DynamicModel implements LwM2mModel {
-
-        private final Registration registration;
-
-        public DynamicModel(Registration registration) {
-            this.registration = registration;
-        }
-
-        @Override
-        public ResourceModel getResourceModel(int objectId, int resourceId) {
-            ObjectModel objectModel = getObjectModel(objectId);
-            if (objectModel != null)
-                return objectModel.resources.get(resourceId);
-            else
-                return null;
-        }
-
-        @Override
-        public ObjectModel getObjectModel(int objectId) {
-            Version version = registration.getSupportedVersion(objectId);
-            if (version != null) {
-                return repository.getObjectModel(objectId, version);
-            }
-            return null;
-        }
-
-        @Override
-        public Collection<ObjectModel> getObjectModels() {
-            Map<Integer, Version> supportedObjects = registration.getSupportedObject();
-            Collection<ObjectModel> result = new ArrayList<>(supportedObjects.size());
+    private LwM2mModel getModel(Map<Integer, Version> supportedObjects) {
+        LwM2mModel model = models.get(supportedObjects);
+        if (model == null) {
+            Collection<ObjectModel> objectModels = new ArrayList<>(supportedObjects.size());
             for (Entry<Integer, Version> supportedObject : supportedObjects.entrySet()) {
                 ObjectModel objectModel = repository.getObjectModel(supportedObject.getKey(),
                         supportedObject.getValue());
                 if (objectModel != null)
-                    result.add(objectModel);
+                    objectModels.add(objectModel);
             }
-            return result;
+            model = new StaticModel(objectModels);
+            models.put(supportedObjects, model);
         }
+        return model;
     }
 }
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package org.eclipse.leshan.server.observation;
 
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.SingleObservation;
@@ -60,6 +61,52 @@ public interface LwM2mNotificationReceiver {
      */
     void onNotification(CompositeObservation observation, ClientProfile profile, ObserveCompositeResponse response);
 
+    /**
+     * Called on new notification when payload is decoded lazily.
+     * <p>
+     * Default implementation decodes the payload and calls
+     * {@link #onNotification(SingleObservation, ClientProfile, ObserveResponse)}, or
+     * {@link #onError(Observation, ClientProfile, Exception)} if payload can not be decoded.
+     *
+     * @param observation the observation for which new data are received
+     * @param profile the client profile concerned by this observation
+     * @param notification the raw notification with a memoized decoded view.
+     */
+    default void onNotification(SingleObservation observation, ClientProfile profile,
+            LazyDecodedPayload<ObserveResponse> notification) {
+        ObserveResponse response;
+        try {
+            response = notification.getDecoded();
+        } catch (RuntimeException e) {
+            onError(observation, profile, e);
+            return;
+        }
+        onNotification(observation, profile, response);
+    }
+
+    /**
+     * Called on new notification when payload is decoded lazily.
+     * <p>
+     * Default implementation decodes the payload and calls
+     * {@link #onNotification(CompositeObservation, ClientProfile, ObserveCompositeResponse)}, or
+     * {@link #onError(Observation, ClientProfile, Exception)} if payload can not be decoded.
+     *
+     * @param observation the composite-observation for which new data are received
+     * @param profile the client profile concerned by this observation
+     * @param notification the raw notification with a memoized decoded view.
+     */
+    default void onNotification(CompositeObservation observation, ClientProfile profile,
+            LazyDecodedPayload<ObserveCompositeResponse> notification) {
+        ObserveCompositeResponse response;
+        try {
+            response = notification.getDecoded();
+        } catch (RuntimeException e) {
+            onError(observation, profile, e);
+            return;
+        }
+        onNotification(observation, profile, response);
+    }
+
     /**
      * Called when an error occurs on new notification.
      *
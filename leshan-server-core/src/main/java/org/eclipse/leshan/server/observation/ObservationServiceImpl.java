@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.SingleObservation;
@@ -163,31 +164,20 @@ public class ObservationServiceImpl implements ObservationService, LwM2mNotifica
         }
 
         // search composite-observation
-        Set<Observation> result = new HashSet<>();
-        for (Observation obs : getObservations(registrationId)) {
-            if (obs instanceof CompositeObservation) {
-                if (lwPaths.equals(((CompositeObservation) obs).getPaths())) {
-                    result.add(obs);
-                }
-            }
-        }
-        return result;
+        Observation observation = registrationStore.getCompositeObservation(registrationId, lwPaths);
+        if (observation == null)
+            return Collections.emptySet();
+        return Collections.singleton(observation);
     }
 
     private Set<Observation> getObservations(String registrationId, String nodePath) {
         if (registrationId == null || nodePath == null)
             return Collections.emptySet();
 
-        Set<Observation> result = new HashSet<>();
-        LwM2mPath lwPath = new LwM2mPath(nodePath);
-        for (Observation obs : getObservations(registrationId)) {
-            if (obs instanceof SingleObservation) {
-                if (lwPath.equals(((SingleObservation) obs).getPath())) {
-                    result.add(obs);
-                }
-            }
-        }
-        return result;
+        Observation observation = registrationStore.getObservation(registrationId, new LwM2mPath(nodePath));
+        if (observation == null)
+            return Collections.emptySet();
+        return Collections.singleton(observation);
     }
 
     @Override
@@ -233,6 +223,48 @@ public class ObservationServiceImpl implements ObservationService, LwM2mNotifica
         }
     }
 
+    @Override
+    public void onNotification(SingleObservation observation, ClientProfile profile,
+            LazyDecodedPayload<ObserveResponse> notification) {
+        updateRegistrationOnRegistration(observation, profile);
+        for (ObservationListener listener : listeners) {
+            if (listener instanceof RawObservationListener) {
+                ((RawObservationListener) listener).onRawResponse(observation, profile.getRegistration(), notification);
+            } else {
+                // payload is only decoded if a listener needs it.
+                ObserveResponse response;
+                try {
+                    response = notification.getDecoded();
+                } catch (RuntimeException e) {
+                    listener.onError(observation, profile.getRegistration(), e);
+                    continue;
+                }
+                listener.onResponse(observation, profile.getRegistration(), response);
+            }
+        }
+    }
+
+    @Override
+    public void onNotification(CompositeObservation observation, ClientProfile profile,
+            LazyDecodedPayload<ObserveCompositeResponse> notification) {
+        updateRegistrationOnRegistration(observation, profile);
+        for (ObservationListener listener : listeners) {
+            if (listener instanceof RawObservationListener) {
+                ((RawObservationListener) listener).onRawResponse(observation, profile.getRegistration(), notification);
+            } else {
+                // payload is only decoded if a listener needs it.
+                ObserveCompositeResponse response;
+                try {
+                    response = notification.getDecoded();
+                } catch (RuntimeException e) {
+                    listener.onError(observation, profile.getRegistration(), e);
+                    continue;
+                }
+                listener.onResponse(observation, profile.getRegistration(), response);
+            }
+        }
+    }
+
     @Override
     public void onError(Observation observation, ClientProfile profile, Exception error) {
         for (ObservationListener listener : listeners) {
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.observation;
+
+import org.eclipse.leshan.core.observation.Observation;
+import org.eclipse.leshan.core.response.LwM2mResponse;
+
+/**
+ * A subscriber to an observation shared through {@link SharedObservationService}.
+ *
+ * @param <T> the type of response : ObserveResponse or ObserveCompositeResponse.
+ */
+public interface ObservationSubscriber<T extends LwM2mResponse> {
+
+    /**
+     * Called on response to the observe request and on each new notification.
+     * <p>
+     * A subscriber joining an already established observation first receives the last known response.
+     *
+     * @param response the lwm2m response received (successful or error response)
+     */
+    void onResponse(T response);
+
+    /**
+     * Called when the observe request failed or when an error occurs on new notification.
+     *
+     * @param error the exception raised.
+     */
+    void onError(Exception error);
+
+    /**
+     * Called when the shared observation is cancelled by someone else than this subscriber. (e.g. client
+     * de-registration or direct call to {@link ObservationService#cancelObservation(Observation)})
+     *
+     * @param observation the cancelled observation.
+     */
+    void onCancelled(Observation observation);
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.observation;
+
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
+import org.eclipse.leshan.core.observation.CompositeObservation;
+import org.eclipse.leshan.core.observation.SingleObservation;
+import org.eclipse.leshan.core.response.ObserveCompositeResponse;
+import org.eclipse.leshan.core.response.ObserveResponse;
+import org.eclipse.leshan.server.registration.Registration;
+
+/**
+ * An {@link ObservationListener} which is able to consume raw notification payload.
+ * <p>
+ * When notifications are not decoded on reception, those methods are called instead of
+ * {@link #onResponse(SingleObservation, Registration, ObserveResponse)} and
+ * {@link #onResponse(CompositeObservation, Registration, ObserveCompositeResponse)}, so payload is only decoded if
+ * listener calls {@link LazyDecodedPayload#getDecoded()}.
+ */
+public interface RawObservationListener extends ObservationListener {
+
+    /**
+     * Called on new notification which was not decoded yet.
+     *
+     * @param observation the observation for which new data are received
+     * @param registration the registration concerned by this observation
+     * @param notification the raw notification payload with its content format and a memoized decoded view.
+     */
+    void onRawResponse(SingleObservation observation, Registration registration,
+            LazyDecodedPayload<ObserveResponse> notification);
+
+    /**
+     * Called on new notification which was not decoded yet.
+     *
+     * @param observation the composite-observation for which new data are received
+     * @param registration the registration concerned by this observation
+     * @param notification the raw notification payload with its content format and a memoized decoded view.
+     */
+    void onRawResponse(CompositeObservation observation, Registration registration,
+            LazyDecodedPayload<ObserveCompositeResponse> notification);
+}
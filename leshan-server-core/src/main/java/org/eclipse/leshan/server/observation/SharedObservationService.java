@@ -0,0 +1,409 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.observation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.observation.CompositeObservation;
+import org.eclipse.leshan.core.observation.Observation;
+import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.observation.SingleObservation;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.DownlinkRequest;
+import org.eclipse.leshan.core.request.ObserveCompositeRequest;
+import org.eclipse.leshan.core.request.ObserveRequest;
+import org.eclipse.leshan.core.response.LwM2mResponse;
+import org.eclipse.leshan.core.response.ObserveCompositeResponse;
+import org.eclipse.leshan.core.response.ObserveResponse;
+import org.eclipse.leshan.core.util.Validate;
+import org.eclipse.leshan.server.registration.Registration;
+import org.eclipse.leshan.server.request.DownlinkRequestSender;
+
+/**
+ * Shares one LWM2M observation between several local subscribers.
+ * <p>
+ * Subscribers observing the same node(s) of the same registration with the same content format(s) are attached to the
+ * same underlying observation, so the device sends each notification only once. Notifications are fanned out locally
+ * and the observation is cancelled only when its last subscriber leaves.
+ * <p>
+ * This service must be registered as {@link ObservationListener} of the {@link ObservationService} to receive
+ * notifications, {@link org.eclipse.leshan.server.LeshanServer} does it for you.
+ * <p>
+ * The observe request of the first subscriber is the one sent to the device, so context of requests sent by next
+ * subscribers is ignored.
+ * <p>
+ * A notification can be received before the response of the observe request is handled. To not lose it, a new
+ * observation matching a pending shared observation (same registration, node(s) and content format(s)) is attached to
+ * it as soon as it is added to the {@link ObservationService}.
+ * <p>
+ * Only observations created through this service are shared. Observe requests sent directly with
+ * {@link org.eclipse.leshan.server.LeshanServer#send(Registration, DownlinkRequest)} are not routed through it : they
+ * always create their own observation, and as the {@link ObservationService} keeps only one observation per node, a
+ * direct observe on a node already shared replaces the shared observation, which cancels it for all its subscribers.
+ * Applications using this service should not mix both ways of observing the same node(s).
+ */
+public class SharedObservationService implements ObservationListener {
+
+    private final DownlinkRequestSender requestSender;
+    private final ObservationService observationService;
+    private final long timeoutInMs;
+
+    // guarded by this
+    private final Map<SharingKey, SharedObservation<?>> observationsByKey = new HashMap<>();
+    private final Map<ObservationIdentifier, SharedObservation<?>> observationsById = new HashMap<>();
+
+    /**
+     * Creates an instance of {@link SharedObservationService}
+     *
+     * @param requestSender sender used to send the observe request.
+     * @param observationService service used to cancel observation when there is no more subscriber.
+     * @param timeoutInMs the timeout of observe request in milliseconds.
+     */
+    public SharedObservationService(DownlinkRequestSender requestSender, ObservationService observationService,
+            long timeoutInMs) {
+        Validate.notNull(requestSender);
+        Validate.notNull(observationService);
+        this.requestSender = requestSender;
+        this.observationService = observationService;
+        this.timeoutInMs = timeoutInMs;
+    }
+
+    /**
+     * Subscribes to the given node of the given registration. The observe request is only sent if there is no
+     * equivalent observation already shared.
+     *
+     * @param registration the registration to observe.
+     * @param request the observe request.
+     * @param subscriber the subscriber notified of responses. This subscriber MUST NOT be null.
+     * @return the subscription which must be cancelled when the subscriber is not interested anymore.
+     */
+    public Subscription subscribe(Registration registration, ObserveRequest request,
+            ObservationSubscriber<ObserveResponse> subscriber) {
+        SharingKey key = new SharingKey(registration.getId(), Collections.singletonList(request.getPath()), false, null,
+                request.getContentFormat());
+        return subscribe(registration, request, key, subscriber, ObserveResponse::getObservation);
+    }
+
+    /**
+     * Subscribes to the given nodes of the given registration. The observe-composite request is only sent if there is
+     * no equivalent composite-observation already shared.
+     *
+     * @param registration the registration to observe.
+     * @param request the observe-composite request.
+     * @param subscriber the subscriber notified of responses. This subscriber MUST NOT be null.
+     * @return the subscription which must be cancelled when the subscriber is not interested anymore.
+     */
+    public Subscription subscribe(Registration registration, ObserveCompositeRequest request,
+            ObservationSubscriber<ObserveCompositeResponse> subscriber) {
+        SharingKey key = new SharingKey(registration.getId(), request.getPaths(), true,
+                request.getRequestContentFormat(), request.getResponseContentFormat());
+        return subscribe(registration, request, key, subscriber, ObserveCompositeResponse::getObservation);
+    }
+
+    private <T extends LwM2mResponse> Subscription subscribe(Registration registration, DownlinkRequest<T> request,
+            SharingKey key, ObservationSubscriber<T> subscriber, Function<T, Observation> observationGetter) {
+        Validate.notNull(subscriber);
+
+        SharedObservation<T> shared;
+        Subscription subscription;
+        boolean sendRequest = false;
+        T lastResponse;
+        synchronized (this) {
+            shared = cast(observationsByKey.get(key));
+            if (shared == null) {
+                shared = new SharedObservation<>(key);
+                observationsByKey.put(key, shared);
+                sendRequest = true;
+            }
+            subscription = new Subscription(shared, subscriber);
+            shared.subscriptions.add(subscription);
+            lastResponse = shared.lastResponse;
+        }
+
+        if (sendRequest) {
+            final SharedObservation<T> newShared = shared;
+            requestSender.send(registration, request, null, timeoutInMs,
+                    response -> onObserveResponse(newShared, response, observationGetter.apply(response)),
+                    error -> onObserveError(newShared, error));
+        } else if (lastResponse != null) {
+            subscriber.onResponse(lastResponse);
+        }
+        return subscription;
+    }
+
+    /**
+     * @return the number of observations currently shared.
+     */
+    public synchronized int getSharedObservationCount() {
+        return observationsByKey.size();
+    }
+
+    private <T extends LwM2mResponse> void onObserveResponse(SharedObservation<T> shared, T response,
+            Observation observation) {
+        List<ObservationSubscriber<T>> subscribers;
+        boolean orphan = false;
+        synchronized (this) {
+            shared.requestCompleted = true;
+            if (response.isSuccess() && observation != null) {
+                shared.observation = observation;
+                // keep a notification which could have been received before this response
+                if (shared.lastResponse == null) {
+                    shared.lastResponse = response;
+                }
+                if (shared.subscriptions.isEmpty()) {
+                    // all subscribers left while request was ongoing
+                    observationsByKey.remove(shared.key, shared);
+                    observationsById.remove(observation.getId(), shared);
+                    orphan = true;
+                } else {
+                    observationsById.put(observation.getId(), shared);
+                }
+            } else {
+                // observation not established, next subscriber will retry
+                removeShared(shared);
+            }
+            subscribers = shared.getSubscribers();
+        }
+
+        if (orphan) {
+            observationService.cancelObservation(observation);
+        }
+        for (ObservationSubscriber<T> subscriber : subscribers) {
+            subscriber.onResponse(response);
+        }
+    }
+
+    private <T extends LwM2mResponse> void onObserveError(SharedObservation<T> shared, Exception error) {
+        List<ObservationSubscriber<T>> subscribers;
+        synchronized (this) {
+            shared.requestCompleted = true;
+            removeShared(shared);
+            subscribers = shared.getSubscribers();
+        }
+        for (ObservationSubscriber<T> subscriber : subscribers) {
+            subscriber.onError(error);
+        }
+    }
+
+    // must be called holding this lock
+    private void removeShared(SharedObservation<?> shared) {
+        observationsByKey.remove(shared.key, shared);
+        if (shared.observation != null) {
+            observationsById.remove(shared.observation.getId(), shared);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        Observation toCancel;
+        synchronized (this) {
+            SharedObservation<?> shared = subscription.shared;
+            if (!shared.subscriptions.remove(subscription) || !shared.subscriptions.isEmpty()
+                    || !shared.requestCompleted || shared.observation == null) {
+                // still used, or observation not established yet : it will be cancelled on response
+                return;
+            }
+            removeShared(shared);
+            toCancel = shared.observation;
+        }
+        observationService.cancelObservation(toCancel);
+    }
+
+    private synchronized <T extends LwM2mResponse> SharedObservation<T> getShared(Observation observation) {
+        return cast(observationsById.get(observation.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends LwM2mResponse> SharedObservation<T> cast(SharedObservation<?> shared) {
+        return (SharedObservation<T>) shared;
+    }
+
+    // ********** ObservationListener interface **********//
+    @Override
+    public void newObservation(Observation observation, Registration registration) {
+        SharingKey key;
+        if (observation instanceof SingleObservation) {
+            SingleObservation single = (SingleObservation) observation;
+            key = new SharingKey(single.getRegistrationId(), Collections.singletonList(single.getPath()), false, null,
+                    single.getContentFormat());
+        } else if (observation instanceof CompositeObservation) {
+            CompositeObservation composite = (CompositeObservation) observation;
+            key = new SharingKey(composite.getRegistrationId(), composite.getPaths(), true,
+                    composite.getRequestContentFormat(), composite.getResponseContentFormat());
+        } else {
+            return;
+        }
+
+        synchronized (this) {
+            // attach observation to the pending shared observation, so notifications received before the observe
+            // response are not lost.
+            SharedObservation<?> shared = observationsByKey.get(key);
+            if (shared != null && !shared.requestCompleted && shared.observation == null) {
+                shared.observation = observation;
+                observationsById.put(observation.getId(), shared);
+            }
+        }
+    }
+
+    @Override
+    public void cancelled(Observation observation) {
+        SharedObservation<LwM2mResponse> shared;
+        List<ObservationSubscriber<LwM2mResponse>> subscribers;
+        synchronized (this) {
+            shared = cast(observationsById.remove(observation.getId()));
+            if (shared == null)
+                return;
+            observationsByKey.remove(shared.key, shared);
+            subscribers = shared.getSubscribers();
+            shared.subscriptions.clear();
+        }
+        for (ObservationSubscriber<LwM2mResponse> subscriber : subscribers) {
+            subscriber.onCancelled(observation);
+        }
+    }
+
+    @Override
+    public void onResponse(SingleObservation observation, Registration registration, ObserveResponse response) {
+        fanOut(this.<ObserveResponse> getShared(observation), response);
+    }
+
+    @Override
+    public void onResponse(CompositeObservation observation, Registration registration,
+            ObserveCompositeResponse response) {
+        fanOut(this.<ObserveCompositeResponse> getShared(observation), response);
+    }
+
+    private <T extends LwM2mResponse> void fanOut(SharedObservation<T> shared, T response) {
+        if (shared == null)
+            return;
+
+        List<ObservationSubscriber<T>> subscribers;
+        synchronized (this) {
+            shared.lastResponse = response;
+            subscribers = shared.getSubscribers();
+        }
+        for (ObservationSubscriber<T> subscriber : subscribers) {
+            subscriber.onResponse(response);
+        }
+    }
+
+    @Override
+    public void onError(Observation observation, Registration registration, Exception error) {
+        SharedObservation<LwM2mResponse> shared = getShared(observation);
+        if (shared == null)
+            return;
+
+        List<ObservationSubscriber<LwM2mResponse>> subscribers;
+        synchronized (this) {
+            subscribers = shared.getSubscribers();
+        }
+        for (ObservationSubscriber<LwM2mResponse> subscriber : subscribers) {
+            subscriber.onError(error);
+        }
+    }
+
+    /**
+     * A subscription to a shared observation.
+     */
+    public class Subscription {
+
+        private final SharedObservation<?> shared;
+        private final ObservationSubscriber<?> subscriber;
+
+        private Subscription(SharedObservation<?> shared, ObservationSubscriber<?> subscriber) {
+            this.shared = shared;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * @return the underlying observation or <code>null</code> if it is not established yet.
+         */
+        public Observation getObservation() {
+            synchronized (SharedObservationService.this) {
+                return shared.observation;
+            }
+        }
+
+        /**
+         * Stops this subscription. The underlying observation is cancelled if this was the last subscription.
+         */
+        public void cancel() {
+            unsubscribe(this);
+        }
+    }
+
+    private static class SharedObservation<T extends LwM2mResponse> {
+        private final SharingKey key;
+        private final List<Subscription> subscriptions = new ArrayList<>();
+        private Observation observation;
+        private T lastResponse;
+        private boolean requestCompleted;
+
+        public SharedObservation(SharingKey key) {
+            this.key = key;
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<ObservationSubscriber<T>> getSubscribers() {
+            List<ObservationSubscriber<T>> subscribers = new ArrayList<>(subscriptions.size());
+            for (Subscription subscription : subscriptions) {
+                subscribers.add((ObservationSubscriber<T>) subscription.subscriber);
+            }
+            return subscribers;
+        }
+    }
+
+    private static class SharingKey {
+        private final String registrationId;
+        private final List<LwM2mPath> paths;
+        private final boolean composite;
+        private final ContentFormat requestContentFormat;
+        private final ContentFormat responseContentFormat;
+
+        public SharingKey(String registrationId, List<LwM2mPath> paths, boolean composite,
+                ContentFormat requestContentFormat, ContentFormat responseContentFormat) {
+            this.registrationId = registrationId;
+            this.paths = paths;
+            this.composite = composite;
+            this.requestContentFormat = requestContentFormat;
+            this.responseContentFormat = responseContentFormat;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(registrationId, paths, composite, requestContentFormat, responseContentFormat);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof SharingKey))
+                return false;
+            SharingKey other = (SharingKey) obj;
+            return composite == other.composite && Objects.equals(registrationId, other.registrationId)
+                    && Objects.equals(paths, other.paths)
+                    && Objects.equals(requestContentFormat, other.requestContentFormat)
+                    && Objects.equals(responseContentFormat, other.responseContentFormat);
+        }
+    }
+}
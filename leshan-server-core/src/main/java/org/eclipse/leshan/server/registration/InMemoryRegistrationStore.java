@@ -18,13 +18,17 @@ package org.eclipse.leshan.server.registration;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -35,6 +39,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.eclipse.leshan.core.Destroyable;
 import org.eclipse.leshan.core.Startable;
 import org.eclipse.leshan.core.Stoppable;
+import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.ObservationIdentifier;
@@ -51,12 +56,18 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
     private final Logger LOG = LoggerFactory.getLogger(InMemoryRegistrationStore.class);
 
     // Data structure
-    private final Map<String /* end-point */, Registration> regsByEp = new HashMap<>();
+    // sorted by endpoint, see getRegistrationsSortedByEndpoint()
+    private final TreeMap<String /* end-point */, Registration> regsByEp = new TreeMap<>();
     private final Map<InetSocketAddress, Registration> regsByAddr = new HashMap<>();
     private final Map<String /* reg-id */, Registration> regsByRegId = new HashMap<>();
     private final Map<Identity, Registration> regsByIdentity = new HashMap<>();
     private final Map<ObservationIdentifier, Observation> obsByToken = new HashMap<>();
     private final Map<String, Set<ObservationIdentifier>> tokensByRegId = new HashMap<>();
+    // path (LwM2mPath) or paths (List<LwM2mPath>) of composite observation => token
+    private final Map<String, Map<Object, ObservationIdentifier>> tokensByPathByRegId = new HashMap<>();
+    // Query indexes
+    private final Map<String /* index term */, Set<String /* end-point */>> epsByIndexTerm = new HashMap<>();
+    private final TreeMap<Long /* last update */, Set<String /* end-point */>> epsByLastUpdate = new TreeMap<>();
 
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
@@ -96,6 +107,10 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
             // If a registration is already associated to this address we don't care as we only want to keep the most
             // recent binding.
             regsByAddr.put(registration.getSocketAddress(), registration);
+            if (registrationRemoved != null) {
+                unsafeRemoveFromIndexes(registrationRemoved);
+            }
+            unsafeAddToIndexes(registration);
             if (registrationRemoved != null) {
                 Collection<Observation> observationsRemoved = unsafeRemoveAllObservations(registrationRemoved.getId());
                 if (!registrationRemoved.getSocketAddress().equals(registration.getSocketAddress())) {
@@ -139,6 +154,9 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
 
                 regsByRegId.put(updatedRegistration.getId(), updatedRegistration);
 
+                unsafeRemoveFromIndexes(registration);
+                unsafeAddToIndexes(updatedRegistration);
+
                 return new UpdatedRegistration(registration, updatedRegistration);
             }
         } finally {
@@ -196,6 +214,154 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
         }
     }
 
+    @Override
+    public Iterator<Registration> getRegistrationsSortedByEndpoint(String fromEndpoint) {
+        return new SortedIterator(fromEndpoint);
+    }
+
+    /**
+     * Iterates over registrations sorted by endpoint, copying them by batch so lock is not held between 2 batches.
+     */
+    private class SortedIterator implements Iterator<Registration> {
+        private static final int BATCH_SIZE = 100;
+
+        private List<Registration> batch = Collections.emptyList();
+        private int index = 0;
+        private String lastEndpoint;
+        private boolean inclusive;
+        private boolean done = false;
+
+        public SortedIterator(String fromEndpoint) {
+            this.lastEndpoint = fromEndpoint;
+            this.inclusive = true;
+        }
+
+        private void fetchNext() {
+            try {
+                lock.readLock().lock();
+                NavigableMap<String, Registration> tail = lastEndpoint == null ? regsByEp
+                        : regsByEp.tailMap(lastEndpoint, inclusive);
+                batch = new ArrayList<>(Math.min(BATCH_SIZE, tail.size()));
+                for (Registration registration : tail.values()) {
+                    if (batch.size() == BATCH_SIZE) {
+                        break;
+                    }
+                    batch.add(registration);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            index = 0;
+            if (batch.size() < BATCH_SIZE) {
+                done = true;
+            }
+            if (!batch.isEmpty()) {
+                lastEndpoint = batch.get(batch.size() - 1).getEndpoint();
+                inclusive = false;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < batch.size()) {
+                return true;
+            }
+            if (done) {
+                return false;
+            }
+            fetchNext();
+            return index < batch.size();
+        }
+
+        @Override
+        public Registration next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(index++);
+        }
+    }
+
+    @Override
+    public Iterator<Registration> findRegistrations(RegistrationQuery query) {
+        try {
+            lock.readLock().lock();
+
+            // use the smallest index to get candidates
+            Collection<String> candidates = null;
+            for (String term : query.getIndexTerms()) {
+                Set<String> endpoints = epsByIndexTerm.get(term);
+                if (endpoints == null) {
+                    return Collections.<Registration> emptyList().iterator();
+                }
+                if (candidates == null || endpoints.size() < candidates.size()) {
+                    candidates = endpoints;
+                }
+            }
+            if (candidates == null && query.hasLastUpdateRange()) {
+                candidates = new ArrayList<>();
+                for (Set<String> endpoints : unsafeGetByLastUpdate(query).values()) {
+                    candidates.addAll(endpoints);
+                }
+            }
+            if (candidates == null) {
+                candidates = regsByEp.keySet();
+            }
+
+            List<Registration> result = new ArrayList<>();
+            for (String endpoint : candidates) {
+                Registration registration = regsByEp.get(endpoint);
+                if (registration != null && query.matches(registration)) {
+                    result.add(registration);
+                }
+            }
+            return result.iterator();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<Long, Set<String>> unsafeGetByLastUpdate(RegistrationQuery query) {
+        long from = query.getLastUpdateFrom() == null ? Long.MIN_VALUE : query.getLastUpdateFrom().getTime();
+        long to = query.getLastUpdateTo() == null ? Long.MAX_VALUE : query.getLastUpdateTo().getTime();
+        return epsByLastUpdate.subMap(from, true, to, true);
+    }
+
+    private void unsafeAddToIndexes(Registration registration) {
+        for (String term : RegistrationQuery.getIndexTerms(registration)) {
+            Set<String> endpoints = epsByIndexTerm.get(term);
+            if (endpoints == null) {
+                endpoints = new HashSet<>();
+                epsByIndexTerm.put(term, endpoints);
+            }
+            endpoints.add(registration.getEndpoint());
+        }
+        Long lastUpdate = registration.getLastUpdate().getTime();
+        Set<String> endpoints = epsByLastUpdate.get(lastUpdate);
+        if (endpoints == null) {
+            endpoints = new HashSet<>();
+            epsByLastUpdate.put(lastUpdate, endpoints);
+        }
+        endpoints.add(registration.getEndpoint());
+    }
+
+    private void unsafeRemoveFromIndexes(Registration registration) {
+        for (String term : RegistrationQuery.getIndexTerms(registration)) {
+            removeFromIndex(epsByIndexTerm, term, registration.getEndpoint());
+        }
+        removeFromIndex(epsByLastUpdate, registration.getLastUpdate().getTime(), registration.getEndpoint());
+    }
+
+    private <K> void removeFromIndex(Map<K, Set<String>> index, K key, String endpoint) {
+        Set<String> endpoints = index.get(key);
+        if (endpoints != null) {
+            endpoints.remove(endpoint);
+            if (endpoints.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
     @Override
     public Deregistration removeRegistration(String registrationId) {
         try {
@@ -208,6 +374,7 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
                 removeFromMap(regsByAddr, registration.getSocketAddress(), registration);
                 removeFromMap(regsByRegId, registration.getId(), registration);
                 removeFromMap(regsByIdentity, registration.getIdentity(), registration);
+                unsafeRemoveFromIndexes(registration);
                 return new Deregistration(registration, observationsRemoved);
             }
             return null;
@@ -252,10 +419,17 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
                         previousObservation, observation);
             }
 
-            // cancel existing observations for the same path and registration id.
-            for (Observation obs : unsafeGetObservations(registrationId)) {
-                if (areTheSamePaths(observation, obs) && !observation.getId().equals(obs.getId())) {
-                    unsafeRemoveObservation(obs.getId());
+            // cancel existing observation for the same path and registration id.
+            Map<Object, ObservationIdentifier> tokensByPath = tokensByPathByRegId.get(registrationId);
+            if (tokensByPath == null) {
+                tokensByPath = new HashMap<>();
+                tokensByPathByRegId.put(registrationId, tokensByPath);
+            }
+            ObservationIdentifier previousId = tokensByPath.put(toPathKey(observation), id);
+            if (previousId != null && !previousId.equals(id)) {
+                Observation obs = unsafeGetObservation(previousId);
+                if (obs != null) {
+                    unsafeRemoveObservation(previousId);
                     removed.add(obs);
                 }
             }
@@ -266,14 +440,12 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
         return removed;
     }
 
-    private boolean areTheSamePaths(Observation observation, Observation obs) {
-        if (observation instanceof SingleObservation && obs instanceof SingleObservation) {
-            return ((SingleObservation) observation).getPath().equals(((SingleObservation) obs).getPath());
+    private Object toPathKey(Observation observation) {
+        if (observation instanceof SingleObservation) {
+            return ((SingleObservation) observation).getPath();
+        } else {
+            return ((CompositeObservation) observation).getPaths();
         }
-        if (observation instanceof CompositeObservation && obs instanceof CompositeObservation) {
-            return ((CompositeObservation) observation).getPaths().equals(((CompositeObservation) obs).getPaths());
-        }
-        return false;
     }
 
     @Override
@@ -319,6 +491,34 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
         }
     }
 
+    @Override
+    public SingleObservation getObservation(String registrationId, LwM2mPath path) {
+        try {
+            lock.readLock().lock();
+            Observation observation = unsafeGetObservation(registrationId, path);
+            if (observation instanceof SingleObservation) {
+                return (SingleObservation) observation;
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CompositeObservation getCompositeObservation(String registrationId, List<LwM2mPath> paths) {
+        try {
+            lock.readLock().lock();
+            Observation observation = unsafeGetObservation(registrationId, paths);
+            if (observation instanceof CompositeObservation) {
+                return (CompositeObservation) observation;
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public Collection<Observation> getObservations(String registrationId) {
         try {
@@ -346,6 +546,23 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
         return obs;
     }
 
+    private Observation unsafeGetObservation(String registrationId, Object pathKey) {
+        Map<Object, ObservationIdentifier> tokensByPath = tokensByPathByRegId.get(registrationId);
+        if (tokensByPath == null) {
+            return null;
+        }
+        ObservationIdentifier token = tokensByPath.get(pathKey);
+        if (token == null) {
+            return null;
+        }
+        // index could be outdated in case of token collision
+        Observation observation = unsafeGetObservation(token);
+        if (observation != null && pathKey.equals(toPathKey(observation))) {
+            return observation;
+        }
+        return null;
+    }
+
     private void unsafeRemoveObservation(ObservationIdentifier observationId) {
         Observation removed = obsByToken.remove(observationId);
 
@@ -356,6 +573,13 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
             if (tokens.isEmpty()) {
                 tokensByRegId.remove(registrationId);
             }
+            Map<Object, ObservationIdentifier> tokensByPath = tokensByPathByRegId.get(registrationId);
+            if (tokensByPath != null) {
+                tokensByPath.remove(toPathKey(removed), observationId);
+                if (tokensByPath.isEmpty()) {
+                    tokensByPathByRegId.remove(registrationId);
+                }
+            }
         }
     }
 
@@ -371,6 +595,7 @@ public class InMemoryRegistrationStore implements RegistrationStore, Startable,
             }
         }
         tokensByRegId.remove(registrationId);
+        tokensByPathByRegId.remove(registrationId);
         return removed;
     }
 
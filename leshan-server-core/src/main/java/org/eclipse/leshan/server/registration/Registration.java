@@ -27,6 +27,7 @@ import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -48,6 +49,7 @@ import org.eclipse.leshan.core.request.ContentFormat;
 import org.eclipse.leshan.core.request.Identity;
 import org.eclipse.leshan.core.util.StringUtils;
 import org.eclipse.leshan.core.util.Validate;
+import org.eclipse.leshan.core.util.WeakInterner;
 import org.eclipse.leshan.server.security.Authorizer;
 
 /**
@@ -57,7 +59,16 @@ public class Registration {
 
     private static final long DEFAULT_LIFETIME_IN_SEC = 86400L;
 
-    private final Date registrationDate;
+    // Most devices of a fleet share the same object links, so immutable data extracted from them are shared between
+    // registrations. Interning hashes the whole value, so it is only done for new values (e.g. on register or when
+    // object links change) and not when a registration is copied.
+    private static final WeakInterner<Link[]> OBJECT_LINKS = new WeakInterner<>();
+    private static final WeakInterner<Set<ContentFormat>> CONTENT_FORMATS = new WeakInterner<>();
+    private static final WeakInterner<Map<Integer, Version>> SUPPORTED_OBJECTS = new WeakInterner<>();
+    private static final WeakInterner<Set<LwM2mPath>> AVAILABLE_INSTANCES = new WeakInterner<>();
+
+    // timestamps are stored as primitive to save memory
+    private final long registrationDate;
 
     private final Identity identity;
 
@@ -92,7 +103,7 @@ public class Registration {
     // All available instances
     private final Set<LwM2mPath> availableInstances;
 
-    private final Date lastUpdate;
+    private final long lastUpdate;
 
     private final Map<String, String> applicationData;
 
@@ -118,8 +129,8 @@ public class Registration {
         lwM2mVersion = builder.lwM2mVersion;
         bindingMode = builder.bindingMode;
         queueMode = builder.queueMode;
-        registrationDate = builder.registrationDate;
-        lastUpdate = builder.lastUpdate;
+        registrationDate = builder.registrationDate.getTime();
+        lastUpdate = builder.lastUpdate.getTime();
         smsNumber = builder.smsNumber;
         additionalRegistrationAttributes = builder.additionalRegistrationAttributes;
 
@@ -131,7 +142,7 @@ public class Registration {
     }
 
     public Date getRegistrationDate() {
-        return registrationDate;
+        return new Date(registrationDate);
     }
 
     /**
@@ -170,7 +181,25 @@ public class Registration {
         return identity.getPeerAddress().getPort();
     }
 
+    /**
+     * @return a copy of the object links sent by the client, as the array is shared between registrations.
+     */
     public Link[] getObjectLinks() {
+        return objectLinks == null ? null : objectLinks.clone();
+    }
+
+    /**
+     * @return an unmodifiable view of the object links sent by the client. Unlike {@link #getObjectLinks()}, links are
+     *         not copied, so this should be preferred when links are only read.
+     */
+    public List<Link> getObjectLinksView() {
+        return objectLinks == null ? null : Collections.unmodifiableList(Arrays.asList(objectLinks));
+    }
+
+    /**
+     * @return the object links array shared between registrations, which MUST NOT be modified.
+     */
+    Link[] unsafeGetObjectLinks() {
         return objectLinks;
     }
 
@@ -276,7 +305,7 @@ public class Registration {
     }
 
     public Date getLastUpdate() {
-        return lastUpdate;
+        return new Date(lastUpdate);
     }
 
     public long getExpirationTimeStamp() {
@@ -284,7 +313,7 @@ public class Registration {
     }
 
     public long getExpirationTimeStamp(long gracePeriodInSec) {
-        return lastUpdate.getTime() + lifeTimeInSec * 1000 + gracePeriodInSec * 1000;
+        return lastUpdate + lifeTimeInSec * 1000 + gracePeriodInSec * 1000;
     }
 
     /**
@@ -360,9 +389,9 @@ public class Registration {
     public String toString() {
         return String.format(
                 "Registration [registrationDate=%s, identity=%s, lifeTimeInSec=%s, smsNumber=%s, lwM2mVersion=%s, bindingMode=%s, queueMode=%s, endpoint=%s, id=%s, objectLinks=%s, additionalRegistrationAttributes=%s, rootPath=%s, supportedContentFormats=%s, supportedObjects=%s, availableInstances=%s, lastUpdate=%s, applicationData=%s]",
-                registrationDate, identity, lifeTimeInSec, smsNumber, lwM2mVersion, bindingMode, queueMode, endpoint,
-                id, Arrays.toString(objectLinks), additionalRegistrationAttributes, rootPath, supportedContentFormats,
-                supportedObjects, availableInstances, lastUpdate, applicationData);
+                getRegistrationDate(), identity, lifeTimeInSec, smsNumber, lwM2mVersion, bindingMode, queueMode,
+                endpoint, id, Arrays.toString(objectLinks), additionalRegistrationAttributes, rootPath,
+                supportedContentFormats, supportedObjects, availableInstances, getLastUpdate(), applicationData);
     }
 
     @Override
@@ -377,12 +406,12 @@ public class Registration {
         result = prime * result + ((endpoint == null) ? 0 : endpoint.hashCode());
         result = prime * result + ((id == null) ? 0 : id.hashCode());
         result = prime * result + ((identity == null) ? 0 : identity.hashCode());
-        result = prime * result + ((lastUpdate == null) ? 0 : lastUpdate.hashCode());
+        result = prime * result + (int) (lastUpdate ^ (lastUpdate >>> 32));
         result = prime * result + (int) (lifeTimeInSec ^ (lifeTimeInSec >>> 32));
         result = prime * result + ((lwM2mVersion == null) ? 0 : lwM2mVersion.hashCode());
         result = prime * result + Arrays.hashCode(objectLinks);
         result = prime * result + ((queueMode == null) ? 0 : queueMode.hashCode());
-        result = prime * result + ((registrationDate == null) ? 0 : registrationDate.hashCode());
+        result = prime * result + (int) (registrationDate ^ (registrationDate >>> 32));
         result = prime * result + ((rootPath == null) ? 0 : rootPath.hashCode());
         result = prime * result + ((smsNumber == null) ? 0 : smsNumber.hashCode());
         result = prime * result + ((supportedContentFormats == null) ? 0 : supportedContentFormats.hashCode());
@@ -434,10 +463,7 @@ public class Registration {
                 return false;
         } else if (!identity.equals(other.identity))
             return false;
-        if (lastUpdate == null) {
-            if (other.lastUpdate != null)
-                return false;
-        } else if (!lastUpdate.equals(other.lastUpdate))
+        if (lastUpdate != other.lastUpdate)
             return false;
         if (lifeTimeInSec != other.lifeTimeInSec)
             return false;
@@ -453,10 +479,7 @@ public class Registration {
                 return false;
         } else if (!queueMode.equals(other.queueMode))
             return false;
-        if (registrationDate == null) {
-            if (other.registrationDate != null)
-                return false;
-        } else if (!registrationDate.equals(other.registrationDate))
+        if (registrationDate != other.registrationDate)
             return false;
         if (rootPath == null) {
             if (other.rootPath != null)
@@ -484,7 +507,7 @@ public class Registration {
     public static class Builder {
         private final String registrationId;
         private final String endpoint;
-        private final Identity identity;
+        private Identity identity;
         private final URI lastEndpointUsed;
 
         private Date registrationDate;
@@ -504,8 +527,10 @@ public class Registration {
 
         // builder setting
         private boolean extractData; // if true extract data from objectLinks
+        private Registration source; // registration copied by this builder, its data are already immutable and shared
 
         public Builder(Registration registration) {
+            source = registration;
 
             // mandatory params
             registrationId = registration.id;
@@ -525,8 +550,8 @@ public class Registration {
             lwM2mVersion = registration.lwM2mVersion;
             bindingMode = registration.bindingMode;
             queueMode = registration.queueMode;
-            registrationDate = registration.registrationDate;
-            lastUpdate = registration.lastUpdate;
+            registrationDate = new Date(registration.registrationDate);
+            lastUpdate = new Date(registration.lastUpdate);
             smsNumber = registration.smsNumber;
             additionalRegistrationAttributes = registration.additionalRegistrationAttributes;
 
@@ -546,6 +571,15 @@ public class Registration {
             this.lastEndpointUsed = lastEndpointUsed;
         }
 
+        /**
+         * Set the identity of the client, e.g. when a registration update comes from a new address.
+         */
+        public Builder identity(Identity identity) {
+            Validate.notNull(identity);
+            this.identity = identity;
+            return this;
+        }
+
         public Builder extractDataFromObjectLink(boolean extract) {
             this.extractData = extract;
             return this;
@@ -734,31 +768,39 @@ public class Registration {
             }
 
             // Make collection immutable
-            // We create a new Collection and make it "unmodifiable".
+            // We create a new Collection and make it "unmodifiable", unless an equal one is already used by another
+            // registration, in this case it is shared.
+            // Collections still coming from the copied registration are already immutable and so are kept as is.
+            if (source == null || objectLinks != source.objectLinks) {
+                objectLinks = OBJECT_LINKS.intern(objectLinks, links -> links.clone());
+            }
             if (supportedContentFormats == null || supportedContentFormats.isEmpty()) {
                 supportedContentFormats = Collections.emptySet();
-            } else {
-                supportedContentFormats = Collections.unmodifiableSet(new HashSet<>(supportedContentFormats));
+            } else if (source == null || supportedContentFormats != source.supportedContentFormats) {
+                supportedContentFormats = CONTENT_FORMATS.intern(supportedContentFormats,
+                        formats -> Collections.unmodifiableSet(new HashSet<>(formats)));
             }
             if (supportedObjects == null || supportedObjects.isEmpty()) {
                 supportedObjects = Collections.emptyMap();
-            } else {
-                supportedObjects = Collections.unmodifiableMap(new HashMap<>(supportedObjects));
+            } else if (source == null || supportedObjects != source.supportedObjects) {
+                supportedObjects = SUPPORTED_OBJECTS.intern(supportedObjects,
+                        objects -> Collections.unmodifiableMap(new HashMap<>(objects)));
             }
             if (availableInstances == null || availableInstances.isEmpty()) {
                 availableInstances = Collections.emptySet();
-            } else {
-                availableInstances = Collections.unmodifiableSet(new TreeSet<>(availableInstances));
+            } else if (source == null || availableInstances != source.availableInstances) {
+                availableInstances = AVAILABLE_INSTANCES.intern(availableInstances,
+                        instances -> Collections.unmodifiableSet(new TreeSet<>(instances)));
             }
             if (additionalRegistrationAttributes == null || additionalRegistrationAttributes.isEmpty()) {
                 additionalRegistrationAttributes = Collections.emptyMap();
-            } else {
+            } else if (source == null || additionalRegistrationAttributes != source.additionalRegistrationAttributes) {
                 additionalRegistrationAttributes = Collections
                         .unmodifiableMap(new HashMap<>(additionalRegistrationAttributes));
             }
             if (applicationData == null || applicationData.isEmpty()) {
                 applicationData = Collections.emptyMap();
-            } else {
+            } else if (source == null || applicationData != source.applicationData) {
                 applicationData = Collections.unmodifiableMap(new HashMap<>(applicationData));
             }
 
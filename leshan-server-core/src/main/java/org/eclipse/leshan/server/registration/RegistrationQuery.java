@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.registration;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.leshan.core.LwM2m.LwM2mVersion;
+import org.eclipse.leshan.core.LwM2m.Version;
+import org.eclipse.leshan.core.request.BindingMode;
+
+/**
+ * A query to find {@link Registration}s matching some criteria, see {@link RegistrationStore#findRegistrations}.
+ * <p>
+ * All criteria must match (logical AND). Except the last update range, each criterion is mapped to an index term (see
+ * {@link #getIndexTerms()}), {@link RegistrationStore} implementations maintain a secondary index from each term to
+ * registrations to avoid to scan all registrations.
+ */
+public class RegistrationQuery {
+
+    private final Integer objectId;
+    private final Version objectVersion;
+    private final EnumSet<BindingMode> bindingModes;
+    private final Boolean queueMode;
+    private final LwM2mVersion lwM2mVersion;
+    private final Map<String, String> attributes;
+    private final Date lastUpdateFrom;
+    private final Date lastUpdateTo;
+
+    private final Set<String> indexTerms;
+
+    protected RegistrationQuery(Builder builder) {
+        this.objectId = builder.objectId;
+        this.objectVersion = builder.objectVersion;
+        this.bindingModes = builder.bindingModes;
+        this.queueMode = builder.queueMode;
+        this.lwM2mVersion = builder.lwM2mVersion;
+        this.attributes = Collections.unmodifiableMap(new HashMap<>(builder.attributes));
+        this.lastUpdateFrom = builder.lastUpdateFrom;
+        this.lastUpdateTo = builder.lastUpdateTo;
+
+        Set<String> terms = new LinkedHashSet<>();
+        if (objectId != null) {
+            terms.add(objectVersion == null ? objectTerm(objectId) : objectTerm(objectId, objectVersion));
+        }
+        for (BindingMode mode : bindingModes) {
+            terms.add(bindingTerm(mode));
+        }
+        if (queueMode != null) {
+            terms.add(queueModeTerm(queueMode));
+        }
+        if (lwM2mVersion != null) {
+            terms.add(lwM2mVersionTerm(lwM2mVersion));
+        }
+        for (Entry<String, String> attribute : attributes.entrySet()) {
+            terms.add(attributeTerm(attribute.getKey(), attribute.getValue()));
+        }
+        this.indexTerms = Collections.unmodifiableSet(terms);
+    }
+
+    public Integer getObjectId() {
+        return objectId;
+    }
+
+    public Version getObjectVersion() {
+        return objectVersion;
+    }
+
+    public EnumSet<BindingMode> getBindingModes() {
+        return EnumSet.copyOf(bindingModes);
+    }
+
+    public Boolean getQueueMode() {
+        return queueMode;
+    }
+
+    public LwM2mVersion getLwM2mVersion() {
+        return lwM2mVersion;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public Date getLastUpdateFrom() {
+        return lastUpdateFrom;
+    }
+
+    public Date getLastUpdateTo() {
+        return lastUpdateTo;
+    }
+
+    /**
+     * @return <code>true</code> if a last update range is part of this query.
+     */
+    public boolean hasLastUpdateRange() {
+        return lastUpdateFrom != null || lastUpdateTo != null;
+    }
+
+    /**
+     * @return the index terms a registration must have to match this query.
+     */
+    public Set<String> getIndexTerms() {
+        return indexTerms;
+    }
+
+    /**
+     * @return <code>true</code> if the given registration matches all criteria of this query.
+     */
+    public boolean matches(Registration registration) {
+        if (!getIndexTerms(registration).containsAll(indexTerms)) {
+            return false;
+        }
+        long lastUpdate = registration.getLastUpdate().getTime();
+        if (lastUpdateFrom != null && lastUpdate < lastUpdateFrom.getTime()) {
+            return false;
+        }
+        if (lastUpdateTo != null && lastUpdate > lastUpdateTo.getTime()) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RegistrationQuery [terms=%s, lastUpdateFrom=%s, lastUpdateTo=%s]", indexTerms,
+                lastUpdateFrom, lastUpdateTo);
+    }
+
+    /**
+     * @return all the index terms of the given registration.
+     */
+    public static Set<String> getIndexTerms(Registration registration) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (Entry<Integer, Version> object : registration.getSupportedObject().entrySet()) {
+            terms.add(objectTerm(object.getKey()));
+            if (object.getValue() != null) {
+                terms.add(objectTerm(object.getKey(), object.getValue()));
+            }
+        }
+        if (registration.getBindingMode() != null) {
+            for (BindingMode mode : registration.getBindingMode()) {
+                terms.add(bindingTerm(mode));
+            }
+        }
+        terms.add(queueModeTerm(registration.usesQueueMode()));
+        if (registration.getLwM2mVersion() != null) {
+            terms.add(lwM2mVersionTerm(registration.getLwM2mVersion()));
+        }
+        if (registration.getAdditionalRegistrationAttributes() != null) {
+            for (Entry<String, String> attribute : registration.getAdditionalRegistrationAttributes().entrySet()) {
+                terms.add(attributeTerm(attribute.getKey(), attribute.getValue()));
+            }
+        }
+        return terms;
+    }
+
+    private static String objectTerm(int objectId) {
+        return "obj:" + objectId;
+    }
+
+    private static String objectTerm(int objectId, Version version) {
+        return "obj:" + objectId + "@" + version;
+    }
+
+    private static String bindingTerm(BindingMode mode) {
+        return "b:" + mode.name();
+    }
+
+    private static String queueModeTerm(boolean queueMode) {
+        return "q:" + queueMode;
+    }
+
+    private static String lwM2mVersionTerm(LwM2mVersion version) {
+        return "v:" + version;
+    }
+
+    private static String attributeTerm(String key, String value) {
+        return "a:" + key + "=" + value;
+    }
+
+    /**
+     * Class helping to build a {@link RegistrationQuery}.
+     */
+    public static class Builder {
+
+        private Integer objectId;
+        private Version objectVersion;
+        private final EnumSet<BindingMode> bindingModes = EnumSet.noneOf(BindingMode.class);
+        private Boolean queueMode;
+        private LwM2mVersion lwM2mVersion;
+        private final Map<String, String> attributes = new HashMap<>();
+        private Date lastUpdateFrom;
+        private Date lastUpdateTo;
+
+        /**
+         * Only match registrations supporting the given object, whatever its version.
+         */
+        public Builder setSupportedObject(int objectId) {
+            return setSupportedObject(objectId, null);
+        }
+
+        /**
+         * Only match registrations supporting the given object with the given version. A <code>null</code> version
+         * means any version.
+         */
+        public Builder setSupportedObject(int objectId, Version version) {
+            this.objectId = objectId;
+            this.objectVersion = version;
+            return this;
+        }
+
+        /**
+         * Only match registrations supporting the given binding mode. Can be called several times to require several
+         * binding modes.
+         */
+        public Builder addBindingMode(BindingMode bindingMode) {
+            this.bindingModes.add(bindingMode);
+            return this;
+        }
+
+        /**
+         * Only match registrations using (or not using) queue mode.
+         */
+        public Builder setQueueMode(Boolean queueMode) {
+            this.queueMode = queueMode;
+            return this;
+        }
+
+        /**
+         * Only match registrations using the given LWM2M version.
+         */
+        public Builder setLwM2mVersion(LwM2mVersion lwM2mVersion) {
+            this.lwM2mVersion = lwM2mVersion;
+            return this;
+        }
+
+        /**
+         * Only match registrations with the given additional registration attribute.
+         */
+        public Builder addAttribute(String key, String value) {
+            this.attributes.put(key, value);
+            return this;
+        }
+
+        /**
+         * Only match registrations updated in the given range (inclusive). A <code>null</code> bound means no bound.
+         */
+        public Builder setLastUpdateRange(Date from, Date to) {
+            this.lastUpdateFrom = from;
+            this.lastUpdateTo = to;
+            return this;
+        }
+
+        public RegistrationQuery build() {
+            if (lastUpdateFrom != null && lastUpdateTo != null && lastUpdateFrom.after(lastUpdateTo)) {
+                throw new IllegalArgumentException("lastUpdateFrom must not be after lastUpdateTo");
+            }
+            return new RegistrationQuery(this);
+        }
+    }
+}
@@ -16,6 +16,10 @@
 package org.eclipse.leshan.server.registration;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.stream.StreamSupport;
 
 /**
  * A service to access registered clients
@@ -45,6 +49,43 @@ public interface RegistrationService {
      */
     Iterator<Registration> getAllRegistrations();
 
+    /**
+     * Returns an iterator over registrations matching the given query. There are no guarantees concerning the order in
+     * which the elements are returned.
+     * <p>
+     * Default implementation scans {@link #getAllRegistrations()} and filters it with
+     * {@link RegistrationQuery#matches(Registration)}.
+     *
+     * @param query the criteria registrations must match.
+     * @return an <tt>Iterator</tt> over matching registrations
+     */
+    default Iterator<Registration> findRegistrations(RegistrationQuery query) {
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(getAllRegistrations(), Spliterator.NONNULL), false)
+                .filter(query::matches).iterator();
+    }
+
+    /**
+     * Returns an iterator over registrations sorted by endpoint name, starting from the given endpoint name
+     * (inclusive).
+     * <p>
+     * Default implementation scans and sorts {@link #getAllRegistrations()}.
+     *
+     * @param fromEndpoint the endpoint name to start from or <code>null</code> to start from the first registration.
+     * @return an <tt>Iterator</tt> over registrations sorted by endpoint name
+     * @see RegistrationStore#getRegistrationsSortedByEndpoint(String)
+     */
+    default Iterator<Registration> getRegistrationsSortedByEndpoint(String fromEndpoint) {
+        TreeMap<String, Registration> sorted = new TreeMap<>();
+        for (Iterator<Registration> it = getAllRegistrations(); it.hasNext();) {
+            Registration registration = it.next();
+            if (fromEndpoint == null || registration.getEndpoint().compareTo(fromEndpoint) >= 0) {
+                sorted.put(registration.getEndpoint(), registration);
+            }
+        }
+        return sorted.values().iterator();
+    }
+
     /**
      * Adds a new listener to be notified with client registration events.
      *
@@ -51,6 +51,16 @@ public class RegistrationServiceImpl implements RegistrationService, ExpirationL
         return store.getAllRegistrations();
     }
 
+    @Override
+    public Iterator<Registration> findRegistrations(RegistrationQuery query) {
+        return store.findRegistrations(query);
+    }
+
+    @Override
+    public Iterator<Registration> getRegistrationsSortedByEndpoint(String fromEndpoint) {
+        return store.getRegistrationsSortedByEndpoint(fromEndpoint);
+    }
+
     @Override
     public Registration getByEndpoint(String endpoint) {
         return store.getRegistrationByEndpoint(endpoint);
@@ -18,9 +18,17 @@ package org.eclipse.leshan.server.registration;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.observation.SingleObservation;
 import org.eclipse.leshan.core.request.Identity;
 
 /**
@@ -88,6 +96,45 @@ public interface RegistrationStore {
      */
     Iterator<Registration> getAllRegistrations();
 
+    /**
+     * Returns an iterator over the registrations of this store matching the given query. There are no guarantees
+     * concerning the order in which the elements are returned.
+     * <p>
+     * Default implementation scans {@link #getAllRegistrations()} and filters it with
+     * {@link RegistrationQuery#matches(Registration)}. Implementations should rather rely on secondary indexes
+     * maintained for {@link RegistrationQuery#getIndexTerms()}.
+     *
+     * @param query the criteria registrations must match.
+     * @return an <tt>Iterator</tt> over the matching registrations in this store
+     */
+    default Iterator<Registration> findRegistrations(RegistrationQuery query) {
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(getAllRegistrations(), Spliterator.NONNULL), false)
+                .filter(query::matches).iterator();
+    }
+
+    /**
+     * Returns an iterator over the registrations of this store sorted by endpoint name, starting from the given
+     * endpoint name (inclusive). This allows to page through registrations: next page starts right after the endpoint
+     * of the last registration of previous page.
+     * <p>
+     * Default implementation scans and sorts {@link #getAllRegistrations()}. Implementations should rather rely on an
+     * index sorted by endpoint name, so the cost of a page does not depend on the number of registrations before it.
+     *
+     * @param fromEndpoint the endpoint name to start from or <code>null</code> to start from the first registration.
+     * @return an <tt>Iterator</tt> over registrations sorted by endpoint name
+     */
+    default Iterator<Registration> getRegistrationsSortedByEndpoint(String fromEndpoint) {
+        TreeMap<String, Registration> sorted = new TreeMap<>();
+        for (Iterator<Registration> it = getAllRegistrations(); it.hasNext();) {
+            Registration registration = it.next();
+            if (fromEndpoint == null || registration.getEndpoint().compareTo(fromEndpoint) >= 0) {
+                sorted.put(registration.getEndpoint(), registration);
+            }
+        }
+        return sorted.values().iterator();
+    }
+
     /**
      * Remove the registration with the given registration Id
      *
@@ -123,6 +170,41 @@ public interface RegistrationStore {
      */
     Observation removeObservation(String registrationId, ObservationIdentifier observationId);
 
+    /**
+     * Get the observation for the given registration which targets the given path.
+     * <p>
+     * Default implementation searches in {@link #getObservations(String)}, implementations should rather rely on an
+     * index by path.
+     *
+     * @return the observation or <code>null</code> if there is no observation for this path.
+     */
+    default SingleObservation getObservation(String registrationId, LwM2mPath path) {
+        for (Observation observation : getObservations(registrationId)) {
+            if (observation instanceof SingleObservation && ((SingleObservation) observation).getPath().equals(path)) {
+                return (SingleObservation) observation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the composite-observation for the given registration which targets exactly the given paths.
+     * <p>
+     * Default implementation searches in {@link #getObservations(String)}, implementations should rather rely on an
+     * index by paths.
+     *
+     * @return the composite-observation or <code>null</code> if there is no composite-observation for these paths.
+     */
+    default CompositeObservation getCompositeObservation(String registrationId, List<LwM2mPath> paths) {
+        for (Observation observation : getObservations(registrationId)) {
+            if (observation instanceof CompositeObservation
+                    && ((CompositeObservation) observation).getPaths().equals(paths)) {
+                return (CompositeObservation) observation;
+            }
+        }
+        return null;
+    }
+
     /**
      * Get all observations for the given registrationId
      */
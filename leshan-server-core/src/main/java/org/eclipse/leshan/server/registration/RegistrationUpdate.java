@@ -75,7 +75,9 @@ public class RegistrationUpdate {
      */
     public Registration update(Registration registration) {
         Identity identity = this.identity != null ? this.identity : registration.getIdentity();
-        Link[] linkObject = this.objectLinks != null ? this.objectLinks : registration.getObjectLinks();
+        // object links are re-extracted only if they changed
+        boolean objectLinksUpdated = this.objectLinks != null
+                && !Arrays.equals(this.objectLinks, registration.unsafeGetObjectLinks());
         long lifeTimeInSec = this.lifeTimeInSec != null ? this.lifeTimeInSec : registration.getLifeTimeInSec();
         EnumSet<BindingMode> bindingMode = this.bindingMode != null ? this.bindingMode : registration.getBindingMode();
         String smsNumber = this.smsNumber != null ? this.smsNumber : registration.getSmsNumber();
@@ -91,17 +93,15 @@ public class RegistrationUpdate {
         // to extend the client registration time-to-live period ...
         Date lastUpdate = new Date();
 
-        Registration.Builder builder = new Registration.Builder(registration.getId(), registration.getEndpoint(),
-                identity, registration.getLastEndpointUsed());
-        builder.extractDataFromObjectLink(this.objectLinks != null); // we parse object link only if there was updated.
-
-        builder.lwM2mVersion(registration.getLwM2mVersion()).lifeTimeInSec(lifeTimeInSec).smsNumber(smsNumber)
-                .bindingMode(bindingMode).queueMode(registration.getQueueMode()).objectLinks(linkObject)
-                .registrationDate(registration.getRegistrationDate()).lastUpdate(lastUpdate)
-                .additionalRegistrationAttributes(additionalAttributes).rootPath(registration.getRootPath())
-                .supportedContentFormats(registration.getSupportedContentFormats())
-                .supportedObjects(registration.getSupportedObject())
-                .availableInstances(registration.getAvailableInstances()).applicationData(applicationData);
+        // start from a copy, so unchanged data are reused as is
+        Registration.Builder builder = new Registration.Builder(registration).identity(identity);
+        if (objectLinksUpdated) {
+            // we parse object link only if there was updated.
+            builder.objectLinks(this.objectLinks).extractDataFromObjectLink(true);
+        }
+
+        builder.lifeTimeInSec(lifeTimeInSec).smsNumber(smsNumber).bindingMode(bindingMode).lastUpdate(lastUpdate)
+                .additionalRegistrationAttributes(additionalAttributes).applicationData(applicationData);
 
         return builder.build();
     }
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.security;
+
+/**
+ * A store for DTLS state of server endpoints.
+ * <p>
+ * It allows to avoid full DTLS handshakes after a server restart or when a device is routed to another node of a
+ * cluster :
+ * <ul>
+ * <li>DTLS sessions are stored as soon as they are established, so any node sharing this store can accept an
+ * abbreviated handshake.</li>
+ * <li>A snapshot of all DTLS connections of an endpoint is saved when it is stopped and restored when it is created, so
+ * peers can continue to talk without any handshake.</li>
+ * </ul>
+ * Stored data are opaque and serialized by the transport layer.
+ * <p>
+ * Connections snapshots are only saved on graceful stop : after a crash, endpoint restarts with the previous snapshot
+ * (if any) and peers whose connection is missing or stale need a new handshake (abbreviated one if their session is
+ * still in the store). A snapshot belongs to one endpoint of one server node, so a store shared between several nodes
+ * must identify the node in snapshot keys (see <code>RedisDtlsStateStore</code>).
+ *
+ * @see FileDtlsStateStore
+ */
+public interface DtlsStateStore {
+
+    /**
+     * Store DTLS session resumption data.
+     *
+     * @param sessionId the DTLS session identifier.
+     * @param session the serialized session.
+     */
+    void putSession(byte[] sessionId, byte[] session);
+
+    /**
+     * @param sessionId the DTLS session identifier.
+     * @return the serialized session or <code>null</code> if there is no session for this identifier.
+     */
+    byte[] getSession(byte[] sessionId);
+
+    /**
+     * @param sessionId the identifier of the DTLS session to remove.
+     */
+    void removeSession(byte[] sessionId);
+
+    /**
+     * Save a snapshot of DTLS connections of an endpoint, it replaces any previous one.
+     *
+     * @param endpointKey key identifying the endpoint (e.g. its URI).
+     * @param connections the serialized connections.
+     */
+    void saveConnections(String endpointKey, byte[] connections);
+
+    /**
+     * @param endpointKey key identifying the endpoint (e.g. its URI).
+     * @return the last saved snapshot of DTLS connections or <code>null</code> if there is none.
+     */
+    byte[] loadConnections(String endpointKey);
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.security;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.leshan.core.util.Hex;
+import org.eclipse.leshan.core.util.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link DtlsStateStore} which persists DTLS connections snapshots in a directory.
+ * <p>
+ * This is intended for a single server instance : sessions are only kept in memory (in a LRU cache) to allow
+ * abbreviated handshake for peers whose connection was evicted, while connections snapshots (which contain sessions)
+ * are written to files to survive a restart.
+ */
+public class FileDtlsStateStore implements DtlsStateStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileDtlsStateStore.class);
+
+    // default location for persistence
+    private static final String DEFAULT_DIRECTORY = "data/dtls";
+    private static final int DEFAULT_MAX_SESSIONS = 10000;
+
+    private final File directory;
+    private final Map<String, byte[]> sessions;
+
+    public FileDtlsStateStore() {
+        this(DEFAULT_DIRECTORY, DEFAULT_MAX_SESSIONS);
+    }
+
+    /**
+     * @param directory the directory where connections snapshots are stored, created if it does not exist.
+     * @param maxSessions the maximum number of sessions kept in memory, least recently used are evicted first.
+     */
+    public FileDtlsStateStore(String directory, final int maxSessions) {
+        Validate.notEmpty(directory);
+        Validate.isTrue(maxSessions > 0, "maxSessions must be positive");
+        this.directory = new File(directory);
+        this.sessions = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<String, byte[]> eldest) {
+                return size() > maxSessions;
+            }
+        };
+    }
+
+    @Override
+    public void putSession(byte[] sessionId, byte[] session) {
+        synchronized (sessions) {
+            sessions.put(Hex.encodeHexString(sessionId), session);
+        }
+    }
+
+    @Override
+    public byte[] getSession(byte[] sessionId) {
+        synchronized (sessions) {
+            return sessions.get(Hex.encodeHexString(sessionId));
+        }
+    }
+
+    @Override
+    public void removeSession(byte[] sessionId) {
+        synchronized (sessions) {
+            sessions.remove(Hex.encodeHexString(sessionId));
+        }
+    }
+
+    @Override
+    public void saveConnections(String endpointKey, byte[] connections) {
+        File file = getFile(endpointKey);
+        File tmpFile = new File(directory, file.getName() + ".tmp");
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException(String.format("Unable to create directory %s", directory));
+            }
+            // write in a temporary file then move it, so a crash during save does not corrupt previous snapshot
+            try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+                out.write(connections);
+                out.getFD().sync();
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.error("Could not save DTLS connections of {} to file", endpointKey, e);
+        }
+    }
+
+    @Override
+    public byte[] loadConnections(String endpointKey) {
+        File file = getFile(endpointKey);
+        if (!file.exists())
+            return null;
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            LOG.error("Could not load DTLS connections of {} from file", endpointKey, e);
+            return null;
+        }
+    }
+
+    protected File getFile(String endpointKey) {
+        return new File(directory, Hex.encodeHexString(endpointKey.getBytes(StandardCharsets.UTF_8)) + ".dtls");
+    }
+}
@@ -15,13 +15,43 @@
  *******************************************************************************/
 package org.eclipse.leshan.server.security;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
 
+import org.eclipse.leshan.core.Destroyable;
+import org.eclipse.leshan.core.oscore.OscoreSetting;
 import org.eclipse.leshan.core.util.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,27 +59,86 @@ import org.slf4j.LoggerFactory;
 /**
  * A {@link SecurityStore} which persists {@link SecurityInfo} in a file.
  * <p>
- * This implementation serializes the store content into a file to be able to re-load the {@link SecurityInfo} when the
- * server is restarted.
- * </p>
+ * This implementation persists the store content to be able to re-load the {@link SecurityInfo} when the server is
+ * restarted :
+ * <ul>
+ * <li>each change is appended to a journal file (<code>filename.journal</code>), so a change costs a few bytes write
+ * whatever the store size. Changes are written immediately but fsync is batched : it is done at most once by
+ * <code>syncIntervalInMs</code>, and a timer ensures a change is synced at the latest <code>syncIntervalInMs</code>
+ * after it was written even if no other change follows. So a power failure may lose changes of the last
+ * <code>syncIntervalInMs</code>.</li>
+ * <li>when journal contains more records than the store, it is compacted : a snapshot of the whole store is written to
+ * <code>filename</code> outside of store lock and journal is deleted.</li>
+ * </ul>
+ * At startup, the snapshot is loaded and journal is replayed. Records use a compact binary format (no Java
+ * serialization), but a snapshot written by previous versions using Java serialization is still loaded.
  */
-public class FileSecurityStore extends InMemorySecurityStore {
+public class FileSecurityStore extends InMemorySecurityStore implements Destroyable {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileSecurityStore.class);
 
+    private static final int SNAPSHOT_MAGIC = 0x4C535331; // "LSS1"
+    private static final short JAVA_SERIALIZATION_MAGIC = (short) 0xACED;
+
+    private static final byte RECORD_ADD = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    private static final byte MODE_PSK = 1;
+    private static final byte MODE_RPK = 2;
+    private static final byte MODE_X509 = 3;
+    private static final byte MODE_OSCORE = 4;
+
+    // minimum number of journal records before compaction
+    private static final int MIN_COMPACTION_THRESHOLD = 1000;
+
     // the name of the file used to persist the store content
     private final String filename;
+    private final File journalFile;
+    private final File compactingJournalFile;
+    private final long syncIntervalInNanos;
+
+    // journal state, guarded by writeLock
+    private FileChannel journal;
+    private long validJournalLength = -1;
+    private volatile int journalRecords;
+    private long lastSync;
+    private boolean syncScheduled;
+    private volatile boolean unsyncedChanges;
+
+    // used to sync changes which were not synced on write, null if each change is synced.
+    private final ScheduledExecutorService syncExecutor;
+
+    private final Lock compactionLock = new ReentrantLock();
 
     // default location for persistence
     private static final String DEFAULT_FILE = "data/security.data";
+    private static final long DEFAULT_SYNC_INTERVAL_IN_MS = 1000;
 
     public FileSecurityStore() {
         this(DEFAULT_FILE);
     }
 
     public FileSecurityStore(String file) {
+        this(file, DEFAULT_SYNC_INTERVAL_IN_MS);
+    }
+
+    /**
+     * @param file the snapshot file, journal files use the same name with a suffix.
+     * @param syncIntervalInMs the minimum delay between 2 fsync of the journal. 0 means fsync on each change.
+     */
+    public FileSecurityStore(String file, long syncIntervalInMs) {
         Validate.notEmpty(file);
+        Validate.isTrue(syncIntervalInMs >= 0, "syncIntervalInMs must be positive");
         filename = file;
+        journalFile = new File(file + ".journal");
+        compactingJournalFile = new File(file + ".journal.compacting");
+        syncIntervalInNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalInMs);
+        lastSync = System.nanoTime() - syncIntervalInNanos;
+        syncExecutor = syncIntervalInMs > 0 ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "FileSecurityStore journal sync");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
         loadFromFile();
     }
 
@@ -57,69 +146,475 @@ public class FileSecurityStore extends InMemorySecurityStore {
         return super.add(info);
     }
 
+    protected SecurityInfo removeFromStore(String endpoint, boolean infosAreCompromised) {
+        return super.remove(endpoint, infosAreCompromised);
+    }
+
     @Override
     public SecurityInfo add(SecurityInfo info) throws NonUniqueSecurityInfoException {
+        SecurityInfo previous;
         writeLock.lock();
         try {
-            SecurityInfo previous = addToStore(info);
-            saveToFile();
-            return previous;
+            previous = addToStore(info);
+            appendToJournal(RECORD_ADD, info, null);
         } finally {
             writeLock.unlock();
         }
+        compactIfNeeded();
+        return previous;
     }
 
     @Override
     public SecurityInfo remove(String endpoint, boolean infosAreCompromised) {
+        SecurityInfo info;
         writeLock.lock();
         try {
-            SecurityInfo info = super.remove(endpoint, infosAreCompromised);
+            info = removeFromStore(endpoint, infosAreCompromised);
             if (info != null) {
-                saveToFile();
+                appendToJournal(RECORD_REMOVE, null, endpoint);
             }
-            return info;
         } finally {
             writeLock.unlock();
         }
+        compactIfNeeded();
+        return info;
     }
 
+    /**
+     * Load snapshot then replay journals. If journals were replayed, store is compacted.
+     */
     protected void loadFromFile() {
+        boolean needsCompaction = false;
         File file = new File(filename);
-        if (!file.exists()) {
-            return;
+        if (file.exists()) {
+            needsCompaction = loadSnapshot(file);
+        }
+
+        // journal being compacted when server stopped (if any) must be replayed first.
+        int replayed = replayJournal(compactingJournalFile);
+        replayed += replayJournal(journalFile);
+        if (replayed > 0) {
+            LOG.debug("{} security info changes replayed from journal", replayed);
+        }
+
+        if (needsCompaction || compactingJournalFile.exists() || journalFile.exists()) {
+            saveToFile();
         }
+    }
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file));) {
-            SecurityInfo[] infos = (SecurityInfo[]) in.readObject();
+    /**
+     * @return <code>true</code> if snapshot should be rewritten (e.g. using an old format)
+     */
+    private boolean loadSnapshot(File file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.mark(4);
+            if (in.readShort() == JAVA_SERIALIZATION_MAGIC) {
+                in.reset();
+                loadLegacySnapshot(in);
+                return true;
+            }
+            in.reset();
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                LOG.error("Could not load security infos from file {} : unknown format", filename);
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                addToStore(readSecurityInfo(in));
+            }
+            if (count > 0) {
+                LOG.debug("{} security infos loaded", count);
+            }
+        } catch (EOFException e) {
+            // empty file
+        } catch (NonUniqueSecurityInfoException | IOException e) {
+            LOG.error("Could not load security infos from file", e);
+        }
+        return false;
+    }
 
+    private void loadLegacySnapshot(InputStream in) throws IOException, NonUniqueSecurityInfoException {
+        try (ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            SecurityInfo[] infos = (SecurityInfo[]) objectIn.readObject();
             if (infos != null) {
                 for (SecurityInfo info : infos) {
                     addToStore(info);
                 }
                 if (infos.length > 0) {
-                    LOG.debug("{} security infos loaded", infos.length);
+                    LOG.debug("{} security infos loaded from Java serialized file", infos.length);
                 }
             }
-        } catch (NonUniqueSecurityInfoException | IOException | ClassNotFoundException e) {
-            LOG.error("Could not load security infos from file", e);
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
         }
     }
 
-    protected void saveToFile() {
+    /**
+     * Replay journal records until end of file or first truncated/corrupted record (e.g. because of a crash during
+     * write).
+     *
+     * @return the number of replayed records.
+     */
+    private int replayJournal(File file) {
+        if (!file.exists()) {
+            return 0;
+        }
+        int count = 0;
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int crc = in.readInt();
+                if (length < 0) {
+                    throw new IOException("invalid record length " + length);
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                if (crc != computeCrc(record)) {
+                    throw new IOException("invalid record checksum");
+                }
+                applyRecord(new DataInputStream(new ByteArrayInputStream(record)));
+                validLength += 8 + length;
+                count++;
+            }
+        } catch (IOException e) {
+            LOG.warn("Journal {} is truncated or corrupted after {} records, remaining content is ignored", file, count,
+                    e);
+        }
+        if (file.equals(journalFile)) {
+            validJournalLength = validLength;
+            journalRecords = count;
+        }
+        return count;
+    }
+
+    private void applyRecord(DataInput in) throws IOException {
+        byte type = in.readByte();
+        if (type == RECORD_ADD) {
+            try {
+                addToStore(readSecurityInfo(in));
+            } catch (NonUniqueSecurityInfoException e) {
+                LOG.warn("Unable to replay security info addition", e);
+            }
+        } else if (type == RECORD_REMOVE) {
+            removeFromStore(in.readUTF(), false);
+        } else {
+            throw new IOException("unknown record type " + type);
+        }
+    }
+
+    /**
+     * Append a change to the journal. MUST be called holding write lock.
+     */
+    private void appendToJournal(byte type, SecurityInfo info, String endpoint) {
         try {
-            File file = new File(filename);
-            if (!file.exists()) {
-                File parent = file.getParentFile();
-                if (parent != null) {
-                    parent.mkdirs();
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+            DataOutputStream record = new DataOutputStream(recordBytes);
+            record.writeByte(type);
+            if (type == RECORD_ADD) {
+                writeSecurityInfo(record, info);
+            } else {
+                record.writeUTF(endpoint);
+            }
+            byte[] payload = recordBytes.toByteArray();
+
+            ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(payload.length + 8);
+            DataOutputStream frame = new DataOutputStream(frameBytes);
+            frame.writeInt(payload.length);
+            frame.writeInt(computeCrc(payload));
+            frame.write(payload);
+
+            FileChannel channel = getJournal();
+            ByteBuffer buffer = ByteBuffer.wrap(frameBytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            journalRecords++;
+            unsyncedChanges = true;
+
+            long now = System.nanoTime();
+            if (now - lastSync >= syncIntervalInNanos) {
+                syncJournal(now);
+            } else if (!syncScheduled) {
+                // ensure this change is synced even if no other change is written after it
+                try {
+                    syncExecutor.schedule(this::syncPendingChanges, lastSync + syncIntervalInNanos - now,
+                            TimeUnit.NANOSECONDS);
+                    syncScheduled = true;
+                } catch (RejectedExecutionException e) {
+                    // store is destroyed
+                    syncJournal(now);
                 }
-                file.createNewFile();
             }
-            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filename));) {
-                out.writeObject(this.getAll().toArray(new SecurityInfo[0]));
+        } catch (IOException e) {
+            LOG.error("Could not save security info change to journal", e);
+        }
+    }
+
+    /**
+     * Sync the journal. MUST be called holding write lock.
+     */
+    private void syncJournal(long now) throws IOException {
+        journal.force(false);
+        lastSync = now;
+        unsyncedChanges = false;
+    }
+
+    private void syncPendingChanges() {
+        writeLock.lock();
+        try {
+            syncScheduled = false;
+            if (unsyncedChanges && journal != null) {
+                syncJournal(System.nanoTime());
             }
+        } catch (IOException e) {
+            LOG.error("Could not sync security infos journal", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if some changes written to the journal are not synced yet.
+     */
+    boolean hasUnsyncedChanges() {
+        return unsyncedChanges;
+    }
+
+    private FileChannel getJournal() throws IOException {
+        if (journal == null) {
+            File parent = journalFile.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // remove truncated/corrupted tail if any, so new records are not appended after it.
+            if (validJournalLength >= 0 && journal.size() > validJournalLength) {
+                journal.truncate(validJournalLength);
+            }
+            journal.position(journal.size());
+            validJournalLength = -1;
+        }
+        return journal;
+    }
+
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            try {
+                journal.force(false);
+                unsyncedChanges = false;
+            } finally {
+                journal.close();
+                journal = null;
+            }
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (journalRecords <= Math.max(MIN_COMPACTION_THRESHOLD, securityByEp.size())) {
+            return;
+        }
+        // only one compaction at a time
+        if (!compactionLock.tryLock()) {
+            return;
+        }
+        try {
+            // rotate journal
+            Collection<SecurityInfo> infos;
+            writeLock.lock();
+            try {
+                if (journalRecords <= Math.max(MIN_COMPACTION_THRESHOLD, securityByEp.size())) {
+                    return;
+                }
+                infos = new ArrayList<>(securityByEp.values());
+                closeJournal();
+                if (compactingJournalFile.exists()) {
+                    // previous compaction failed, keep its changes
+                    Files.write(compactingJournalFile.toPath(), Files.readAllBytes(journalFile.toPath()),
+                            StandardOpenOption.APPEND);
+                    Files.delete(journalFile.toPath());
+                } else {
+                    Files.move(journalFile.toPath(), compactingJournalFile.toPath());
+                }
+                journalRecords = 0;
+            } finally {
+                writeLock.unlock();
+            }
+
+            // write snapshot without blocking store access
+            if (saveToFile(infos)) {
+                Files.deleteIfExists(compactingJournalFile.toPath());
+            }
+        } catch (IOException e) {
+            LOG.error("Could not compact security infos journal", e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private void deleteJournals() {
+        writeLock.lock();
+        try {
+            closeJournal();
+            Files.deleteIfExists(compactingJournalFile.toPath());
+            Files.deleteIfExists(journalFile.toPath());
+            journalRecords = 0;
+            validJournalLength = -1;
+        } catch (IOException e) {
+            LOG.error("Could not delete security infos journal", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write a snapshot of the whole store and delete journals.
+     * <p>
+     * This is not needed after each change as they are already persisted in journal, but subclasses can call it to
+     * force a compaction.
+     */
+    protected void saveToFile() {
+        writeLock.lock();
+        try {
+            if (saveToFile(getAll())) {
+                deleteJournals();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write a snapshot of the given security infos, atomically replacing previous one.
+     *
+     * @return <code>true</code> if snapshot was successfully written.
+     */
+    protected boolean saveToFile(Collection<SecurityInfo> infos) {
+        File file = new File(filename);
+        File tmpFile = new File(filename + ".tmp");
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            try (FileOutputStream fileOut = new FileOutputStream(tmpFile);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                List<SecurityInfo> list = new ArrayList<>(infos);
+                out.writeInt(list.size());
+                for (SecurityInfo info : list) {
+                    writeSecurityInfo(out, info);
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
         } catch (IOException e) {
             LOG.error("Could not save security infos to file", e);
+            return false;
+        }
+    }
+
+    protected void writeSecurityInfo(DataOutput out, SecurityInfo info) throws IOException {
+        out.writeUTF(info.getEndpoint());
+        if (info.usePSK()) {
+            out.writeByte(MODE_PSK);
+            out.writeUTF(info.getPskIdentity());
+            writeBytes(out, info.getPreSharedKey());
+        } else if (info.useRPK()) {
+            out.writeByte(MODE_RPK);
+            out.writeUTF(info.getRawPublicKey().getAlgorithm());
+            writeBytes(out, info.getRawPublicKey().getEncoded());
+        } else if (info.useX509Cert()) {
+            out.writeByte(MODE_X509);
+        } else if (info.useOSCORE()) {
+            OscoreSetting oscoreSetting = info.getOscoreSetting();
+            out.writeByte(MODE_OSCORE);
+            writeBytes(out, oscoreSetting.getSenderId());
+            writeBytes(out, oscoreSetting.getRecipientId());
+            writeBytes(out, oscoreSetting.getMasterSecret());
+            out.writeInt(oscoreSetting.getAeadAlgorithm().getValue());
+            out.writeInt(oscoreSetting.getHkdfAlgorithm().getValue());
+            writeBytes(out, oscoreSetting.getMasterSalt());
+        } else {
+            throw new IOException("Unsupported security info " + info);
+        }
+    }
+
+    protected SecurityInfo readSecurityInfo(DataInput in) throws IOException {
+        String endpoint = in.readUTF();
+        byte mode = in.readByte();
+        switch (mode) {
+        case MODE_PSK:
+            return SecurityInfo.newPreSharedKeyInfo(endpoint, in.readUTF(), readBytes(in));
+        case MODE_RPK:
+            String algorithm = in.readUTF();
+            try {
+                PublicKey publicKey = KeyFactory.getInstance(algorithm)
+                        .generatePublic(new X509EncodedKeySpec(readBytes(in)));
+                return SecurityInfo.newRawPublicKeyInfo(endpoint, publicKey);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Invalid public key for " + endpoint, e);
+            }
+        case MODE_X509:
+            return SecurityInfo.newX509CertInfo(endpoint);
+        case MODE_OSCORE:
+            byte[] senderId = readBytes(in);
+            byte[] recipientId = readBytes(in);
+            byte[] masterSecret = readBytes(in);
+            int aeadAlgorithm = in.readInt();
+            int hkdfAlgorithm = in.readInt();
+            byte[] masterSalt = readBytes(in);
+            return SecurityInfo.newOscoreInfo(endpoint,
+                    new OscoreSetting(senderId, recipientId, masterSecret, aeadAlgorithm, hkdfAlgorithm, masterSalt));
+        default:
+            throw new IOException("Unknown security mode " + mode + " for " + endpoint);
+        }
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static int computeCrc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Flush and close the journal.
+     */
+    @Override
+    public void destroy() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+        writeLock.lock();
+        try {
+            closeJournal();
+        } catch (IOException e) {
+            LOG.error("Could not close security infos journal", e);
+        } finally {
+            writeLock.unlock();
         }
     }
 }
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.send;
+
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.request.SendRequest;
+import org.eclipse.leshan.server.registration.Registration;
+
+/**
+ * A {@link SendListener} which is able to consume data in columnar representation.
+ * <p>
+ * When a {@link SendRequest} was decoded as {@link ColumnarTimestampedLwM2mNodes},
+ * {@link #dataReceived(Registration, ColumnarTimestampedLwM2mNodes, SendRequest)} is called instead of
+ * {@link #dataReceived(Registration, TimestampedLwM2mNodes, SendRequest)}, so no {@link TimestampedLwM2mNodes} needs to
+ * be created.
+ *
+ * @see SendRequest#getColumnarTimestampedNodes()
+ */
+public interface ColumnarSendListener extends SendListener {
+
+    /**
+     * Called when new data are received from a LWM2M client via a {@link SendRequest} decoded in columnar
+     * representation.
+     *
+     * @param registration Registration of the client which send the data.
+     * @param data The data received
+     * @param request The request received
+     */
+    void dataReceived(Registration registration, ColumnarTimestampedLwM2mNodes data, SendRequest request);
+}
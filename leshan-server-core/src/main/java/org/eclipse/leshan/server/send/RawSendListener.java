@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.send;
+
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
+import org.eclipse.leshan.core.request.SendRequest;
+import org.eclipse.leshan.server.registration.Registration;
+
+/**
+ * A {@link SendListener} which is able to consume raw payload.
+ * <p>
+ * When a {@link SendRequest} was created without decoding its payload,
+ * {@link #dataReceived(Registration, LazyDecodedPayload, SendRequest)} is called instead of
+ * {@link #dataReceived(Registration, TimestampedLwM2mNodes, SendRequest)}, so payload is only decoded if listener calls
+ * {@link LazyDecodedPayload#getDecoded()}.
+ *
+ * @see SendRequest#getRawPayload()
+ */
+public interface RawSendListener extends SendListener {
+
+    /**
+     * Called when new data are received from a LWM2M client via a {@link SendRequest} which was not decoded yet.
+     *
+     * @param registration Registration of the client which send the data.
+     * @param data The raw data received with its content format and a memoized decoded view.
+     * @param request The request received
+     */
+    void dataReceived(Registration registration, LazyDecodedPayload<TimestampedLwM2mNodes> data, SendRequest request);
+}
@@ -18,8 +18,11 @@ package org.eclipse.leshan.server.send;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
 import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
 import org.eclipse.leshan.core.request.SendRequest;
+import org.eclipse.leshan.core.request.exception.InvalidRequestException;
 import org.eclipse.leshan.core.response.SendResponse;
 import org.eclipse.leshan.core.response.SendableResponse;
 import org.eclipse.leshan.server.registration.Registration;
@@ -47,18 +50,62 @@ public class SendHandler implements SendService {
         SendableResponse<SendResponse> response = new SendableResponse<>(SendResponse.success(), new Runnable() {
             @Override
             public void run() {
-                fireDataReceived(registration, request.getTimestampedNodes(), request);
+                fireDataReceived(registration, request);
             }
         });
         return response;
     }
 
+    protected void fireDataReceived(Registration registration, SendRequest request) {
+        ColumnarTimestampedLwM2mNodes columnarData = request.getColumnarTimestampedNodes();
+        LazyDecodedPayload<TimestampedLwM2mNodes> rawData = request.getRawPayload();
+        boolean nodesNeeded = false;
+        for (SendListener listener : listeners) {
+            if (rawData != null && listener instanceof RawSendListener) {
+                ((RawSendListener) listener).dataReceived(registration, rawData, request);
+            } else if (columnarData != null && listener instanceof ColumnarSendListener) {
+                ((ColumnarSendListener) listener).dataReceived(registration, columnarData, request);
+            } else {
+                nodesNeeded = true;
+            }
+        }
+        if (!nodesNeeded) {
+            return;
+        }
+
+        // TimestampedLwM2mNodes is only created if a listener needs it.
+        TimestampedLwM2mNodes data;
+        try {
+            data = request.getTimestampedNodes();
+        } catch (InvalidRequestException e) {
+            // raw payload could not be decoded
+            for (SendListener listener : listeners) {
+                if (!isHandledWithoutNodes(listener, request)) {
+                    listener.onError(registration, e);
+                }
+            }
+            return;
+        }
+        fireDataReceived(registration, data, request);
+    }
+
+    /**
+     * Notify listeners which need {@link TimestampedLwM2mNodes}. Listeners which already received raw or columnar data
+     * for this request are not notified again.
+     */
     protected void fireDataReceived(Registration registration, TimestampedLwM2mNodes data, SendRequest request) {
         for (SendListener listener : listeners) {
-            listener.dataReceived(registration, data, request);
+            if (!isHandledWithoutNodes(listener, request)) {
+                listener.dataReceived(registration, data, request);
+            }
         }
     }
 
+    private boolean isHandledWithoutNodes(SendListener listener, SendRequest request) {
+        return (request.getRawPayload() != null && listener instanceof RawSendListener)
+                || (request.getColumnarTimestampedNodes() != null && listener instanceof ColumnarSendListener);
+    }
+
     public void onError(Registration registration, Exception error) {
         for (SendListener listener : listeners) {
             listener.onError(registration, error);
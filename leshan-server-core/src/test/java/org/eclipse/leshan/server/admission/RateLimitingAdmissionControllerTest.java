@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.request.RegisterRequest;
+import org.eclipse.leshan.core.request.SendRequest;
+import org.junit.jupiter.api.Test;
+
+public class RateLimitingAdmissionControllerTest {
+
+    private final Identity device1 = Identity.psk(new InetSocketAddress("127.0.0.1", 5683), "device1");
+    private final Identity device2 = Identity.psk(new InetSocketAddress("127.0.0.1", 5684), "device2");
+
+    @Test
+    public void token_bucket_is_refilled_over_time() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(2, 1, clock::get);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire());
+        assertFalse(bucket.isFull());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.tryAcquire());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, bucket.tryAcquire());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(bucket.isFull());
+    }
+
+    @Test
+    public void identity_rate_is_limited_by_device() {
+        RateLimitingAdmissionController controller = new RateLimitingAdmissionController.Builder()
+                .setIdentityRate(2, 0.1).build();
+
+        assertTrue(controller.admit(device1, "ep1", SendRequest.class).isAccepted());
+        assertTrue(controller.admit(device1, "ep1", SendRequest.class).isAccepted());
+        Admission rejected = controller.admit(device1, "ep1", SendRequest.class);
+        assertFalse(rejected.isAccepted());
+        assertEquals(10, rejected.getRetryAfterInSec());
+
+        // other device is not impacted
+        assertTrue(controller.admit(device2, "ep2", SendRequest.class).isAccepted());
+    }
+
+    @Test
+    public void released_token_is_given_back() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(1, 1, clock::get);
+
+        assertEquals(0, bucket.tryAcquire());
+        bucket.release();
+        assertTrue(bucket.isFull());
+        // capacity can not be exceeded
+        bucket.release();
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire());
+    }
+
+    @Test
+    public void identity_token_is_refunded_when_message_is_rejected_later() {
+        RateLimitingAdmissionController controller = new RateLimitingAdmissionController.Builder()
+                .setIdentityRate(2, 0.1).setEndpointRate(1, 0.1).build();
+
+        assertTrue(controller.admit(device1, "ep1", SendRequest.class).isAccepted());
+        // rejected by endpoint bucket, identity token is given back
+        assertFalse(controller.admit(device1, "ep1", SendRequest.class).isAccepted());
+        assertTrue(controller.admit(device1, "ep2", SendRequest.class).isAccepted());
+        // now identity bucket is empty
+        Admission rejected = controller.admit(device1, "ep3", SendRequest.class);
+        assertFalse(rejected.isAccepted());
+        assertEquals("Too many requests for this identity", rejected.getReason());
+    }
+
+    @Test
+    public void least_recently_used_buckets_are_evicted() {
+        Identity device3 = Identity.psk(new InetSocketAddress("127.0.0.1", 5685), "device3");
+        RateLimitingAdmissionController controller = new RateLimitingAdmissionController.Builder()
+                .setIdentityRate(1, 0.001).setMaxTrackedDevices(2).build();
+
+        assertTrue(controller.admit(device1, null, SendRequest.class).isAccepted());
+        assertTrue(controller.admit(device2, null, SendRequest.class).isAccepted());
+        // device1 is used again so device2 bucket is the least recently used one
+        assertFalse(controller.admit(device1, null, SendRequest.class).isAccepted());
+        assertTrue(controller.admit(device3, null, SendRequest.class).isAccepted());
+
+        // device1 bucket is still tracked, device2 one was evicted
+        assertFalse(controller.admit(device1, null, SendRequest.class).isAccepted());
+        assertTrue(controller.admit(device2, null, SendRequest.class).isAccepted());
+    }
+
+    @Test
+    public void buckets_are_kept_by_device_when_split_in_stripes() {
+        RateLimitingAdmissionController controller = new RateLimitingAdmissionController.Builder()
+                .setEndpointRate(1, 0.001).build();
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(controller.admit(null, "ep" + i, SendRequest.class).isAccepted());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(controller.admit(null, "ep" + i, SendRequest.class).isAccepted());
+        }
+    }
+
+    @Test
+    public void negative_shedding_retry_after_is_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitingAdmissionController.Builder().setSheddingRetryAfter(-1));
+    }
+
+    @Test
+    public void messages_are_rejected_when_queue_is_full() {
+        AtomicInteger queueDepth = new AtomicInteger();
+        RateLimitingAdmissionController controller = new RateLimitingAdmissionController.Builder()
+                .addQueueLimit("test", queueDepth::get, 10).setSheddingRetryAfter(20).build();
+
+        assertTrue(controller.admit(device1, "ep1", RegisterRequest.class).isAccepted());
+
+        queueDepth.set(10);
+        Admission rejected = controller.admit(device1, "ep1", RegisterRequest.class);
+        assertFalse(rejected.isAccepted());
+        assertTrue(rejected.getRetryAfterInSec() >= 20 && rejected.getRetryAfterInSec() <= 30);
+
+        queueDepth.set(9);
+        assertTrue(controller.admit(device1, "ep1", RegisterRequest.class).isAccepted());
+    }
+}
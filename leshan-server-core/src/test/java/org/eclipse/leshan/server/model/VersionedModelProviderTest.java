@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.net.InetSocketAddress;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.link.LinkParseException;
+import org.eclipse.leshan.core.link.lwm2m.DefaultLwM2mLinkParser;
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.model.ObjectLoader;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.server.registration.Registration;
+import org.junit.jupiter.api.Test;
+
+public class VersionedModelProviderTest {
+
+    private final VersionedModelProvider provider = new VersionedModelProvider(ObjectLoader.loadAllDefault());
+
+    @Test
+    public void model_uses_version_given_in_registration() throws LinkParseException {
+        LwM2mModel model = provider.getObjectModel(given_a_registration("</1/0>,</3>;ver=1.1"));
+
+        assertEquals("1.1", model.getObjectModel(3).version);
+        assertEquals("1.0", model.getObjectModel(1).version);
+        assertNull(model.getObjectModel(5));
+        assertEquals(2, model.getObjectModels().size());
+    }
+
+    @Test
+    public void model_is_shared_by_registrations_supporting_same_objects() throws LinkParseException {
+        LwM2mModel model = provider.getObjectModel(given_a_registration("</1/0>,</3/0>"));
+
+        assertSame(model, provider.getObjectModel(given_a_registration("</1/0>,</3/0>")));
+        assertSame(model, provider.getObjectModel(given_a_registration("</1/1>,</3/0>")));
+        assertNotSame(model, provider.getObjectModel(given_a_registration("</1/0>,</3>;ver=1.1")));
+    }
+
+    private Registration given_a_registration(String objectLinks) throws LinkParseException {
+        Registration.Builder builder = new Registration.Builder("id", "endpoint",
+                Identity.unsecure(InetSocketAddress.createUnresolved("localhost", 0)),
+                EndpointUriUtil.createUri("coap://localhost:5683"));
+        builder.extractDataFromObjectLink(true);
+        builder.objectLinks(new DefaultLwM2mLinkParser().parseCoreLinkFormat(objectLinks.getBytes()));
+        return builder.build();
+    }
+}
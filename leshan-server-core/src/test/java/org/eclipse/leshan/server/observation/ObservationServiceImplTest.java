@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.observation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.codec.CodecException;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
+import org.eclipse.leshan.core.observation.CompositeObservation;
+import org.eclipse.leshan.core.observation.Observation;
+import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.observation.SingleObservation;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.response.ObserveCompositeResponse;
+import org.eclipse.leshan.core.response.ObserveResponse;
+import org.eclipse.leshan.server.profile.ClientProfile;
+import org.eclipse.leshan.server.registration.Registration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ObservationServiceImplTest {
+
+    private static final byte[] PAYLOAD = "21".getBytes();
+
+    private ObservationServiceImpl observationService;
+    private ClientProfile profile;
+    private SingleObservation observation;
+    private AtomicInteger decodings;
+
+    @BeforeEach
+    public void setUp() {
+        observationService = new ObservationServiceImpl(null, null);
+        Registration registration = new Registration.Builder("regId", "endpoint",
+                Identity.unsecure(InetSocketAddress.createUnresolved("localhost", 5683)),
+                EndpointUriUtil.createUri("coap://localhost:5683")).build();
+        profile = new ClientProfile(registration, null);
+        observation = new SingleObservation(new ObservationIdentifier(new byte[] { 1 }), "regId",
+                new LwM2mPath("/3303/0/5700"), ContentFormat.TEXT, Collections.emptyMap(), Collections.emptyMap());
+        decodings = new AtomicInteger();
+    }
+
+    private LazyDecodedPayload<ObserveResponse> validNotification() {
+        return new LazyDecodedPayload<>(PAYLOAD, ContentFormat.TEXT, () -> {
+            decodings.incrementAndGet();
+            return ObserveResponse.success(LwM2mSingleResource.newFloatResource(5700, 21d));
+        });
+    }
+
+    private LazyDecodedPayload<ObserveResponse> invalidNotification() {
+        return new LazyDecodedPayload<>(PAYLOAD, ContentFormat.TEXT, () -> {
+            decodings.incrementAndGet();
+            throw new CodecException("invalid payload");
+        });
+    }
+
+    @Test
+    public void raw_listener_receives_payload_without_decoding() {
+        RecordingListener listener = new RecordingListener();
+        observationService.addListener(listener);
+
+        observationService.onNotification(observation, profile, validNotification());
+
+        assertArrayEquals(PAYLOAD, listener.rawNotification.getPayload());
+        assertFalse(listener.rawNotification.isDecoded());
+        assertEquals(0, decodings.get());
+    }
+
+    @Test
+    public void payload_is_decoded_once_for_non_raw_listeners() {
+        RecordingListener rawListener = new RecordingListener();
+        DecodedListener listener1 = new DecodedListener();
+        DecodedListener listener2 = new DecodedListener();
+        observationService.addListener(rawListener);
+        observationService.addListener(listener1);
+        observationService.addListener(listener2);
+
+        observationService.onNotification(observation, profile, validNotification());
+
+        assertEquals(1, decodings.get());
+        assertTrue(listener1.response.isSuccess());
+        assertSame(listener1.response, listener2.response);
+    }
+
+    @Test
+    public void invalid_payload_is_raised_through_on_error() {
+        RecordingListener rawListener = new RecordingListener();
+        DecodedListener listener = new DecodedListener();
+        observationService.addListener(rawListener);
+        observationService.addListener(listener);
+
+        observationService.onNotification(observation, profile, invalidNotification());
+
+        assertNotNull(rawListener.rawNotification);
+        assertNull(listener.response);
+        assertTrue(listener.error instanceof CodecException);
+    }
+
+    @Test
+    public void default_receiver_decodes_lazy_notification() {
+        DecodedReceiver receiver = new DecodedReceiver();
+
+        receiver.onNotification(observation, profile, validNotification());
+        assertTrue(receiver.response.isSuccess());
+
+        receiver.onNotification(observation, profile, invalidNotification());
+        assertTrue(receiver.error instanceof CodecException);
+    }
+
+    private static class DecodedListener implements ObservationListener {
+        ObserveResponse response;
+        Exception error;
+
+        @Override
+        public void newObservation(Observation observation, Registration registration) {
+        }
+
+        @Override
+        public void cancelled(Observation observation) {
+        }
+
+        @Override
+        public void onResponse(SingleObservation observation, Registration registration, ObserveResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onResponse(CompositeObservation observation, Registration registration,
+                ObserveCompositeResponse response) {
+        }
+
+        @Override
+        public void onError(Observation observation, Registration registration, Exception error) {
+            this.error = error;
+        }
+    }
+
+    private static class RecordingListener extends DecodedListener implements RawObservationListener {
+        LazyDecodedPayload<ObserveResponse> rawNotification;
+
+        @Override
+        public void onRawResponse(SingleObservation observation, Registration registration,
+                LazyDecodedPayload<ObserveResponse> notification) {
+            this.rawNotification = notification;
+        }
+
+        @Override
+        public void onRawResponse(CompositeObservation observation, Registration registration,
+                LazyDecodedPayload<ObserveCompositeResponse> notification) {
+        }
+    }
+
+    private static class DecodedReceiver implements LwM2mNotificationReceiver {
+        ObserveResponse response;
+        Exception error;
+
+        @Override
+        public void newObservation(Observation observation, Registration registration) {
+        }
+
+        @Override
+        public void cancelled(Observation observation) {
+        }
+
+        @Override
+        public void onNotification(SingleObservation observation, ClientProfile profile, ObserveResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onNotification(CompositeObservation observation, ClientProfile profile,
+                ObserveCompositeResponse response) {
+        }
+
+        @Override
+        public void onError(Observation observation, ClientProfile profile, Exception error) {
+            this.error = error;
+        }
+    }
+}
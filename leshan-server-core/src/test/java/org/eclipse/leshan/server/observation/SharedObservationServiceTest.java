@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.observation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.leshan.core.ResponseCode;
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.observation.Observation;
+import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.observation.SingleObservation;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.DownlinkRequest;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.request.ObserveRequest;
+import org.eclipse.leshan.core.response.ErrorCallback;
+import org.eclipse.leshan.core.response.LwM2mResponse;
+import org.eclipse.leshan.core.response.ObserveResponse;
+import org.eclipse.leshan.core.response.ResponseCallback;
+import org.eclipse.leshan.server.registration.Registration;
+import org.eclipse.leshan.server.request.DownlinkRequestSender;
+import org.eclipse.leshan.server.request.LowerLayerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SharedObservationServiceTest {
+
+    private FakeRequestSender sender;
+    private FakeObservationService observationService;
+    private SharedObservationService sharedService;
+    private Registration registration;
+
+    @BeforeEach
+    public void setUp() {
+        sender = new FakeRequestSender();
+        observationService = new FakeObservationService();
+        sharedService = new SharedObservationService(sender, observationService, 1000);
+        registration = new Registration.Builder("regId", "endpoint",
+                Identity.unsecure(InetSocketAddress.createUnresolved("localhost", 5683)),
+                EndpointUriUtil.createUri("coap://localhost:5683")).build();
+    }
+
+    @Test
+    public void subscribers_share_same_observation() {
+        RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        RecordingSubscriber subscriber2 = new RecordingSubscriber();
+
+        // first subscriber sends observe request
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber1);
+        SingleObservation observation = given_observe_request_succeed();
+
+        // second one reuses the observation and gets last value
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber2);
+        assertEquals(1, sender.sentRequests);
+        assertEquals(1, sharedService.getSharedObservationCount());
+        assertEquals(1, subscriber2.responses.size());
+
+        // notification is fanned out
+        ObserveResponse notification = response(observation, 21);
+        sharedService.onResponse(observation, registration, notification);
+        assertSame(notification, subscriber1.responses.get(1));
+        assertSame(notification, subscriber2.responses.get(1));
+    }
+
+    @Test
+    public void observation_is_cancelled_when_last_subscriber_leaves() {
+        SharedObservationService.Subscription subscription1 = sharedService.subscribe(registration,
+                new ObserveRequest("/3303/0/5700"), new RecordingSubscriber());
+        SingleObservation observation = given_observe_request_succeed();
+        SharedObservationService.Subscription subscription2 = sharedService.subscribe(registration,
+                new ObserveRequest("/3303/0/5700"), new RecordingSubscriber());
+        assertSame(observation, subscription2.getObservation());
+
+        subscription1.cancel();
+        assertTrue(observationService.cancelled.isEmpty());
+
+        subscription2.cancel();
+        assertEquals(Collections.singletonList(observation), observationService.cancelled);
+        assertEquals(0, sharedService.getSharedObservationCount());
+    }
+
+    @Test
+    public void different_content_format_does_not_share_observation() {
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), new RecordingSubscriber());
+        sharedService.subscribe(registration, new ObserveRequest(ContentFormat.TLV, "/3303/0/5700"),
+                new RecordingSubscriber());
+        assertEquals(2, sender.sentRequests);
+    }
+
+    @Test
+    public void subscribers_are_notified_when_observation_is_cancelled_elsewhere() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber);
+        SingleObservation observation = given_observe_request_succeed();
+
+        sharedService.cancelled(observation);
+
+        assertEquals(1, subscriber.cancelled);
+        assertEquals(0, sharedService.getSharedObservationCount());
+    }
+
+    @Test
+    public void failed_observe_request_is_not_shared() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber);
+        sender.<ObserveResponse> lastResponseCallback().onResponse(ObserveResponse.notFound());
+
+        assertEquals(0, sharedService.getSharedObservationCount());
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), new RecordingSubscriber());
+        assertEquals(2, sender.sentRequests);
+    }
+
+    @Test
+    public void notification_received_before_observe_response_is_not_lost() {
+        RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber1);
+
+        // observation is stored and a notification arrives before observe response is handled
+        SingleObservation observation = given_an_observation();
+        sharedService.newObservation(observation, registration);
+        ObserveResponse notification = response(observation, 21);
+        sharedService.onResponse(observation, registration, notification);
+        assertEquals(Collections.singletonList(notification), subscriber1.responses);
+
+        sender.<ObserveResponse> lastResponseCallback().onResponse(response(observation, 20));
+        assertEquals(2, subscriber1.responses.size());
+
+        // next subscriber gets the most recent value
+        RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber2);
+        assertEquals(Collections.singletonList(notification), subscriber2.responses);
+        assertEquals(1, sender.sentRequests);
+    }
+
+    @Test
+    public void observation_stored_before_response_is_cancelled_on_response_when_subscriber_left() {
+        SharedObservationService.Subscription subscription = sharedService.subscribe(registration,
+                new ObserveRequest("/3303/0/5700"), new RecordingSubscriber());
+        SingleObservation observation = given_an_observation();
+        sharedService.newObservation(observation, registration);
+
+        subscription.cancel();
+        assertTrue(observationService.cancelled.isEmpty());
+
+        sender.<ObserveResponse> lastResponseCallback().onResponse(response(observation, 20));
+        assertEquals(Collections.singletonList(observation), observationService.cancelled);
+        assertEquals(0, sharedService.getSharedObservationCount());
+    }
+
+    @Test
+    public void unrelated_new_observation_is_ignored() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        sharedService.subscribe(registration, new ObserveRequest("/3303/0/5700"), subscriber);
+
+        SingleObservation other = new SingleObservation(new ObservationIdentifier(new byte[] { 3 }),
+                registration.getId(), new LwM2mPath("/3303/0/5701"), null, null, null);
+        sharedService.newObservation(other, registration);
+        sharedService.onResponse(other, registration, response(other, 21));
+
+        assertTrue(subscriber.responses.isEmpty());
+    }
+
+    private SingleObservation given_an_observation() {
+        return new SingleObservation(new ObservationIdentifier(new byte[] { 1, 2 }), registration.getId(),
+                new LwM2mPath("/3303/0/5700"), null, null, null);
+    }
+
+    private SingleObservation given_observe_request_succeed() {
+        SingleObservation observation = given_an_observation();
+        sender.<ObserveResponse> lastResponseCallback().onResponse(response(observation, 20));
+        return observation;
+    }
+
+    private ObserveResponse response(SingleObservation observation, long value) {
+        return new ObserveResponse(ResponseCode.CONTENT, LwM2mSingleResource.newIntegerResource(5700, value), null,
+                observation, null);
+    }
+
+    private static class RecordingSubscriber implements ObservationSubscriber<ObserveResponse> {
+        private final List<ObserveResponse> responses = new ArrayList<>();
+        private int cancelled;
+
+        @Override
+        public void onResponse(ObserveResponse response) {
+            responses.add(response);
+        }
+
+        @Override
+        public void onError(Exception error) {
+        }
+
+        @Override
+        public void onCancelled(Observation observation) {
+            cancelled++;
+        }
+    }
+
+    private static class FakeRequestSender implements DownlinkRequestSender {
+        private int sentRequests;
+        private ResponseCallback<?> responseCallback;
+
+        @Override
+        public <T extends LwM2mResponse> T send(Registration destination, DownlinkRequest<T> request,
+                LowerLayerConfig lowerLayerConfig, long timeoutInMs) throws InterruptedException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T extends LwM2mResponse> void send(Registration destination, DownlinkRequest<T> request,
+                LowerLayerConfig lowerLayerConfig, long timeoutInMs, ResponseCallback<T> responseCallback,
+                ErrorCallback errorCallback) {
+            sentRequests++;
+            this.responseCallback = responseCallback;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T extends LwM2mResponse> ResponseCallback<T> lastResponseCallback() {
+            return (ResponseCallback<T>) responseCallback;
+        }
+
+        @Override
+        public void cancelOngoingRequests(Registration registration) {
+        }
+    }
+
+    private static class FakeObservationService implements ObservationService {
+        private final List<Observation> cancelled = new ArrayList<>();
+
+        @Override
+        public int cancelObservations(Registration registration) {
+            return 0;
+        }
+
+        @Override
+        public int cancelObservations(Registration registration, String nodePath) {
+            return 0;
+        }
+
+        @Override
+        public int cancelCompositeObservations(Registration registration, String[] nodePaths) {
+            return 0;
+        }
+
+        @Override
+        public void cancelObservation(Observation observation) {
+            cancelled.add(observation);
+        }
+
+        @Override
+        public Set<Observation> getObservations(Registration registration) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void addListener(ObservationListener listener) {
+        }
+
+        @Override
+        public void removeListener(ObservationListener listener) {
+        }
+    }
+}
@@ -19,15 +19,31 @@ package org.eclipse.leshan.server.registration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.EnumSet;
-
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.leshan.core.LwM2m.Version;
 import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
 import org.eclipse.leshan.core.link.Link;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.observation.CompositeObservation;
+import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.observation.SingleObservation;
 import org.eclipse.leshan.core.request.BindingMode;
 import org.eclipse.leshan.core.request.Identity;
 import org.junit.jupiter.api.BeforeEach;
@@ -95,6 +111,114 @@ public class InMemoryRegistrationStoreTest {
         assertTrue(reg.isAlive());
     }
 
+    @Test
+    public void find_registrations_using_query_indexes() {
+        Map<Integer, Version> objects = new HashMap<>();
+        objects.put(3, new Version("1.0"));
+        objects.put(5, new Version("1.1"));
+        store.addRegistration(givenARegistration("ep1", "id1", EnumSet.of(BindingMode.U), objects,
+                Collections.singletonMap("tenant", "A"), new Date(1000)));
+        store.addRegistration(givenARegistration("ep2", "id2", EnumSet.of(BindingMode.U, BindingMode.Q),
+                Collections.singletonMap(3, new Version("1.0")), Collections.singletonMap("tenant", "B"),
+                new Date(2000)));
+
+        assertEquals(endpoints("ep1"), find(new RegistrationQuery.Builder().setSupportedObject(5, new Version("1.1"))));
+        assertEquals(endpoints(), find(new RegistrationQuery.Builder().setSupportedObject(5, new Version("1.0"))));
+        assertEquals(endpoints("ep1", "ep2"), find(new RegistrationQuery.Builder().setSupportedObject(3)));
+        assertEquals(endpoints("ep2"), find(new RegistrationQuery.Builder().setQueueMode(true)));
+        assertEquals(endpoints("ep1"),
+                find(new RegistrationQuery.Builder().addBindingMode(BindingMode.U).addAttribute("tenant", "A")));
+        assertEquals(endpoints("ep2"), find(new RegistrationQuery.Builder().setLastUpdateRange(new Date(1500), null)));
+        assertEquals(endpoints("ep1", "ep2"), find(new RegistrationQuery.Builder()));
+
+        // indexes follow updates and de-registrations
+        store.updateRegistration(new RegistrationUpdate("id1", Identity.unsecure(address, port), null, null,
+                EnumSet.of(BindingMode.U, BindingMode.Q), null, null, null));
+        assertEquals(endpoints("ep1", "ep2"), find(new RegistrationQuery.Builder().setQueueMode(true)));
+        store.removeRegistration("id2");
+        assertEquals(endpoints("ep1"), find(new RegistrationQuery.Builder().setSupportedObject(3)));
+        assertEquals(endpoints(), find(new RegistrationQuery.Builder().addAttribute("tenant", "B")));
+    }
+
+    @Test
+    public void get_registrations_sorted_by_endpoint() {
+        // more registrations than a batch of the iterator
+        List<String> expected = new ArrayList<>();
+        for (int i = 250; i > 0; i--) {
+            String endpoint = String.format("ep%03d", i);
+            store.addRegistration(new Registration.Builder("id" + i, endpoint, Identity.unsecure(address, i),
+                    EndpointUriUtil.createUri("coap://localhost:5683")).objectLinks(objectLinks).build());
+            expected.add(0, endpoint);
+        }
+
+        assertEquals(expected, sorted(null));
+        assertEquals(expected.subList(99, 250), sorted("ep100"));
+        assertEquals(expected.subList(100, 250), sorted("ep100\0"));
+        assertEquals(Collections.emptyList(), sorted("ep999"));
+    }
+
+    @Test
+    public void get_observations_by_path() {
+        givenASimpleRegistration(lifetime);
+        store.addRegistration(registration);
+        List<LwM2mPath> paths = Arrays.asList(new LwM2mPath("/3/0/1"), new LwM2mPath("/3/0/2"));
+        SingleObservation single = givenAnObservation(1, "/3/0/1");
+        CompositeObservation composite = new CompositeObservation(new ObservationIdentifier(new byte[] { 2 }),
+                registrationId, paths, null, null, null, null);
+        store.addObservation(registrationId, single, false);
+        store.addObservation(registrationId, composite, false);
+
+        assertSame(single, store.getObservation(registrationId, new LwM2mPath("/3/0/1")));
+        assertSame(composite, store.getCompositeObservation(registrationId, paths));
+        assertNull(store.getObservation(registrationId, new LwM2mPath("/3/0/2")));
+        assertNull(store.getCompositeObservation(registrationId, Arrays.asList(new LwM2mPath("/3/0/1"))));
+
+        // new observation on same path replaces previous one
+        SingleObservation newSingle = givenAnObservation(3, "/3/0/1");
+        assertEquals(Arrays.asList(single), store.addObservation(registrationId, newSingle, false));
+        assertSame(newSingle, store.getObservation(registrationId, new LwM2mPath("/3/0/1")));
+
+        store.removeObservation(registrationId, newSingle.getId());
+        assertNull(store.getObservation(registrationId, new LwM2mPath("/3/0/1")));
+        store.removeObservations(registrationId);
+        assertNull(store.getCompositeObservation(registrationId, paths));
+    }
+
+    private SingleObservation givenAnObservation(int token, String path) {
+        return new SingleObservation(new ObservationIdentifier(new byte[] { (byte) token }), registrationId,
+                new LwM2mPath(path), null, null, null);
+    }
+
+    private Set<String> find(RegistrationQuery.Builder query) {
+        Set<String> result = new HashSet<>();
+        for (Iterator<Registration> it = store.findRegistrations(query.build()); it.hasNext();) {
+            result.add(it.next().getEndpoint());
+        }
+        return result;
+    }
+
+    private List<String> sorted(String fromEndpoint) {
+        List<String> result = new ArrayList<>();
+        for (Iterator<Registration> it = store.getRegistrationsSortedByEndpoint(fromEndpoint); it.hasNext();) {
+            result.add(it.next().getEndpoint());
+        }
+        return result;
+    }
+
+    private Set<String> endpoints(String... endpoints) {
+        Set<String> result = new HashSet<>();
+        Collections.addAll(result, endpoints);
+        return result;
+    }
+
+    private Registration givenARegistration(String endpoint, String id, EnumSet<BindingMode> bindingMode,
+            Map<Integer, Version> objects, Map<String, String> attributes, Date lastUpdate) {
+        return new Registration.Builder(id, endpoint, Identity.unsecure(address, port),
+                EndpointUriUtil.createUri("coap://localhost:5683")).lifeTimeInSec(lifetime).bindingMode(bindingMode)
+                        .objectLinks(objectLinks).extractDataFromObjectLink(false).supportedObjects(objects)
+                        .additionalRegistrationAttributes(attributes).lastUpdate(lastUpdate).build();
+    }
+
     private void givenASimpleRegistration(Long lifetime) {
 
         Registration.Builder builder = new Registration.Builder(registrationId, ep, Identity.unsecure(address, port),
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.registration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.link.LinkParseException;
+import org.eclipse.leshan.core.link.LinkParser;
+import org.eclipse.leshan.core.link.lwm2m.DefaultLwM2mLinkParser;
+import org.eclipse.leshan.core.request.Identity;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the heap used by each {@link Registration} of a fleet of devices registering with the same object links stays
+ * under {@link #BUDGET_IN_BYTES}, so 1 million registrations fit in less than 700 MB of heap.
+ * <p>
+ * By default, {@value #DEFAULT_NB_REGISTRATIONS} registrations are measured to keep the test fast. To measure a real
+ * fleet (result is logged at INFO level) :
+ *
+ * <pre>
+ * mvn test -pl leshan-server-core -Dtest=RegistrationFootprintTest -Dleshan.footprint.registrations=1000000 \
+ *     -Dlogback.configurationFile=&lt;a logback configuration with INFO level&gt;
+ * </pre>
+ *
+ * With a 64-bit JVM 17 (compressed oops), this measures about 550 bytes per registration.
+ */
+public class RegistrationFootprintTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RegistrationFootprintTest.class);
+
+    private static final int DEFAULT_NB_REGISTRATIONS = 100_000;
+    private static final long BUDGET_IN_BYTES = 700;
+    private static final String OBJECT_LINKS = "</>;rt=\"oma.lwm2m\";ct=\"60 110 112 11542 11543\",</1>;ver=1.1,</1/0>,"
+            + "</3>;ver=1.1,</3/0>,</4/0>,</5/0>,</6/0>,</7/0>,</3303/0>,</3303/1>,</3442/0>";
+
+    private final LinkParser linkParser = new DefaultLwM2mLinkParser();
+
+    @Test
+    public void registration_footprint_is_under_budget() throws Exception {
+        int nbRegistrations = Integer.getInteger("leshan.footprint.registrations", DEFAULT_NB_REGISTRATIONS);
+        List<Registration> registrations = new ArrayList<>(nbRegistrations);
+        long before = usedHeap();
+
+        InetAddress address = InetAddress.getLoopbackAddress();
+        for (int i = 0; i < nbRegistrations; i++) {
+            registrations.add(givenARegistration(i, address));
+        }
+
+        long after = usedHeap();
+        long bytesPerRegistration = (after - before) / registrations.size();
+        LOG.info("{} registrations use {} bytes, {} bytes per registration", registrations.size(), after - before,
+                bytesPerRegistration);
+        assertTrue(bytesPerRegistration <= BUDGET_IN_BYTES, String.format(
+                "%d bytes per registration is over the budget of %d bytes", bytesPerRegistration, BUDGET_IN_BYTES));
+    }
+
+    private Registration givenARegistration(int i, InetAddress address) throws LinkParseException {
+        // parse links for each registration, as each register request brings its own copy
+        return new Registration.Builder("id" + i, "urn:imei:" + i,
+                Identity.unsecure(new InetSocketAddress(address, 10000 + i % 50000)),
+                EndpointUriUtil.createUri("coap://localhost:5683")).extractDataFromObjectLink(true)
+                        .objectLinks(linkParser.parseCoreLinkFormat(OBJECT_LINKS.getBytes())).build();
+    }
+
+    private long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -17,7 +17,9 @@
 package org.eclipse.leshan.server.registration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,6 +30,7 @@ import java.util.Set;
 
 import org.eclipse.leshan.core.LwM2m.Version;
 import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.link.Link;
 import org.eclipse.leshan.core.link.LinkParseException;
 import org.eclipse.leshan.core.link.LinkParser;
 import org.eclipse.leshan.core.link.lwm2m.DefaultLwM2mLinkParser;
@@ -243,6 +246,49 @@ public class RegistrationTest {
         });
     }
 
+    @Test
+    public void test_registrations_with_same_object_links_share_data() throws LinkParseException {
+        String objectLinks = "</>;ct=\"60 110 112\",</1/0>,</3>;ver=1.1,</3/0>,</5>";
+        Registration reg1 = given_a_registration_with_object_link_like(objectLinks);
+        Registration reg2 = given_a_registration_with_object_link_like(objectLinks);
+
+        assertSame(reg1.getObjectLinks()[0], reg2.getObjectLinks()[0]);
+        assertSame(reg1.getSupportedObject(), reg2.getSupportedObject());
+        assertSame(reg1.getAvailableInstances(), reg2.getAvailableInstances());
+        assertSame(reg1.getSupportedContentFormats(), reg2.getSupportedContentFormats());
+
+        // data are still shared after an update
+        Registration updated = new Registration.Builder(reg1).lifeTimeInSec(300L).build();
+        assertSame(reg1.getSupportedObject(), updated.getSupportedObject());
+        assertEquals(reg1.getLastUpdate(), updated.getLastUpdate());
+
+        // and after a registration update which does not change object links
+        Registration refreshed = new RegistrationUpdate(reg1.getId(), reg1.getIdentity(), 600L, null, null,
+                reg1.getObjectLinks(), null, null).update(reg1);
+        assertSame(reg1.getSupportedObject(), refreshed.getSupportedObject());
+        assertSame(reg1.getAvailableInstances(), refreshed.getAvailableInstances());
+        assertEquals(Long.valueOf(600), refreshed.getLifeTimeInSec());
+    }
+
+    @Test
+    public void test_shared_data_can_not_be_modified() throws LinkParseException {
+        String objectLinks = "</1/0>,</3/0>";
+        Registration reg1 = given_a_registration_with_object_link_like(objectLinks);
+        Registration reg2 = given_a_registration_with_object_link_like(objectLinks);
+
+        // object links are copied on access
+        Link[] links = reg1.getObjectLinks();
+        links[0] = null;
+        assertNotNull(reg1.getObjectLinks()[0]);
+        assertNotNull(reg2.getObjectLinks()[0]);
+
+        // extracted data are immutable
+        assertThrowsExactly(UnsupportedOperationException.class,
+                () -> reg1.getSupportedObject().put(5, Version.getDefault()));
+        assertThrowsExactly(UnsupportedOperationException.class,
+                () -> reg1.getAvailableInstances().add(new LwM2mPath(5, 0)));
+    }
+
     private Registration given_a_registration_with_object_link_like(String objectLinks) throws LinkParseException {
         Builder builder = new Registration.Builder("id", "endpoint",
                 Identity.unsecure(InetSocketAddress.createUnresolved("localhost", 0)),
@@ -15,7 +15,9 @@
  *******************************************************************************/
 package org.eclipse.leshan.server.registration;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.Inet4Address;
@@ -23,6 +25,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.link.Link;
+import org.eclipse.leshan.core.link.LinkParser;
+import org.eclipse.leshan.core.link.lwm2m.DefaultLwM2mLinkParser;
 import org.eclipse.leshan.core.request.Identity;
 import org.eclipse.leshan.server.queue.PresenceService;
 import org.junit.jupiter.api.Test;
@@ -89,4 +94,27 @@ public class RegistrationUpdateTest {
         assertEquals("10", updatedAppData.get("y"));
         assertEquals("100", updatedAppData.get("z"));
     }
+
+    @Test
+    public void testUnchangedObjectLinksUpdate() throws Exception {
+        LinkParser parser = new DefaultLwM2mLinkParser();
+        byte[] payload = "</1/0>,</3/0>".getBytes();
+
+        Registration.Builder builder = new Registration.Builder("registrationId", "endpoint",
+                Identity.unsecure(Inet4Address.getLocalHost(), 1), EndpointUriUtil.createUri("coap://localhost:5683"));
+        builder.extractDataFromObjectLink(true);
+        builder.objectLinks(parser.parseCoreLinkFormat(payload));
+        Registration r = builder.build();
+
+        Link[] sameObjectLinks = parser.parseCoreLinkFormat(payload);
+        RegistrationUpdate updateReg = new RegistrationUpdate(r.getId(), r.getIdentity(), null, null, null,
+                sameObjectLinks, null, null);
+
+        Registration updated = updateReg.update(r);
+
+        assertArrayEquals(r.getObjectLinks(), updated.getObjectLinks());
+        // object links are not extracted again
+        assertSame(r.getSupportedObject(), updated.getSupportedObject());
+        assertSame(r.getAvailableInstances(), updated.getAvailableInstances());
+    }
 }
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileDtlsStateStoreTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void connections_are_reloaded_after_restart() {
+        String directory = new File(dir, "dtls").getPath();
+
+        FileDtlsStateStore store = new FileDtlsStateStore(directory, 10);
+        store.saveConnections("coaps://0.0.0.0:5684", new byte[] { 1, 2, 3 });
+        store.saveConnections("coaps://0.0.0.0:5685", new byte[] { 4, 5 });
+        // last snapshot replaces previous one
+        store.saveConnections("coaps://0.0.0.0:5684", new byte[] { 6, 7, 8 });
+
+        FileDtlsStateStore reloaded = new FileDtlsStateStore(directory, 10);
+        assertArrayEquals(new byte[] { 6, 7, 8 }, reloaded.loadConnections("coaps://0.0.0.0:5684"));
+        assertArrayEquals(new byte[] { 4, 5 }, reloaded.loadConnections("coaps://0.0.0.0:5685"));
+        assertNull(reloaded.loadConnections("coaps://0.0.0.0:5686"));
+    }
+
+    @Test
+    public void least_recently_used_sessions_are_evicted() {
+        FileDtlsStateStore store = new FileDtlsStateStore(dir.getPath(), 2);
+        store.putSession(new byte[] { 1 }, new byte[] { 11 });
+        store.putSession(new byte[] { 2 }, new byte[] { 22 });
+        // access session 1, so session 2 is the least recently used
+        assertArrayEquals(new byte[] { 11 }, store.getSession(new byte[] { 1 }));
+        store.putSession(new byte[] { 3 }, new byte[] { 33 });
+
+        assertArrayEquals(new byte[] { 11 }, store.getSession(new byte[] { 1 }));
+        assertNull(store.getSession(new byte[] { 2 }));
+        assertArrayEquals(new byte[] { 33 }, store.getSession(new byte[] { 3 }));
+
+        store.removeSession(new byte[] { 1 });
+        assertNull(store.getSession(new byte[] { 1 }));
+    }
+}
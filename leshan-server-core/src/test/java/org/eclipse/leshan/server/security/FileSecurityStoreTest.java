@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+
+import org.eclipse.leshan.core.oscore.OscoreSetting;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileSecurityStoreTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void changes_are_reloaded_from_journal() throws NonUniqueSecurityInfoException, NoSuchAlgorithmException {
+        String filename = new File(dir, "security.data").getPath();
+        PublicKey publicKey = KeyPairGenerator.getInstance("EC").generateKeyPair().getPublic();
+
+        FileSecurityStore store = new FileSecurityStore(filename);
+        store.add(SecurityInfo.newPreSharedKeyInfo("psk", "pskIdentity", new byte[] { 1, 2, 3 }));
+        store.add(SecurityInfo.newRawPublicKeyInfo("rpk", publicKey));
+        store.add(SecurityInfo.newX509CertInfo("x509"));
+        store.add(SecurityInfo.newOscoreInfo("oscore",
+                new OscoreSetting(new byte[] { 1 }, new byte[] { 2 }, new byte[] { 3, 4 })));
+        store.add(SecurityInfo.newX509CertInfo("removed"));
+        store.remove("removed", false);
+        store.destroy();
+
+        // journal only, no snapshot
+        assertTrue(new File(filename + ".journal").exists());
+        assertFalse(new File(filename).exists());
+
+        FileSecurityStore reloaded = new FileSecurityStore(filename);
+        assertEquals(4, reloaded.getAll().size());
+        assertEquals(store.getByEndpoint("psk"), reloaded.getByIdentity("pskIdentity"));
+        assertEquals(publicKey, reloaded.getByEndpoint("rpk").getRawPublicKey());
+        assertTrue(reloaded.getByEndpoint("x509").useX509Cert());
+        assertEquals(store.getByEndpoint("oscore"), reloaded.getByEndpoint("oscore"));
+        assertNull(reloaded.getByEndpoint("removed"));
+
+        // journal was compacted at startup
+        assertTrue(new File(filename).exists());
+        assertFalse(new File(filename + ".journal").exists());
+    }
+
+    @Test
+    public void journal_is_compacted() throws NonUniqueSecurityInfoException {
+        String filename = new File(dir, "security.data").getPath();
+
+        FileSecurityStore store = new FileSecurityStore(filename);
+        for (int i = 0; i < 2500; i++) {
+            store.add(SecurityInfo.newPreSharedKeyInfo("ep" + i % 10, "id" + i % 10, new byte[] { (byte) i }));
+        }
+        store.destroy();
+
+        assertTrue(new File(filename).exists());
+        assertTrue(new File(filename + ".journal").length() < 1000 * 20);
+
+        FileSecurityStore reloaded = new FileSecurityStore(filename);
+        assertEquals(10, reloaded.getAll().size());
+        assertEquals(store.getByEndpoint("ep9"), reloaded.getByEndpoint("ep9"));
+    }
+
+    @Test
+    public void truncated_journal_record_is_ignored() throws NonUniqueSecurityInfoException, IOException {
+        String filename = new File(dir, "security.data").getPath();
+
+        FileSecurityStore store = new FileSecurityStore(filename);
+        store.add(SecurityInfo.newX509CertInfo("ep1"));
+        store.add(SecurityInfo.newX509CertInfo("ep2"));
+        store.destroy();
+
+        // simulate a crash during last write
+        File journal = new File(filename + ".journal");
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        FileSecurityStore reloaded = new FileSecurityStore(filename);
+        assertEquals(1, reloaded.getAll().size());
+        assertTrue(reloaded.getByEndpoint("ep1").useX509Cert());
+    }
+
+    @Test
+    public void last_change_is_synced_by_timer() throws NonUniqueSecurityInfoException, InterruptedException {
+        String filename = new File(dir, "security.data").getPath();
+
+        FileSecurityStore store = new FileSecurityStore(filename, 200);
+        // first change is synced immediately, second one is delayed
+        store.add(SecurityInfo.newX509CertInfo("ep1"));
+        assertFalse(store.hasUnsyncedChanges());
+        store.add(SecurityInfo.newX509CertInfo("ep2"));
+        assertTrue(store.hasUnsyncedChanges());
+
+        // no other change, timer must sync it
+        long deadline = System.currentTimeMillis() + 2000;
+        while (store.hasUnsyncedChanges() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(store.hasUnsyncedChanges());
+        store.destroy();
+    }
+
+    @Test
+    public void snapshot_can_be_forced_by_subclass() throws NonUniqueSecurityInfoException {
+        String filename = new File(dir, "security.data").getPath();
+
+        FileSecurityStore store = new FileSecurityStore(filename) {
+            @Override
+            public SecurityInfo add(SecurityInfo info) throws NonUniqueSecurityInfoException {
+                SecurityInfo previous = super.add(info);
+                saveToFile();
+                return previous;
+            }
+        };
+        store.add(SecurityInfo.newX509CertInfo("ep1"));
+        store.destroy();
+
+        assertTrue(new File(filename).exists());
+        assertFalse(new File(filename + ".journal").exists());
+        assertTrue(new FileSecurityStore(filename).getByEndpoint("ep1").useX509Cert());
+    }
+
+    @Test
+    public void java_serialized_file_is_migrated() throws IOException {
+        File file = new File(dir, "security.data");
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(new SecurityInfo[] { SecurityInfo.newX509CertInfo("ep1") });
+        }
+
+        FileSecurityStore store = new FileSecurityStore(file.getPath());
+        assertTrue(store.getByEndpoint("ep1").useX509Cert());
+
+        FileSecurityStore reloaded = new FileSecurityStore(file.getPath());
+        assertTrue(reloaded.getByEndpoint("ep1").useX509Cert());
+    }
+}
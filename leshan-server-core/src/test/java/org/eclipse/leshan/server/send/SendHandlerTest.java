@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.send;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.model.LwM2mModel;
+import org.eclipse.leshan.core.model.ObjectLoader;
+import org.eclipse.leshan.core.model.StaticModel;
+import org.eclipse.leshan.core.node.ColumnarTimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.node.LwM2mSingleResource;
+import org.eclipse.leshan.core.node.TimestampedLwM2mNodes;
+import org.eclipse.leshan.core.node.codec.DefaultLwM2mDecoder;
+import org.eclipse.leshan.core.node.codec.LazyDecodedPayload;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.request.SendRequest;
+import org.eclipse.leshan.core.request.exception.InvalidRequestException;
+import org.eclipse.leshan.server.registration.Registration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SendHandlerTest {
+
+    private static final LwM2mModel MODEL = new StaticModel(ObjectLoader.loadDefault());
+    private static final byte[] VALID_PAYLOAD = "[{\"bn\":\"/3/0/\",\"n\":\"1\",\"vs\":\"Leshan\"}]"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID_PAYLOAD = "not a SenML payload".getBytes(StandardCharsets.UTF_8);
+
+    private SendHandler sendHandler;
+    private Registration registration;
+    private AtomicInteger decodings;
+
+    @BeforeEach
+    public void setUp() {
+        sendHandler = new SendHandler();
+        registration = new Registration.Builder("regId", "endpoint",
+                Identity.unsecure(InetSocketAddress.createUnresolved("localhost", 5683)),
+                EndpointUriUtil.createUri("coap://localhost:5683")).build();
+        decodings = new AtomicInteger();
+    }
+
+    private SendRequest lazySendRequest(byte[] payload) {
+        return new SendRequest(new LazyDecodedPayload<>(payload, ContentFormat.SENML_JSON, () -> {
+            decodings.incrementAndGet();
+            return new DefaultLwM2mDecoder().decodeTimestampedNodes(payload, ContentFormat.SENML_JSON, MODEL);
+        }), null);
+    }
+
+    @Test
+    public void raw_listener_receives_payload_without_decoding() {
+        RecordingRawListener listener = new RecordingRawListener();
+        sendHandler.addListener(listener);
+
+        sendHandler.handleSend(registration, lazySendRequest(VALID_PAYLOAD)).sent();
+
+        assertArrayEquals(VALID_PAYLOAD, listener.rawData.getPayload());
+        assertFalse(listener.rawData.isDecoded());
+        assertEquals(0, decodings.get());
+    }
+
+    @Test
+    public void payload_is_decoded_once_for_non_raw_listeners() {
+        RecordingListener listener1 = new RecordingListener();
+        RecordingListener listener2 = new RecordingListener();
+        sendHandler.addListener(new RecordingRawListener());
+        sendHandler.addListener(listener1);
+        sendHandler.addListener(listener2);
+
+        sendHandler.handleSend(registration, lazySendRequest(VALID_PAYLOAD)).sent();
+
+        assertEquals(1, decodings.get());
+        assertEquals("Leshan",
+                ((LwM2mSingleResource) listener1.data.getNodes().get(new LwM2mPath("/3/0/1"))).getValue());
+        assertSame(listener1.data, listener2.data);
+    }
+
+    @Test
+    public void invalid_payload_is_raised_through_on_error() {
+        RecordingRawListener rawListener = new RecordingRawListener();
+        RecordingListener listener = new RecordingListener();
+        sendHandler.addListener(rawListener);
+        sendHandler.addListener(listener);
+
+        sendHandler.handleSend(registration, lazySendRequest(INVALID_PAYLOAD)).sent();
+
+        assertNotNull(rawListener.rawData);
+        assertNull(listener.data);
+        assertTrue(listener.error instanceof InvalidRequestException);
+    }
+
+    @Test
+    public void columnar_data_is_only_converted_for_non_columnar_listeners() {
+        RecordingColumnarListener columnarListener = new RecordingColumnarListener();
+        List<TimestampedLwM2mNodes> fired = new ArrayList<>();
+        SendHandler handler = new SendHandler() {
+            @Override
+            protected void fireDataReceived(Registration registration, TimestampedLwM2mNodes data,
+                    SendRequest request) {
+                fired.add(data);
+                super.fireDataReceived(registration, data, request);
+            }
+        };
+        handler.addListener(columnarListener);
+
+        // only columnar listener : nodes are not created
+        handler.handleSend(registration, columnarSendRequest()).sent();
+        assertNotNull(columnarListener.columnarData);
+        assertTrue(fired.isEmpty());
+
+        // with a plain listener : nodes are created and given through the protected overload
+        RecordingListener listener = new RecordingListener();
+        handler.addListener(listener);
+        columnarListener.data = null;
+        handler.handleSend(registration, columnarSendRequest()).sent();
+        assertEquals(1, fired.size());
+        assertSame(fired.get(0), listener.data);
+        assertNull(columnarListener.data);
+    }
+
+    private SendRequest columnarSendRequest() {
+        ColumnarTimestampedLwM2mNodes data = new DefaultLwM2mDecoder().decodeColumnarTimestampedNodes(VALID_PAYLOAD,
+                ContentFormat.SENML_JSON, MODEL);
+        return new SendRequest(ContentFormat.SENML_JSON, data, null);
+    }
+
+    private static class RecordingListener implements SendListener {
+        TimestampedLwM2mNodes data;
+        Exception error;
+
+        @Override
+        public void dataReceived(Registration registration, TimestampedLwM2mNodes data, SendRequest request) {
+            this.data = data;
+        }
+
+        @Override
+        public void onError(Registration registration, Exception error) {
+            this.error = error;
+        }
+    }
+
+    private static class RecordingColumnarListener extends RecordingListener implements ColumnarSendListener {
+        ColumnarTimestampedLwM2mNodes columnarData;
+
+        @Override
+        public void dataReceived(Registration registration, ColumnarTimestampedLwM2mNodes data, SendRequest request) {
+            this.columnarData = data;
+        }
+    }
+
+    private static class RecordingRawListener extends RecordingListener implements RawSendListener {
+        LazyDecodedPayload<TimestampedLwM2mNodes> rawData;
+
+        @Override
+        public void dataReceived(Registration registration, LazyDecodedPayload<TimestampedLwM2mNodes> data,
+                SendRequest request) {
+            this.rawData = data;
+        }
+    }
+}
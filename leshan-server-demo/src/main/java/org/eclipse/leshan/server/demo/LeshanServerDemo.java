@@ -57,9 +57,12 @@ import org.eclipse.leshan.server.demo.servlet.ObjectSpecServlet;
 import org.eclipse.leshan.server.demo.servlet.ServerServlet;
 import org.eclipse.leshan.server.model.LwM2mModelProvider;
 import org.eclipse.leshan.server.model.VersionedModelProvider;
+import org.eclipse.leshan.server.redis.RedisDtlsStateStore;
 import org.eclipse.leshan.server.redis.RedisRegistrationStore;
 import org.eclipse.leshan.server.redis.RedisSecurityStore;
+import org.eclipse.leshan.server.security.DtlsStateStore;
 import org.eclipse.leshan.server.security.EditableSecurityStore;
+import org.eclipse.leshan.server.security.FileDtlsStateStore;
 import org.eclipse.leshan.server.security.FileSecurityStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -152,12 +155,19 @@ public class LeshanServerDemo {
 
         // Set securityStore & registrationStore
         EditableSecurityStore securityStore;
+        DtlsStateStore dtlsStateStore = null;
         if (cli.main.redis == null) {
             // use file persistence
             securityStore = new FileSecurityStore();
+            if (cli.main.dtlsState) {
+                dtlsStateStore = new FileDtlsStateStore();
+            }
         } else {
             // use Redis Store
             securityStore = new RedisSecurityStore(cli.main.redis);
+            if (cli.main.dtlsState) {
+                dtlsStateStore = new RedisDtlsStateStore(cli.main.redis, InetAddress.getLocalHost().getHostName());
+            }
             builder.setRegistrationStore(new RedisRegistrationStore(cli.main.redis));
         }
         builder.setSecurityStore(securityStore);
@@ -189,7 +199,7 @@ public class LeshanServerDemo {
                     if (cli.helpsOptions.getVerboseLevel() > 0)
                         c.setConnectionListener(new PrincipalMdcConnectionListener());
 
-                }));
+                }, dtlsStateStore));
 
         // Create Californium Configuration
         Configuration serverCoapConfig = endpointsBuilder.createDefaultConfiguration();
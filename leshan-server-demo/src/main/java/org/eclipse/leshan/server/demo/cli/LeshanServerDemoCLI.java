@@ -73,6 +73,14 @@ public class LeshanServerDemoCLI implements Runnable {
             }
         }
 
+        @Option(names = { "-ds", "--dtls-state" },
+                description = { //
+                        "Persist DTLS state (sessions and connections) to avoid full handshakes after a restart.", //
+                        "State is stored in 'data/dtls' folder or in redis if --redis is used,", //
+                        "in this case host name is used to identify this server node.", //
+                        "Connections are only saved on graceful stop." })
+        public boolean dtlsState;
+
         @Option(names = { "-mdns", "--publish-DNS-SD-services" },
                 description = { //
                         "Publish leshan's services to DNS Service discovery." })
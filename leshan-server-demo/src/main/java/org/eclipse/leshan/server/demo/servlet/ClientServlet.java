@@ -18,9 +18,7 @@ package org.eclipse.leshan.server.demo.servlet;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -33,6 +31,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.eclipse.leshan.core.LwM2m.LwM2mVersion;
 import org.eclipse.leshan.core.link.Link;
 import org.eclipse.leshan.core.link.attributes.InvalidAttributeException;
 import org.eclipse.leshan.core.link.lwm2m.attributes.DefaultLwM2mAttributeParser;
@@ -80,13 +79,18 @@ import org.eclipse.leshan.server.demo.servlet.json.JacksonLwM2mNodeSerializer;
 import org.eclipse.leshan.server.demo.servlet.json.JacksonRegistrationSerializer;
 import org.eclipse.leshan.server.demo.servlet.json.JacksonResponseSerializer;
 import org.eclipse.leshan.server.registration.Registration;
+import org.eclipse.leshan.server.registration.RegistrationQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 /**
@@ -103,6 +107,13 @@ public class ClientServlet extends HttpServlet {
     private static final String PATH_FORMAT_PARAM = "pathformat";
     private static final String NODE_FORMAT_PARAM = "nodeformat";
 
+    // for registrations listing
+    private static final String LIMIT_PARAM = "limit";
+    private static final String CURSOR_PARAM = "cursor";
+    private static final String PREFIX_PARAM = "prefix";
+    private static final String VERSION_PARAM = "version";
+    private static final String QUEUE_MODE_PARAM = "queuemode";
+
     private static final Logger LOG = LoggerFactory.getLogger(ClientServlet.class);
 
     private static final long DEFAULT_TIMEOUT = 5000; // ms
@@ -136,16 +147,20 @@ public class ClientServlet extends HttpServlet {
 
         // all registered clients
         if (req.getPathInfo() == null) {
-            Collection<Registration> registrations = new ArrayList<>();
-            for (Iterator<Registration> iterator = server.getRegistrationService().getAllRegistrations(); iterator
-                    .hasNext();) {
-                registrations.add(iterator.next());
+            String limitParam = req.getParameter(LIMIT_PARAM);
+            Integer limit = null;
+            if (limitParam != null) {
+                try {
+                    limit = Integer.valueOf(limitParam);
+                } catch (NumberFormatException e) {
+                    limit = -1;
+                }
+                if (limit <= 0) {
+                    resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "limit must be a positive integer");
+                    return;
+                }
             }
-
-            String json = this.mapper.writeValueAsString(registrations.toArray(new Registration[] {}));
-            resp.setContentType("application/json");
-            resp.getOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
-            resp.setStatus(HttpServletResponse.SC_OK);
+            writeRegistrations(req, resp, limit);
             return;
         }
 
@@ -602,4 +617,97 @@ public class ClientServlet extends HttpServlet {
         }
         return timeout;
     }
+
+    /**
+     * Stream registrations matching request filters (endpoint prefix, LWM2M version, queue mode) as JSON.
+     * <p>
+     * Without limit, all registrations are written as a JSON array (in store order). With a limit, registrations are
+     * sorted by endpoint name and a page is written as <code>{"registrations":[...],"next":"cursor"}</code> where
+     * <code>next</code> is the cursor to use to get next page (absent for last page). The cursor is the last endpoint
+     * of the page, next page is read from the store starting right after it, so the cost of a page does not depend on
+     * the number of registrations before it. In both cases, memory does not depend on the number of registrations.
+     */
+    private void writeRegistrations(HttpServletRequest req, HttpServletResponse resp, Integer limit)
+            throws IOException {
+        String cursor = req.getParameter(CURSOR_PARAM);
+        String prefix = req.getParameter(PREFIX_PARAM);
+        String version = req.getParameter(VERSION_PARAM);
+        String queueMode = req.getParameter(QUEUE_MODE_PARAM);
+
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.setStatus(HttpServletResponse.SC_OK);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+            // avoid to flush output after each registration
+            ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            if (limit == null) {
+                Iterator<Registration> iterator = server.getRegistrationService()
+                        .findRegistrations(toQuery(version, queueMode));
+                generator.writeStartArray();
+                while (iterator.hasNext()) {
+                    Registration registration = iterator.next();
+                    if (matches(registration, prefix, version, queueMode)) {
+                        writer.writeValue(generator, registration);
+                    }
+                }
+                generator.writeEndArray();
+                return;
+            }
+
+            // start right after cursor (the smallest string greater than cursor is cursor + \0), and not before prefix
+            String from = cursor == null ? null : cursor + '\0';
+            if (prefix != null && (from == null || from.compareTo(prefix) < 0)) {
+                from = prefix;
+            }
+            Iterator<Registration> iterator = server.getRegistrationService().getRegistrationsSortedByEndpoint(from);
+
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("registrations");
+            int count = 0;
+            String last = null;
+            boolean hasNext = false;
+            while (iterator.hasNext()) {
+                Registration registration = iterator.next();
+                if (prefix != null && !registration.getEndpoint().startsWith(prefix)) {
+                    // registrations are sorted, so there is no more endpoint with this prefix
+                    break;
+                }
+                if (!matches(registration, prefix, version, queueMode)) {
+                    continue;
+                }
+                if (count == limit) {
+                    hasNext = true;
+                    break;
+                }
+                writer.writeValue(generator, registration);
+                last = registration.getEndpoint();
+                count++;
+            }
+            generator.writeEndArray();
+            if (hasNext) {
+                generator.writeStringField("next", last);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private RegistrationQuery toQuery(String lwm2mVersion, String queueMode) {
+        RegistrationQuery.Builder builder = new RegistrationQuery.Builder();
+        if (lwm2mVersion != null && LwM2mVersion.isSupported(lwm2mVersion))
+            builder.setLwM2mVersion(LwM2mVersion.get(lwm2mVersion));
+        if (queueMode != null)
+            builder.setQueueMode(Boolean.parseBoolean(queueMode));
+        return builder.build();
+    }
+
+    private boolean matches(Registration registration, String endpointPrefix, String lwm2mVersion, String queueMode) {
+        if (endpointPrefix != null && !registration.getEndpoint().startsWith(endpointPrefix))
+            return false;
+        if (lwm2mVersion != null && !lwm2mVersion.equals(registration.getLwM2mVersion().toString()))
+            return false;
+        if (queueMode != null && Boolean.parseBoolean(queueMode) != registration.usesQueueMode())
+            return false;
+        return true;
+    }
+
 }
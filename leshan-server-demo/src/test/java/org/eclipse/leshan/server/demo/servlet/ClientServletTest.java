@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.demo.servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.endpoint.Protocol;
+import org.eclipse.leshan.core.link.Link;
+import org.eclipse.leshan.core.request.BindingMode;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.server.LeshanServer;
+import org.eclipse.leshan.server.LeshanServerBuilder;
+import org.eclipse.leshan.server.californium.endpoint.CaliforniumServerEndpointsProvider;
+import org.eclipse.leshan.server.registration.Registration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ClientServletTest {
+
+    private LeshanServer server;
+    private ClientServlet servlet;
+    private int port = 5000;
+
+    @BeforeEach
+    public void setUp() {
+        CaliforniumServerEndpointsProvider.Builder endpointsProvider = new CaliforniumServerEndpointsProvider.Builder();
+        endpointsProvider.addEndpoint(new InetSocketAddress(0), Protocol.COAP);
+        server = new LeshanServerBuilder().setEndpointsProvider(endpointsProvider.build()).build();
+        servlet = new ClientServlet(server);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.destroy();
+    }
+
+    @Test
+    public void registrations_are_paged_with_cursor() throws Exception {
+        givenRegistrations("ep4", "ep2", "ep5", "ep1", "ep3");
+
+        JsonNode page = get(params("limit", "2"));
+        assertEquals(Arrays.asList("ep1", "ep2"), endpoints(page.get("registrations")));
+        assertEquals("ep2", page.get("next").asText());
+
+        page = get(params("limit", "2", "cursor", "ep2"));
+        assertEquals(Arrays.asList("ep3", "ep4"), endpoints(page.get("registrations")));
+        assertEquals("ep4", page.get("next").asText());
+
+        page = get(params("limit", "2", "cursor", "ep4"));
+        assertEquals(Arrays.asList("ep5"), endpoints(page.get("registrations")));
+        assertFalse(page.has("next"));
+    }
+
+    @Test
+    public void last_full_page_has_no_next_cursor() throws Exception {
+        givenRegistrations("ep1", "ep2");
+
+        JsonNode page = get(params("limit", "2"));
+        assertEquals(Arrays.asList("ep1", "ep2"), endpoints(page.get("registrations")));
+        assertFalse(page.has("next"));
+    }
+
+    @Test
+    public void pages_are_filtered_by_prefix() throws Exception {
+        givenRegistrations("a1", "b1", "b2", "b3", "c1");
+
+        JsonNode page = get(params("limit", "2", "prefix", "b"));
+        assertEquals(Arrays.asList("b1", "b2"), endpoints(page.get("registrations")));
+        assertEquals("b2", page.get("next").asText());
+
+        page = get(params("limit", "2", "prefix", "b", "cursor", "b2"));
+        assertEquals(Arrays.asList("b3"), endpoints(page.get("registrations")));
+        assertFalse(page.has("next"));
+
+        // cursor before prefix
+        page = get(params("limit", "10", "prefix", "b", "cursor", "a1"));
+        assertEquals(Arrays.asList("b1", "b2", "b3"), endpoints(page.get("registrations")));
+    }
+
+    @Test
+    public void pages_are_filtered_by_queue_mode() throws Exception {
+        givenRegistration("ep1", EnumSet.of(BindingMode.U));
+        givenRegistration("ep2", EnumSet.of(BindingMode.U, BindingMode.Q));
+        givenRegistration("ep3", EnumSet.of(BindingMode.U));
+        givenRegistration("ep4", EnumSet.of(BindingMode.U, BindingMode.Q));
+
+        JsonNode page = get(params("limit", "1", "queuemode", "true"));
+        assertEquals(Arrays.asList("ep2"), endpoints(page.get("registrations")));
+        assertEquals("ep2", page.get("next").asText());
+
+        page = get(params("limit", "1", "queuemode", "true", "cursor", "ep2"));
+        assertEquals(Arrays.asList("ep4"), endpoints(page.get("registrations")));
+        assertFalse(page.has("next"));
+    }
+
+    @Test
+    public void registrations_are_listed_as_array_without_limit() throws Exception {
+        givenRegistrations("a1", "b1", "b2");
+
+        JsonNode registrations = get(params("prefix", "b"));
+        assertTrue(registrations.isArray());
+        List<String> endpoints = endpoints(registrations);
+        endpoints.sort(null);
+        assertEquals(Arrays.asList("b1", "b2"), endpoints);
+    }
+
+    @Test
+    public void invalid_limit_is_rejected() throws Exception {
+        for (String limit : new String[] { "0", "-1", "abc" }) {
+            FakeResponse response = new FakeResponse();
+            servlet.doGet(request(params("limit", limit)), response.proxy());
+            assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.status);
+        }
+    }
+
+    private void givenRegistrations(String... endpoints) {
+        for (String endpoint : endpoints) {
+            givenRegistration(endpoint, EnumSet.of(BindingMode.U));
+        }
+    }
+
+    private void givenRegistration(String endpoint, EnumSet<BindingMode> bindingMode) {
+        port++;
+        server.getRegistrationStore()
+                .addRegistration(new Registration.Builder("id-" + endpoint, endpoint,
+                        Identity.unsecure(InetAddress.getLoopbackAddress(), port),
+                        EndpointUriUtil.createUri("coap://localhost:5683")).bindingMode(bindingMode)
+                                .objectLinks(new Link[] { new Link("/3") }).build());
+    }
+
+    private JsonNode get(Map<String, String> params) throws ServletException, IOException {
+        FakeResponse response = new FakeResponse();
+        servlet.doGet(request(params), response.proxy());
+        assertEquals(HttpServletResponse.SC_OK, response.status);
+        return new ObjectMapper().readTree(response.content.toByteArray());
+    }
+
+    private List<String> endpoints(JsonNode registrations) {
+        List<String> endpoints = new ArrayList<>();
+        for (JsonNode registration : registrations) {
+            endpoints.add(registration.get("endpoint").asText());
+        }
+        return endpoints;
+    }
+
+    private Map<String, String> params(String... keyValues) {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            params.put(keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+
+    private HttpServletRequest request(Map<String, String> params) {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getParameter")) {
+                        return params.get(args[0]);
+                    }
+                    // getPathInfo() : list all registrations
+                    return null;
+                });
+    }
+
+    private static class FakeResponse {
+        private int status;
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        public HttpServletResponse proxy() {
+            return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                        case "setStatus":
+                        case "sendError":
+                            status = (Integer) args[0];
+                            return null;
+                        case "getOutputStream":
+                            return new ServletOutputStream() {
+                                @Override
+                                public void write(int b) {
+                                    content.write(b);
+                                }
+
+                                @Override
+                                public boolean isReady() {
+                                    return true;
+                                }
+
+                                @Override
+                                public void setWriteListener(WriteListener writeListener) {
+                                }
+                            };
+                        default:
+                            return null;
+                        }
+                    });
+        }
+    }
+}
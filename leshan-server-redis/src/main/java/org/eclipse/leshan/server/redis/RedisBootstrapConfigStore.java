@@ -0,0 +1,546 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.redis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.leshan.core.Destroyable;
+import org.eclipse.leshan.core.SecurityMode;
+import org.eclipse.leshan.core.Startable;
+import org.eclipse.leshan.core.Stoppable;
+import org.eclipse.leshan.core.oscore.OscoreIdentity;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.util.NamedThreadFactory;
+import org.eclipse.leshan.core.util.SecurityUtil;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ServerSecurity;
+import org.eclipse.leshan.server.bootstrap.BootstrapSession;
+import org.eclipse.leshan.server.bootstrap.ConfigurationChecker;
+import org.eclipse.leshan.server.bootstrap.EditableBootstrapConfigStore;
+import org.eclipse.leshan.server.bootstrap.InvalidConfigurationException;
+import org.eclipse.leshan.server.redis.serialization.BootstrapConfigSerDes;
+import org.eclipse.leshan.server.security.BootstrapSecurityStore;
+import org.eclipse.leshan.server.security.SecurityInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * An {@link EditableBootstrapConfigStore} implementation based on Redis, which allows to share bootstrap configurations
+ * between several bootstrap server instances.
+ * <p>
+ * Configurations are stored using the endpoint as primary key and a secondary index is maintained to find the endpoint
+ * by the PSK identity used to connect to the bootstrap server. As this store is also a {@link BootstrapSecurityStore},
+ * this index is used to answer PSK lookups done during DTLS handshakes. Configuration and index are modified in a same
+ * Redis transaction (WATCH/MULTI/EXEC), retried if one of them is concurrently modified, so PSK identity uniqueness is
+ * ensured even with several instances.
+ * <p>
+ * Configurations read from Redis are kept in a local cache. Each modification is published on a Redis channel so all
+ * instances evict the modified entry from their cache. The cache is only used while this store is started and
+ * subscribed to this channel, if the subscription is lost, the cache is cleared and disabled until the subscription is
+ * restored. Note that the subscription holds a connection of the pool while the store is started.
+ */
+public class RedisBootstrapConfigStore
+        implements EditableBootstrapConfigStore, BootstrapSecurityStore, Startable, Stoppable, Destroyable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisBootstrapConfigStore.class);
+
+    private final Pool<Jedis> pool;
+    private final String configByEndpointPrefix;
+    private final String endpointByPskIdKey;
+    private final String changesChannel;
+    private final int maxCacheSize;
+    private final long subscriptionRetryDelay; // in ms
+
+    protected final ConfigurationChecker configChecker = new ConfigurationChecker();
+
+    // local cache and its invalidation state
+    private final Map<String, BootstrapConfig> cache = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile boolean cacheEnabled = false;
+
+    private final ExecutorService subscriberExecutor;
+    private volatile boolean started = false;
+    private volatile JedisPubSub subscription;
+
+    public RedisBootstrapConfigStore(Pool<Jedis> pool) {
+        this(new Builder(pool));
+    }
+
+    protected RedisBootstrapConfigStore(Builder builder) {
+        String prefix = builder.prefix == null ? "" : builder.prefix;
+        this.pool = builder.pool;
+        this.configByEndpointPrefix = prefix + builder.configByEndpointPrefix;
+        this.endpointByPskIdKey = prefix + builder.endpointByPskIdKey;
+        this.changesChannel = prefix + builder.changesChannel;
+        this.maxCacheSize = builder.maxCacheSize;
+        this.subscriptionRetryDelay = builder.subscriptionRetryDelay;
+        this.subscriberExecutor = Executors.newSingleThreadExecutor(
+                new NamedThreadFactory(String.format("RedisBootstrapConfigStore Subscriber [%s]", changesChannel)));
+    }
+
+    /* *************** BootstrapConfigStore API **************** */
+
+    @Override
+    public BootstrapConfig get(String endpoint, Identity deviceIdentity, BootstrapSession session) {
+        return get(endpoint);
+    }
+
+    protected BootstrapConfig get(String endpoint) {
+        if (cacheEnabled) {
+            BootstrapConfig config = cache.get(endpoint);
+            if (config != null) {
+                return config;
+            }
+        }
+
+        long version = invalidations.get();
+        BootstrapConfig config;
+        try (Jedis j = pool.getResource()) {
+            byte[] data = j.get(toKey(configByEndpointPrefix, endpoint));
+            config = data == null ? null : deserialize(data);
+        }
+
+        if (config != null && cacheEnabled && cache.size() < maxCacheSize) {
+            cache.put(endpoint, config);
+            // an invalidation could have happened since we read the value, in this case it may be stale.
+            if (invalidations.get() != version) {
+                cache.remove(endpoint, config);
+            }
+        }
+        return config;
+    }
+
+    @Override
+    public Map<String, BootstrapConfig> getAll() {
+        try (Jedis j = pool.getResource()) {
+            ScanParams params = new ScanParams().match(configByEndpointPrefix + "*").count(100);
+            Map<String, BootstrapConfig> configs = new HashMap<>();
+            String cursor = "0";
+            do {
+                ScanResult<byte[]> res = j.scan(cursor.getBytes(), params);
+                for (byte[] key : res.getResult()) {
+                    byte[] element = j.get(key);
+                    if (element != null) {
+                        String endpoint = new String(key, UTF_8).substring(configByEndpointPrefix.length());
+                        configs.put(endpoint, deserialize(element));
+                    }
+                }
+                cursor = res.getCursor();
+            } while (!"0".equals(cursor));
+            return Collections.unmodifiableMap(configs);
+        }
+    }
+
+    @Override
+    public void add(String endpoint, BootstrapConfig config) throws InvalidConfigurationException {
+        checkConfig(endpoint, config);
+
+        byte[] data = serialize(config);
+        String pskIdentity = getBootstrapPskIdentity(config);
+        byte[] key = toKey(configByEndpointPrefix, endpoint);
+        try (Jedis j = pool.getResource()) {
+            boolean done = false;
+            while (!done) {
+                j.watch(key, endpointByPskIdKey.getBytes(UTF_8));
+
+                // check PSK identity uniqueness
+                if (pskIdentity != null) {
+                    String owner = j.hget(endpointByPskIdKey, pskIdentity);
+                    if (owner != null && !owner.equals(endpoint)) {
+                        j.unwatch();
+                        throw new InvalidConfigurationException("Psk identity [%s] already used by [%s]", pskIdentity,
+                                owner);
+                    }
+                }
+                byte[] previousData = j.get(key);
+                String previousIdentity = previousData == null ? null
+                        : getBootstrapPskIdentity(deserialize(previousData));
+
+                // update config and the secondary index (endpoint by PSK id) atomically
+                Transaction transaction = j.multi();
+                transaction.set(key, data);
+                if (pskIdentity != null) {
+                    transaction.hset(endpointByPskIdKey, pskIdentity, endpoint);
+                }
+                if (previousIdentity != null && !previousIdentity.equals(pskIdentity)) {
+                    transaction.hdel(endpointByPskIdKey, previousIdentity);
+                }
+                // exec fails if config or index was modified in the meantime, in this case we retry
+                done = transaction.exec() != null;
+            }
+            publishChange(j, endpoint);
+        }
+    }
+
+    protected void checkConfig(String endpoint, BootstrapConfig config) throws InvalidConfigurationException {
+        configChecker.verify(config);
+    }
+
+    @Override
+    public BootstrapConfig remove(String endpoint) {
+        try (Jedis j = pool.getResource()) {
+            byte[] key = toKey(configByEndpointPrefix, endpoint);
+            BootstrapConfig config = null;
+            boolean done = false;
+            while (!done) {
+                j.watch(key);
+                byte[] data = j.get(key);
+                if (data == null) {
+                    j.unwatch();
+                    return null;
+                }
+
+                config = deserialize(data);
+                String pskIdentity = getBootstrapPskIdentity(config);
+                Transaction transaction = j.multi();
+                if (pskIdentity != null) {
+                    transaction.hdel(endpointByPskIdKey, pskIdentity);
+                }
+                transaction.del(key);
+                // exec fails if config was modified in the meantime, in this case we retry
+                done = transaction.exec() != null;
+            }
+            publishChange(j, endpoint);
+            return config;
+        }
+    }
+
+    protected String getBootstrapPskIdentity(BootstrapConfig config) {
+        for (ServerSecurity security : config.security.values()) {
+            if (security.bootstrapServer && security.securityMode == SecurityMode.PSK) {
+                return new String(security.publicKeyOrId, UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /* *************** BootstrapSecurityStore API **************** */
+
+    @Override
+    public Iterator<SecurityInfo> getAllByEndpoint(String endpoint) {
+        BootstrapConfig config = get(endpoint);
+        if (config == null) {
+            return null;
+        }
+
+        List<SecurityInfo> infos = new ArrayList<>(1);
+        for (ServerSecurity security : config.security.values()) {
+            if (security.bootstrapServer) {
+                SecurityInfo info = toSecurityInfo(endpoint, security);
+                if (info != null) {
+                    infos.add(info);
+                }
+            }
+        }
+        return infos.iterator();
+    }
+
+    @Override
+    public SecurityInfo getByIdentity(String pskIdentity) {
+        String endpoint;
+        try (Jedis j = pool.getResource()) {
+            endpoint = j.hget(endpointByPskIdKey, pskIdentity);
+        }
+        if (endpoint == null) {
+            return null;
+        }
+
+        BootstrapConfig config = get(endpoint);
+        if (config != null && pskIdentity.equals(getBootstrapPskIdentity(config))) {
+            for (ServerSecurity security : config.security.values()) {
+                if (security.bootstrapServer) {
+                    return toSecurityInfo(endpoint, security);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public SecurityInfo getByOscoreIdentity(OscoreIdentity oscoreIdentity) {
+        // TODO OSCORE to be implemented
+        return null;
+    }
+
+    protected SecurityInfo toSecurityInfo(String endpoint, ServerSecurity security) {
+        if (security.securityMode == null) {
+            return null;
+        }
+        switch (security.securityMode) {
+        case PSK:
+            return SecurityInfo.newPreSharedKeyInfo(endpoint, new String(security.publicKeyOrId, UTF_8),
+                    security.secretKey);
+        case RPK:
+            try {
+                return SecurityInfo.newRawPublicKeyInfo(endpoint,
+                        SecurityUtil.publicKey.decode(security.publicKeyOrId));
+            } catch (IOException | GeneralSecurityException e) {
+                LOG.warn("Invalid client public key in bootstrap config of [{}]", endpoint, e);
+                return null;
+            }
+        case X509:
+            return SecurityInfo.newX509CertInfo(endpoint);
+        default:
+            return null;
+        }
+    }
+
+    /* *************** Cache invalidation **************** */
+
+    private void publishChange(Jedis j, String endpoint) {
+        invalidate(endpoint);
+        j.publish(changesChannel, endpoint);
+    }
+
+    private void invalidate(String endpoint) {
+        invalidations.incrementAndGet();
+        cache.remove(endpoint);
+    }
+
+    private void disableCache() {
+        cacheEnabled = false;
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            subscriberExecutor.execute(new Subscriber());
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (started) {
+            started = false;
+            JedisPubSub s = subscription;
+            if (s != null && s.isSubscribed()) {
+                s.unsubscribe();
+            }
+            disableCache();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        stop();
+        subscriberExecutor.shutdownNow();
+        try {
+            subscriberExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            LOG.warn("Destroying RedisBootstrapConfigStore was interrupted.", e);
+        }
+    }
+
+    private class Subscriber implements Runnable {
+
+        @Override
+        public void run() {
+            while (started) {
+                JedisPubSub s = new JedisPubSub() {
+                    @Override
+                    public void onSubscribe(String channel, int subscribedChannels) {
+                        if (started) {
+                            cacheEnabled = true;
+                        } else {
+                            unsubscribe();
+                        }
+                    }
+
+                    @Override
+                    public void onMessage(String channel, String endpoint) {
+                        invalidate(endpoint);
+                    }
+                };
+                subscription = s;
+                try (Jedis j = pool.getResource()) {
+                    // blocks until unsubscribed or connection lost
+                    j.subscribe(s, changesChannel);
+                } catch (RuntimeException e) {
+                    LOG.warn("Subscription to [{}] lost, local cache disabled", changesChannel, e);
+                } finally {
+                    subscription = null;
+                    disableCache();
+                }
+
+                if (started) {
+                    try {
+                        Thread.sleep(subscriptionRetryDelay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /* *************** Redis Key utility function **************** */
+
+    private byte[] toKey(String prefix, String endpoint) {
+        return (prefix + endpoint).getBytes(UTF_8);
+    }
+
+    private byte[] serialize(BootstrapConfig config) {
+        return BootstrapConfigSerDes.serialize(config);
+    }
+
+    private BootstrapConfig deserialize(byte[] data) {
+        return BootstrapConfigSerDes.deserialize(data);
+    }
+
+    /**
+     * Class helping to build and configure a {@link RedisBootstrapConfigStore}.
+     * <p>
+     * By default, uses {@code BSSTORE#} prefix for all keys, {@code CFG#EP#} key prefix to find configuration by
+     * endpoint, {@code EP#PSKID} key to get the endpoint by PSK ID and {@code CFG#CHANGES} channel to publish
+     * modifications.
+     */
+    public static class Builder {
+
+        private final Pool<Jedis> pool;
+        private String configByEndpointPrefix;
+        private String endpointByPskIdKey;
+        private String changesChannel;
+        private String prefix;
+        private int maxCacheSize;
+        private long subscriptionRetryDelay;
+
+        public Builder(Pool<Jedis> pool) {
+            this.pool = pool;
+            this.prefix = "BSSTORE#";
+            this.configByEndpointPrefix = "CFG#EP#";
+            this.endpointByPskIdKey = "EP#PSKID";
+            this.changesChannel = "CFG#CHANGES";
+            this.maxCacheSize = 10000;
+            this.subscriptionRetryDelay = 1000;
+        }
+
+        /**
+         * Set the key prefix for bootstrap config lookup by endpoint.
+         * <p>
+         * Default value is {@literal CFG#EP#}. Should not be {@code null} or empty.
+         */
+        public Builder setConfigByEndpointPrefix(String configByEndpointPrefix) {
+            this.configByEndpointPrefix = configByEndpointPrefix;
+            return this;
+        }
+
+        /**
+         * Set the key for endpoint lookup by PSK identity.
+         * <p>
+         * Default value is {@literal EP#PSKID}. Should not be {@code null} or empty.
+         */
+        public Builder setEndpointByPskIdKey(String endpointByPskIdKey) {
+            this.endpointByPskIdKey = endpointByPskIdKey;
+            return this;
+        }
+
+        /**
+         * Set the channel used to notify other instances about modifications.
+         * <p>
+         * Default value is {@literal CFG#CHANGES}. Should not be {@code null} or empty.
+         */
+        public Builder setChangesChannel(String changesChannel) {
+            this.changesChannel = changesChannel;
+            return this;
+        }
+
+        /**
+         * Set the prefix for all keys and prefixes including {@link #configByEndpointPrefix},
+         * {@link #endpointByPskIdKey} and {@link #changesChannel}.
+         * <p>
+         * Default value is {@literal BSSTORE#}.
+         */
+        public Builder setPrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of configurations kept in the local cache. 0 disables the cache.
+         * <p>
+         * Default value is 10000.
+         */
+        public Builder setMaxCacheSize(int maxCacheSize) {
+            this.maxCacheSize = maxCacheSize;
+            return this;
+        }
+
+        /**
+         * Set the time to wait before trying to subscribe again when the subscription to changes is lost.
+         * <p>
+         * Default value is 1000ms.
+         */
+        public Builder setSubscriptionRetryDelay(long subscriptionRetryDelay, TimeUnit unit) {
+            this.subscriptionRetryDelay = unit.toMillis(subscriptionRetryDelay);
+            return this;
+        }
+
+        /**
+         * Create the {@link RedisBootstrapConfigStore}.
+         * <p>
+         * Throws {@link IllegalArgumentException} when {@link #configByEndpointPrefix}, {@link #endpointByPskIdKey} or
+         * {@link #changesChannel} are not set or are equal to each other.
+         */
+        public RedisBootstrapConfigStore build() throws IllegalArgumentException {
+            if (this.configByEndpointPrefix == null || this.configByEndpointPrefix.isEmpty()) {
+                throw new IllegalArgumentException("configByEndpointPrefix should not be empty");
+            }
+
+            if (this.endpointByPskIdKey == null || this.endpointByPskIdKey.isEmpty()) {
+                throw new IllegalArgumentException("endpointByPskIdKey should not be empty");
+            }
+
+            if (this.changesChannel == null || this.changesChannel.isEmpty()) {
+                throw new IllegalArgumentException("changesChannel should not be empty");
+            }
+
+            if (this.configByEndpointPrefix.equals(this.endpointByPskIdKey)) {
+                throw new IllegalArgumentException("configByEndpointPrefix should not be equal to endpointByPskIdKey");
+            }
+
+            if (this.maxCacheSize < 0) {
+                throw new IllegalArgumentException("maxCacheSize should be positive");
+            }
+
+            return new RedisBootstrapConfigStore(this);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.redis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.net.URI;
+
+import org.eclipse.leshan.core.request.BootstrapDownlinkRequest;
+import org.eclipse.leshan.core.request.BootstrapRequest;
+import org.eclipse.leshan.core.request.Identity;
+import org.eclipse.leshan.core.response.LwM2mResponse;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfigStore;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfigStoreTaskProvider;
+import org.eclipse.leshan.server.bootstrap.BootstrapFailureCause;
+import org.eclipse.leshan.server.bootstrap.BootstrapSession;
+import org.eclipse.leshan.server.bootstrap.BootstrapTaskProvider;
+import org.eclipse.leshan.server.bootstrap.DefaultBootstrapAuthorizer;
+import org.eclipse.leshan.server.bootstrap.DefaultBootstrapSessionManager;
+import org.eclipse.leshan.server.model.LwM2mBootstrapModelProvider;
+import org.eclipse.leshan.server.model.StandardBootstrapModelProvider;
+import org.eclipse.leshan.server.security.BootstrapAuthorizer;
+import org.eclipse.leshan.server.security.BootstrapSecurityStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * A {@link DefaultBootstrapSessionManager} which shares the ownership of bootstrap sessions between several bootstrap
+ * server instances using Redis.
+ * <p>
+ * Each time a session begins, it becomes the active session for its endpoint cluster-wide. When a device starts a new
+ * bootstrap session on another instance (e.g. because a load balancer moved it), the previous session is not the active
+ * one anymore and fails at its next step instead of continuing to write a configuration concurrently.
+ * <p>
+ * Requests and responses of a session are still kept in memory by the instance owning it, as the DTLS connection used
+ * to send them is local to this instance.
+ */
+public class RedisBootstrapSessionManager extends DefaultBootstrapSessionManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisBootstrapSessionManager.class);
+
+    private static final String DEFAULT_SESSION_BY_ENDPOINT_PREFIX = "BSSESSION#EP#";
+    private static final long DEFAULT_SESSION_TIMEOUT = 5 * 60 * 1000; // 5 minutes
+
+    private final Pool<Jedis> pool;
+    private final String sessionByEndpointPrefix;
+    private final long sessionTimeout; // in ms
+
+    public RedisBootstrapSessionManager(Pool<Jedis> pool, BootstrapSecurityStore bsSecurityStore,
+            BootstrapConfigStore configStore) {
+        this(pool, new BootstrapConfigStoreTaskProvider(configStore), new StandardBootstrapModelProvider(),
+                new DefaultBootstrapAuthorizer(bsSecurityStore), DEFAULT_SESSION_BY_ENDPOINT_PREFIX,
+                DEFAULT_SESSION_TIMEOUT);
+    }
+
+    /**
+     * @param pool the Redis connection pool.
+     * @param tasksProvider provides the tasks to execute for a session.
+     * @param modelProvider provides the model used by a session.
+     * @param authorizer checks if a session is authorized.
+     * @param sessionByEndpointPrefix the key prefix used to store active session id by endpoint.
+     * @param sessionTimeout the time in ms after which an active session without activity is forgotten.
+     */
+    public RedisBootstrapSessionManager(Pool<Jedis> pool, BootstrapTaskProvider tasksProvider,
+            LwM2mBootstrapModelProvider modelProvider, BootstrapAuthorizer authorizer, String sessionByEndpointPrefix,
+            long sessionTimeout) {
+        super(tasksProvider, modelProvider, authorizer);
+        this.pool = pool;
+        this.sessionByEndpointPrefix = sessionByEndpointPrefix;
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    @Override
+    public BootstrapSession begin(BootstrapRequest request, Identity clientIdentity, URI endpointUsed) {
+        BootstrapSession session = super.begin(request, clientIdentity, endpointUsed);
+        if (session.isAuthorized()) {
+            try (Jedis j = pool.getResource()) {
+                j.set(toKey(session.getEndpoint()), session.getId().getBytes(UTF_8),
+                        SetParams.setParams().px(sessionTimeout));
+            }
+        }
+        return session;
+    }
+
+    @Override
+    public BootstrapPolicy onResponseSuccess(BootstrapSession bsSession,
+            BootstrapDownlinkRequest<? extends LwM2mResponse> request, LwM2mResponse response) {
+        if (!refreshOwnership(bsSession)) {
+            return BootstrapPolicy.failed();
+        }
+        return super.onResponseSuccess(bsSession, request, response);
+    }
+
+    @Override
+    public BootstrapPolicy onResponseError(BootstrapSession bsSession,
+            BootstrapDownlinkRequest<? extends LwM2mResponse> request, LwM2mResponse response) {
+        if (!refreshOwnership(bsSession)) {
+            return BootstrapPolicy.failed();
+        }
+        return super.onResponseError(bsSession, request, response);
+    }
+
+    @Override
+    public void end(BootstrapSession bsSession) {
+        release(bsSession);
+        super.end(bsSession);
+    }
+
+    @Override
+    public void failed(BootstrapSession bsSession, BootstrapFailureCause cause) {
+        release(bsSession);
+        super.failed(bsSession, cause);
+    }
+
+    /**
+     * @return the id of the active session for the given endpoint or <code>null</code> if there is no active session.
+     */
+    public String getActiveSessionId(String endpoint) {
+        try (Jedis j = pool.getResource()) {
+            byte[] sessionId = j.get(toKey(endpoint));
+            return sessionId == null ? null : new String(sessionId, UTF_8);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the given session is still the active session for its endpoint. In this case its
+     *         expiration is postponed.
+     */
+    protected boolean refreshOwnership(BootstrapSession bsSession) {
+        try (Jedis j = pool.getResource()) {
+            byte[] key = toKey(bsSession.getEndpoint());
+            j.watch(key);
+            byte[] activeSessionId = j.get(key);
+            if (activeSessionId != null && !bsSession.getId().equals(new String(activeSessionId, UTF_8))) {
+                j.unwatch();
+                LOG.debug("Bootstrap session {} of {} was replaced by session {}", bsSession.getId(),
+                        bsSession.getEndpoint(), new String(activeSessionId, UTF_8));
+                return false;
+            }
+            Transaction transaction = j.multi();
+            transaction.set(key, bsSession.getId().getBytes(UTF_8), SetParams.setParams().px(sessionTimeout));
+            // exec fails if another session took the ownership in the meantime
+            return transaction.exec() != null;
+        }
+    }
+
+    protected void release(BootstrapSession bsSession) {
+        try (Jedis j = pool.getResource()) {
+            byte[] key = toKey(bsSession.getEndpoint());
+            j.watch(key);
+            byte[] activeSessionId = j.get(key);
+            if (activeSessionId != null && bsSession.getId().equals(new String(activeSessionId, UTF_8))) {
+                // deleted only if nobody took the ownership in the meantime
+                Transaction transaction = j.multi();
+                transaction.del(key);
+                transaction.exec();
+            } else {
+                j.unwatch();
+            }
+        }
+    }
+
+    private byte[] toKey(String endpoint) {
+        return (sessionByEndpointPrefix + endpoint).getBytes(UTF_8);
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.redis;
+
+import org.eclipse.leshan.core.util.Hex;
+import org.eclipse.leshan.server.security.DtlsStateStore;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * A {@link DtlsStateStore} implementation based on Redis.
+ * <p>
+ * As sessions are shared by all server nodes using the same Redis, a device routed to another node after a failover can
+ * resume its session with an abbreviated handshake. Sessions and connections snapshots expire after a configurable
+ * time.
+ * <p>
+ * Connections snapshots are specific to each node : their keys contain a node identifier, which must be unique in the
+ * cluster and stable across restarts of the same node, so nodes using the same endpoint URI (e.g.
+ * <code>coaps://0.0.0.0:5684</code>) do not override snapshots of each other.
+ */
+public class RedisDtlsStateStore implements DtlsStateStore {
+
+    private final String sessionPrefix;
+    private final String connectionsPrefix;
+    private final long sessionExpirationInSec;
+    private final long connectionsExpirationInSec;
+    private final Pool<Jedis> pool;
+
+    /**
+     * @param pool the Redis connection pool.
+     * @param nodeId identifier of this server node, unique in the cluster and stable across restarts.
+     */
+    public RedisDtlsStateStore(Pool<Jedis> pool, String nodeId) {
+        this(new Builder(pool).setNodeId(nodeId).validate());
+    }
+
+    protected RedisDtlsStateStore(Builder builder) {
+        this.pool = builder.pool;
+        this.sessionPrefix = builder.sessionPrefix;
+        this.connectionsPrefix = builder.connectionsPrefix + builder.nodeId + "#";
+        this.sessionExpirationInSec = builder.sessionExpirationInSec;
+        this.connectionsExpirationInSec = builder.connectionsExpirationInSec;
+    }
+
+    @Override
+    public void putSession(byte[] sessionId, byte[] session) {
+        try (Jedis j = pool.getResource()) {
+            j.setex(toSessionKey(sessionId), sessionExpirationInSec, session);
+        }
+    }
+
+    @Override
+    public byte[] getSession(byte[] sessionId) {
+        try (Jedis j = pool.getResource()) {
+            return j.get(toSessionKey(sessionId));
+        }
+    }
+
+    @Override
+    public void removeSession(byte[] sessionId) {
+        try (Jedis j = pool.getResource()) {
+            j.del(toSessionKey(sessionId));
+        }
+    }
+
+    @Override
+    public void saveConnections(String endpointKey, byte[] connections) {
+        try (Jedis j = pool.getResource()) {
+            j.setex((connectionsPrefix + endpointKey).getBytes(), connectionsExpirationInSec, connections);
+        }
+    }
+
+    @Override
+    public byte[] loadConnections(String endpointKey) {
+        try (Jedis j = pool.getResource()) {
+            return j.get((connectionsPrefix + endpointKey).getBytes());
+        }
+    }
+
+    private byte[] toSessionKey(byte[] sessionId) {
+        return (sessionPrefix + Hex.encodeHexString(sessionId)).getBytes();
+    }
+
+    /**
+     * Class helping to build and configure a {@link RedisDtlsStateStore}.
+     * <p>
+     * By default, uses {@code DTLS#} prefix for all keys, {@code SESSION#} key prefix for sessions and
+     * {@code CONNECTIONS#} key prefix for connections snapshots (followed by node identifier). Sessions and snapshots
+     * expire after 1 day.
+     */
+    public static class Builder {
+
+        private final Pool<Jedis> pool;
+        private String nodeId;
+        private String prefix;
+        private String sessionPrefix;
+        private String connectionsPrefix;
+        private long sessionExpirationInSec;
+        private long connectionsExpirationInSec;
+
+        public Builder(Pool<Jedis> pool) {
+            this.pool = pool;
+            this.prefix = "DTLS#";
+            this.sessionPrefix = "SESSION#";
+            this.connectionsPrefix = "CONNECTIONS#";
+            this.sessionExpirationInSec = 24 * 60 * 60;
+            this.connectionsExpirationInSec = 24 * 60 * 60;
+        }
+
+        /**
+         * Set the identifier of this server node, used in connections snapshot keys. It must be unique in the cluster
+         * and stable across restarts of the same node. This is mandatory.
+         */
+        public Builder setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+            return this;
+        }
+
+        /**
+         * Set the prefix for all keys and prefixes including {@link #sessionPrefix} and {@link #connectionsPrefix}.
+         * <p>
+         * Default value is {@literal DTLS#}.
+         */
+        public Builder setPrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * Set the key prefix for sessions.
+         * <p>
+         * Default value is {@literal SESSION#}. Should not be {@code null} or empty.
+         */
+        public Builder setSessionPrefix(String sessionPrefix) {
+            this.sessionPrefix = sessionPrefix;
+            return this;
+        }
+
+        /**
+         * Set the key prefix for connections snapshots.
+         * <p>
+         * Default value is {@literal CONNECTIONS#}. Should not be {@code null} or empty.
+         */
+        public Builder setConnectionsPrefix(String connectionsPrefix) {
+            this.connectionsPrefix = connectionsPrefix;
+            return this;
+        }
+
+        /**
+         * Set time after which a session is removed from the store.
+         * <p>
+         * Default value is 1 day.
+         */
+        public Builder setSessionExpiration(long sessionExpirationInSec) {
+            this.sessionExpirationInSec = sessionExpirationInSec;
+            return this;
+        }
+
+        /**
+         * Set time after which a connections snapshot is removed from the store.
+         * <p>
+         * Default value is 1 day.
+         */
+        public Builder setConnectionsExpiration(long connectionsExpirationInSec) {
+            this.connectionsExpirationInSec = connectionsExpirationInSec;
+            return this;
+        }
+
+        /**
+         * Create the {@link RedisDtlsStateStore}.
+         * <p>
+         * Throws {@link IllegalArgumentException} when {@link #nodeId} is not set, when {@link #sessionPrefix} or
+         * {@link #connectionsPrefix} are not set or are equal to each other, or when expiration times are not positive.
+         */
+        public RedisDtlsStateStore build() throws IllegalArgumentException {
+            return new RedisDtlsStateStore(validate());
+        }
+
+        protected Builder validate() throws IllegalArgumentException {
+            if (this.nodeId == null || this.nodeId.isEmpty()) {
+                throw new IllegalArgumentException("nodeId should not be empty");
+            }
+
+            if (this.sessionPrefix == null || this.sessionPrefix.isEmpty()) {
+                throw new IllegalArgumentException("sessionPrefix should not be empty");
+            }
+
+            if (this.connectionsPrefix == null || this.connectionsPrefix.isEmpty()) {
+                throw new IllegalArgumentException("connectionsPrefix should not be empty");
+            }
+
+            if (this.sessionPrefix.equals(this.connectionsPrefix)) {
+                throw new IllegalArgumentException("sessionPrefix should not be equal to connectionsPrefix");
+            }
+
+            if (this.sessionExpirationInSec <= 0 || this.connectionsExpirationInSec <= 0) {
+                throw new IllegalArgumentException("expiration times should be positive");
+            }
+
+            if (this.prefix != null) {
+                this.sessionPrefix = this.prefix + this.sessionPrefix;
+                this.connectionsPrefix = this.prefix + this.connectionsPrefix;
+            }
+            return this;
+        }
+    }
+}
@@ -40,6 +40,7 @@ import java.util.concurrent.TimeUnit;
 import org.eclipse.leshan.core.Destroyable;
 import org.eclipse.leshan.core.Startable;
 import org.eclipse.leshan.core.Stoppable;
+import org.eclipse.leshan.core.node.LwM2mPath;
 import org.eclipse.leshan.core.observation.CompositeObservation;
 import org.eclipse.leshan.core.observation.Observation;
 import org.eclipse.leshan.core.observation.ObservationIdentifier;
@@ -53,6 +54,7 @@ import org.eclipse.leshan.server.redis.serialization.RegistrationSerDes;
 import org.eclipse.leshan.server.registration.Deregistration;
 import org.eclipse.leshan.server.registration.ExpirationListener;
 import org.eclipse.leshan.server.registration.Registration;
+import org.eclipse.leshan.server.registration.RegistrationQuery;
 import org.eclipse.leshan.server.registration.RegistrationStore;
 import org.eclipse.leshan.server.registration.RegistrationUpdate;
 import org.eclipse.leshan.server.registration.UpdatedRegistration;
@@ -60,9 +62,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Transaction;
 import redis.clients.jedis.params.ScanParams;
 import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.resps.Tuple;
 import redis.clients.jedis.util.Pool;
 
 /**
@@ -71,6 +75,10 @@ import redis.clients.jedis.util.Pool;
 public class RedisRegistrationStore implements RegistrationStore, Startable, Stoppable, Destroyable {
     private static final Logger LOG = LoggerFactory.getLogger(RedisRegistrationStore.class);
 
+    // field of the path index hash marking that all observations of the registration are indexed. (a path key always
+    // starts with '/' or 'C', so this can not collide)
+    private static final byte[] PATH_INDEX_MIGRATED = "#MIGRATED".getBytes(UTF_8);
+
     // Redis key prefixes
     private final String registrationByEndpointPrefix; // (Endpoint => Registration)
     private final String endpointByRegistrationIdPrefix; // secondary index key (Registration ID => Endpoint)
@@ -79,8 +87,14 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
     private final String endpointLockPrefix;
     private final byte[] observationTokenPrefix;
     private final String observationTokensByRegistrationIdPrefix; // secondary index (Registration => Token list)
+    private final String observationTokenByPathPrefix; // secondary index (Registration => hash of Path => Token)
     private final byte[] endpointExpirationKey; // a sorted set used for registration expiration (expiration date,
                                                 // Endpoint)
+    private final String endpointsByIndexTermPrefix; // query index (Index term => Endpoint set)
+    private final byte[] endpointByLastUpdateKey; // a sorted set used for query by last update (last update, Endpoint)
+    private final byte[] endpointsSortedKey; // a sorted set of endpoints with same score, used to iterate by endpoint
+    private final byte[] queryIndexesMigratedKey; // set once query indexes were rebuilt (endpointByLastUpdateKey +
+                                                  // #MIGRATED)
 
     private final Pool<Jedis> pool;
 
@@ -94,6 +108,7 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
     private final long cleanPeriod; // in seconds
     private final int cleanLimit; // maximum number to clean in a clean period
     private final long gracePeriod; // in seconds
+    private final boolean rebuildQueryIndexesOnStart;
 
     private final JedisLock lock;
     private final RegistrationSerDes registrationSerDes;
@@ -112,10 +127,16 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         this.endpointLockPrefix = builder.endpointLockPrefix;
         this.observationTokenPrefix = builder.observationTokenPrefix.getBytes(UTF_8);
         this.observationTokensByRegistrationIdPrefix = builder.observationTokensByRegistrationIdPrefix;
+        this.observationTokenByPathPrefix = builder.observationTokenByPathPrefix;
         this.endpointExpirationKey = builder.endpointExpirationKey.getBytes(UTF_8);
+        this.endpointsByIndexTermPrefix = builder.endpointsByIndexTermPrefix;
+        this.endpointByLastUpdateKey = builder.endpointByLastUpdateKey.getBytes(UTF_8);
+        this.endpointsSortedKey = builder.endpointsSortedKey.getBytes(UTF_8);
+        this.queryIndexesMigratedKey = (builder.endpointByLastUpdateKey + "#MIGRATED").getBytes(UTF_8);
         this.cleanPeriod = builder.cleanPeriod;
         this.cleanLimit = builder.cleanLimit;
         this.gracePeriod = builder.gracePeriod;
+        this.rebuildQueryIndexesOnStart = builder.rebuildQueryIndexesOnStart;
         this.schedExecutor = builder.schedExecutor;
         this.lock = builder.lock;
         this.registrationSerDes = builder.registrationSerDes;
@@ -169,8 +190,11 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                 // Add or update expiration
                 addOrUpdateExpiration(j, registration);
 
-                if (old != null) {
-                    Registration oldRegistration = deserializeReg(old);
+                // Add or update query indexes
+                Registration oldRegistration = old == null ? null : deserializeReg(old);
+                updateQueryIndexes(j, oldRegistration, registration);
+
+                if (oldRegistration != null) {
                     // remove old secondary index
                     if (!registration.getId().equals(oldRegistration.getId()))
                         j.del(toRegIdKey(oldRegistration.getId()));
@@ -224,6 +248,9 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                 // Add or update expiration
                 addOrUpdateExpiration(j, updatedRegistration);
 
+                // Update query indexes
+                updateQueryIndexes(j, r, updatedRegistration);
+
                 // Update secondary index :
                 // If registration is already associated to this address we don't care as we only want to keep the most
                 // recent binding.
@@ -303,6 +330,285 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         return new RedisIterator(pool, new ScanParams().match(registrationByEndpointPrefix + "*").count(100));
     }
 
+    @Override
+    public Iterator<Registration> findRegistrations(RegistrationQuery query) {
+        Set<String> terms = query.getIndexTerms();
+        if (terms.isEmpty() && !query.hasLastUpdateRange()) {
+            return getAllRegistrations();
+        }
+
+        List<byte[]> endpoints;
+        try (Jedis j = pool.getResource()) {
+            if (!terms.isEmpty()) {
+                byte[][] keys = new byte[terms.size()][];
+                int i = 0;
+                for (String term : terms) {
+                    keys[i++] = toKey(endpointsByIndexTermPrefix, term);
+                }
+                endpoints = new ArrayList<>(j.sinter(keys));
+            } else {
+                double from = query.getLastUpdateFrom() == null ? Double.NEGATIVE_INFINITY
+                        : query.getLastUpdateFrom().getTime();
+                double to = query.getLastUpdateTo() == null ? Double.POSITIVE_INFINITY
+                        : query.getLastUpdateTo().getTime();
+                endpoints = j.zrangeByScore(endpointByLastUpdateKey, from, to);
+            }
+        }
+        return new RedisQueryIterator(pool, endpoints, query);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Registrations are iterated using a sorted set of endpoints maintained with query indexes, so registrations stored
+     * before this index existed are only returned once {@link #rebuildQueryIndexes()} was called.
+     */
+    @Override
+    public Iterator<Registration> getRegistrationsSortedByEndpoint(String fromEndpoint) {
+        return new RedisSortedIterator(pool, fromEndpoint);
+    }
+
+    /**
+     * Rebuild query indexes used by {@link #findRegistrations(RegistrationQuery)} : all registrations currently in the
+     * store are added to indexes, then index entries which does not match a stored registration anymore are removed.
+     * <p>
+     * Indexes are maintained on each add/update/remove, but registrations stored by a version of this store which did
+     * not maintain them (or by a store configured with other index keys) are not indexed and so would not be returned
+     * by an indexed query. This is a migration which scans and deserializes the whole store, it only needs to be run
+     * once for a given store (see {@link Builder#setRebuildQueryIndexesOnStart(boolean)}).
+     * <p>
+     * Stale entries are removed under endpoint lock, so it is safe to call this while other servers are using the same
+     * store.
+     */
+    public void rebuildQueryIndexes() {
+        int count = 0;
+        try (Jedis j = pool.getResource()) {
+            Iterator<Registration> registrations = getAllRegistrations();
+            while (registrations.hasNext()) {
+                updateQueryIndexes(j, null, registrations.next());
+                count++;
+            }
+            int removed = removeStaleQueryIndexEntries(j);
+            LOG.debug("Query indexes rebuilt for {} registration(s), {} stale entries removed", count, removed);
+        }
+    }
+
+    private int removeStaleQueryIndexEntries(Jedis j) {
+        int removed = 0;
+
+        // term indexes
+        ScanParams termParams = new ScanParams().match(endpointsByIndexTermPrefix + "*").count(100);
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        do {
+            ScanResult<byte[]> keys = j.scan(cursor, termParams);
+            for (byte[] indexKey : keys.getResult()) {
+                String term = new String(indexKey, UTF_8).substring(endpointsByIndexTermPrefix.length());
+                byte[] memberCursor = ScanParams.SCAN_POINTER_START_BINARY;
+                do {
+                    ScanResult<byte[]> members = j.sscan(indexKey, memberCursor, new ScanParams().count(100));
+                    for (byte[] ep : members.getResult()) {
+                        if (!isIndexedBy(j, ep, term)) {
+                            // check again under lock, registration could be added or updated concurrently
+                            byte[] lockValue = null;
+                            byte[] lockKey = toLockKey(ep);
+                            try {
+                                lockValue = lock.acquire(j, lockKey);
+                                if (!isIndexedBy(j, ep, term)) {
+                                    removed += j.srem(indexKey, ep);
+                                }
+                            } finally {
+                                lock.release(j, lockKey, lockValue);
+                            }
+                        }
+                    }
+                    memberCursor = members.getCursorAsBytes();
+                } while (!Arrays.equals(ScanParams.SCAN_POINTER_START_BINARY, memberCursor));
+            }
+            cursor = keys.getCursorAsBytes();
+        } while (!Arrays.equals(ScanParams.SCAN_POINTER_START_BINARY, cursor));
+
+        // last update and sorted endpoints indexes
+        removed += removeStaleEndpoints(j, endpointByLastUpdateKey);
+        removed += removeStaleEndpoints(j, endpointsSortedKey);
+
+        return removed;
+    }
+
+    /**
+     * Remove endpoints without registration from the given sorted set.
+     */
+    private int removeStaleEndpoints(Jedis j, byte[] sortedSetKey) {
+        int removed = 0;
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        do {
+            ScanResult<Tuple> entries = j.zscan(sortedSetKey, cursor, new ScanParams().count(100));
+            for (Tuple entry : entries.getResult()) {
+                byte[] ep = entry.getBinaryElement();
+                if (!j.exists(toEndpointKey(ep))) {
+                    byte[] lockValue = null;
+                    byte[] lockKey = toLockKey(ep);
+                    try {
+                        lockValue = lock.acquire(j, lockKey);
+                        if (!j.exists(toEndpointKey(ep))) {
+                            removed += j.zrem(sortedSetKey, ep);
+                        }
+                    } finally {
+                        lock.release(j, lockKey, lockValue);
+                    }
+                }
+            }
+            cursor = entries.getCursorAsBytes();
+        } while (!Arrays.equals(ScanParams.SCAN_POINTER_START_BINARY, cursor));
+        return removed;
+    }
+
+    /**
+     * @return <code>true</code> if registration of the given endpoint exists and has the given index term.
+     */
+    private boolean isIndexedBy(Jedis j, byte[] ep, String term) {
+        byte[] data = j.get(toEndpointKey(ep));
+        return data != null && RegistrationQuery.getIndexTerms(deserializeReg(data)).contains(term);
+    }
+
+    /**
+     * Iterates over registrations of the given endpoints, fetching them by batch and keeping only the ones matching the
+     * query.
+     */
+    protected class RedisQueryIterator implements Iterator<Registration> {
+
+        private static final int BATCH_SIZE = 100;
+
+        private final Pool<Jedis> pool;
+        private final List<byte[]> endpoints;
+        private final RegistrationQuery query;
+
+        private int nextEndpoint = 0;
+        private final List<Registration> batch = new ArrayList<>();
+
+        public RedisQueryIterator(Pool<Jedis> pool, List<byte[]> endpoints, RegistrationQuery query) {
+            this.pool = pool;
+            this.endpoints = endpoints;
+            this.query = query;
+        }
+
+        private void fetchNext() {
+            try (Jedis j = pool.getResource()) {
+                while (batch.isEmpty() && nextEndpoint < endpoints.size()) {
+                    int end = Math.min(nextEndpoint + BATCH_SIZE, endpoints.size());
+                    byte[][] keys = new byte[end - nextEndpoint][];
+                    for (int i = nextEndpoint; i < end; i++) {
+                        keys[i - nextEndpoint] = toEndpointKey(endpoints.get(i));
+                    }
+                    nextEndpoint = end;
+
+                    for (byte[] value : j.mget(keys)) {
+                        // registration could have been removed in the meantime
+                        if (value != null) {
+                            Registration registration = deserializeReg(value);
+                            if (query.matches(registration)) {
+                                batch.add(registration);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!batch.isEmpty()) {
+                return true;
+            }
+            if (nextEndpoint >= endpoints.size()) {
+                return false;
+            }
+            fetchNext();
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public Registration next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.remove(0);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Iterates over registrations sorted by endpoint, fetching them by batch using a lexicographical range on the
+     * sorted endpoints set.
+     */
+    protected class RedisSortedIterator implements Iterator<Registration> {
+
+        private static final int BATCH_SIZE = 100;
+
+        private final Pool<Jedis> pool;
+        private byte[] min;
+        private boolean done = false;
+        private final List<Registration> batch = new ArrayList<>();
+
+        public RedisSortedIterator(Pool<Jedis> pool, String fromEndpoint) {
+            this.pool = pool;
+            this.min = fromEndpoint == null ? "-".getBytes(UTF_8) : ("[" + fromEndpoint).getBytes(UTF_8);
+        }
+
+        private void fetchNext() {
+            try (Jedis j = pool.getResource()) {
+                while (batch.isEmpty() && !done) {
+                    List<byte[]> endpoints = j.zrangeByLex(endpointsSortedKey, min, "+".getBytes(UTF_8), 0, BATCH_SIZE);
+                    if (endpoints.size() < BATCH_SIZE) {
+                        done = true;
+                    }
+                    if (endpoints.isEmpty()) {
+                        return;
+                    }
+                    byte[] last = endpoints.get(endpoints.size() - 1);
+                    min = new byte[last.length + 1];
+                    min[0] = '(';
+                    System.arraycopy(last, 0, min, 1, last.length);
+
+                    byte[][] keys = new byte[endpoints.size()][];
+                    for (int i = 0; i < keys.length; i++) {
+                        keys[i] = toEndpointKey(endpoints.get(i));
+                    }
+                    for (byte[] data : j.mget(keys)) {
+                        // registration could be removed since
+                        if (data != null) {
+                            batch.add(deserializeReg(data));
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (batch.isEmpty()) {
+                fetchNext();
+            }
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public Registration next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.remove(0);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     protected class RedisIterator implements Iterator<Registration> {
 
         private final Pool<Jedis> pool;
@@ -400,6 +706,7 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                     removeAddrIndex(j, r);
                     removeIdentityIndex(j, r);
                     removeExpiration(j, r);
+                    updateQueryIndexes(j, r, null);
                     return new Deregistration(r, obsRemoved);
                 }
             }
@@ -436,6 +743,44 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         }
     }
 
+    /**
+     * Update query indexes of a registration. <code>null</code> previous registration means registration is added,
+     * <code>null</code> new registration means registration is removed.
+     */
+    private void updateQueryIndexes(Jedis j, Registration previous, Registration registration) {
+        Set<String> previousTerms = previous == null ? Collections.<String> emptySet()
+                : RegistrationQuery.getIndexTerms(previous);
+        Set<String> terms = registration == null ? Collections.<String> emptySet()
+                : RegistrationQuery.getIndexTerms(registration);
+
+        Pipeline pipeline = j.pipelined();
+        if (previous != null) {
+            byte[] ep = previous.getEndpoint().getBytes(UTF_8);
+            for (String term : previousTerms) {
+                if (registration == null || !terms.contains(term)
+                        || !previous.getEndpoint().equals(registration.getEndpoint())) {
+                    pipeline.srem(toKey(endpointsByIndexTermPrefix, term), ep);
+                }
+            }
+            if (registration == null) {
+                pipeline.zrem(endpointByLastUpdateKey, ep);
+                pipeline.zrem(endpointsSortedKey, ep);
+            }
+        }
+        if (registration != null) {
+            byte[] ep = registration.getEndpoint().getBytes(UTF_8);
+            for (String term : terms) {
+                if (previous == null || !previousTerms.contains(term)
+                        || !previous.getEndpoint().equals(registration.getEndpoint())) {
+                    pipeline.sadd(toKey(endpointsByIndexTermPrefix, term), ep);
+                }
+            }
+            pipeline.zadd(endpointByLastUpdateKey, registration.getLastUpdate().getTime(), ep);
+            pipeline.zadd(endpointsSortedKey, 0, ep);
+        }
+        pipeline.sync();
+    }
+
     private void addOrUpdateExpiration(Jedis j, Registration registration) {
         j.zadd(endpointExpirationKey, registration.getExpirationTimeStamp(gracePeriod),
                 registration.getEndpoint().getBytes(UTF_8));
@@ -493,6 +838,14 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
             try {
                 lockValue = lock.acquire(j, lockKey);
 
+                // observations stored before path index existed are not indexed, if so index them now and cancel
+                // those for the same path, as they would be missed by the path index lookup below.
+                byte[] pathIndexKey = toKey(observationTokenByPathPrefix, registrationId);
+                byte[] pathKey = toPathKey(observation);
+                if (!j.hexists(pathIndexKey, PATH_INDEX_MIGRATED)) {
+                    removed.addAll(unsafeMigratePathIndex(j, registrationId, observation.getId(), pathKey));
+                }
+
                 // Add and Get previous observation
                 byte[] previousValue;
                 byte[] key = toKey(observationTokenPrefix, observation.getId().getBytes());
@@ -516,11 +869,14 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                     LOG.warn("Token collision ? observation [{}] will be replaced by observation [{}] ",
                             previousObservation, observation);
                 }
-                // cancel existing observations for the same path and registration id.
-                for (Observation obs : unsafeGetObservations(j, registrationId)) {
-                    if (areTheSamePaths(observation, obs) && !observation.getId().equals(obs.getId())) {
+                // cancel existing observation for the same path and registration id.
+                byte[] previousToken = j.hget(pathIndexKey, pathKey);
+                j.hset(pathIndexKey, pathKey, observation.getId().getBytes());
+                if (previousToken != null && !Arrays.equals(previousToken, observation.getId().getBytes())) {
+                    Observation obs = unsafeGetObservation(j, new ObservationIdentifier(previousToken));
+                    if (obs != null) {
                         removed.add(obs);
-                        unsafeRemoveObservation(j, registrationId, obs.getId());
+                        unsafeRemoveObservation(j, registrationId, obs);
                     }
                 }
 
@@ -531,16 +887,6 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         return removed;
     }
 
-    private boolean areTheSamePaths(Observation observation, Observation obs) {
-        if (observation instanceof SingleObservation && obs instanceof SingleObservation) {
-            return ((SingleObservation) observation).getPath().equals(((SingleObservation) obs).getPath());
-        }
-        if (observation instanceof CompositeObservation && obs instanceof CompositeObservation) {
-            return ((CompositeObservation) observation).getPaths().equals(((CompositeObservation) obs).getPaths());
-        }
-        return false;
-    }
-
     @Override
     public Observation removeObservation(String registrationId, ObservationIdentifier observationId) {
         try (Jedis j = pool.getResource()) {
@@ -560,7 +906,7 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                 Observation observation = unsafeGetObservation(j, observationId);
                 if (observation != null
                         && (registrationId == null || registrationId.equals(observation.getRegistrationId()))) {
-                    unsafeRemoveObservation(j, registrationId, observationId);
+                    unsafeRemoveObservation(j, observation.getRegistrationId(), observation);
                     return observation;
                 }
                 return null;
@@ -589,6 +935,28 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         }
     }
 
+    @Override
+    public SingleObservation getObservation(String registrationId, LwM2mPath path) {
+        try (Jedis j = pool.getResource()) {
+            Observation observation = unsafeGetObservation(j, registrationId, path.toString().getBytes(UTF_8));
+            if (observation instanceof SingleObservation) {
+                return (SingleObservation) observation;
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public CompositeObservation getCompositeObservation(String registrationId, List<LwM2mPath> paths) {
+        try (Jedis j = pool.getResource()) {
+            Observation observation = unsafeGetObservation(j, registrationId, toPathKey(paths));
+            if (observation instanceof CompositeObservation) {
+                return (CompositeObservation) observation;
+            }
+            return null;
+        }
+    }
+
     @Override
     public Collection<Observation> getObservations(String registrationId) {
         try (Jedis j = pool.getResource()) {
@@ -653,10 +1021,97 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         }
     }
 
-    private void unsafeRemoveObservation(Jedis j, String registrationId, ObservationIdentifier observationId) {
-        if (j.del(toKey(observationTokenPrefix, observationId.getBytes())) > 0L) {
-            j.lrem(toKey(observationTokensByRegistrationIdPrefix, registrationId), 0, observationId.getBytes());
+    private Observation unsafeGetObservation(Jedis j, String registrationId, byte[] pathKey) {
+        byte[] pathIndexKey = toKey(observationTokenByPathPrefix, registrationId);
+        byte[] token = j.hget(pathIndexKey, pathKey);
+        if (token == null) {
+            // observations stored before path index existed are not indexed until next addObservation for this
+            // registration, meanwhile search them without modifying the index as we don't hold the endpoint lock.
+            if (!j.hexists(pathIndexKey, PATH_INDEX_MIGRATED)) {
+                return unsafeFindObservation(j, registrationId, pathKey);
+            }
+            return null;
         }
+        Observation observation = unsafeGetObservation(j, new ObservationIdentifier(token));
+        // index could be outdated in case of token collision
+        if (observation != null && registrationId.equals(observation.getRegistrationId())
+                && Arrays.equals(pathKey, toPathKey(observation))) {
+            return observation;
+        }
+        return null;
+    }
+
+    /**
+     * Search an observation of the given registration by path key, using the token list instead of the path index.
+     */
+    private Observation unsafeFindObservation(Jedis j, String registrationId, byte[] pathKey) {
+        for (Observation observation : unsafeGetObservations(j, registrationId)) {
+            if (Arrays.equals(pathKey, toPathKey(observation))) {
+                return observation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add all observations of the given registration to the path index, remove those for the given path key and prune
+     * tokens which does not match any observation anymore. Must be called under endpoint lock.
+     *
+     * @return removed observations
+     */
+    private Collection<Observation> unsafeMigratePathIndex(Jedis j, String registrationId,
+            ObservationIdentifier newObservationId, byte[] pathKey) {
+        Collection<Observation> removed = new ArrayList<>();
+        byte[] pathIndexKey = toKey(observationTokenByPathPrefix, registrationId);
+        byte[] tokensKey = toKey(observationTokensByRegistrationIdPrefix, registrationId);
+        for (byte[] token : j.lrange(tokensKey, 0, -1)) {
+            byte[] data = j.get(toKey(observationTokenPrefix, token));
+            if (data == null) {
+                j.lrem(tokensKey, 0, token);
+                continue;
+            }
+            Observation observation = deserializeObs(data);
+            byte[] observationPathKey = toPathKey(observation);
+            if (Arrays.equals(pathKey, observationPathKey) && !observation.getId().equals(newObservationId)) {
+                removed.add(observation);
+                unsafeRemoveObservation(j, registrationId, observation);
+            } else {
+                j.hsetnx(pathIndexKey, observationPathKey, token);
+            }
+        }
+        j.hset(pathIndexKey, PATH_INDEX_MIGRATED, new byte[0]);
+        return removed;
+    }
+
+    private void unsafeRemoveObservation(Jedis j, String registrationId, Observation observation) {
+        byte[] token = observation.getId().getBytes();
+        if (j.del(toKey(observationTokenPrefix, token)) > 0L) {
+            j.lrem(toKey(observationTokensByRegistrationIdPrefix, registrationId), 0, token);
+
+            // remove path index only if it was not already replaced by a new observation
+            byte[] pathIndexKey = toKey(observationTokenByPathPrefix, registrationId);
+            byte[] pathKey = toPathKey(observation);
+            if (Arrays.equals(token, j.hget(pathIndexKey, pathKey))) {
+                j.hdel(pathIndexKey, pathKey);
+            }
+        }
+    }
+
+    private byte[] toPathKey(Observation observation) {
+        if (observation instanceof SingleObservation) {
+            return ((SingleObservation) observation).getPath().toString().getBytes(UTF_8);
+        } else {
+            return toPathKey(((CompositeObservation) observation).getPaths());
+        }
+    }
+
+    private byte[] toPathKey(List<LwM2mPath> paths) {
+        // composite key is prefixed to never collide with a single path
+        StringBuilder b = new StringBuilder("C");
+        for (LwM2mPath path : paths) {
+            b.append(path.toString()).append(',');
+        }
+        return b.toString().getBytes(UTF_8);
     }
 
     private Collection<Observation> unsafeRemoveAllObservations(Jedis j, String registrationId) {
@@ -672,6 +1127,7 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
             j.del(toKey(observationTokenPrefix, token));
         }
         j.del(regIdKey);
+        j.del(toKey(observationTokenByPathPrefix, registrationId));
 
         return removed;
     }
@@ -688,15 +1144,40 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
 
     /**
      * Start regular cleanup of dead registrations.
+     * <p>
+     * If enabled with {@link Builder#setRebuildQueryIndexesOnStart(boolean)}, query indexes are rebuilt on start, only
+     * if it was not already done for this store, see {@link #rebuildQueryIndexes()}.
      */
     @Override
     public synchronized void start() {
         if (!started) {
+            if (rebuildQueryIndexesOnStart) {
+                migrateQueryIndexes();
+            }
             started = true;
             cleanerTask = schedExecutor.scheduleAtFixedRate(new Cleaner(), cleanPeriod, cleanPeriod, TimeUnit.SECONDS);
         }
     }
 
+    /**
+     * Rebuild query indexes if no server did it before for this store.
+     */
+    private void migrateQueryIndexes() {
+        try (Jedis j = pool.getResource()) {
+            if (j.setnx(queryIndexesMigratedKey, String.valueOf(System.currentTimeMillis()).getBytes(UTF_8)) == 0) {
+                LOG.debug("Query indexes already rebuilt for this store");
+                return;
+            }
+            try {
+                rebuildQueryIndexes();
+            } catch (RuntimeException e) {
+                // allow next start to try again
+                j.del(queryIndexesMigratedKey);
+                throw e;
+            }
+        }
+    }
+
     /**
      * Stop the underlying cleanup of the registrations.
      */
@@ -771,13 +1252,18 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
         private String endpointLockPrefix;
         private String observationTokenPrefix;
         private String observationTokensByRegistrationIdPrefix;
+        private String observationTokenByPathPrefix;
         private String endpointExpirationKey;
+        private String endpointsByIndexTermPrefix;
+        private String endpointByLastUpdateKey;
+        private String endpointsSortedKey;
 
         /** Time in seconds between 2 cleaning tasks (used to remove expired registration) */
         private long cleanPeriod;
         private int cleanLimit;
         /** extra time for registration lifetime in seconds */
         private long gracePeriod;
+        private boolean rebuildQueryIndexesOnStart;
 
         private ScheduledExecutorService schedExecutor;
         private JedisLock lock;
@@ -871,6 +1357,17 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
             return this;
         }
 
+        /**
+         * Set the key prefix for observation token lookup by registration ID and observed path(s). It is a hash (path,
+         * token).
+         * <p>
+         * Default value is {@literal TKN#PATH#REGID#}. Should not be {@code null} or empty.
+         */
+        public Builder setObservationTokenByPathPrefix(String observationTokenByPathPrefix) {
+            this.observationTokenByPathPrefix = observationTokenByPathPrefix;
+            return this;
+        }
+
         /**
          * Set the key for expiration key lookup. It is a sorted set used for registration expiration (expiration date,
          * endpoint).
@@ -882,6 +1379,38 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
             return this;
         }
 
+        /**
+         * Set the key prefix for endpoints lookup by query index term (see {@link RegistrationQuery#getIndexTerms()}).
+         * <p>
+         * Default value is {@literal EPS#TERM#}. Should not be {@code null} or empty.
+         */
+        public Builder setEndpointsByIndexTermPrefix(String endpointsByIndexTermPrefix) {
+            this.endpointsByIndexTermPrefix = endpointsByIndexTermPrefix;
+            return this;
+        }
+
+        /**
+         * Set the key for last update lookup. It is a sorted set used to query registrations by last update (last
+         * update date, endpoint).
+         * <p>
+         * Default value is {@literal LASTUPD#EP}. Should not be {@code null} or empty.
+         */
+        public Builder setEndpointByLastUpdateKey(String endpointByLastUpdateKey) {
+            this.endpointByLastUpdateKey = endpointByLastUpdateKey;
+            return this;
+        }
+
+        /**
+         * Set the key for sorted endpoints. It is a sorted set of all endpoints with the same score, used to iterate
+         * over registrations sorted by endpoint.
+         * <p>
+         * Default value is {@literal EP#SORTED}. Should not be {@code null} or empty.
+         */
+        public Builder setEndpointsSortedKey(String endpointsSortedKey) {
+            this.endpointsSortedKey = endpointsSortedKey;
+            return this;
+        }
+
         /**
          * Set time between 2 periodic task about cleaning expired registration.
          * <p>
@@ -912,6 +1441,19 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
             return this;
         }
 
+        /**
+         * Set if query indexes should be rebuilt when store is started, so registrations stored before indexes existed
+         * can be found by {@link RedisRegistrationStore#findRegistrations(RegistrationQuery)}. This is a one-time
+         * migration : it scans all registrations, so it is only done by the first server started with this option, a
+         * marker key ({@code endpointByLastUpdateKey#MIGRATED}) prevents next starts to run it again.
+         * <p>
+         * Default value is {@code false}.
+         */
+        public Builder setRebuildQueryIndexesOnStart(boolean rebuildQueryIndexesOnStart) {
+            this.rebuildQueryIndexesOnStart = rebuildQueryIndexesOnStart;
+            return this;
+        }
+
         /**
          * Set {@link ScheduledExecutorService} used to launch period task about cleaning expired registration.
          */
@@ -957,10 +1499,15 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
             this.endpointLockPrefix = "LOCK#EP#";
             this.observationTokenPrefix = "OBS#TKN#";
             this.observationTokensByRegistrationIdPrefix = "TKNS#REGID#";
+            this.observationTokenByPathPrefix = "TKN#PATH#REGID#";
             this.endpointExpirationKey = "EXP#EP";
+            this.endpointsByIndexTermPrefix = "EPS#TERM#";
+            this.endpointByLastUpdateKey = "LASTUPD#EP";
+            this.endpointsSortedKey = "EP#SORTED";
             this.cleanPeriod = 60;
             this.cleanLimit = 500;
             this.gracePeriod = 0;
+            this.rebuildQueryIndexesOnStart = false;
         }
 
         protected Builder generateDefaultValue() {
@@ -1019,15 +1566,32 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                 throw new IllegalArgumentException("observationTokensByRegistrationIdPrefix should not be empty");
             }
 
+            if (this.observationTokenByPathPrefix == null || this.observationTokenByPathPrefix.isEmpty()) {
+                throw new IllegalArgumentException("observationTokenByPathPrefix should not be empty");
+            }
+
             if (this.endpointExpirationKey == null || this.endpointExpirationKey.isEmpty()) {
                 throw new IllegalArgumentException("endpointExpirationKey should not be empty");
             }
 
+            if (this.endpointsByIndexTermPrefix == null || this.endpointsByIndexTermPrefix.isEmpty()) {
+                throw new IllegalArgumentException("endpointsByIndexTermPrefix should not be empty");
+            }
+
+            if (this.endpointByLastUpdateKey == null || this.endpointByLastUpdateKey.isEmpty()) {
+                throw new IllegalArgumentException("endpointByLastUpdateKey should not be empty");
+            }
+
+            if (this.endpointsSortedKey == null || this.endpointsSortedKey.isEmpty()) {
+                throw new IllegalArgumentException("endpointsSortedKey should not be empty");
+            }
+
             // Make sure same prefix is not used more than once
             String[] prefixes = new String[] { this.registrationByEndpointPrefix, this.endpointByRegistrationIdPrefix,
                     this.endpointBySocketAddressPrefix, this.endpointByIdentityPrefix, this.endpointLockPrefix,
                     this.observationTokenPrefix, this.observationTokensByRegistrationIdPrefix,
-                    this.endpointExpirationKey };
+                    this.observationTokenByPathPrefix, this.endpointExpirationKey, this.endpointsByIndexTermPrefix,
+                    this.endpointByLastUpdateKey, this.endpointsSortedKey };
             Set<String> uniquePrefixes = new HashSet<>();
 
             for (String prefix : prefixes) {
@@ -1045,7 +1609,11 @@ public class RedisRegistrationStore implements RegistrationStore, Startable, Sto
                 this.observationTokenPrefix = this.prefix + this.observationTokenPrefix;
                 this.observationTokensByRegistrationIdPrefix = this.prefix
                         + this.observationTokensByRegistrationIdPrefix;
+                this.observationTokenByPathPrefix = this.prefix + this.observationTokenByPathPrefix;
                 this.endpointExpirationKey = this.prefix + this.endpointExpirationKey;
+                this.endpointsByIndexTermPrefix = this.prefix + this.endpointsByIndexTermPrefix;
+                this.endpointByLastUpdateKey = this.prefix + this.endpointByLastUpdateKey;
+                this.endpointsSortedKey = this.prefix + this.endpointsSortedKey;
             }
 
             generateDefaultValue();
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.redis.serialization;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import org.eclipse.leshan.core.CertificateUsage;
+import org.eclipse.leshan.core.MatchingType;
+import org.eclipse.leshan.core.SecurityMode;
+import org.eclipse.leshan.core.request.BindingMode;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.util.Hex;
+import org.eclipse.leshan.core.util.datatype.ULong;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ACLConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.CipherSuiteId;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.OscoreObject;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ServerConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ServerSecurity;
+import org.eclipse.leshan.server.bootstrap.SmsSecurityMode;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Functions for serialize and deserialize a {@link BootstrapConfig} in JSON for storage.
+ */
+public class BootstrapConfigSerDes {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static byte[] serialize(BootstrapConfig config) {
+        ObjectNode o = JsonNodeFactory.instance.objectNode();
+        o.put("autoId", config.autoIdForSecurityObject);
+        if (config.contentFormat != null) {
+            o.put("ct", config.contentFormat.getCode());
+        }
+        ArrayNode toDelete = o.putArray("toDelete");
+        for (String path : config.toDelete) {
+            toDelete.add(path);
+        }
+
+        ObjectNode servers = o.putObject("servers");
+        for (Entry<Integer, ServerConfig> e : config.servers.entrySet()) {
+            servers.set(e.getKey().toString(), serializeServer(e.getValue()));
+        }
+        ObjectNode security = o.putObject("security");
+        for (Entry<Integer, ServerSecurity> e : config.security.entrySet()) {
+            security.set(e.getKey().toString(), serializeSecurity(e.getValue()));
+        }
+        ObjectNode acls = o.putObject("acls");
+        for (Entry<Integer, ACLConfig> e : config.acls.entrySet()) {
+            acls.set(e.getKey().toString(), serializeAcl(e.getValue()));
+        }
+        ObjectNode oscore = o.putObject("oscore");
+        for (Entry<Integer, OscoreObject> e : config.oscore.entrySet()) {
+            oscore.set(e.getKey().toString(), serializeOscore(e.getValue()));
+        }
+        return o.toString().getBytes();
+    }
+
+    private static ObjectNode serializeServer(ServerConfig s) {
+        ObjectNode o = JsonNodeFactory.instance.objectNode();
+        o.put("shortId", s.shortId);
+        o.put("lifetime", s.lifetime);
+        putIfNotNull(o, "defaultMinPeriod", s.defaultMinPeriod);
+        putIfNotNull(o, "defaultMaxPeriod", s.defaultMaxPeriod);
+        putIfNotNull(o, "disableTimeout", s.disableTimeout);
+        o.put("notifIfDisabled", s.notifIfDisabled);
+        if (s.binding != null) {
+            ArrayNode binding = o.putArray("binding");
+            for (BindingMode mode : s.binding) {
+                binding.add(mode.name());
+            }
+        }
+        putIfNotNull(o, "apnLink", s.apnLink);
+        putIfNotNull(o, "registrationPriority", s.registrationPriority);
+        putIfNotNull(o, "initialDelay", s.initialDelay);
+        putIfNotNull(o, "registrationFailure", s.registrationFailure);
+        putIfNotNull(o, "bootstrapOnRegistrationFailure", s.bootstrapOnRegistrationFailure);
+        putIfNotNull(o, "communicationRetryCount", s.communicationRetryCount);
+        putIfNotNull(o, "communicationRetryTimer", s.CommunicationRetryTimer);
+        putIfNotNull(o, "sequenceDelayTimer", s.SequenceDelayTimer);
+        putIfNotNull(o, "sequenceRetryCount", s.SequenceRetryCount);
+        putIfNotNull(o, "trigger", s.trigger);
+        if (s.preferredTransport != null) {
+            o.put("preferredTransport", s.preferredTransport.name());
+        }
+        putIfNotNull(o, "muteSend", s.muteSend);
+        return o;
+    }
+
+    private static ObjectNode serializeSecurity(ServerSecurity s) {
+        ObjectNode o = JsonNodeFactory.instance.objectNode();
+        putIfNotNull(o, "uri", s.uri);
+        o.put("bootstrapServer", s.bootstrapServer);
+        if (s.securityMode != null) {
+            o.put("securityMode", s.securityMode.name());
+        }
+        putIfNotNull(o, "publicKeyOrId", s.publicKeyOrId);
+        putIfNotNull(o, "serverPublicKey", s.serverPublicKey);
+        putIfNotNull(o, "secretKey", s.secretKey);
+        if (s.smsSecurityMode != null) {
+            o.put("smsSecurityMode", s.smsSecurityMode.name());
+        }
+        putIfNotNull(o, "smsBindingKeyParam", s.smsBindingKeyParam);
+        putIfNotNull(o, "smsBindingKeySecret", s.smsBindingKeySecret);
+        putIfNotNull(o, "serverSmsNumber", s.serverSmsNumber);
+        putIfNotNull(o, "serverId", s.serverId);
+        putIfNotNull(o, "clientOldOffTime", s.clientOldOffTime);
+        putIfNotNull(o, "bootstrapServerAccountTimeout", s.bootstrapServerAccountTimeout);
+        putIfNotNull(o, "oscoreSecurityMode", s.oscoreSecurityMode);
+        if (s.matchingType != null) {
+            o.put("matchingType", s.matchingType.name());
+        }
+        putIfNotNull(o, "sni", s.sni);
+        if (s.certificateUsage != null) {
+            o.put("certificateUsage", s.certificateUsage.name());
+        }
+        if (s.cipherSuite != null) {
+            ArrayNode cipherSuite = o.putArray("cipherSuite");
+            for (CipherSuiteId id : s.cipherSuite) {
+                cipherSuite.add(id.getValueForSecurityObject().intValue());
+            }
+        }
+        return o;
+    }
+
+    private static ObjectNode serializeAcl(ACLConfig a) {
+        ObjectNode o = JsonNodeFactory.instance.objectNode();
+        o.put("objectId", a.objectId);
+        o.put("objectInstanceId", a.objectInstanceId);
+        if (a.acls != null) {
+            ObjectNode acls = o.putObject("acls");
+            for (Entry<Integer, Long> e : a.acls.entrySet()) {
+                acls.put(e.getKey().toString(), e.getValue());
+            }
+        }
+        putIfNotNull(o, "accessControlOwner", a.AccessControlOwner);
+        return o;
+    }
+
+    private static ObjectNode serializeOscore(OscoreObject s) {
+        ObjectNode o = JsonNodeFactory.instance.objectNode();
+        putIfNotNull(o, "masterSecret", s.oscoreMasterSecret);
+        putIfNotNull(o, "senderId", s.oscoreSenderId);
+        putIfNotNull(o, "recipientId", s.oscoreRecipientId);
+        putIfNotNull(o, "aeadAlgorithm", s.oscoreAeadAlgorithm);
+        putIfNotNull(o, "hmacAlgorithm", s.oscoreHmacAlgorithm);
+        putIfNotNull(o, "masterSalt", s.oscoreMasterSalt);
+        return o;
+    }
+
+    private static void putIfNotNull(ObjectNode o, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            o.put(name, (String) value);
+        } else if (value instanceof Integer) {
+            o.put(name, (Integer) value);
+        } else if (value instanceof Boolean) {
+            o.put(name, (Boolean) value);
+        } else if (value instanceof byte[]) {
+            o.put(name, Hex.encodeHexString((byte[]) value));
+        } else if (value instanceof ULong) {
+            o.put(name, value.toString());
+        } else {
+            throw new IllegalArgumentException("Unsupported type " + value.getClass());
+        }
+    }
+
+    public static BootstrapConfig deserialize(byte[] data) {
+        try {
+            JsonNode o = MAPPER.readTree(new String(data));
+
+            BootstrapConfig config = new BootstrapConfig();
+            config.autoIdForSecurityObject = o.get("autoId").asBoolean();
+            if (o.has("ct")) {
+                config.contentFormat = ContentFormat.fromCode(o.get("ct").asInt());
+            }
+            for (JsonNode path : o.get("toDelete")) {
+                config.toDelete.add(path.asText());
+            }
+
+            for (Iterator<Entry<String, JsonNode>> it = o.get("servers").fields(); it.hasNext();) {
+                Entry<String, JsonNode> e = it.next();
+                config.servers.put(Integer.valueOf(e.getKey()), deserializeServer(e.getValue()));
+            }
+            for (Iterator<Entry<String, JsonNode>> it = o.get("security").fields(); it.hasNext();) {
+                Entry<String, JsonNode> e = it.next();
+                config.security.put(Integer.valueOf(e.getKey()), deserializeSecurity(e.getValue()));
+            }
+            for (Iterator<Entry<String, JsonNode>> it = o.get("acls").fields(); it.hasNext();) {
+                Entry<String, JsonNode> e = it.next();
+                config.acls.put(Integer.valueOf(e.getKey()), deserializeAcl(e.getValue()));
+            }
+            for (Iterator<Entry<String, JsonNode>> it = o.get("oscore").fields(); it.hasNext();) {
+                Entry<String, JsonNode> e = it.next();
+                config.oscore.put(Integer.valueOf(e.getKey()), deserializeOscore(e.getValue()));
+            }
+            return config;
+        } catch (IllegalArgumentException | NullPointerException | JsonProcessingException e) {
+            throw new IllegalStateException("Invalid bootstrap config content", e);
+        }
+    }
+
+    private static ServerConfig deserializeServer(JsonNode o) {
+        ServerConfig s = new ServerConfig();
+        s.shortId = o.get("shortId").asInt();
+        s.lifetime = o.get("lifetime").asInt();
+        s.defaultMinPeriod = getInteger(o, "defaultMinPeriod");
+        s.defaultMaxPeriod = getInteger(o, "defaultMaxPeriod");
+        s.disableTimeout = getInteger(o, "disableTimeout");
+        s.notifIfDisabled = o.get("notifIfDisabled").asBoolean();
+        if (o.has("binding")) {
+            s.binding = EnumSet.noneOf(BindingMode.class);
+            for (JsonNode mode : o.get("binding")) {
+                s.binding.add(BindingMode.valueOf(mode.asText()));
+            }
+        } else {
+            s.binding = null;
+        }
+        s.apnLink = getInteger(o, "apnLink");
+        s.registrationPriority = getULong(o, "registrationPriority");
+        s.initialDelay = getULong(o, "initialDelay");
+        s.registrationFailure = getBoolean(o, "registrationFailure");
+        s.bootstrapOnRegistrationFailure = getBoolean(o, "bootstrapOnRegistrationFailure");
+        s.communicationRetryCount = getULong(o, "communicationRetryCount");
+        s.CommunicationRetryTimer = getULong(o, "communicationRetryTimer");
+        s.SequenceDelayTimer = getULong(o, "sequenceDelayTimer");
+        s.SequenceRetryCount = getULong(o, "sequenceRetryCount");
+        s.trigger = getBoolean(o, "trigger");
+        if (o.has("preferredTransport")) {
+            s.preferredTransport = BindingMode.valueOf(o.get("preferredTransport").asText());
+        }
+        s.muteSend = getBoolean(o, "muteSend");
+        return s;
+    }
+
+    private static ServerSecurity deserializeSecurity(JsonNode o) {
+        ServerSecurity s = new ServerSecurity();
+        s.uri = getString(o, "uri");
+        s.bootstrapServer = o.get("bootstrapServer").asBoolean();
+        if (o.has("securityMode")) {
+            s.securityMode = SecurityMode.valueOf(o.get("securityMode").asText());
+        }
+        s.publicKeyOrId = getBytes(o, "publicKeyOrId");
+        s.serverPublicKey = getBytes(o, "serverPublicKey");
+        s.secretKey = getBytes(o, "secretKey");
+        s.smsSecurityMode = o.has("smsSecurityMode") ? SmsSecurityMode.valueOf(o.get("smsSecurityMode").asText())
+                : null;
+        s.smsBindingKeyParam = getBytes(o, "smsBindingKeyParam");
+        s.smsBindingKeySecret = getBytes(o, "smsBindingKeySecret");
+        s.serverSmsNumber = getString(o, "serverSmsNumber");
+        s.serverId = getInteger(o, "serverId");
+        s.clientOldOffTime = getInteger(o, "clientOldOffTime");
+        s.bootstrapServerAccountTimeout = getInteger(o, "bootstrapServerAccountTimeout");
+        s.oscoreSecurityMode = getInteger(o, "oscoreSecurityMode");
+        if (o.has("matchingType")) {
+            s.matchingType = MatchingType.valueOf(o.get("matchingType").asText());
+        }
+        s.sni = getString(o, "sni");
+        if (o.has("certificateUsage")) {
+            s.certificateUsage = CertificateUsage.valueOf(o.get("certificateUsage").asText());
+        }
+        if (o.has("cipherSuite")) {
+            s.cipherSuite = new ArrayList<>();
+            for (JsonNode id : o.get("cipherSuite")) {
+                s.cipherSuite.add(new CipherSuiteId(ULong.valueOf(id.asInt())));
+            }
+        }
+        return s;
+    }
+
+    private static ACLConfig deserializeAcl(JsonNode o) {
+        ACLConfig a = new ACLConfig();
+        a.objectId = o.get("objectId").asInt();
+        a.objectInstanceId = o.get("objectInstanceId").asInt();
+        if (o.has("acls")) {
+            a.acls = new HashMap<>();
+            for (Iterator<Entry<String, JsonNode>> it = o.get("acls").fields(); it.hasNext();) {
+                Entry<String, JsonNode> e = it.next();
+                a.acls.put(Integer.valueOf(e.getKey()), e.getValue().asLong());
+            }
+        }
+        a.AccessControlOwner = getInteger(o, "accessControlOwner");
+        return a;
+    }
+
+    private static OscoreObject deserializeOscore(JsonNode o) {
+        OscoreObject s = new OscoreObject();
+        s.oscoreMasterSecret = getBytes(o, "masterSecret");
+        s.oscoreSenderId = getBytes(o, "senderId");
+        s.oscoreRecipientId = getBytes(o, "recipientId");
+        s.oscoreAeadAlgorithm = getInteger(o, "aeadAlgorithm");
+        s.oscoreHmacAlgorithm = getInteger(o, "hmacAlgorithm");
+        s.oscoreMasterSalt = getBytes(o, "masterSalt");
+        return s;
+    }
+
+    private static String getString(JsonNode o, String name) {
+        JsonNode value = o.get(name);
+        return value == null ? null : value.asText();
+    }
+
+    private static Integer getInteger(JsonNode o, String name) {
+        JsonNode value = o.get(name);
+        return value == null ? null : value.asInt();
+    }
+
+    private static Boolean getBoolean(JsonNode o, String name) {
+        JsonNode value = o.get(name);
+        return value == null ? null : value.asBoolean();
+    }
+
+    private static ULong getULong(JsonNode o, String name) {
+        JsonNode value = o.get(name);
+        return value == null ? null : ULong.valueOf(value.asText());
+    }
+
+    private static byte[] getBytes(JsonNode o, String name) {
+        JsonNode value = o.get(name);
+        return value == null ? null : Hex.decodeHex(value.asText().toCharArray());
+    }
+}
@@ -91,7 +91,7 @@ public class RegistrationSerDes {
         o.put("epUri", r.getLastEndpointUsed().toString());
 
         ArrayNode links = JsonNodeFactory.instance.arrayNode();
-        for (Link l : r.getObjectLinks()) {
+        for (Link l : r.getObjectLinksView()) {
             ObjectNode ol = JsonNodeFactory.instance.objectNode();
             ol.put("url", l.getUriReference());
             ObjectNode at = JsonNodeFactory.instance.objectNode();
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Sierra Wireless and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ * Contributors:
+ *     Sierra Wireless - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.leshan.server.redis.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.eclipse.leshan.core.SecurityMode;
+import org.eclipse.leshan.core.request.BindingMode;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.core.util.datatype.ULong;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ACLConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.CipherSuiteId;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.OscoreObject;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ServerConfig;
+import org.eclipse.leshan.server.bootstrap.BootstrapConfig.ServerSecurity;
+import org.junit.jupiter.api.Test;
+
+public class BootstrapConfigSerDesTest {
+
+    @Test
+    public void bootstrap_config_ser_des_then_equal() {
+        BootstrapConfig config = new BootstrapConfig();
+        config.contentFormat = ContentFormat.SENML_CBOR;
+        config.toDelete = Arrays.asList("/0", "/1");
+
+        ServerSecurity bsSecurity = new ServerSecurity();
+        bsSecurity.uri = "coaps://localhost:5684";
+        bsSecurity.bootstrapServer = true;
+        bsSecurity.securityMode = SecurityMode.PSK;
+        bsSecurity.publicKeyOrId = "pskIdentity".getBytes();
+        bsSecurity.secretKey = new byte[] { 1, 2, 3 };
+        bsSecurity.cipherSuite = Collections.singletonList(new CipherSuiteId((byte) 0xC0, (byte) 0xA8));
+        config.security.put(0, bsSecurity);
+
+        ServerConfig server = new ServerConfig();
+        server.shortId = 123;
+        server.lifetime = 300;
+        server.binding = EnumSet.of(BindingMode.U, BindingMode.T);
+        server.registrationPriority = ULong.valueOf(2);
+        server.muteSend = true;
+        config.servers.put(1, server);
+
+        ACLConfig acl = new ACLConfig();
+        acl.objectId = 3;
+        acl.objectInstanceId = 0;
+        acl.acls = Collections.singletonMap(123, 7L);
+        acl.AccessControlOwner = 123;
+        config.acls.put(0, acl);
+
+        OscoreObject oscore = new OscoreObject();
+        oscore.oscoreMasterSecret = new byte[] { 4, 5 };
+        oscore.oscoreSenderId = new byte[] { 6 };
+        oscore.oscoreRecipientId = new byte[] { 7 };
+        oscore.oscoreAeadAlgorithm = 10;
+        config.oscore.put(2, oscore);
+
+        BootstrapConfig result = BootstrapConfigSerDes.deserialize(BootstrapConfigSerDes.serialize(config));
+
+        assertEquals(config.toString(), result.toString());
+        assertEquals(config.contentFormat, result.contentFormat);
+        assertEquals(config.toDelete, result.toDelete);
+        assertArrayEquals(bsSecurity.secretKey, result.security.get(0).secretKey);
+        assertEquals(server.binding, result.servers.get(1).binding);
+        assertEquals(server.registrationPriority, result.servers.get(1).registrationPriority);
+        assertArrayEquals(oscore.oscoreMasterSecret, result.oscore.get(2).oscoreMasterSecret);
+    }
+}